@@ -0,0 +1,111 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.beam.common;
+
+import static com.google.common.base.Preconditions.checkState;
+import static google.registry.testing.DatabaseHelper.createTld;
+import static google.registry.testing.DatabaseHelper.newHost;
+import static google.registry.testing.DatabaseHelper.persistResources;
+import static org.joda.time.DateTimeZone.UTC;
+
+import com.google.common.collect.ImmutableList;
+import google.registry.benchmarks.BenchmarkDatabase;
+import google.registry.testing.FakeClock;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.apache.beam.runners.direct.DirectOptions;
+import org.apache.beam.runners.direct.DirectRunner;
+import org.apache.beam.sdk.Pipeline;
+import org.apache.beam.sdk.PipelineResult;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.options.PipelineOptionsFactory;
+import org.apache.beam.sdk.transforms.Count;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link RegistryJpaIO.Read} on the DirectRunner, with and without partitioning.
+ *
+ * <p>Each invocation runs a pipeline that reads the repo IDs of all hosts and counts them. The
+ * DirectRunner executes the sub-queries of a partitioned read on separate threads of the local
+ * process, so the scores show how the read scales with the number of partitions against a single
+ * Postgres instance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RegistryJpaReadBenchmark {
+
+  private static final int HOST_COUNT = 20000;
+  private static final int INSERT_BATCH_SIZE = 1000;
+
+  @Param({"1", "2", "4", "8"})
+  int partitions;
+
+  private final FakeClock clock = new FakeClock(DateTime.now(UTC));
+  private BenchmarkDatabase database;
+
+  @Setup
+  public void setup() throws Exception {
+    database = BenchmarkDatabase.start(clock);
+    createTld("tld");
+    for (int start = 0; start < HOST_COUNT; start += INSERT_BATCH_SIZE) {
+      persistResources(
+          IntStream.range(start, Math.min(start + INSERT_BATCH_SIZE, HOST_COUNT))
+              .mapToObj(i -> newHost(String.format("ns%d.example.tld", i)))
+              .collect(ImmutableList.toImmutableList()));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    database.stop();
+  }
+
+  @Benchmark
+  public void readAllHosts() {
+    DirectOptions options = PipelineOptionsFactory.create().as(DirectOptions.class);
+    options.setRunner(DirectRunner.class);
+    options.setTargetParallelism(partitions);
+    Pipeline pipeline = Pipeline.create(options);
+    pipeline
+        .apply(
+            "Read hosts",
+            RegistryJpaIO.read(
+                    "SELECT repoId FROM Host WHERE "
+                        + RegistryJpaIO.hashPartitionPredicate("repoId"),
+                    String.class,
+                    repoId -> repoId)
+                .withCoder(StringUtf8Coder.of())
+                .withPartitions(partitions))
+        .apply("Count hosts", Count.globally());
+    PipelineResult.State state = pipeline.run().waitUntilFinish();
+    checkState(state == PipelineResult.State.DONE, "Pipeline finished in state %s", state);
+  }
+}
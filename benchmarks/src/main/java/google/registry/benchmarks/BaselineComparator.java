@@ -0,0 +1,97 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.benchmarks;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Prints the change of every benchmark score between a recorded baseline and a new JMH run.
+ *
+ * <p>Both arguments are JMH result files written with {@code -rf json}. Benchmarks are matched by
+ * their fully qualified name plus parameter values; those present in only one of the files are
+ * reported as added or removed.
+ */
+public final class BaselineComparator {
+
+  private BaselineComparator() {}
+
+  public static void main(String[] args) throws IOException {
+    checkArgument(args.length == 2, "Usage: BaselineComparator <baseline.json> <current.json>");
+    ImmutableMap<String, Score> baseline = readScores(Path.of(args[0]));
+    ImmutableMap<String, Score> current = readScores(Path.of(args[1]));
+
+    TreeMap<String, String> report = new TreeMap<>();
+    for (Map.Entry<String, Score> entry : current.entrySet()) {
+      Score before = baseline.get(entry.getKey());
+      Score after = entry.getValue();
+      if (before == null) {
+        report.put(entry.getKey(), String.format("%.3f %s (new)", after.value, after.unit));
+      } else if (!before.unit.equals(after.unit)) {
+        report.put(
+            entry.getKey(),
+            String.format(
+                "%.3f %s -> %.3f %s (units differ)",
+                before.value, before.unit, after.value, after.unit));
+      } else {
+        report.put(
+            entry.getKey(),
+            String.format(
+                "%.3f -> %.3f %s (%+.1f%%)",
+                before.value,
+                after.value,
+                after.unit,
+                (after.value - before.value) * 100 / before.value));
+      }
+    }
+    for (String name : baseline.keySet()) {
+      if (!current.containsKey(name)) {
+        report.put(name, "(removed)");
+      }
+    }
+    report.forEach((name, line) -> System.out.printf("%s: %s%n", name, line));
+  }
+
+  private static ImmutableMap<String, Score> readScores(Path resultFile) throws IOException {
+    ImmutableMap.Builder<String, Score> scores = new ImmutableMap.Builder<>();
+    for (JsonElement element :
+        JsonParser.parseString(Files.readString(resultFile, UTF_8)).getAsJsonArray()) {
+      JsonObject result = element.getAsJsonObject();
+      StringBuilder name = new StringBuilder(result.get("benchmark").getAsString());
+      if (result.has("params")) {
+        new TreeMap<>(result.getAsJsonObject("params").asMap())
+            .forEach(
+                (key, value) -> name.append(':').append(key).append('=').append(value.getAsString()));
+      }
+      JsonObject metric = result.getAsJsonObject("primaryMetric");
+      scores.put(
+          name.toString(),
+          new Score(metric.get("score").getAsDouble(), metric.get("scoreUnit").getAsString()));
+    }
+    return scores.buildOrThrow();
+  }
+
+  private record Score(double value, String unit) {}
+}
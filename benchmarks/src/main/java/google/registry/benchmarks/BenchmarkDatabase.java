@@ -0,0 +1,50 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.benchmarks;
+
+import google.registry.persistence.transaction.JpaTestExtensions;
+import google.registry.persistence.transaction.JpaTestExtensions.JpaIntegrationTestExtension;
+import google.registry.testing.DatabaseHelper;
+import google.registry.testing.FakeClock;
+
+/**
+ * A Postgres database populated with the Nomulus schema, for benchmarks that need persistence.
+ *
+ * <p>This drives the same Testcontainers-backed {@link JpaIntegrationTestExtension} that the core
+ * flow tests use, outside of JUnit. Docker must be available on the benchmark host.
+ */
+public final class BenchmarkDatabase {
+
+  private final JpaIntegrationTestExtension jpa;
+
+  private BenchmarkDatabase(JpaIntegrationTestExtension jpa) {
+    this.jpa = jpa;
+  }
+
+  /** Starts (or resets) the database and installs it as the global transaction manager. */
+  public static BenchmarkDatabase start(FakeClock clock) throws Exception {
+    JpaIntegrationTestExtension jpa =
+        new JpaTestExtensions.Builder().withClock(clock).buildIntegrationTestExtension();
+    // The extension does not use its JUnit context.
+    jpa.beforeEach(null);
+    DatabaseHelper.setClock(clock);
+    return new BenchmarkDatabase(jpa);
+  }
+
+  /** Restores the transaction managers that were installed before {@link #start}. */
+  public void stop() {
+    jpa.afterEach(null);
+  }
+}
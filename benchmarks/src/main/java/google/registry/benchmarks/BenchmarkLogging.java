@@ -0,0 +1,59 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.benchmarks;
+
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Configures JUL logging for a benchmark fork.
+ *
+ * <p>Records at or above the chosen level are formatted, so their full cost is measured, but are
+ * then discarded instead of being written to the console, whose I/O would dominate the results.
+ */
+public final class BenchmarkLogging {
+
+  private BenchmarkLogging() {}
+
+  public static void configure(Level level) {
+    Logger rootLogger = Logger.getLogger("");
+    for (Handler handler : rootLogger.getHandlers()) {
+      rootLogger.removeHandler(handler);
+    }
+    rootLogger.setLevel(level);
+    rootLogger.addHandler(new DiscardingHandler());
+  }
+
+  private static final class DiscardingHandler extends Handler {
+
+    private final SimpleFormatter formatter = new SimpleFormatter();
+
+    @Override
+    public void publish(LogRecord record) {
+      if (isLoggable(record)) {
+        String unused = formatter.format(record);
+      }
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void close() {}
+  }
+}
@@ -0,0 +1,96 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.benchmarks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import java.util.stream.IntStream;
+
+/** Generators for the EPP payloads exercised by the benchmarks. */
+public final class EppSamples {
+
+  private static final String DOMAIN_CHECK_TEMPLATE =
+      """
+      <?xml version="1.0" encoding="UTF-8" standalone="no"?>
+      <epp xmlns="urn:ietf:params:xml:ns:epp-1.0">
+        <command>
+          <check>
+            <domain:check xmlns:domain="urn:ietf:params:xml:ns:domain-1.0">
+      %s      </domain:check>
+          </check>
+          <clTRID>ABC-12345</clTRID>
+        </command>
+      </epp>
+      """;
+
+  private static final String DOMAIN_UPDATE =
+      """
+      <?xml version="1.0" encoding="UTF-8" standalone="no"?>
+      <epp xmlns="urn:ietf:params:xml:ns:epp-1.0">
+        <command>
+          <update>
+            <domain:update xmlns:domain="urn:ietf:params:xml:ns:domain-1.0">
+              <domain:name>example.tld</domain:name>
+              <domain:add>
+                <domain:ns>
+                  <domain:hostObj>ns2.example.foo</domain:hostObj>
+                </domain:ns>
+                <domain:contact type="tech">mak21</domain:contact>
+                <domain:status s="clientHold" lang="en">Payment overdue.</domain:status>
+              </domain:add>
+              <domain:rem>
+                <domain:ns>
+                  <domain:hostObj>ns1.example.foo</domain:hostObj>
+                </domain:ns>
+                <domain:contact type="tech">sh8013</domain:contact>
+                <domain:status s="clientUpdateProhibited"/>
+              </domain:rem>
+              <domain:chg>
+                <domain:registrant>sh8013</domain:registrant>
+                <domain:authInfo>
+                  <domain:pw>2BARfoo</domain:pw>
+                </domain:authInfo>
+              </domain:chg>
+            </domain:update>
+          </update>
+          <clTRID>ABC-12345</clTRID>
+        </command>
+      </epp>
+      """;
+
+  private EppSamples() {}
+
+  /** Returns the names {@code bench-0.<tld>} through {@code bench-<count - 1>.<tld>}. */
+  public static ImmutableList<String> domainNames(String tld, int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> String.format("bench-%d.%s", i, tld))
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  /** Returns a domain:check command for the given names. */
+  public static byte[] domainCheck(ImmutableList<String> domainNames) {
+    StringBuilder names = new StringBuilder();
+    for (String name : domainNames) {
+      names.append("        <domain:name>").append(name).append("</domain:name>\n");
+    }
+    return String.format(DOMAIN_CHECK_TEMPLATE, names).getBytes(UTF_8);
+  }
+
+  /** Returns a domain:update command that carries a password to be masked in logs. */
+  public static byte[] domainUpdate() {
+    return DOMAIN_UPDATE.getBytes(UTF_8);
+  }
+}
@@ -0,0 +1,65 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.flows;
+
+import static google.registry.benchmarks.EppSamples.domainCheck;
+import static google.registry.benchmarks.EppSamples.domainNames;
+import static google.registry.benchmarks.EppSamples.domainUpdate;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for {@link EppXmlSanitizer}, which runs on every EPP command that is logged. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class EppXmlSanitizerBenchmark {
+
+  @Param({"1", "5", "50"})
+  int nameCount;
+
+  private byte[] domainCheckBytes;
+  private byte[] domainUpdateBytes;
+
+  @Setup
+  public void setup() {
+    domainCheckBytes = domainCheck(domainNames("tld", nameCount));
+    domainUpdateBytes = domainUpdate();
+  }
+
+  @Benchmark
+  public String sanitizeDomainCheck() {
+    return EppXmlSanitizer.sanitizeEppXml(domainCheckBytes);
+  }
+
+  /** The update command carries a password, so this also covers the masking path. */
+  @Benchmark
+  public String sanitizeDomainUpdate() {
+    return EppXmlSanitizer.sanitizeEppXml(domainUpdateBytes);
+  }
+}
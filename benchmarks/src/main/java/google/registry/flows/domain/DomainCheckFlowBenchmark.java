@@ -0,0 +1,131 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.flows.domain;
+
+import static com.google.common.base.Preconditions.checkState;
+import static google.registry.benchmarks.EppSamples.domainCheck;
+import static google.registry.benchmarks.EppSamples.domainNames;
+import static google.registry.flows.FlowUtils.marshalWithLenientRetry;
+import static google.registry.testing.DatabaseHelper.createTld;
+import static google.registry.testing.DatabaseHelper.persistActiveDomain;
+import static org.joda.time.DateTimeZone.UTC;
+
+import com.google.common.collect.ImmutableList;
+import google.registry.benchmarks.BenchmarkDatabase;
+import google.registry.benchmarks.BenchmarkLogging;
+import google.registry.flows.DaggerEppTestComponent;
+import google.registry.flows.EppRequestSource;
+import google.registry.flows.EppTestComponent;
+import google.registry.flows.EppTestComponent.FakesAndMocksModule;
+import google.registry.flows.HttpSessionMetadata;
+import google.registry.flows.PasswordOnlyTransportCredentials;
+import google.registry.flows.SessionMetadata;
+import google.registry.flows.TransportCredentials;
+import google.registry.model.eppcommon.ProtocolDefinition;
+import google.registry.model.eppoutput.EppOutput;
+import google.registry.testing.FakeClock;
+import google.registry.testing.FakeHttpSession;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end benchmark of a domain:check command, from request bytes to response bytes.
+ *
+ * <p>Each invocation goes through {@link google.registry.flows.EppController}, so it covers
+ * unmarshalling, command logging, the {@link DomainCheckFlow} transaction against Postgres, and
+ * response marshalling. Half of the checked names are registered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class DomainCheckFlowBenchmark {
+
+  @Param({"1", "5", "50"})
+  int nameCount;
+
+  /** Whether the INFO-level command log is enabled, as it is in production by default. */
+  @Param({"INFO", "WARNING"})
+  String logLevel;
+
+  private final FakeClock clock = new FakeClock(DateTime.now(UTC));
+  private BenchmarkDatabase database;
+  private EppTestComponent component;
+  private SessionMetadata sessionMetadata;
+  private TransportCredentials credentials;
+  private byte[] domainCheckBytes;
+
+  @Setup
+  public void setup() throws Exception {
+    BenchmarkLogging.configure(Level.parse(logLevel));
+    database = BenchmarkDatabase.start(clock);
+    createTld("tld");
+    ImmutableList<String> names = domainNames("tld", nameCount);
+    for (int i = 0; i < names.size(); i += 2) {
+      persistActiveDomain(names.get(i));
+    }
+    domainCheckBytes = domainCheck(names);
+
+    sessionMetadata = new HttpSessionMetadata(new FakeHttpSession());
+    sessionMetadata.setRegistrarId("TheRegistrar");
+    sessionMetadata.setServiceExtensionUris(ProtocolDefinition.getVisibleServiceExtensionUris());
+    credentials = new PasswordOnlyTransportCredentials();
+    component =
+        DaggerEppTestComponent.builder()
+            .fakesAndMocksModule(FakesAndMocksModule.create(clock))
+            .build();
+
+    EppOutput output = runDomainCheck();
+    checkState(output.isSuccess(), "domain:check failed: %s", output.getResponse().getResult());
+  }
+
+  @TearDown
+  public void tearDown() {
+    database.stop();
+  }
+
+  @Benchmark
+  public byte[] checkDomains() {
+    return marshalWithLenientRetry(runDomainCheck());
+  }
+
+  private EppOutput runDomainCheck() {
+    return component
+        .startRequest()
+        .eppController()
+        .handleEppCommand(
+            sessionMetadata,
+            credentials,
+            EppRequestSource.UNIT_TEST,
+            false,
+            false,
+            domainCheckBytes);
+  }
+}
@@ -0,0 +1,125 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.flows.domain;
+
+import static google.registry.testing.DatabaseHelper.createTld;
+import static google.registry.testing.DatabaseHelper.persistPremiumList;
+import static google.registry.testing.DatabaseHelper.persistResource;
+import static org.joda.money.CurrencyUnit.USD;
+
+import com.google.common.collect.ImmutableList;
+import google.registry.benchmarks.BenchmarkDatabase;
+import google.registry.flows.EppException;
+import google.registry.flows.custom.DomainPricingCustomLogic;
+import google.registry.model.tld.Tld;
+import google.registry.testing.FakeClock;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link DomainPricingLogic} against a TLD with a large premium list.
+ *
+ * <p>Lookups rotate through {@link #LABEL_COUNT} standard and premium labels, so after warmup they
+ * measure the cached pricing path that dominates domain:check with the fee extension.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DomainPricingLogicBenchmark {
+
+  private static final int LABEL_COUNT = 1000;
+
+  private final FakeClock clock = new FakeClock(DateTime.parse("2026-01-01T00:00:00Z"));
+  private BenchmarkDatabase database;
+  private DomainPricingLogic domainPricingLogic;
+  private Tld tld;
+  private ImmutableList<String> standardNames;
+  private ImmutableList<String> premiumNames;
+  private int index;
+
+  @Setup
+  public void setup() throws Exception {
+    database = BenchmarkDatabase.start(clock);
+    String[] premiumEntries =
+        IntStream.range(0, LABEL_COUNT)
+            .mapToObj(i -> String.format("premium%d,USD %d", i, 100 + i))
+            .toArray(String[]::new);
+    tld =
+        persistResource(
+            createTld("tld")
+                .asBuilder()
+                .setPremiumList(persistPremiumList("tld", USD, premiumEntries))
+                .build());
+    standardNames =
+        IntStream.range(0, LABEL_COUNT)
+            .mapToObj(i -> String.format("standard%d.tld", i))
+            .collect(ImmutableList.toImmutableList());
+    premiumNames =
+        IntStream.range(0, LABEL_COUNT)
+            .mapToObj(i -> String.format("premium%d.tld", i))
+            .collect(ImmutableList.toImmutableList());
+    domainPricingLogic = new DomainPricingLogic(new DomainPricingCustomLogic(null, null, null));
+  }
+
+  @TearDown
+  public void tearDown() {
+    database.stop();
+  }
+
+  @Benchmark
+  public FeesAndCredits createPriceStandard() throws EppException {
+    return domainPricingLogic.getCreatePrice(
+        tld, nextName(standardNames), clock.nowUtc(), 1, false, false, Optional.empty());
+  }
+
+  @Benchmark
+  public FeesAndCredits createPricePremium() throws EppException {
+    return domainPricingLogic.getCreatePrice(
+        tld, nextName(premiumNames), clock.nowUtc(), 1, false, false, Optional.empty());
+  }
+
+  @Benchmark
+  public FeesAndCredits renewPriceStandard() {
+    return domainPricingLogic.getRenewPrice(
+        tld, nextName(standardNames), clock.nowUtc(), 1, null, Optional.empty());
+  }
+
+  @Benchmark
+  public FeesAndCredits renewPricePremium() {
+    return domainPricingLogic.getRenewPrice(
+        tld, nextName(premiumNames), clock.nowUtc(), 1, null, Optional.empty());
+  }
+
+  private String nextName(ImmutableList<String> names) {
+    index = (index + 1) % LABEL_COUNT;
+    return names.get(index);
+  }
+}
@@ -0,0 +1,96 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.model.eppcommon;
+
+import static google.registry.benchmarks.EppSamples.domainCheck;
+import static google.registry.benchmarks.EppSamples.domainNames;
+import static google.registry.benchmarks.EppSamples.domainUpdate;
+
+import com.google.common.collect.ImmutableList;
+import google.registry.model.eppinput.EppInput;
+import google.registry.model.eppoutput.CheckData.DomainCheck;
+import google.registry.model.eppoutput.CheckData.DomainCheckData;
+import google.registry.model.eppoutput.EppOutput;
+import google.registry.model.eppoutput.EppResponse;
+import google.registry.model.eppoutput.Result;
+import google.registry.xml.ValidationMode;
+import google.registry.xml.XmlException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for unmarshalling EPP commands and marshalling EPP responses. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class EppXmlTransformerBenchmark {
+
+  @Param({"1", "5", "50"})
+  int nameCount;
+
+  private byte[] domainCheckBytes;
+  private byte[] domainUpdateBytes;
+  private EppOutput domainCheckResponse;
+
+  @Setup
+  public void setup() {
+    ImmutableList<String> names = domainNames("tld", nameCount);
+    domainCheckBytes = domainCheck(names);
+    domainUpdateBytes = domainUpdate();
+    domainCheckResponse =
+        EppOutput.create(
+            new EppResponse.Builder()
+                .setResultFromCode(Result.Code.SUCCESS)
+                .setResData(
+                    DomainCheckData.create(
+                        names.stream()
+                            .map(name -> DomainCheck.create(true, name, null))
+                            .collect(ImmutableList.toImmutableList())))
+                .setTrid(Trid.create("ABC-12345", "server-trid"))
+                .build());
+  }
+
+  @Benchmark
+  public EppInput unmarshalDomainCheck() throws XmlException {
+    return EppXmlTransformer.unmarshal(EppInput.class, domainCheckBytes);
+  }
+
+  @Benchmark
+  public EppInput unmarshalDomainUpdate() throws XmlException {
+    return EppXmlTransformer.unmarshal(EppInput.class, domainUpdateBytes);
+  }
+
+  @Benchmark
+  public byte[] marshalDomainCheckResponseStrict() throws XmlException {
+    return EppXmlTransformer.marshal(domainCheckResponse, ValidationMode.STRICT);
+  }
+
+  @Benchmark
+  public byte[] marshalDomainCheckResponseLenient() throws XmlException {
+    return EppXmlTransformer.marshal(domainCheckResponse, ValidationMode.LENIENT);
+  }
+}
@@ -0,0 +1,115 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.proxy.quota;
+
+import com.google.common.collect.ImmutableList;
+import google.registry.proxy.ProxyConfig.Quota;
+import google.registry.proxy.ProxyConfig.Quota.QuotaGroup;
+import google.registry.proxy.quota.TokenStore.TimestampedInteger;
+import google.registry.util.SystemClock;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the {@link TokenStore} implementations, which the proxy calls on every new
+ * connection and again when it closes.
+ *
+ * <p>Eight threads take and return tokens for either a single hot user (all threads contending on
+ * one entry) or users spread over many entries, with the refresh task running as in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@Threads(8)
+public class TokenStoreBenchmark {
+
+  @Param({"LOCKING", "ATOMIC"})
+  TokenStore.Type tokenStoreType;
+
+  @Param({"1", "10000"})
+  int userCount;
+
+  private ScheduledExecutorService refreshExecutor;
+  private TokenStore tokenStore;
+  private ImmutableList<String> userIds;
+
+  /** Per-thread cursor over the user IDs, so that threads do not share a counter. */
+  @State(Scope.Thread)
+  public static class Cursor {
+    int next;
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    QuotaGroup defaultQuota = new QuotaGroup();
+    defaultQuota.userId = ImmutableList.of();
+    defaultQuota.tokenAmount = 100;
+    defaultQuota.refillSeconds = 600;
+    Quota quota = new Quota();
+    quota.refreshSeconds = 3600;
+    quota.tokenStore = tokenStoreType.name();
+    quota.defaultQuota = defaultQuota;
+    quota.customQuota = ImmutableList.of();
+    refreshExecutor = Executors.newSingleThreadScheduledExecutor();
+    tokenStore =
+        TokenStore.create(new QuotaConfig(quota, "benchmark"), refreshExecutor, new SystemClock());
+    tokenStore.scheduleRefresh();
+    ImmutableList.Builder<String> builder = new ImmutableList.Builder<>();
+    for (int i = 0; i < userCount; i++) {
+      builder.add(String.format("10.0.%d.%d", i / 256, i % 256));
+    }
+    userIds = builder.build();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    refreshExecutor.shutdownNow();
+  }
+
+  /** A connection that acquires quota and releases it on close, as EPP sessions do. */
+  @Benchmark
+  public TimestampedInteger takeAndPut(Cursor cursor) {
+    String userId = userIds.get(cursor.next++ % userCount);
+    TimestampedInteger token = tokenStore.take(userId);
+    if (token.value() != 0) {
+      tokenStore.put(userId, token.timestamp());
+    }
+    return token;
+  }
+
+  /** A connection that only acquires quota, as WHOIS queries do. */
+  @Benchmark
+  public TimestampedInteger take(Cursor cursor) {
+    return tokenStore.take(userIds.get(cursor.next++ % userCount));
+  }
+}
@@ -0,0 +1,125 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.rdap;
+
+import static google.registry.testing.DatabaseHelper.createTld;
+import static google.registry.testing.DatabaseHelper.persistResource;
+import static google.registry.testing.DatabaseHelper.persistResources;
+import static google.registry.testing.FullFieldsTestEntityHelper.makeAndPersistHost;
+import static google.registry.testing.FullFieldsTestEntityHelper.makeDomain;
+import static google.registry.testing.FullFieldsTestEntityHelper.makeRegistrar;
+import static google.registry.testing.FullFieldsTestEntityHelper.makeRegistrarPocs;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import google.registry.benchmarks.BenchmarkDatabase;
+import google.registry.model.domain.Domain;
+import google.registry.model.host.Host;
+import google.registry.model.registrar.Registrar;
+import google.registry.rdap.RdapJsonFormatter.OutputDataType;
+import google.registry.rdap.RdapObjectClasses.ReplyPayloadBase;
+import google.registry.rdap.RdapObjectClasses.TopLevelReplyObject;
+import google.registry.testing.FakeClock;
+import java.util.concurrent.TimeUnit;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for rendering RDAP replies with {@link RdapJsonFormatter}.
+ *
+ * <p>Each benchmark builds the reply object, converts it to a JSON tree and serializes the tree,
+ * matching what {@link RdapActionBase} does for a lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class RdapJsonFormatterBenchmark {
+
+  private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+  private final FakeClock clock = new FakeClock(DateTime.parse("2026-01-01T00:00:00Z"));
+  private BenchmarkDatabase database;
+  private RdapJsonFormatter rdapJsonFormatter;
+  private Registrar registrar;
+  private Domain domain;
+  private Host host;
+
+  @Setup
+  public void setup() throws Exception {
+    database = BenchmarkDatabase.start(clock);
+    rdapJsonFormatter = RdapTestHelper.getTestRdapJsonFormatter(clock);
+    rdapJsonFormatter.rdapAuthorization =
+        RdapAuthorization.create(RdapAuthorization.Role.REGISTRAR, "benchregistrar");
+
+    createTld("tld");
+    registrar =
+        persistResource(makeRegistrar("benchregistrar", "Bench Registrar", Registrar.State.ACTIVE));
+    persistResources(makeRegistrarPocs(registrar));
+    host =
+        makeAndPersistHost(
+            "ns1.bench.tld",
+            "1.2.3.4",
+            "bad:f00d:cafe:0:0:0:15:beef",
+            clock.nowUtc().minusYears(1),
+            "benchregistrar");
+    Host otherHost =
+        makeAndPersistHost(
+            "ns2.bench.tld", "5.6.7.8", null, clock.nowUtc().minusYears(1), "benchregistrar");
+    domain = persistResource(makeDomain("bench.tld", null, null, null, host, otherHost, registrar));
+  }
+
+  @TearDown
+  public void tearDown() {
+    database.stop();
+  }
+
+  @Benchmark
+  public String domainFull() {
+    return render(rdapJsonFormatter.createRdapDomain(domain, OutputDataType.FULL));
+  }
+
+  @Benchmark
+  public String domainSummary() {
+    return render(rdapJsonFormatter.createRdapDomain(domain, OutputDataType.SUMMARY));
+  }
+
+  @Benchmark
+  public String nameserverFull() {
+    return render(rdapJsonFormatter.createRdapNameserver(host, OutputDataType.FULL));
+  }
+
+  @Benchmark
+  public String registrarEntityFull() {
+    return render(rdapJsonFormatter.createRdapRegistrarEntity(registrar, OutputDataType.FULL));
+  }
+
+  private String render(ReplyPayloadBase reply) {
+    return GSON.toJson(
+        TopLevelReplyObject.create(reply, rdapJsonFormatter.createTosNotice()).toJson());
+  }
+}
@@ -14,10 +14,13 @@
 
 package google.registry.batch;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.net.MediaType.PLAIN_TEXT_UTF_8;
 import static google.registry.flows.FlowUtils.marshalWithLenientRetry;
+import static google.registry.model.eppcommon.EppXmlTransformer.unmarshal;
 import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+import static google.registry.request.RequestParameters.PARAM_BATCH_SIZE;
 import static google.registry.util.DateTimeUtils.END_OF_TIME;
 import static google.registry.util.ResourceUtils.readResourceUtf8;
 import static jakarta.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
@@ -25,7 +28,9 @@ import static jakarta.servlet.http.HttpServletResponse.SC_NO_CONTENT;
 import static jakarta.servlet.http.HttpServletResponse.SC_OK;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import com.google.common.flogger.FluentLogger;
 import google.registry.config.RegistryConfig.Config;
 import google.registry.flows.EppController;
@@ -34,17 +39,22 @@ import google.registry.flows.PasswordOnlyTransportCredentials;
 import google.registry.flows.StatelessRequestSessionMetadata;
 import google.registry.model.domain.Domain;
 import google.registry.model.eppcommon.ProtocolDefinition;
+import google.registry.model.eppinput.EppInput;
 import google.registry.model.eppoutput.EppOutput;
 import google.registry.persistence.transaction.QueryComposer.Comparator;
 import google.registry.request.Action;
 import google.registry.request.Action.GaeService;
+import google.registry.request.Parameter;
 import google.registry.request.Response;
 import google.registry.request.auth.Auth;
 import google.registry.request.lock.LockHandler;
 import google.registry.util.Clock;
+import google.registry.xml.XmlException;
 import jakarta.inject.Inject;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import org.joda.time.DateTime;
 import org.joda.time.Duration;
@@ -66,6 +76,9 @@ import org.joda.time.Duration;
  * in use by other domains), nor is it possible to take the correct action without exercising some
  * human judgment. Accordingly, such deletes will fail with SEVERE-level log messages every day when
  * this action runs, thus alerting us that human action is needed to correctly process the delete.
+ *
+ * <p>Domains are deleted in batches of up to {@code batchSize} (50 by default) per transaction. If
+ * any delete in a batch fails, the batch is rolled back and its domains are retried one at a time.
  */
 @Action(
     service = GaeService.BACKEND,
@@ -76,13 +89,18 @@ public class DeleteExpiredDomainsAction implements Runnable {
   public static final String PATH = "/_dr/task/deleteExpiredDomains";
   private static final String LOCK_NAME = "Delete expired domains";
 
+  /** The number of domains deleted in each transaction. */
+  private static final int DEFAULT_BATCH_SIZE = 50;
+
   private static final FluentLogger logger = FluentLogger.forEnclosingClass();
   private final EppController eppController;
   private final String registryAdminClientId;
   private final Clock clock;
   private final LockHandler lockHandler;
   private final Response response;
+  private final int batchSize;
   private final String deleteXmlTmpl;
+  private final EppInput deleteEppInputTmpl;
 
   @Inject
   DeleteExpiredDomainsAction(
@@ -90,14 +108,23 @@ public class DeleteExpiredDomainsAction implements Runnable {
       @Config("registryAdminClientId") String registryAdminClientId,
       Clock clock,
       LockHandler lockHandler,
-      Response response) {
+      Response response,
+      @Parameter(PARAM_BATCH_SIZE) Optional<Integer> batchSize) {
     this.eppController = eppController;
     this.registryAdminClientId = registryAdminClientId;
     this.clock = clock;
     this.lockHandler = lockHandler;
     this.response = response;
+    this.batchSize = batchSize.orElse(DEFAULT_BATCH_SIZE);
     this.deleteXmlTmpl =
         readResourceUtf8(DeleteExpiredDomainsAction.class, "delete_expired_domain.xml");
+    // The template is unmarshalled once, and then retargeted at each domain to delete. Its
+    // placeholder is a valid domain:name token as far as the schema is concerned.
+    try {
+      this.deleteEppInputTmpl = unmarshal(EppInput.class, deleteXmlTmpl.getBytes(UTF_8));
+    } catch (XmlException e) {
+      throw new IllegalStateException("Invalid delete_expired_domain.xml template", e);
+    }
   }
 
   @Override
@@ -125,6 +152,7 @@ public class DeleteExpiredDomainsAction implements Runnable {
   }
 
   private void runLocked() {
+    checkArgument(batchSize > 0, "The batch size must be greater than 0");
     DateTime runTime = clock.nowUtc();
     logger.atInfo().log(
         "Deleting non-renewing domains with autorenew end times up through %s.", runTime);
@@ -147,57 +175,109 @@ public class DeleteExpiredDomainsAction implements Runnable {
         domainsToDelete.size(),
         String.join(
             ", ", domainsToDelete.stream().map(Domain::getDomainName).collect(toImmutableList())));
+    Stopwatch stopwatch = Stopwatch.createStarted();
     int successes = 0;
-    for (Domain domain : domainsToDelete) {
-      if (runDomainDeleteFlow(domain)) {
-        successes++;
-      }
+    for (List<Domain> batch : Iterables.partition(domainsToDelete, batchSize)) {
+      successes += deleteBatch(ImmutableList.copyOf(batch));
     }
+    long elapsedMillis = stopwatch.elapsed(TimeUnit.MILLISECONDS);
     int failures = domainsToDelete.size() - successes;
     String msg =
         String.format(
-            "Finished; %d domains were successfully deleted and %d errored out.",
-            successes, failures);
+            "Finished; %d domains were successfully deleted and %d errored out in %d ms "
+                + "(%.1f domains/second).",
+            successes,
+            failures,
+            elapsedMillis,
+            domainsToDelete.size() * 1000.0 / Math.max(elapsedMillis, 1));
     logger.at(failures == 0 ? Level.INFO : Level.SEVERE).log(msg);
     response.setPayload(msg);
   }
 
-  /** Runs the actual domain delete flow and returns whether the deletion was successful. */
-  private boolean runDomainDeleteFlow(Domain domain) {
+  /**
+   * Deletes a batch of domains in a single transaction and returns the number of domains that were
+   * successfully deleted.
+   *
+   * <p>If any delete flow in the batch fails, the whole transaction is rolled back and the domains
+   * of the batch are retried in one transaction each, so that a single domain that can't be deleted
+   * (e.g. because it has subordinate hosts) doesn't hold back the rest of its batch.
+   */
+  private int deleteBatch(ImmutableList<Domain> batch) {
+    if (batch.size() > 1) {
+      try {
+        ImmutableList<Optional<EppOutput>> eppOutputs =
+            tm().transact(
+                    () -> {
+                      ImmutableList.Builder<Optional<EppOutput>> outputs =
+                          new ImmutableList.Builder<>();
+                      for (Domain domain : batch) {
+                        Optional<EppOutput> eppOutput = runDomainDeleteFlow(domain);
+                        if (eppOutput.isPresent() && !eppOutput.get().isSuccess()) {
+                          throw new BatchRollbackException(domain.getDomainName());
+                        }
+                        outputs.add(eppOutput);
+                      }
+                      return outputs.build();
+                    });
+        int successes = 0;
+        for (int i = 0; i < batch.size(); i++) {
+          if (logResult(batch.get(i), eppOutputs.get(i))) {
+            successes++;
+          }
+        }
+        return successes;
+      } catch (BatchRollbackException e) {
+        logger.atWarning().log(
+            "Failed to delete domain %s; retrying the other %d domains in its batch one at a time.",
+            e.getMessage(), batch.size() - 1);
+      }
+    }
+    int successes = 0;
+    for (Domain domain : batch) {
+      if (logResult(domain, tm().transact(() -> runDomainDeleteFlow(domain)))) {
+        successes++;
+      }
+    }
+    return successes;
+  }
+
+  /**
+   * Runs the actual domain delete flow within the current transaction and returns its output, or
+   * absent if the domain should no longer be deleted.
+   */
+  private Optional<EppOutput> runDomainDeleteFlow(Domain domain) {
     logger.atInfo().log("Attempting to delete domain '%s'.", domain.getDomainName());
-    // Create a new transaction that the flow's execution will be enlisted in that loads the domain
+    // The flow's execution is enlisted in the caller's transaction, which loads the domain
     // transactionally. This way we can ensure that nothing else has modified the domain in question
     // in the intervening period since the query above found it.
-    Optional<EppOutput> eppOutput =
-        tm().transact(
-                () -> {
-                  Domain transDomain = tm().loadByKey(domain.createVKey());
-                  if (domain.getAutorenewEndTime().isEmpty()
-                      || domain.getAutorenewEndTime().get().isAfter(tm().getTransactionTime())) {
-                    logger.atSevere().log(
-                        "Failed to delete domain %s because of its autorenew end time: %s.",
-                        transDomain.getDomainName(), transDomain.getAutorenewEndTime());
-                    return Optional.empty();
-                  } else if (domain.getDeletionTime().isBefore(END_OF_TIME)) {
-                    logger.atSevere().log(
-                        "Failed to delete domain %s because it was already deleted on %s.",
-                        transDomain.getDomainName(), transDomain.getDeletionTime());
-                    return Optional.empty();
-                  }
-                  return Optional.of(
-                      eppController.handleEppCommand(
-                          new StatelessRequestSessionMetadata(
-                              registryAdminClientId,
-                              ProtocolDefinition.getVisibleServiceExtensionUris()),
-                          new PasswordOnlyTransportCredentials(),
-                          EppRequestSource.BACKEND,
-                          false,
-                          true,
-                          deleteXmlTmpl
-                              .replace("%DOMAIN%", transDomain.getDomainName())
-                              .getBytes(UTF_8)));
-                });
+    Domain transDomain = tm().loadByKey(domain.createVKey());
+    if (domain.getAutorenewEndTime().isEmpty()
+        || domain.getAutorenewEndTime().get().isAfter(tm().getTransactionTime())) {
+      logger.atSevere().log(
+          "Failed to delete domain %s because of its autorenew end time: %s.",
+          transDomain.getDomainName(), transDomain.getAutorenewEndTime());
+      return Optional.empty();
+    } else if (domain.getDeletionTime().isBefore(END_OF_TIME)) {
+      logger.atSevere().log(
+          "Failed to delete domain %s because it was already deleted on %s.",
+          transDomain.getDomainName(), transDomain.getDeletionTime());
+      return Optional.empty();
+    }
+    // The rendered XML is only needed for the command log and the history entry.
+    return Optional.of(
+        eppController.handleEppInput(
+            new StatelessRequestSessionMetadata(
+                registryAdminClientId, ProtocolDefinition.getVisibleServiceExtensionUris()),
+            new PasswordOnlyTransportCredentials(),
+            EppRequestSource.BACKEND,
+            false,
+            true,
+            deleteXmlTmpl.replace("%DOMAIN%", transDomain.getDomainName()).getBytes(UTF_8),
+            deleteEppInputTmpl.withTargetId(transDomain.getDomainName())));
+  }
 
+  /** Logs the outcome of a committed domain delete and returns whether it was successful. */
+  private static boolean logResult(Domain domain, Optional<EppOutput> eppOutput) {
     if (eppOutput.isPresent()) {
       if (eppOutput.get().isSuccess()) {
         logger.atInfo().log("Successfully deleted domain '%s'.", domain.getDomainName());
@@ -209,4 +289,11 @@ public class DeleteExpiredDomainsAction implements Runnable {
     }
     return eppOutput.map(EppOutput::isSuccess).orElse(false);
   }
+
+  /** Thrown to roll back a batch in which one of the delete flows failed. */
+  private static class BatchRollbackException extends RuntimeException {
+    BatchRollbackException(String domainName) {
+      super(domainName);
+    }
+  }
 }
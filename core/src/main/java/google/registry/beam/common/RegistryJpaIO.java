@@ -14,18 +14,22 @@
 
 package google.registry.beam.common;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
 import static org.apache.beam.sdk.values.TypeDescriptors.integers;
 
 import com.google.auto.value.AutoValue;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Streams;
 import google.registry.beam.common.RegistryQuery.CriteriaQuerySupplier;
+import google.registry.beam.common.RegistryQuery.PartitionedQuerySupplier;
 import google.registry.persistence.transaction.JpaTransactionManager;
 import google.registry.persistence.transaction.TransactionManagerFactory;
 import jakarta.persistence.criteria.CriteriaQuery;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.IntStream;
 import javax.annotation.Nullable;
 import org.apache.beam.sdk.coders.Coder;
 import org.apache.beam.sdk.metrics.Counter;
@@ -54,8 +58,32 @@ import org.apache.beam.sdk.values.PCollection;
  */
 public final class RegistryJpaIO {
 
+  /** Name of the query parameter bound to the index of the partition being read. */
+  public static final String PARTITION_INDEX_PARAM = "partitionIndex";
+
+  /** Name of the query parameter bound to the total number of partitions being read. */
+  public static final String PARTITION_COUNT_PARAM = "partitionCount";
+
   private RegistryJpaIO() {}
 
+  /**
+   * Returns a query predicate that selects the rows in one hash partition of {@code column}.
+   *
+   * <p>String queries that include this predicate may be split into {@code partitions} sub-queries
+   * with {@link Read#withPartitions}, which must be given the same number. For a single partition
+   * the predicate is always true, so that the query doesn't hash every row for nothing. The
+   * predicate is valid in both JPQL and native queries, provided that the column is named
+   * accordingly (e.g., {@code d.repoId} or {@code d.repo_id}).
+   */
+  public static String hashPartitionPredicate(String column, int partitions) {
+    checkArgument(partitions > 0, "Number of partitions must be positive: %s", partitions);
+    if (partitions == 1) {
+      return "1 = 1";
+    }
+    return String.format(
+        "ABS(MOD(hashtext(%s), :%s)) = :%s", column, PARTITION_COUNT_PARAM, PARTITION_INDEX_PARAM);
+  }
+
   public static <R> Read<R, R> read(CriteriaQuerySupplier<R> query) {
     return read(query, x -> x);
   }
@@ -118,6 +146,11 @@ public final class RegistryJpaIO {
    * A {@link PTransform transform} that transactionally executes a JPA {@link CriteriaQuery} and
    * adds the results to the BEAM pipeline. Users have the option to transform the results before
    * sending them to the next stages.
+   *
+   * <p>By default the query is executed in a single transaction on one worker. String queries that
+   * contain a {@link #hashPartitionPredicate partition predicate} may instead be split into several
+   * sub-queries with {@link #withPartitions}, each of which is executed in its own transaction and
+   * possibly on a different worker.
    */
   @AutoValue
   public abstract static class Read<R, T> extends PTransform<PBegin, PCollection<T>> {
@@ -129,6 +162,13 @@ public final class RegistryJpaIO {
 
     abstract RegistryQuery<R> query();
 
+    /** Creates the sub-queries of a partitioned read, or null if the query cannot be split. */
+    @Nullable
+    abstract PartitionedQuerySupplier<R> partitionedQuery();
+
+    /** Number of sub-queries that the query is split into. */
+    abstract int partitions();
+
     abstract SerializableFunction<R, T> resultMapper();
 
     @Nullable
@@ -139,11 +179,29 @@ public final class RegistryJpaIO {
     @Override
     @SuppressWarnings("deprecation") // Reshuffle still recommended by GCP.
     public PCollection<T> expand(PBegin input) {
-      PCollection<T> output =
-          input
-              .apply("Starting " + name(), Create.of((Void) null))
-              .apply(
-                  "Run query for " + name(), ParDo.of(new QueryRunner<>(query(), resultMapper())));
+      PCollection<T> output;
+      if (partitions() == 1) {
+        output =
+            input
+                .apply("Starting " + name(), Create.of((Void) null))
+                .apply(
+                    "Run query for " + name(),
+                    ParDo.of(new QueryRunner<>(query(), resultMapper())));
+      } else {
+        // The partition indices are reshuffled so that the runner may distribute the sub-queries
+        // to different workers, instead of executing them all in the bundle that created them.
+        ImmutableList<Integer> partitionIndices =
+            IntStream.range(0, partitions()).boxed().collect(ImmutableList.toImmutableList());
+        output =
+            input
+                .apply("Starting " + name(), Create.of(partitionIndices))
+                .apply("Distribute partitions of " + name(), Reshuffle.viaRandomKey())
+                .apply(
+                    "Run partitioned query for " + name(),
+                    ParDo.of(
+                        new PartitionedQueryRunner<>(
+                            partitionedQuery(), partitions(), resultMapper())));
+      }
       if (coder() != null) {
         output = output.setCoder(coder());
       }
@@ -162,8 +220,25 @@ public final class RegistryJpaIO {
       return toBuilder().coder(coder).build();
     }
 
+    /**
+     * Splits the query into {@code partitions} sub-queries that may run in parallel.
+     *
+     * <p>The query must be a string query that contains a {@link #hashPartitionPredicate partition
+     * predicate}. A value of 1 restores the default, single-query read.
+     */
+    public Read<R, T> withPartitions(int partitions) {
+      checkArgument(partitions > 0, "Number of partitions must be positive: %s", partitions);
+      checkArgument(
+          partitions == 1 || partitionedQuery() != null,
+          "Query of %s does not contain the :%s and :%s parameters",
+          name(),
+          PARTITION_INDEX_PARAM,
+          PARTITION_COUNT_PARAM);
+      return toBuilder().partitions(partitions).build();
+    }
+
     static <R, T> Builder<R, T> builder() {
-      return new AutoValue_RegistryJpaIO_Read.Builder<R, T>().name(DEFAULT_NAME);
+      return new AutoValue_RegistryJpaIO_Read.Builder<R, T>().name(DEFAULT_NAME).partitions(1);
     }
 
     @AutoValue.Builder
@@ -173,6 +248,10 @@ public final class RegistryJpaIO {
 
       abstract Builder<R, T> query(RegistryQuery<R> query);
 
+      abstract Builder<R, T> partitionedQuery(PartitionedQuerySupplier<R> partitionedQuery);
+
+      abstract Builder<R, T> partitions(int partitions);
+
       abstract Builder<R, T> resultMapper(SerializableFunction<R, T> mapper);
 
       abstract Builder<R, T> coder(Coder<T> coder);
@@ -184,16 +263,53 @@ public final class RegistryJpaIO {
       }
 
       Builder<R, T> nativeQuery(String sql, Map<String, Object> parameters) {
+        if (isPartitionable(sql)) {
+          return partitionable(
+              (index, count) ->
+                  RegistryQuery.createQuery(
+                      sql, withPartition(parameters, index, count), true));
+        }
         return query(RegistryQuery.createQuery(sql, parameters, true));
       }
 
       Builder<R, T> jpqlQuery(String jpql, Map<String, Object> parameters) {
+        if (isPartitionable(jpql)) {
+          return partitionable(
+              (index, count) ->
+                  RegistryQuery.createQuery(
+                      jpql, withPartition(parameters, index, count), false));
+        }
         return query(RegistryQuery.createQuery(jpql, parameters, false));
       }
 
       Builder<R, T> jpqlQuery(String jpql, Class<R> clazz, Map<String, Object> parameters) {
+        if (isPartitionable(jpql)) {
+          return partitionable(
+              (index, count) ->
+                  RegistryQuery.createQuery(
+                      jpql, withPartition(parameters, index, count), clazz));
+        }
         return query(RegistryQuery.createQuery(jpql, parameters, clazz));
       }
+
+      /** Sets a query that may be split, defaulting to a single partition holding all rows. */
+      private Builder<R, T> partitionable(PartitionedQuerySupplier<R> partitionedQuery) {
+        return partitionedQuery(partitionedQuery).query(partitionedQuery.forPartition(0, 1));
+      }
+
+      private static boolean isPartitionable(String sql) {
+        return sql.contains(":" + PARTITION_INDEX_PARAM)
+            && sql.contains(":" + PARTITION_COUNT_PARAM);
+      }
+
+      private static ImmutableMap<String, Object> withPartition(
+          @Nullable Map<String, Object> parameters, int index, int count) {
+        ImmutableMap.Builder<String, Object> builder = new ImmutableMap.Builder<>();
+        if (parameters != null) {
+          builder.putAll(parameters);
+        }
+        return builder.put(PARTITION_INDEX_PARAM, index).put(PARTITION_COUNT_PARAM, count).build();
+      }
     }
 
     static class QueryRunner<R, T> extends DoFn<Void, T> {
@@ -209,19 +325,50 @@ public final class RegistryJpaIO {
 
       @ProcessElement
       public void processElement(OutputReceiver<T> outputReceiver) {
-        // Note the use of no-retry transaction here. The results from the query are streamed to the
-        // output receiver inside the transaction, which cannot be rolled back in case of a retry,
-        // which in turn results in duplicate elements. If we try to pass the results to the output
-        // receiver outside the transaction, they have to be materialized into a list containing all
-        // the elements (without resorting to manual pagination) and greatly decrease the
-        // parallelism of the pipeline.
-        tm().transactNoRetry(
-                () -> {
-                  query.stream().map(resultMapper::apply).forEach(outputReceiver::output);
-                  return null;
-                });
+        runQuery(query, resultMapper, outputReceiver);
       }
     }
+
+    /** Executes one sub-query of a partitioned read for each partition index it receives. */
+    static class PartitionedQueryRunner<R, T> extends DoFn<Integer, T> {
+
+      private static final long serialVersionUID = -2356011880725227497L;
+      private final PartitionedQuerySupplier<R> partitionedQuery;
+      private final int partitions;
+      private final SerializableFunction<R, T> resultMapper;
+
+      PartitionedQueryRunner(
+          PartitionedQuerySupplier<R> partitionedQuery,
+          int partitions,
+          SerializableFunction<R, T> resultMapper) {
+        this.partitionedQuery = partitionedQuery;
+        this.partitions = partitions;
+        this.resultMapper = resultMapper;
+      }
+
+      @ProcessElement
+      public void processElement(@Element Integer partition, OutputReceiver<T> outputReceiver) {
+        runQuery(
+            partitionedQuery.forPartition(partition, partitions), resultMapper, outputReceiver);
+      }
+    }
+
+    private static <R, T> void runQuery(
+        RegistryQuery<R> query,
+        SerializableFunction<R, T> resultMapper,
+        DoFn.OutputReceiver<T> outputReceiver) {
+      // Note the use of no-retry transaction here. The results from the query are streamed to the
+      // output receiver inside the transaction, which cannot be rolled back in case of a retry,
+      // which in turn results in duplicate elements. If we try to pass the results to the output
+      // receiver outside the transaction, they have to be materialized into a list containing all
+      // the elements (without resorting to manual pagination) and greatly decrease the
+      // parallelism of the pipeline.
+      tm().transactNoRetry(
+              () -> {
+                query.stream().map(resultMapper::apply).forEach(outputReceiver::output);
+                return null;
+              });
+    }
   }
 
   /**
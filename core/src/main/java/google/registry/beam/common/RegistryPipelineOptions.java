@@ -56,6 +56,14 @@ public interface RegistryPipelineOptions extends GcpOptions {
 
   void setSqlWriteBatchSize(int sqlWriteBatchSize);
 
+  @Description(
+      "The number of sub-queries that partitionable SQL reads are split into. Each sub-query runs"
+          + " in its own transaction and may be executed on a different worker.")
+  @Default.Integer(1)
+  int getJpaReadPartitions();
+
+  void setJpaReadPartitions(int jpaReadPartitions);
+
   static RegistryPipelineComponent toRegistryPipelineComponent(RegistryPipelineOptions options) {
     return DaggerRegistryPipelineComponent.builder()
         .isolationOverride(options.getIsolationOverride())
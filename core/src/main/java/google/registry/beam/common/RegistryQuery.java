@@ -44,6 +44,11 @@ public interface RegistryQuery<T> extends Serializable {
 
   interface CriteriaQuerySupplier<T> extends Supplier<CriteriaQuery<T>>, Serializable {}
 
+  /** Creates the sub-query that reads one of the partitions of a partitioned query. */
+  interface PartitionedQuerySupplier<T> extends Serializable {
+    RegistryQuery<T> forPartition(int partitionIndex, int partitionCount);
+  }
+
   /**
    * Returns a {@link RegistryQuery} that creates a string query from constant text.
    *
@@ -131,11 +131,18 @@ public class ResaveAllEppResourcesPipeline implements Serializable {
 
   /** Projects all resources to the current time and saves them. */
   private <T extends EppResource> void forceResaveAllResources(Pipeline pipeline, Class<T> clazz) {
+    int partitions = options.getJpaReadPartitions();
     Read<String, String> repoIdRead =
         RegistryJpaIO.read(
                 // Note: cannot use SQL parameters for the table name
-                String.format("SELECT repoId FROM %s", clazz.getSimpleName()), String.class, r -> r)
-            .withCoder(StringUtf8Coder.of());
+                String.format(
+                    "SELECT repoId FROM %s WHERE %s",
+                    clazz.getSimpleName(),
+                    RegistryJpaIO.hashPartitionPredicate("repoId", partitions)),
+                String.class,
+                r -> r)
+            .withCoder(StringUtf8Coder.of())
+            .withPartitions(partitions);
     projectAndResaveResources(pipeline, clazz, repoIdRead);
   }
 
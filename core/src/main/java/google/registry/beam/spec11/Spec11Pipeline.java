@@ -23,6 +23,7 @@ import dagger.Module;
 import dagger.Provides;
 import google.registry.beam.common.RegistryJpaIO;
 import google.registry.beam.common.RegistryJpaIO.Read;
+import google.registry.beam.common.RegistryPipelineOptions;
 import google.registry.beam.spec11.SafeBrowsingTransforms.EvaluateSafeBrowsingFn;
 import google.registry.config.RegistryConfig.ConfigModule;
 import google.registry.model.domain.Domain;
@@ -112,14 +113,17 @@ public class Spec11Pipeline implements Serializable {
   }
 
   static PCollection<DomainNameInfo> readFromCloudSql(Pipeline pipeline) {
+    int partitions = pipeline.getOptions().as(RegistryPipelineOptions.class).getJpaReadPartitions();
     Read<Object[], KV<String, String>> read =
         RegistryJpaIO.read(
                 "select d.repoId, r.emailAddress from Domain d join Registrar r on"
                     + " d.currentSponsorRegistrarId = r.registrarId where r.type = 'REAL' and"
-                    + " d.deletionTime > CAST(now() AS timestamp)",
+                    + " d.deletionTime > CAST(now() AS timestamp) and "
+                    + RegistryJpaIO.hashPartitionPredicate("d.repoId", partitions),
                 false,
                 Spec11Pipeline::parseRow)
-            .withCoder(KvCoder.of(StringUtf8Coder.of(), StringUtf8Coder.of()));
+            .withCoder(KvCoder.of(StringUtf8Coder.of(), StringUtf8Coder.of()))
+            .withPartitions(partitions);
 
     return pipeline
         .apply("Read active domains from Cloud SQL", read)
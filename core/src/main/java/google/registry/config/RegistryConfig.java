@@ -49,6 +49,7 @@ import java.lang.annotation.Documented;
 import java.lang.annotation.Retention;
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -1088,6 +1089,29 @@ public final class RegistryConfig {
       return 50;
     }
 
+    /**
+     * Returns whether the EPP command log renders the input XML on one line.
+     *
+     * @see google.registry.flows.FlowRunner
+     */
+    @Provides
+    @Config("compactEppCommandLog")
+    public static boolean provideCompactEppCommandLog(RegistryConfigSettings config) {
+      return config.registryPolicy.compactEppCommandLog;
+    }
+
+    /**
+     * Returns whether the EPP command log reuses a sanitized copy of the input XML recorded while
+     * unmarshalling it.
+     *
+     * @see google.registry.flows.EppController
+     */
+    @Provides
+    @Config("singlePassEppParse")
+    public static boolean provideSinglePassEppParse(RegistryConfigSettings config) {
+      return config.registryPolicy.singlePassEppParse;
+    }
+
     /**
      * The server ID used in the 'svID' element of an EPP 'greeting'.
      *
@@ -1570,6 +1594,16 @@ public final class RegistryConfig {
     return CONFIG_SETTINGS.get().caching.staticPremiumListMaxCachedEntries;
   }
 
+  /**
+   * Returns the local directory for memory-mapped premium and reserved list snapshots, or absent if
+   * lists should be looked up through the in-memory caches instead.
+   */
+  public static Optional<Path> getDomainLabelListSnapshotDirectory() {
+    return Optional.ofNullable(
+            Strings.emptyToNull(CONFIG_SETTINGS.get().caching.domainLabelListSnapshotDirectory))
+        .map(Path::of);
+  }
+
   public static boolean isEppResourceCachingEnabled() {
     return CONFIG_SETTINGS.get().caching.eppResourceCachingEnabled;
   }
@@ -1591,6 +1625,30 @@ public final class RegistryConfig {
     return CONFIG_SETTINGS.get().caching.eppResourceMaxCachedEntries;
   }
 
+  /**
+   * Returns the amount of time a rendered WHOIS response should be cached in memory before
+   * expiring.
+   *
+   * <p>Zero disables the cache.
+   */
+  public static java.time.Duration getWhoisResponseCachingDuration() {
+    return java.time.Duration.ofSeconds(CONFIG_SETTINGS.get().caching.whoisResponseCachingSeconds);
+  }
+
+  /** Returns the maximum number of rendered WHOIS responses to keep in in-memory cache. */
+  public static int getWhoisResponseMaxCachedEntries() {
+    return CONFIG_SETTINGS.get().caching.whoisResponseMaxCachedEntries;
+  }
+
+  /**
+   * Returns the amount of time between refreshes of the in-memory index of hosts by IP address.
+   *
+   * <p>Zero disables the index.
+   */
+  public static java.time.Duration getHostIpIndexRefreshInterval() {
+    return java.time.Duration.ofSeconds(CONFIG_SETTINGS.get().caching.hostIpIndexRefreshSeconds);
+  }
+
   /** Returns the amount of time that a particular claims list should be cached. */
   public static java.time.Duration getClaimsListCacheDuration() {
     return java.time.Duration.ofSeconds(CONFIG_SETTINGS.get().caching.claimsListCachingSeconds);
@@ -1651,6 +1709,22 @@ public final class RegistryConfig {
     return CONFIG_SETTINGS.get().hibernate.hikariIdleTimeout;
   }
 
+  /**
+   * Returns whether HikariCP keeps a separate connection pool for each transaction isolation level.
+   */
+  public static boolean getHibernateHikariPoolPerIsolationLevel() {
+    return CONFIG_SETTINGS.get().hibernate.hikariPoolPerIsolationLevel;
+  }
+
+  /**
+   * Returns the maximum sizes of the HikariCP pools of non-default transaction isolation levels,
+   * which are taken out of the maximum pool size.
+   */
+  public static ImmutableMap<String, Integer> getHibernateHikariIsolationLevelPoolMaximumSizes() {
+    return ImmutableMap.copyOf(
+        CONFIG_SETTINGS.get().hibernate.hikariIsolationLevelPoolMaximumSizes);
+  }
+
   /**
    * JDBC-specific: driver default batch size is 0, which means that every INSERT statement will be
    * sent to the database individually. Batching allows us to group together multiple inserts into
@@ -1676,6 +1750,16 @@ public final class RegistryConfig {
     return CONFIG_SETTINGS.get().hibernate.jdbcFetchSize;
   }
 
+  /**
+   * Returns the maximum replication lag of the read-only replica for flows that only read from it
+   * while it is fresh.
+   *
+   * @see google.registry.flows.annotations.DatabaseRouting.Route#REPLICA_IF_FRESH
+   */
+  public static java.time.Duration getReplicaMaxStaleness() {
+    return java.time.Duration.ofMillis(CONFIG_SETTINGS.get().cloudSql.replicaMaxStalenessMillis);
+  }
+
   /** Returns the roid suffix to be used for the roids of all contacts and hosts. */
   public static String getContactAndHostRoidSuffix() {
     return CONFIG_SETTINGS.get().registryPolicy.contactAndHostRoidSuffix;
@@ -113,6 +113,8 @@ public class RegistryConfigSettings {
     public double sunriseDomainCreateDiscount;
     public Set<String> tieredPricingPromotionRegistrarIds;
     public Set<String> noPollMessageOnDeletionRegistrarIds;
+    public boolean compactEppCommandLog;
+    public boolean singlePassEppParse;
   }
 
   /** Configuration for Hibernate. */
@@ -124,6 +126,8 @@ public class RegistryConfigSettings {
     public String hikariMinimumIdle;
     public String hikariMaximumPoolSize;
     public String hikariIdleTimeout;
+    public boolean hikariPoolPerIsolationLevel;
+    public Map<String, Integer> hikariIsolationLevelPoolMaximumSizes;
     public int jdbcBatchSize;
     public String jdbcFetchSize;
   }
@@ -135,6 +139,7 @@ public class RegistryConfigSettings {
     public String username;
     public String instanceConnectionName;
     public String replicaInstanceConnectionName;
+    public int replicaMaxStalenessMillis;
   }
 
   /** Configuration for Apache Beam (Cloud Dataflow). */
@@ -157,9 +162,13 @@ public class RegistryConfigSettings {
     public int domainLabelCachingSeconds;
     public int singletonCachePersistSeconds;
     public int staticPremiumListMaxCachedEntries;
+    public String domainLabelListSnapshotDirectory;
     public boolean eppResourceCachingEnabled;
     public int eppResourceCachingSeconds;
     public int eppResourceMaxCachedEntries;
+    public int whoisResponseCachingSeconds;
+    public int whoisResponseMaxCachedEntries;
+    public int hostIpIndexRefreshSeconds;
     public int claimsListCachingSeconds;
   }
 
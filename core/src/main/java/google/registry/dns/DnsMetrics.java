@@ -67,6 +67,9 @@ public class DnsMetrics {
           LabelDescriptor.create("status", "Whether the publish succeeded, or why it failed."),
           LabelDescriptor.create("dnsWriter", "The DnsWriter used."));
 
+  private static final ImmutableSet<LabelDescriptor> LABEL_DESCRIPTORS_FOR_UPDATE_TRANSPORT =
+      ImmutableSet.of(LabelDescriptor.create("host", "The DNS server that receives updates."));
+
   // Finer-grained fitter than the DEFAULT_FITTER, allows values between 100 ms and just over 29
   // hours.
   private static final DistributionFitter EXPONENTIAL_FITTER =
@@ -77,6 +80,10 @@ public class DnsMetrics {
   private static final DistributionFitter FIBONACCI_FITTER =
       FibonacciFitter.create(10946);
 
+  // Allows values between 1 ms and just over 17 minutes, for round trips to the DNS server.
+  private static final DistributionFitter ROUND_TRIP_FITTER =
+      ExponentialFitter.create(20, 2.0, 1.0);
+
   private static final IncrementableMetric publishDomainRequests =
       MetricRegistryImpl.getDefault()
           .newIncrementableMetric(
@@ -189,6 +196,32 @@ public class DnsMetrics {
               LABEL_DESCRIPTORS_FOR_LATENCY,
               EXPONENTIAL_FITTER);
 
+  private static final EventMetric updateRoundTripTime =
+      MetricRegistryImpl.getDefault()
+          .newEventMetric(
+              "/dns/update/round_trip_time",
+              "Time from sending a DNS UPDATE message until its response was received",
+              "milliseconds",
+              LABEL_DESCRIPTORS_FOR_UPDATE_TRANSPORT,
+              ROUND_TRIP_FITTER);
+
+  private static final EventMetric updateMessagesInFlight =
+      MetricRegistryImpl.getDefault()
+          .newEventMetric(
+              "/dns/update/in_flight",
+              "Number of DNS UPDATE messages in flight on a connection when one was sent",
+              "count",
+              LABEL_DESCRIPTORS_FOR_UPDATE_TRANSPORT,
+              FIBONACCI_FITTER);
+
+  private static final IncrementableMetric updateConnectionsOpened =
+      MetricRegistryImpl.getDefault()
+          .newIncrementableMetric(
+              "/dns/update/connections_opened",
+              "Count of TCP connections opened to send DNS UPDATE messages",
+              "count",
+              LABEL_DESCRIPTORS_FOR_UPDATE_TRANSPORT);
+
   @Inject
   DnsMetrics() {}
 
@@ -270,4 +303,18 @@ public class DnsMetrics {
         timeSinceUpdateRequest.getMillis(), numberOfItems, tld, status.name(), dnsWriter);
     publishQueueDelay.record(timeSinceActionEnqueued.getMillis(), tld, status.name(), dnsWriter);
   }
+
+  /**
+   * Records the round trip of a DNS UPDATE message sent to {@code host}, along with the number of
+   * messages that were in flight on its connection when it was sent (including itself).
+   */
+  public void recordUpdateRoundTrip(String host, Duration roundTripTime, int messagesInFlight) {
+    updateRoundTripTime.record(roundTripTime.getMillis(), host);
+    updateMessagesInFlight.record(messagesInFlight, host);
+  }
+
+  /** Increments the count of TCP connections opened to {@code host} for DNS UPDATE messages. */
+  public void incrementUpdateConnectionsOpened(String host) {
+    updateConnectionsOpened.increment(host);
+  }
 }
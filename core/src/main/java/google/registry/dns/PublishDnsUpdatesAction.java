@@ -44,6 +44,7 @@ import google.registry.config.RegistryConfig.Config;
 import google.registry.dns.DnsMetrics.ActionStatus;
 import google.registry.dns.DnsMetrics.CommitStatus;
 import google.registry.dns.DnsMetrics.PublishStatus;
+import google.registry.dns.writer.DnsPrefetchContext;
 import google.registry.dns.writer.DnsWriter;
 import google.registry.groups.GmailClient;
 import google.registry.model.domain.Domain;
@@ -371,6 +372,26 @@ public final class PublishDnsUpdatesAction implements Runnable, Callable<Void> {
     return true;
   }
 
+  /**
+   * Returns the names of the domains that the writer will load to publish this batch, i.e. the
+   * domains to publish and the superordinate domains of the hosts to publish.
+   */
+  private ImmutableSet<String> getDomainNamesToPrefetch() {
+    InternetDomainName tldName = InternetDomainName.from(tld);
+    ImmutableSet.Builder<String> domainNames = new ImmutableSet.Builder<>();
+    for (String domain : nullToEmpty(domains)) {
+      if (DomainNameUtils.isUnder(InternetDomainName.from(domain), tldName)) {
+        domainNames.add(domain);
+      }
+    }
+    for (String host : nullToEmpty(hosts)) {
+      if (DomainNameUtils.isUnder(InternetDomainName.from(host), tldName)) {
+        domainNames.add(DomainNameUtils.getSecondLevelDomain(host, tld));
+      }
+    }
+    return domainNames.build();
+  }
+
   /** Steps through the domain and host refreshes contained in the parameters and processes them. */
   private void processBatch() {
     DateTime timeAtStart = clock.nowUtc();
@@ -384,6 +405,10 @@ public final class PublishDnsUpdatesAction implements Runnable, Callable<Void> {
       return;
     }
 
+    // Load all the domains (including the superordinate domains of hosts) and their name servers
+    // in bulk, rather than one at a time as the writer publishes them.
+    writer.setPrefetchContext(DnsPrefetchContext.load(getDomainNamesToPrefetch(), timeAtStart));
+
     int domainsPublished = 0;
     int domainsRejected = 0;
     for (String domain : nullToEmpty(domains)) {
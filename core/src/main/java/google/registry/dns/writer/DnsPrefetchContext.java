@@ -0,0 +1,159 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.dns.writer;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.collect.ImmutableSortedSet.toImmutableSortedSet;
+import static google.registry.model.EppResourceUtils.loadByForeignKey;
+import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+import static google.registry.util.DateTimeUtils.latestOf;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Ordering;
+import google.registry.model.ForeignKeyUtils;
+import google.registry.model.domain.Domain;
+import google.registry.model.host.Host;
+import google.registry.persistence.VKey;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+import org.joda.time.DateTime;
+
+/**
+ * Domains and name servers of a batch of DNS updates, loaded in bulk before the batch is
+ * published.
+ *
+ * <p>Writers would otherwise load each domain by foreign key, and then each of its name servers, so
+ * that publishing a batch of N domains costs O(N) database round trips. The context resolves all
+ * the domains with one foreign key query, and then loads them and all of their name servers with
+ * one {@code loadByKeys} call each.
+ *
+ * <p>Lookups for names outside the prefetched batch fall back to loading them individually, so a
+ * writer behaves the same whether or not it was given a context.
+ */
+public final class DnsPrefetchContext {
+
+  private static final DnsPrefetchContext EMPTY =
+      new DnsPrefetchContext(ImmutableSet.of(), ImmutableMap.of(), ImmutableMap.of());
+
+  /** Names of all domains that were prefetched, whether or not they exist. */
+  private final ImmutableSet<String> prefetchedDomainNames;
+
+  /** Prefetched domains that exist, by domain name, projected to the time they were loaded at. */
+  private final ImmutableMap<String, Domain> domains;
+
+  /** Name servers of the prefetched domains that exist, by key, including deleted ones. */
+  private final ImmutableMap<VKey<Host>, Host> nameservers;
+
+  private final ImmutableMap<String, Host> nameserversByHostName;
+
+  private DnsPrefetchContext(
+      ImmutableSet<String> prefetchedDomainNames,
+      ImmutableMap<String, Domain> domains,
+      ImmutableMap<VKey<Host>, Host> nameservers) {
+    this.prefetchedDomainNames = prefetchedDomainNames;
+    this.domains = domains;
+    this.nameservers = nameservers;
+    this.nameserversByHostName =
+        nameservers.values().stream()
+            .collect(
+                toImmutableMap(
+                    Host::getHostName,
+                    Function.identity(),
+                    // Prefer the live host if a deleted one had the same name.
+                    (a, b) -> a.getDeletionTime().isAfter(b.getDeletionTime()) ? a : b));
+  }
+
+  /** Returns a context with nothing prefetched, for which every lookup loads from the database. */
+  public static DnsPrefetchContext empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Loads the given domains, as they are at {@code now}, and all of their name servers.
+   *
+   * @param domainNames fully qualified domain names, with no trailing dot
+   */
+  public static DnsPrefetchContext load(Collection<String> domainNames, DateTime now) {
+    if (domainNames.isEmpty()) {
+      return EMPTY;
+    }
+    return tm().reTransact(
+            () -> {
+              ImmutableMap<String, VKey<Domain>> domainKeys =
+                  ForeignKeyUtils.load(Domain.class, domainNames, now);
+              ImmutableMap<String, Domain> domains =
+                  tm().loadByKeys(domainKeys.values()).values().stream()
+                      .filter(domain -> now.isBefore(domain.getDeletionTime()))
+                      .map(
+                          domain ->
+                              domain.cloneProjectedAtTime(
+                                  latestOf(now, domain.getUpdateTimestamp().getTimestamp())))
+                      .collect(toImmutableMap(Domain::getDomainName, Function.identity()));
+              ImmutableSet<VKey<Host>> nameserverKeys =
+                  domains.values().stream()
+                      .flatMap(domain -> domain.getNameservers().stream())
+                      .collect(toImmutableSet());
+              ImmutableMap<VKey<Host>, Host> nameservers =
+                  tm().loadByKeys(nameserverKeys).values().stream()
+                      .collect(toImmutableMap(Host::createVKey, Function.identity()));
+              return new DnsPrefetchContext(
+                  ImmutableSet.copyOf(domainNames), domains, nameservers);
+            });
+  }
+
+  /**
+   * Returns the domain with the given name, or empty if it doesn't exist or is deleted.
+   *
+   * @param now the time to load the domain at, if it wasn't prefetched
+   */
+  public Optional<Domain> loadDomain(String domainName, DateTime now) {
+    if (prefetchedDomainNames.contains(domainName)) {
+      return Optional.ofNullable(domains.get(domainName));
+    }
+    return loadByForeignKey(Domain.class, domainName, now);
+  }
+
+  /**
+   * Returns the host with the given name, or empty if it doesn't exist or is deleted.
+   *
+   * <p>Only hosts that are name servers of a prefetched domain are prefetched.
+   *
+   * @param now the time to load the host at, if it wasn't prefetched
+   */
+  public Optional<Host> loadHost(String hostName, DateTime now) {
+    Host host = nameserversByHostName.get(hostName);
+    if (host != null && now.isBefore(host.getDeletionTime())) {
+      return Optional.of(host);
+    }
+    return loadByForeignKey(Host.class, hostName, now);
+  }
+
+  /**
+   * Returns the host names of the name servers of a domain, as {@link
+   * Domain#loadNameserverHostNames} does.
+   */
+  public ImmutableSortedSet<String> loadNameserverHostNames(Domain domain) {
+    if (!nameservers.keySet().containsAll(domain.getNameservers())) {
+      return domain.loadNameserverHostNames();
+    }
+    return domain.getNameservers().stream()
+        .map(key -> nameservers.get(key).getHostName())
+        .collect(toImmutableSortedSet(Ordering.natural()));
+  }
+}
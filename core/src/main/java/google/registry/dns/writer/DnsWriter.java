@@ -58,6 +58,15 @@ public interface DnsWriter {
    */
   void publishHost(String hostName);
 
+  /**
+   * Supplies the domains and name servers of the batch that is about to be published, loaded in
+   * bulk. Writers that load resources should look them up through the context.
+   *
+   * <p>This is called, if at all, before any domain or host is published. The default
+   * implementation ignores the context.
+   */
+  default void setPrefetchContext(DnsPrefetchContext prefetchContext) {}
+
   /**
    * Commits the updates to the DNS server atomically.
    *
@@ -17,7 +17,6 @@ package google.registry.dns.writer.clouddns;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static google.registry.dns.DnsUtils.getDnsAPlusAAAATtlForHost;
-import static google.registry.model.EppResourceUtils.loadByForeignKey;
 import static google.registry.util.DomainNameUtils.getSecondLevelDomain;
 
 import com.google.api.client.googleapis.json.GoogleJsonError;
@@ -35,6 +34,7 @@ import com.google.common.net.InternetDomainName;
 import com.google.common.util.concurrent.RateLimiter;
 import google.registry.config.RegistryConfig.Config;
 import google.registry.dns.writer.BaseDnsWriter;
+import google.registry.dns.writer.DnsPrefetchContext;
 import google.registry.dns.writer.DnsWriter;
 import google.registry.dns.writer.DnsWriterZone;
 import google.registry.model.domain.Domain;
@@ -91,6 +91,7 @@ public class CloudDnsWriter extends BaseDnsWriter {
   private final String zoneName;
   private final Dns dnsConnection;
   private final HashMap<String, ImmutableSet<ResourceRecordSet>> desiredRecords = new HashMap<>();
+  private DnsPrefetchContext prefetchContext = DnsPrefetchContext.empty();
 
   @Inject
   CloudDnsWriter(
@@ -116,6 +117,11 @@ public class CloudDnsWriter extends BaseDnsWriter {
     this.numThreads = numThreads;
   }
 
+  @Override
+  public void setPrefetchContext(DnsPrefetchContext prefetchContext) {
+    this.prefetchContext = prefetchContext;
+  }
+
   /** Publish the domain and all subordinate hosts. */
   @Override
   public void publishDomain(String domainName) {
@@ -123,7 +129,7 @@ public class CloudDnsWriter extends BaseDnsWriter {
     String absoluteDomainName = getAbsoluteHostName(domainName);
 
     // Load the target domain. Note that it can be absent if this domain was just deleted.
-    Optional<Domain> domain = loadByForeignKey(Domain.class, domainName, clock.nowUtc());
+    Optional<Domain> domain = prefetchContext.loadDomain(domainName, clock.nowUtc());
 
     // Return early if no DNS records should be published.
     // desiredRecordsBuilder is populated with an empty set to indicate that all existing records
@@ -154,7 +160,7 @@ public class CloudDnsWriter extends BaseDnsWriter {
     }
 
     // Construct NS records (if any).
-    Set<String> nameserverData = domain.get().loadNameserverHostNames();
+    Set<String> nameserverData = prefetchContext.loadNameserverHostNames(domain.get());
     Set<String> subordinateHosts = domain.get().getSubordinateHosts();
     if (!nameserverData.isEmpty()) {
       HashSet<String> nsRrData = new HashSet<>();
@@ -189,7 +195,7 @@ public class CloudDnsWriter extends BaseDnsWriter {
     // Load the target host. Note that it can be absent if this host was just deleted.
     // desiredRecords is populated with an empty set to indicate that all existing records
     // should be deleted.
-    Optional<Host> host = loadByForeignKey(Host.class, hostName, clock.nowUtc());
+    Optional<Host> host = prefetchContext.loadHost(hostName, clock.nowUtc());
 
     // Return early if the host is deleted.
     if (host.isEmpty()) {
@@ -0,0 +1,137 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.dns.writer.dnsupdate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Comparator.comparingInt;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.net.SocketFactory;
+
+/**
+ * A pool of {@link PipelinedDnsConnection}s to one DNS server.
+ *
+ * <p>Pools are shared by all {@link DnsMessageTransport}s in the process that connect to the same
+ * host with the same socket factory, since transports are created per request. New connections
+ * are only opened when every existing one already has queries in flight, so that bursts of updates
+ * are spread over at most {@code maxConnections} connections, and quiet periods use a single one.
+ */
+@ThreadSafe
+final class DnsConnectionPool {
+
+  private static final ConcurrentHashMap<PoolKey, DnsConnectionPool> pools =
+      new ConcurrentHashMap<>();
+
+  private static final ThreadFactory READER_THREAD_FACTORY =
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("dns-update-reader-%d").build();
+
+  private final SocketFactory socketFactory;
+  private final String host;
+  private final int port;
+  private final int idleTimeoutMillis;
+  private final int maxConnections;
+
+  @GuardedBy("this")
+  private final List<PipelinedDnsConnection> connections = new ArrayList<>();
+
+  @VisibleForTesting
+  DnsConnectionPool(
+      SocketFactory socketFactory,
+      String host,
+      int port,
+      int idleTimeoutMillis,
+      int maxConnections) {
+    checkArgument(maxConnections > 0, "maxConnections must be positive");
+    this.socketFactory = socketFactory;
+    this.host = host;
+    this.port = port;
+    this.idleTimeoutMillis = idleTimeoutMillis;
+    this.maxConnections = maxConnections;
+  }
+
+  /**
+   * Returns the shared pool for the given host and socket factory, creating it if needed.
+   *
+   * <p>The idle timeout and connection limit of the first caller apply for the lifetime of the
+   * pool; in practice they come from the same configuration for every caller.
+   */
+  static DnsConnectionPool get(
+      SocketFactory socketFactory,
+      String host,
+      int port,
+      int idleTimeoutMillis,
+      int maxConnections) {
+    return pools.computeIfAbsent(
+        new PoolKey(socketFactory, host, port),
+        key -> new DnsConnectionPool(socketFactory, host, port, idleTimeoutMillis, maxConnections));
+  }
+
+  /** Result of {@link #acquire}, noting whether a new connection had to be opened. */
+  record Lease(PipelinedDnsConnection connection, boolean opened) {}
+
+  /**
+   * Returns the least busy open connection that has no query with the given ID in flight, opening
+   * a new connection if there is none or if all of them are busy and the limit allows it.
+   *
+   * <p>A connection is opened beyond the limit only when every pooled connection has a query with
+   * the same ID in flight, which is vanishingly rare with random 16-bit IDs.
+   */
+  synchronized Lease acquire(int messageId) throws IOException {
+    connections.removeIf(connection -> !connection.isOpen());
+    Optional<PipelinedDnsConnection> leastBusy =
+        connections.stream()
+            .filter(connection -> !connection.isInFlight(messageId))
+            .min(comparingInt(PipelinedDnsConnection::getInFlightCount));
+    if (leastBusy.isPresent()
+        && (leastBusy.get().getInFlightCount() == 0 || connections.size() >= maxConnections)) {
+      return new Lease(leastBusy.get(), false);
+    }
+    PipelinedDnsConnection connection = open();
+    connections.add(connection);
+    return new Lease(connection, true);
+  }
+
+  /** Closes all connections, failing any queries in flight on them. */
+  synchronized void closeAll() {
+    connections.forEach(PipelinedDnsConnection::close);
+    connections.clear();
+  }
+
+  private PipelinedDnsConnection open() throws IOException {
+    Socket socket = socketFactory.createSocket(InetAddress.getByName(host), port);
+    try {
+      socket.setSoTimeout(idleTimeoutMillis);
+      socket.setTcpNoDelay(true);
+      socket.setKeepAlive(true);
+      return new PipelinedDnsConnection(socket, READER_THREAD_FACTORY);
+    } catch (IOException | RuntimeException e) {
+      socket.close();
+      throw e;
+    }
+  }
+
+  private record PoolKey(SocketFactory socketFactory, String host, int port) {}
+}
@@ -16,18 +16,28 @@ package google.registry.dns.writer.dnsupdate;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verify;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
+import com.google.common.flogger.FluentLogger;
 import com.google.common.primitives.Ints;
 import google.registry.config.RegistryConfig.Config;
+import google.registry.dns.DnsMetrics;
 import jakarta.inject.Inject;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.InterruptedIOException;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 import javax.net.SocketFactory;
 import org.joda.time.Duration;
 import org.xbill.DNS.Message;
@@ -38,9 +48,16 @@ import org.xbill.DNS.Opcode;
  * s and the message framing defined in <a href="https://tools.ietf.org/html/rfc1035">RFC 1035</a>.
  * We would like use the dnsjava library's {@link org.xbill.DNS.SimpleResolver} class for this, but
  * it requires {@link java.nio.channels.SocketChannel} which is not supported on AppEngine.
+ *
+ * <p>If {@code dnsUpdateMaxConnections} is positive, messages are sent over long-lived connections
+ * shared by all transports to the same host, and several messages may be in flight on a connection
+ * at once (see {@link DnsConnectionPool}). A message that fails because its connection broke is
+ * retried once on a new connection. Otherwise, a new connection is opened for every message.
  */
 public class DnsMessageTransport {
 
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
   /**
    * Size of message length field for DNS TCP transport.
    *
@@ -56,25 +73,42 @@ public class DnsMessageTransport {
    */
   @VisibleForTesting static final int DNS_PORT = 53;
 
+  /** Number of times a message is sent on pooled connections before giving up. */
+  private static final int MAX_POOLED_ATTEMPTS = 2;
+
   private final SocketFactory factory;
   private final String updateHost;
   private final int updateTimeout;
+  private final DnsMetrics dnsMetrics;
+  private final Optional<DnsConnectionPool> connectionPool;
 
   /**
    * Class constructor.
    *
    * @param factory a factory for TCP sockets
    * @param updateHost host name of the DNS server
-   * @param updateTimeout update I/O timeout
+   * @param updateTimeout update I/O timeout, also used as the idle timeout of pooled connections
+   * @param maxConnections maximum number of pooled connections to the DNS server, or zero to open
+   *     a new connection for every message
+   * @param dnsMetrics metrics for round trips and connections
    */
   @Inject
   public DnsMessageTransport(
       SocketFactory factory,
       @Config("dnsUpdateHost") String updateHost,
-      @Config("dnsUpdateTimeout") Duration updateTimeout) {
+      @Config("dnsUpdateTimeout") Duration updateTimeout,
+      @Config("dnsUpdateMaxConnections") int maxConnections,
+      DnsMetrics dnsMetrics) {
     this.factory = factory;
     this.updateHost = updateHost;
     this.updateTimeout = Ints.checkedCast(updateTimeout.getMillis());
+    this.dnsMetrics = dnsMetrics;
+    this.connectionPool =
+        maxConnections > 0
+            ? Optional.of(
+                DnsConnectionPool.get(
+                    factory, updateHost, DNS_PORT, this.updateTimeout, maxConnections))
+            : Optional.empty();
   }
 
   /**
@@ -87,15 +121,86 @@ public class DnsMessageTransport {
    * @throws IllegalArgumentException if the query is too large to be sent (&gt; 65535 bytes)
    */
   public Message send(Message query) throws IOException {
+    byte[] frame = frameMessage(query);
+    Message response =
+        connectionPool.isPresent()
+            ? sendPipelined(connectionPool.get(), query.getHeader().getID(), frame)
+            : sendOnNewConnection(frame);
+    checkValidResponse(query, response);
+    return response;
+  }
+
+  private Message sendOnNewConnection(byte[] frame) throws IOException {
     try (Socket socket = factory.createSocket(InetAddress.getByName(updateHost), DNS_PORT)) {
+      dnsMetrics.incrementUpdateConnectionsOpened(updateHost);
       socket.setSoTimeout(updateTimeout);
-      writeMessage(socket.getOutputStream(), query);
+      Stopwatch stopwatch = Stopwatch.createStarted();
+      socket.getOutputStream().write(frame);
       Message response = readMessage(socket.getInputStream());
-      checkValidResponse(query, response);
+      recordRoundTrip(stopwatch, 1);
       return response;
     }
   }
 
+  private Message sendPipelined(DnsConnectionPool pool, int messageId, byte[] frame)
+      throws IOException {
+    int attempts = 0;
+    while (true) {
+      DnsConnectionPool.Lease lease = pool.acquire(messageId);
+      if (lease.opened()) {
+        dnsMetrics.incrementUpdateConnectionsOpened(updateHost);
+      }
+      PipelinedDnsConnection connection = lease.connection();
+      try {
+        int messagesInFlight = connection.getInFlightCount() + 1;
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        Optional<CompletableFuture<Message>> response = connection.send(messageId, frame);
+        if (response.isEmpty()) {
+          // Another message with the same ID got onto this connection first. Pick another one.
+          continue;
+        }
+        Message result = awaitResponse(connection, messageId, response.get());
+        recordRoundTrip(stopwatch, messagesInFlight);
+        return result;
+      } catch (InterruptedIOException e) {
+        // Timeouts and interrupts aren't connection failures, so there is no point in retrying.
+        throw e;
+      } catch (IOException e) {
+        if (++attempts >= MAX_POOLED_ATTEMPTS) {
+          throw e;
+        }
+        logger.atInfo().withCause(e).log(
+            "Connection to DNS server %s failed, retrying on a new connection.", updateHost);
+      }
+    }
+  }
+
+  private Message awaitResponse(
+      PipelinedDnsConnection connection, int messageId, CompletableFuture<Message> response)
+      throws IOException {
+    try {
+      return updateTimeout > 0 ? response.get(updateTimeout, MILLISECONDS) : response.get();
+    } catch (TimeoutException e) {
+      connection.abandon(messageId);
+      // A server that stops answering on a connection is unlikely to resume, so don't reuse it.
+      connection.close();
+      throw new SocketTimeoutException(
+          String.format("No response from DNS server %s in %d ms", updateHost, updateTimeout));
+    } catch (ExecutionException e) {
+      Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+      throw new IOException(e.getCause());
+    } catch (InterruptedException e) {
+      connection.abandon(messageId);
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted waiting for DNS response");
+    }
+  }
+
+  private void recordRoundTrip(Stopwatch stopwatch, int messagesInFlight) {
+    dnsMetrics.recordUpdateRoundTrip(
+        updateHost, Duration.millis(stopwatch.elapsed(MILLISECONDS)), messagesInFlight);
+  }
+
   private void checkValidResponse(Message query, Message response) {
     verify(
         response.getHeader().getID() == query.getHeader().getID(),
@@ -109,7 +214,8 @@ public class DnsMessageTransport {
         Opcode.string(query.getHeader().getOpcode()));
   }
 
-  private void writeMessage(OutputStream outputStream, Message message) throws IOException {
+  /** Returns the wire format of a message, prefixed by its length. */
+  private static byte[] frameMessage(Message message) {
     byte[] messageData = message.toWire();
     checkArgument(
         messageData.length <= MESSAGE_MAXIMUM_LENGTH,
@@ -119,10 +225,11 @@ public class DnsMessageTransport {
     ByteBuffer buffer = ByteBuffer.allocate(messageData.length + MESSAGE_LENGTH_FIELD_BYTES);
     buffer.putShort((short) messageData.length);
     buffer.put(messageData);
-    outputStream.write(buffer.array());
+    return buffer.array();
   }
 
-  private Message readMessage(InputStream inputStream) throws IOException {
+  /** Reads one length-prefixed message. */
+  static Message readMessage(InputStream inputStream) throws IOException {
     DataInputStream stream = new DataInputStream(inputStream);
     int length = stream.readUnsignedShort();
     byte[] messageData = new byte[length];
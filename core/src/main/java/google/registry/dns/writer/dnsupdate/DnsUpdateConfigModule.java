@@ -41,4 +41,14 @@ public class DnsUpdateConfigModule {
   public static Duration provideDnsUpdateTimeout() {
     return Duration.standardSeconds(30);
   }
+
+  /**
+   * Maximum number of long-lived TCP connections kept open to the DNS update host, or zero to open
+   * a new connection for every update.
+   */
+  @Provides
+  @Config("dnsUpdateMaxConnections")
+  public static int provideDnsUpdateMaxConnections() {
+    return 4;
+  }
 }
@@ -19,7 +19,6 @@ import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.Sets.intersection;
 import static com.google.common.collect.Sets.union;
 import static google.registry.dns.DnsUtils.getDnsAPlusAAAATtlForHost;
-import static google.registry.model.EppResourceUtils.loadByForeignKey;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
@@ -27,6 +26,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.net.InternetDomainName;
 import google.registry.config.RegistryConfig.Config;
 import google.registry.dns.writer.BaseDnsWriter;
+import google.registry.dns.writer.DnsPrefetchContext;
 import google.registry.dns.writer.DnsWriterZone;
 import google.registry.model.domain.Domain;
 import google.registry.model.domain.secdns.DomainDsData;
@@ -93,6 +93,7 @@ public class DnsUpdateWriter extends BaseDnsWriter {
   private final Clock clock;
   private final Update update;
   private final String zoneName;
+  private DnsPrefetchContext prefetchContext = DnsPrefetchContext.empty();
 
   /**
    * Class constructor.
@@ -129,7 +130,7 @@ public class DnsUpdateWriter extends BaseDnsWriter {
    *     this domain refresh request
    */
   private void publishDomain(String domainName, String requestingHostName) {
-    Optional<Domain> domainOptional = loadByForeignKey(Domain.class, domainName, clock.nowUtc());
+    Optional<Domain> domainOptional = prefetchContext.loadDomain(domainName, clock.nowUtc());
     update.delete(toAbsoluteName(domainName), Type.ANY);
     // If the domain is now deleted, then don't update DNS for it.
     if (domainOptional.isPresent()) {
@@ -149,6 +150,11 @@ public class DnsUpdateWriter extends BaseDnsWriter {
     publishDomain(domainName, null);
   }
 
+  @Override
+  public void setPrefetchContext(DnsPrefetchContext prefetchContext) {
+    this.prefetchContext = prefetchContext;
+  }
+
   @Override
   public void publishHost(String hostName) {
     // Get the superordinate domain name of the host.
@@ -217,8 +223,9 @@ public class DnsUpdateWriter extends BaseDnsWriter {
 
   private void addInBailiwickNameServerSet(Domain domain, Update update) {
     for (String hostName :
-        intersection(domain.loadNameserverHostNames(), domain.getSubordinateHosts())) {
-      Optional<Host> host = loadByForeignKey(Host.class, hostName, clock.nowUtc());
+        intersection(
+            prefetchContext.loadNameserverHostNames(domain), domain.getSubordinateHosts())) {
+      Optional<Host> host = prefetchContext.loadHost(hostName, clock.nowUtc());
       checkState(host.isPresent(), "Host %s cannot be loaded", hostName);
       update.add(makeAddressSet(host.get()));
       update.add(makeV6AddressSet(host.get()));
@@ -228,7 +235,7 @@ public class DnsUpdateWriter extends BaseDnsWriter {
   private RRset makeNameServerSet(Domain domain) {
     RRset nameServerSet = new RRset();
     Tld tld = Tld.get(domain.getTld());
-    for (String hostName : domain.loadNameserverHostNames()) {
+    for (String hostName : prefetchContext.loadNameserverHostNames(domain)) {
       NSRecord record =
           new NSRecord(
               toAbsoluteName(domain.getDomainName()),
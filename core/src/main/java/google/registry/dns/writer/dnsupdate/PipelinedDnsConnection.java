@@ -0,0 +1,191 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.dns.writer.dnsupdate;
+
+import com.google.common.flogger.FluentLogger;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import javax.annotation.concurrent.ThreadSafe;
+import org.xbill.DNS.Message;
+
+/**
+ * A long-lived TCP connection to a DNS server on which several messages can be in flight at once.
+ *
+ * <p>Queries are written as soon as they are sent, without waiting for earlier responses, and a
+ * reader thread matches each response to its query by message ID, as allowed by <a
+ * href="https://tools.ietf.org/html/rfc7766#section-6.2.1">RFC 7766</a>. Responses may therefore
+ * arrive in any order.
+ *
+ * <p>Any I/O failure closes the connection and fails all queries in flight on it, as does a read
+ * timeout in the middle of a response. The connection also closes itself when it has been idle for
+ * the socket's read timeout.
+ */
+@ThreadSafe
+final class PipelinedDnsConnection implements Closeable {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private final Socket socket;
+  private final OutputStream outputStream;
+  private final ConcurrentHashMap<Integer, CompletableFuture<Message>> inFlight =
+      new ConcurrentHashMap<>();
+  private volatile boolean closed;
+
+  /**
+   * Starts reading responses from a connected socket.
+   *
+   * @param socket a connected socket, whose read timeout is used as the idle timeout
+   * @param readerThreadFactory factory for the thread that reads responses
+   */
+  PipelinedDnsConnection(Socket socket, ThreadFactory readerThreadFactory) throws IOException {
+    this.socket = socket;
+    this.outputStream = socket.getOutputStream();
+    DataInputStream inputStream =
+        new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    readerThreadFactory.newThread(() -> readResponses(inputStream)).start();
+  }
+
+  boolean isOpen() {
+    return !closed;
+  }
+
+  /** Returns the number of queries that have been sent but not yet answered. */
+  int getInFlightCount() {
+    return inFlight.size();
+  }
+
+  /** Returns whether a query with the given message ID is in flight on this connection. */
+  boolean isInFlight(int messageId) {
+    return inFlight.containsKey(messageId);
+  }
+
+  /**
+   * Writes a query, returning a future for its response.
+   *
+   * @param messageId the ID in the header of the query
+   * @param frame the query in wire format, prefixed by its length
+   * @return the future response, or empty if a query with the same ID is already in flight
+   * @throws IOException if the connection is closed or the write fails, which closes it
+   */
+  Optional<CompletableFuture<Message>> send(int messageId, byte[] frame) throws IOException {
+    CompletableFuture<Message> response = new CompletableFuture<>();
+    if (inFlight.putIfAbsent(messageId, response) != null) {
+      return Optional.empty();
+    }
+    // Checked after registering, so that a concurrent close() either fails the future or is seen.
+    if (closed) {
+      inFlight.remove(messageId);
+      throw new IOException("Connection to DNS server is closed");
+    }
+    try {
+      synchronized (outputStream) {
+        outputStream.write(frame);
+        outputStream.flush();
+      }
+    } catch (IOException e) {
+      inFlight.remove(messageId);
+      close(e);
+      throw e;
+    }
+    return Optional.of(response);
+  }
+
+  /** Gives up waiting for the response to a query, e.g. after a timeout. */
+  void abandon(int messageId) {
+    inFlight.remove(messageId);
+  }
+
+  @Override
+  public void close() {
+    close(new IOException("Connection to DNS server was closed"));
+  }
+
+  private void readResponses(DataInputStream inputStream) {
+    while (!closed) {
+      // The first byte of a frame is read on its own, so that a read timeout before it is known
+      // to have consumed nothing. A timeout in the middle of a frame loses the bytes read so far,
+      // after which the stream can no longer be split into frames.
+      int firstByte;
+      try {
+        firstByte = inputStream.read();
+      } catch (SocketTimeoutException e) {
+        if (inFlight.isEmpty()) {
+          logger.atInfo().log("Closing idle connection to DNS server %s.", socket.getInetAddress());
+          close(e);
+        }
+        // Otherwise keep waiting; callers enforce their own timeouts.
+        continue;
+      } catch (IOException e) {
+        close(e);
+        return;
+      }
+      Message response;
+      try {
+        if (firstByte < 0) {
+          throw new EOFException("Connection closed by DNS server");
+        }
+        response = readMessage(firstByte, inputStream);
+      } catch (IOException e) {
+        close(e);
+        return;
+      }
+      CompletableFuture<Message> future = inFlight.remove(response.getHeader().getID());
+      if (future == null) {
+        logger.atWarning().log(
+            "Dropping DNS response with unknown ID %d from %s.",
+            response.getHeader().getID(), socket.getInetAddress());
+      } else {
+        future.complete(response);
+      }
+    }
+  }
+
+  /**
+   * Reads the rest of a message whose first byte has already been read, in the framing of {@link
+   * DnsMessageTransport#readMessage}.
+   */
+  private static Message readMessage(int firstByte, DataInputStream inputStream)
+      throws IOException {
+    int length = (firstByte << 8) | inputStream.readUnsignedByte();
+    byte[] messageData = new byte[length];
+    inputStream.readFully(messageData);
+    return new Message(messageData);
+  }
+
+  private void close(IOException cause) {
+    closed = true;
+    try {
+      socket.close();
+    } catch (IOException e) {
+      logger.atWarning().withCause(e).log("Failed to close connection to DNS server.");
+    }
+    for (Integer messageId : inFlight.keySet()) {
+      CompletableFuture<Message> future = inFlight.remove(messageId);
+      if (future != null) {
+        future.completeExceptionally(cause);
+      }
+    }
+  }
+}
@@ -24,6 +24,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.flogger.FluentLogger;
+import google.registry.config.RegistryConfig.Config;
 import google.registry.flows.FlowModule.EppExceptionInProviderException;
 import google.registry.model.eppcommon.Trid;
 import google.registry.model.eppinput.EppInput;
@@ -50,6 +51,8 @@ public final class EppController {
   @Inject EppMetric.Builder eppMetricBuilder;
   @Inject EppMetrics eppMetrics;
   @Inject ServerTridProvider serverTridProvider;
+  @Inject @Config("singlePassEppParse") boolean singlePassEppParse;
+  @Inject @Config("compactEppCommandLog") boolean compactEppCommandLog;
   @Inject EppController() {}
 
   /** Reads EPP XML, executes the matching flow, and returns an {@link EppOutput}. */
@@ -63,8 +66,16 @@ public final class EppController {
     eppMetricBuilder.setRegistrarId(Optional.ofNullable(sessionMetadata.getRegistrarId()));
     try {
       EppInput eppInput;
+      // In single-pass mode, the sanitized XML for the command log is recorded while unmarshalling.
+      Optional<SanitizedXmlRecorder> recorder =
+          singlePassEppParse
+              ? Optional.of(new SanitizedXmlRecorder(compactEppCommandLog))
+              : Optional.empty();
       try {
-        eppInput = unmarshalEpp(EppInput.class, inputXmlBytes);
+        eppInput =
+            recorder.isPresent()
+                ? unmarshalEpp(EppInput.class, inputXmlBytes, recorder.get())
+                : unmarshalEpp(EppInput.class, inputXmlBytes);
       } catch (EppException e) {
         // Log the unmarshalling error, with the raw bytes (in base64) to help with debugging.
         logger.atInfo().withCause(e).log(
@@ -93,33 +104,90 @@ public final class EppController {
         return getErrorResponse(
             e.getResult(), Trid.create(null, serverTridProvider.createServerTrid()));
       }
-      if (!eppInput.getTargetIds().isEmpty()) {
-        if (eppInput.isDomainType()) {
-          eppMetricBuilder.setTlds(extractTlds(eppInput.getTargetIds()));
-        }
-      }
-      EppOutput output = runFlowConvertEppErrors(flowComponentBuilder
-          .flowModule(new FlowModule.Builder()
-              .setSessionMetadata(sessionMetadata)
-              .setCredentials(credentials)
-              .setEppRequestSource(eppRequestSource)
-              .setIsDryRun(isDryRun)
-              .setIsSuperuser(isSuperuser)
-              .setInputXmlBytes(inputXmlBytes)
-              .setEppInput(eppInput)
-              .build())
-          .build());
-      if (output.isResponse()) {
-        eppMetricBuilder.setStatus(output.getResponse().getResult().getCode());
-      }
-      return output;
+      return runFlow(
+          sessionMetadata,
+          credentials,
+          eppRequestSource,
+          isDryRun,
+          isSuperuser,
+          inputXmlBytes,
+          recorder.flatMap(SanitizedXmlRecorder::getSanitizedXml),
+          eppInput);
+    } finally {
+      recordMetrics(isDryRun);
+    }
+  }
+
+  /**
+   * Executes the flow matching an {@link EppInput} that was built directly rather than read from
+   * EPP XML, and returns an {@link EppOutput}.
+   *
+   * <p>The {@code inputXmlBytes} must be the XML form of {@code eppInput}. They are not parsed, and
+   * are only used for the command log and the history entries written by the flow.
+   */
+  public EppOutput handleEppInput(
+      SessionMetadata sessionMetadata,
+      TransportCredentials credentials,
+      EppRequestSource eppRequestSource,
+      boolean isDryRun,
+      boolean isSuperuser,
+      byte[] inputXmlBytes,
+      EppInput eppInput) {
+    eppMetricBuilder.setRegistrarId(Optional.ofNullable(sessionMetadata.getRegistrarId()));
+    try {
+      return runFlow(
+          sessionMetadata,
+          credentials,
+          eppRequestSource,
+          isDryRun,
+          isSuperuser,
+          inputXmlBytes,
+          Optional.empty(),
+          eppInput);
     } finally {
-      if (!isDryRun) {
-        EppMetric metric = eppMetricBuilder.build();
-        eppMetrics.incrementEppRequests(metric);
-        eppMetrics.recordProcessingTime(metric);
+      recordMetrics(isDryRun);
+    }
+  }
+
+  private EppOutput runFlow(
+      SessionMetadata sessionMetadata,
+      TransportCredentials credentials,
+      EppRequestSource eppRequestSource,
+      boolean isDryRun,
+      boolean isSuperuser,
+      byte[] inputXmlBytes,
+      Optional<String> sanitizedInputXml,
+      EppInput eppInput) {
+    if (!eppInput.getTargetIds().isEmpty()) {
+      if (eppInput.isDomainType()) {
+        eppMetricBuilder.setTlds(extractTlds(eppInput.getTargetIds()));
       }
     }
+    EppOutput output = runFlowConvertEppErrors(flowComponentBuilder
+        .flowModule(new FlowModule.Builder()
+            .setSessionMetadata(sessionMetadata)
+            .setCredentials(credentials)
+            .setEppRequestSource(eppRequestSource)
+            .setIsDryRun(isDryRun)
+            .setIsSuperuser(isSuperuser)
+            .setInputXmlBytes(inputXmlBytes)
+            .setSanitizedInputXml(sanitizedInputXml)
+            .setEppInput(eppInput)
+            .build())
+        .build());
+    if (output.isResponse()) {
+      eppMetricBuilder.setStatus(output.getResponse().getResult().getCode());
+    }
+    return output;
+  }
+
+  private void recordMetrics(boolean isDryRun) {
+    if (!isDryRun) {
+      EppMetric metric = eppMetricBuilder.build();
+      eppMetrics.incrementEppRequests(metric);
+      eppMetrics.recordProcessingTime(metric);
+      eppMetrics.recordSqlStatements(metric);
+    }
   }
 
   /** Runs an EPP flow and converts known exceptions into EPP error responses. */
@@ -71,6 +71,15 @@ public class EppMetrics {
               LABEL_DESCRIPTORS,
               DEFAULT_FITTER);
 
+  private static final EventMetric sqlStatements =
+      MetricRegistryImpl.getDefault()
+          .newEventMetric(
+              "/epp/sql_statements",
+              "SQL Statements per EPP Request",
+              "count",
+              LABEL_DESCRIPTORS,
+              DEFAULT_FITTER);
+
   private enum TrafficType {
     CANARY, PROBER, REAL
   }
@@ -104,6 +113,22 @@ public class EppMetrics {
     requestTime.record(processingTime, commandName, getTrafficType(tld).toString(), eppStatusCode);
   }
 
+  /** Records the number of SQL statements sent to the database for an EPP request, if known. */
+  public void recordSqlStatements(EppMetric metric) {
+    if (metric.getSqlStatementCount().isEmpty()) {
+      return;
+    }
+    String eppStatusCode =
+        metric.getStatus().isPresent() ? String.valueOf(metric.getStatus().get().code) : "";
+    String commandName = metric.getCommandName().orElse("");
+    String tld = metric.getTld().orElse("");
+    sqlStatements.record(
+        metric.getSqlStatementCount().get(),
+        commandName,
+        getTrafficType(tld).toString(),
+        eppStatusCode);
+  }
+
   private static TrafficType getTrafficType(String tld) {
     if (tld.endsWith("canary.test")) {
       return TrafficType.CANARY;
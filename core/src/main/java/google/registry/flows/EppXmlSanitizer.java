@@ -88,14 +88,33 @@ public class EppXmlSanitizer {
   public static String sanitizeEppXml(byte[] inputXmlBytes) {
     try {
       // Keep exactly one newline at end of sanitized string.
-      return CharMatcher.whitespace().trimTrailingFrom(sanitizeAndEncode(inputXmlBytes)) + "\n";
+      return CharMatcher.whitespace().trimTrailingFrom(sanitizeAndEncode(inputXmlBytes, false))
+          + "\n";
     } catch (XMLStreamException | UnsupportedEncodingException e) {
       logger.atWarning().withCause(e).log("Failed to sanitize EPP XML message.");
       return Base64.getMimeEncoder().encodeToString(inputXmlBytes);
     }
   }
 
-  private static String sanitizeAndEncode(byte[] inputXmlBytes)
+  /**
+   * Returns sanitized EPP XML message with the whitespace between elements removed, so that
+   * well-formed input is rendered on a single line. Sanitizing and compacting are done in the same
+   * streaming pass.
+   *
+   * <p>Apart from the dropped whitespace, the output is the same as that of {@link
+   * #sanitizeEppXml}, except that it has no trailing newline. For malformed XML messages,
+   * base64-encoded raw bytes will be returned, without line breaks.
+   */
+  public static String sanitizeEppXmlCompact(byte[] inputXmlBytes) {
+    try {
+      return sanitizeAndEncode(inputXmlBytes, true).trim();
+    } catch (XMLStreamException | UnsupportedEncodingException e) {
+      logger.atWarning().withCause(e).log("Failed to sanitize EPP XML message.");
+      return Base64.getEncoder().encodeToString(inputXmlBytes);
+    }
+  }
+
+  private static String sanitizeAndEncode(byte[] inputXmlBytes, boolean dropWhitespace)
       throws XMLStreamException, UnsupportedEncodingException {
     XMLEventReader xmlEventReader =
         XML_INPUT_FACTORY.createXMLEventReader(new ByteArrayInputStream(inputXmlBytes));
@@ -120,6 +139,9 @@ public class EppXmlSanitizer {
 
     while (xmlEventReader.hasNext()) {
       XMLEvent xmlEvent = xmlEventReader.nextEvent();
+      if (dropWhitespace && xmlEvent.isCharacters() && xmlEvent.asCharacters().isWhiteSpace()) {
+        continue;
+      }
       xmlEventWriter.add(xmlEvent);
       if (isStartEventForSensitiveData(xmlEvent)) {
         QName startEventName = xmlEvent.asStartElement().getName();
@@ -142,17 +164,22 @@ public class EppXmlSanitizer {
     return outputXmlBytes.toString(inputEncoding);
   }
 
-  private static String maskSensitiveData(String original) {
+  /** Masks the text of an element for which {@link #isSensitiveElement} is true. */
+  static String maskSensitiveData(String original) {
     return original
         .codePoints()
         .mapToObj(codePoint -> Character.isISOControl(codePoint) ? CTRL_CHAR_MASK : DEFAULT_MASK)
         .collect(Collectors.joining());
   }
 
+  /** Returns whether the text of the element with the given local name should be masked. */
+  static boolean isSensitiveElement(String localName) {
+    return EPP_TAGS_IN_LOWER_CASE.contains(localName.toLowerCase(Locale.ROOT));
+  }
+
   private static boolean isStartEventForSensitiveData(XMLEvent xmlEvent) {
     return xmlEvent.isStartElement()
-        && EPP_TAGS_IN_LOWER_CASE.contains(
-            xmlEvent.asStartElement().getName().getLocalPart().toLowerCase(Locale.ROOT));
+        && isSensitiveElement(xmlEvent.asStartElement().getName().getLocalPart());
   }
 
   private static boolean isMatchingEndEvent(XMLEvent xmlEvent, QName startEventName) {
@@ -15,12 +15,18 @@
 package google.registry.flows;
 
 import static com.google.common.base.Preconditions.checkState;
+import static google.registry.config.RegistryConfig.getReplicaMaxStaleness;
 import static google.registry.persistence.transaction.TransactionManagerFactory.replicaTm;
 import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+import static java.util.concurrent.TimeUnit.MINUTES;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
+import com.google.common.flogger.FluentLogger;
 import dagger.Module;
 import dagger.Provides;
+import google.registry.flows.annotations.DatabaseRouting;
+import google.registry.flows.annotations.DatabaseRouting.Route;
 import google.registry.flows.picker.FlowPicker;
 import google.registry.model.contact.ContactHistory;
 import google.registry.model.domain.DomainHistory;
@@ -39,6 +45,7 @@ import google.registry.model.reporting.HistoryEntry;
 import google.registry.persistence.IsolationLevel;
 import google.registry.persistence.PersistenceModule.TransactionIsolationLevel;
 import google.registry.persistence.transaction.JpaTransactionManager;
+import google.registry.persistence.transaction.ReplicationLagMonitor;
 import jakarta.inject.Qualifier;
 import java.lang.annotation.Documented;
 import java.util.Optional;
@@ -47,8 +54,11 @@ import java.util.Optional;
 @Module
 public class FlowModule {
 
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
   private EppInput eppInput;
   private byte[] inputXmlBytes;
+  private Optional<String> sanitizedInputXml = Optional.empty();
   private SessionMetadata sessionMetadata;
   private TransportCredentials credentials;
   private boolean isDryRun;
@@ -71,6 +81,11 @@ public class FlowModule {
       return this;
     }
 
+    Builder setSanitizedInputXml(Optional<String> sanitizedInputXml) {
+      module.sanitizedInputXml = sanitizedInputXml;
+      return this;
+    }
+
     Builder setSessionMetadata(SessionMetadata sessionMetadata) {
       module.sessionMetadata = sessionMetadata;
       return this;
@@ -113,6 +128,13 @@ public class FlowModule {
     return inputXmlBytes;
   }
 
+  @Provides
+  @FlowScope
+  @SanitizedInputXml
+  Optional<String> provideSanitizedInputXml() {
+    return sanitizedInputXml;
+  }
+
   @Provides
   @FlowScope
   EppInput provideEppInput() {
@@ -203,11 +225,36 @@ public class FlowModule {
   @Provides
   @FlowScope
   static JpaTransactionManager provideJpaTm(Class<? extends Flow> flowClass) {
-    if (MutatingFlow.class.isAssignableFrom(flowClass)) {
-      return tm();
-    } else {
-      return replicaTm();
+    return switch (getDatabaseRoute(flowClass)) {
+      case PRIMARY -> tm();
+      case REPLICA -> replicaTm();
+      case REPLICA_IF_FRESH -> {
+        if (ReplicationLagMonitor.isReplicaFresh(getReplicaMaxStaleness())) {
+          yield replicaTm();
+        }
+        logger.atInfo().atMostEvery(1, MINUTES).log(
+            "Replica is stale, running %s on the primary database.", flowClass.getSimpleName());
+        yield tm();
+      }
+    };
+  }
+
+  /**
+   * Returns the database route of the flow, as declared by its {@link DatabaseRouting} annotation,
+   * or the primary database for mutating flows and the replica for others if it has none.
+   */
+  @VisibleForTesting
+  static Route getDatabaseRoute(Class<? extends Flow> flowClass) {
+    boolean isMutating = MutatingFlow.class.isAssignableFrom(flowClass);
+    DatabaseRouting routing = flowClass.getAnnotation(DatabaseRouting.class);
+    if (routing == null) {
+      return isMutating ? Route.PRIMARY : Route.REPLICA;
     }
+    checkState(
+        !isMutating || routing.value() == Route.PRIMARY,
+        "Mutating flow %s must run on the primary database",
+        flowClass.getSimpleName());
+    return routing.value();
   }
 
   @Provides
@@ -348,6 +395,11 @@ public class FlowModule {
   @Documented
   public @interface InputXml {}
 
+  /** Dagger qualifier for the sanitized input XML, if it was recorded during unmarshalling. */
+  @Qualifier
+  @Documented
+  public @interface SanitizedInputXml {}
+
   /** Dagger qualifier for registrar client id. */
   @Qualifier
   @Documented
@@ -14,13 +14,16 @@
 
 package google.registry.flows;
 
+import static com.google.common.flogger.LazyArgs.lazy;
 import static google.registry.xml.XmlTransformer.prettyPrint;
 
 import com.google.common.flogger.FluentLogger;
+import google.registry.config.RegistryConfig.Config;
 import google.registry.flows.FlowModule.DryRun;
 import google.registry.flows.FlowModule.InputXml;
 import google.registry.flows.FlowModule.LogSqlStatements;
 import google.registry.flows.FlowModule.RegistrarId;
+import google.registry.flows.FlowModule.SanitizedInputXml;
 import google.registry.flows.FlowModule.Superuser;
 import google.registry.flows.FlowModule.Transactional;
 import google.registry.flows.session.LoginFlow;
@@ -29,6 +32,7 @@ import google.registry.model.eppoutput.EppOutput;
 import google.registry.monitoring.whitebox.EppMetric;
 import google.registry.persistence.PersistenceModule.TransactionIsolationLevel;
 import google.registry.persistence.transaction.JpaTransactionManager;
+import google.registry.persistence.transaction.SqlStatementCounter;
 import google.registry.util.StopwatchLogger;
 import jakarta.inject.Inject;
 import jakarta.inject.Provider;
@@ -48,6 +52,7 @@ public class FlowRunner {
   @Inject Optional<TransactionIsolationLevel> isolationLevelOverride;
   @Inject Class<? extends Flow> flowClass;
   @Inject @InputXml byte[] inputXmlBytes;
+  @Inject @SanitizedInputXml Optional<String> sanitizedInputXml;
   @Inject @DryRun boolean isDryRun;
   @Inject @Superuser boolean isSuperuser;
   @Inject @Transactional boolean isTransactional;
@@ -56,19 +61,19 @@ public class FlowRunner {
   @Inject Trid trid;
   @Inject FlowReporter flowReporter;
   @Inject JpaTransactionManager jpaTransactionManager;
+  @Inject @Config("compactEppCommandLog") boolean compactEppCommandLog;
 
   @Inject FlowRunner() {}
 
   /** Runs the EPP flow, and records metrics on the given builder. */
   public EppOutput run(final EppMetric.Builder eppMetricBuilder) throws EppException {
-    String prettyXml = prettyPrint(EppXmlSanitizer.sanitizeEppXml(inputXmlBytes));
-
+    // The input XML is only sanitized and rendered if the log statement is actually emitted.
     logger.atInfo().log(
         COMMAND_LOG_FORMAT,
         trid.getServerTransactionId(),
         registrarId,
         sessionMetadata,
-        prettyXml.replace("\n", "\n\t"),
+        lazy(this::renderInputXmlForLog),
         credentials,
         eppRequestSource,
         isDryRun ? "DRY_RUN" : "LIVE",
@@ -78,6 +83,15 @@ public class FlowRunner {
       flowReporter.recordToLogs();
     }
     eppMetricBuilder.setCommandNameFromFlow(flowClass.getSimpleName());
+    long sqlStatementsBefore = SqlStatementCounter.getCount();
+    try {
+      return runFlow(eppMetricBuilder);
+    } finally {
+      eppMetricBuilder.setSqlStatementCount(SqlStatementCounter.getCount() - sqlStatementsBefore);
+    }
+  }
+
+  private EppOutput runFlow(EppMetric.Builder eppMetricBuilder) throws EppException {
     final StopwatchLogger stopwatch = new StopwatchLogger();
 
     // We may already be in a transaction, e.g., when invoked by DeleteExpiredDomainsAction.
@@ -118,6 +132,21 @@ public class FlowRunner {
     }
   }
 
+  /**
+   * Returns the sanitized input XML, formatted for the command log.
+   *
+   * <p>The input is only sanitized here if it wasn't already recorded while unmarshalling it.
+   */
+  private String renderInputXmlForLog() {
+    if (compactEppCommandLog) {
+      return sanitizedInputXml.orElseGet(
+          () -> EppXmlSanitizer.sanitizeEppXmlCompact(inputXmlBytes));
+    }
+    return prettyPrint(
+            sanitizedInputXml.orElseGet(() -> EppXmlSanitizer.sanitizeEppXml(inputXmlBytes)))
+        .replace("\n", "\n\t");
+  }
+
   /** Exception for canceling a transaction while capturing what the output would have been. */
   private static class DryRunException extends RuntimeException {
     final EppOutput output;
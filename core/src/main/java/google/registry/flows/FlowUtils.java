@@ -38,6 +38,8 @@ import google.registry.model.host.InetAddressAdapter.IpVersionMismatchException;
 import google.registry.model.reporting.HistoryEntry.HistoryEntryId;
 import google.registry.xml.XmlException;
 import java.util.List;
+import java.util.function.UnaryOperator;
+import javax.xml.stream.XMLStreamReader;
 
 /** Static utility functions for flows. */
 public final class FlowUtils {
@@ -67,8 +69,18 @@ public final class FlowUtils {
    * byte[])} but with exception-handling logic to throw {@link EppException} instead.
    */
   public static <T> T unmarshalEpp(Class<T> clazz, byte[] bytes) throws EppException {
+    return unmarshalEpp(clazz, bytes, UnaryOperator.identity());
+  }
+
+  /**
+   * Unmarshal bytes into Epp classes like {@link #unmarshalEpp(Class, byte[])}, passing the parse
+   * through the given reader decorator.
+   */
+  public static <T> T unmarshalEpp(
+      Class<T> clazz, byte[] bytes, UnaryOperator<XMLStreamReader> readerDecorator)
+      throws EppException {
     try {
-      return EppXmlTransformer.unmarshal(clazz, bytes);
+      return EppXmlTransformer.unmarshal(clazz, bytes, readerDecorator);
     } catch (XmlException e) {
       // If this XmlException is wrapping a known type find it. If not, it's a syntax error.
       List<Throwable> causalChain = Throwables.getCausalChain(e);
@@ -0,0 +1,195 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.flows;
+
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static com.google.common.base.Strings.nullToEmpty;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.flogger.FluentLogger;
+import java.io.StringWriter;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+import javax.annotation.Nullable;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+/**
+ * Records a sanitized copy of EPP XML while it is being parsed, for use in the EPP command log.
+ *
+ * <p>This is applied as a reader decorator to {@link FlowUtils#unmarshalEpp(Class, byte[],
+ * UnaryOperator)}, so that the log view is a side product of the pass that validates and
+ * unmarshals the input, rather than a separate parse of the same bytes. Credentials are masked
+ * the same way as by {@link EppXmlSanitizer}.
+ *
+ * <p>A recorder can only be applied to one reader.
+ */
+final class SanitizedXmlRecorder implements UnaryOperator<XMLStreamReader> {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+  private final boolean dropWhitespace;
+  private final StringWriter output = new StringWriter();
+  @Nullable private XMLStreamWriter writer;
+  private boolean failed;
+
+  /**
+   * Creates a recorder.
+   *
+   * @param dropWhitespace whether to drop the whitespace between elements, as in {@link
+   *     EppXmlSanitizer#sanitizeEppXmlCompact}
+   */
+  SanitizedXmlRecorder(boolean dropWhitespace) {
+    this.dropWhitespace = dropWhitespace;
+  }
+
+  @Override
+  public XMLStreamReader apply(XMLStreamReader reader) {
+    checkState(writer == null && !failed, "Recorder has already been applied");
+    try {
+      writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(output);
+      if (reader.getEventType() == XMLStreamConstants.START_DOCUMENT) {
+        writer.writeStartDocument(
+            Optional.ofNullable(reader.getCharacterEncodingScheme()).orElse(UTF_8.name()),
+            Optional.ofNullable(reader.getVersion()).orElse("1.0"));
+      }
+    } catch (XMLStreamException e) {
+      fail(e);
+    }
+    return new RecordingReader(reader);
+  }
+
+  /**
+   * Returns the sanitized XML recorded so far, or empty if nothing could be recorded.
+   *
+   * <p>Once the reader has been fully consumed, this is the sanitized form of the whole document.
+   */
+  Optional<String> getSanitizedXml() {
+    if (writer == null || failed) {
+      return Optional.empty();
+    }
+    try {
+      writer.flush();
+    } catch (XMLStreamException e) {
+      fail(e);
+      return Optional.empty();
+    }
+    return Optional.of(output.toString().trim());
+  }
+
+  private void fail(XMLStreamException e) {
+    // Recording is best-effort; the caller falls back to sanitizing the raw bytes.
+    logger.atWarning().withCause(e).log("Failed to record sanitized EPP XML.");
+    failed = true;
+  }
+
+  /** Reader that copies each event it advances to into {@link #writer}. */
+  private final class RecordingReader extends StreamReaderDelegate {
+
+    /** The sensitive element whose text is currently being masked, if any. */
+    @Nullable private QName maskedElement;
+
+    RecordingReader(XMLStreamReader reader) {
+      super(reader);
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+      int event = super.next();
+      if (!failed) {
+        try {
+          record(event);
+        } catch (XMLStreamException e) {
+          fail(e);
+        }
+      }
+      return event;
+    }
+
+    /**
+     * Advances to the next tag through {@link #next}, so that the skipped events are recorded.
+     *
+     * <p>The delegate's own implementation would skip them without going through this reader.
+     */
+    @Override
+    public int nextTag() throws XMLStreamException {
+      int event = next();
+      while (((event == CHARACTERS || event == CDATA) && isWhiteSpace())
+          || event == SPACE
+          || event == COMMENT
+          || event == PROCESSING_INSTRUCTION) {
+        event = next();
+      }
+      if (event != START_ELEMENT && event != END_ELEMENT) {
+        throw new XMLStreamException("Expected start or end tag", getLocation());
+      }
+      return event;
+    }
+
+    private void record(int event) throws XMLStreamException {
+      switch (event) {
+        case START_ELEMENT -> {
+          writer.writeStartElement(
+              nullToEmpty(getPrefix()), getLocalName(), nullToEmpty(getNamespaceURI()));
+          for (int i = 0; i < getNamespaceCount(); i++) {
+            if (isNullOrEmpty(getNamespacePrefix(i))) {
+              writer.writeDefaultNamespace(getNamespaceURI(i));
+            } else {
+              writer.writeNamespace(getNamespacePrefix(i), getNamespaceURI(i));
+            }
+          }
+          for (int i = 0; i < getAttributeCount(); i++) {
+            writer.writeAttribute(
+                nullToEmpty(getAttributePrefix(i)),
+                nullToEmpty(getAttributeNamespace(i)),
+                getAttributeLocalName(i),
+                getAttributeValue(i));
+          }
+          if (maskedElement == null && EppXmlSanitizer.isSensitiveElement(getLocalName())) {
+            maskedElement = getName();
+          }
+        }
+        case END_ELEMENT -> {
+          writer.writeEndElement();
+          if (getName().equals(maskedElement)) {
+            maskedElement = null;
+          }
+        }
+        case CHARACTERS, SPACE, CDATA -> {
+          if (maskedElement != null) {
+            writer.writeCharacters(EppXmlSanitizer.maskSensitiveData(getText()));
+          } else if (!(dropWhitespace && isWhiteSpace())) {
+            writer.writeCharacters(getText());
+          }
+        }
+        case COMMENT -> writer.writeComment(getText());
+        case PROCESSING_INSTRUCTION ->
+            writer.writeProcessingInstruction(getPITarget(), nullToEmpty(getPIData()));
+        case END_DOCUMENT -> writer.writeEndDocument();
+        default -> {
+          // DTDs and entity references are rejected by the parser, so there is nothing else.
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,56 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.flows.annotations;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation for transactional flow classes to indicate which database the flow should run on.
+ *
+ * <p>Flows without this annotation run on the primary database if they are a {@link
+ * google.registry.flows.MutatingFlow}, and on the read-only replica otherwise.
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface DatabaseRouting {
+
+  /** The database to run this flow on. */
+  Route value();
+
+  /** The databases a flow can run on. */
+  enum Route {
+    /** The primary database. This is the only route allowed for mutating flows. */
+    PRIMARY,
+
+    /** The read-only replica, regardless of how far it lags behind the primary. */
+    REPLICA,
+
+    /**
+     * The read-only replica, unless its replication lag exceeds the configured maximum staleness,
+     * in which case the primary database.
+     *
+     * <p>This does not guarantee that the flow sees writes the client made just before it.
+     *
+     * @see google.registry.config.RegistryConfig#getReplicaMaxStaleness
+     */
+    REPLICA_IF_FRESH
+  }
+}
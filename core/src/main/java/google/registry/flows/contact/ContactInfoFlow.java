@@ -26,6 +26,8 @@ import google.registry.flows.FlowModule.RegistrarId;
 import google.registry.flows.FlowModule.Superuser;
 import google.registry.flows.FlowModule.TargetId;
 import google.registry.flows.TransactionalFlow;
+import google.registry.flows.annotations.DatabaseRouting;
+import google.registry.flows.annotations.DatabaseRouting.Route;
 import google.registry.flows.annotations.ReportingSpec;
 import google.registry.model.contact.Contact;
 import google.registry.model.contact.ContactInfoData;
@@ -51,6 +53,7 @@ import org.joda.time.DateTime;
  * @error {@link google.registry.flows.ResourceFlowUtils.ResourceNotOwnedException}
  */
 @ReportingSpec(ActivityReportField.CONTACT_INFO)
+@DatabaseRouting(Route.REPLICA_IF_FRESH)
 public final class ContactInfoFlow implements TransactionalFlow {
 
   @Inject ExtensionManager extensionManager;
@@ -33,6 +33,7 @@ import google.registry.flows.FlowModule.Superuser;
 import google.registry.flows.FlowModule.TargetId;
 import google.registry.flows.MutatingFlow;
 import google.registry.flows.TransactionalFlow;
+import google.registry.flows.annotations.DatabaseRouting.Route;
 import google.registry.flows.annotations.ReportingSpec;
 import google.registry.flows.custom.DomainInfoFlowCustomLogic;
 import google.registry.flows.custom.DomainInfoFlowCustomLogic.AfterValidationParameters;
@@ -70,7 +71,10 @@ import org.joda.time.DateTime;
  *
  * <p>This implements {@link MutatingFlow} instead of {@link TransactionalFlow} as a workaround so
  * that the common workflow of "create domain, then immediately get domain info" does not run into
- * replication lag issues where the info command claims the domain does not exist.
+ * replication lag issues where the info command claims the domain does not exist. {@link
+ * Route#REPLICA_IF_FRESH} is not enough for this: the lag it checks ignores WAL that the replica
+ * has not received yet and is cached for a second, so it cannot tell whether the replica has
+ * replayed the create.
  *
  * @error {@link google.registry.flows.FlowUtils.NotLoggedInException}
  * @error {@link google.registry.flows.FlowUtils.UnknownCurrencyEppException}
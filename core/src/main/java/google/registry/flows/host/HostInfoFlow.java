@@ -26,6 +26,8 @@ import google.registry.flows.ExtensionManager;
 import google.registry.flows.FlowModule.RegistrarId;
 import google.registry.flows.FlowModule.TargetId;
 import google.registry.flows.TransactionalFlow;
+import google.registry.flows.annotations.DatabaseRouting;
+import google.registry.flows.annotations.DatabaseRouting.Route;
 import google.registry.flows.annotations.ReportingSpec;
 import google.registry.model.domain.Domain;
 import google.registry.model.eppcommon.StatusValue;
@@ -50,6 +52,7 @@ import org.joda.time.DateTime;
  * @error {@link HostFlowUtils.HostNameNotPunyCodedException}
  */
 @ReportingSpec(ActivityReportField.HOST_INFO)
+@DatabaseRouting(Route.REPLICA_IF_FRESH)
 public final class HostInfoFlow implements TransactionalFlow {
 
   @Inject ExtensionManager extensionManager;
@@ -28,9 +28,15 @@ import org.joda.time.DateTime;
 /** Static utility functions for poll flows. */
 public final class PollFlowUtils {
 
-  /** Returns the number of poll messages for the given registrar that are not in the future. */
+  /**
+   * Returns the number of poll messages for the given registrar that are not in the future.
+   *
+   * <p>This reads the registrar's maintained count (see {@link PollMessageCounter}) rather than
+   * counting its poll messages, and may store an updated count if the current transaction is not
+   * read-only.
+   */
   public static int getPollMessageCount(String registrarId, DateTime now) {
-    return (int) createPollMessageQuery(registrarId, now).count();
+    return PollMessageCounter.getCount(registrarId, now);
   }
 
   /** Returns the first (by event time) poll message not in the future for this registrar. */
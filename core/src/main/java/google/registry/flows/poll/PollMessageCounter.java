@@ -0,0 +1,135 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.flows.poll;
+
+import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import javax.annotation.Nullable;
+import org.joda.time.DateTime;
+
+/**
+ * Counts the poll messages of a registrar that are not in the future, without scanning them all.
+ *
+ * <p>The counts are kept in the {@code PollMessageCount} table. A database trigger on the {@code
+ * PollMessage} table adjusts the count of a registrar in the same transaction as every insertion,
+ * update and deletion of one of its poll messages, so a stored count is always consistent with the
+ * poll messages visible to the transaction that reads it.
+ *
+ * <p>A stored count covers the messages whose event time is at or before its {@code count_time}.
+ * Messages that have become due since then are found with a range scan of the {@code
+ * (registrar_id, event_time)} index, added to the count, and the count is stored again as of the
+ * current transaction time. The first count of a registrar is a full count.
+ *
+ * <p>In a read-only transaction, such as that of a {@link PollRequestFlow} on the replica database,
+ * the count is computed the same way but is not stored. It is brought up to date by the next
+ * count in a writable transaction, such as that of a {@link PollAckFlow}.
+ */
+final class PollMessageCounter {
+
+  /**
+   * Reads the stored count of a registrar together with the number of messages that it does not
+   * cover, in a single statement so that both come from the same snapshot.
+   *
+   * <p>The columns are the version of the stored count (null if there is none), the stored count
+   * (null if unknown), whether the stored count is not newer than {@code :now}, and the number of
+   * due messages not covered by a usable stored count.
+   */
+  private static final String COUNT_QUERY =
+      """
+      SELECT c.version, c.message_count, c.count_time IS NULL OR c.count_time <= :now,
+          (SELECT count(*) FROM "PollMessage" p
+           WHERE p.registrar_id = :registrarId
+               AND p.event_time <= :now
+               AND (c.message_count IS NULL OR c.count_time > :now
+                   OR p.event_time > c.count_time))
+      FROM (SELECT 1) AS one
+      LEFT JOIN "PollMessageCount" c ON c.registrar_id = :registrarId
+      """;
+
+  private static final String INSERT_COUNT_STATEMENT =
+      """
+      INSERT INTO "PollMessageCount" (registrar_id, message_count, count_time, version)
+      VALUES (:registrarId, :count, :now, 1)
+      ON CONFLICT (registrar_id) DO NOTHING
+      """;
+
+  /**
+   * Stores a new count, unless the count row was changed after it was read, in which case the new
+   * count may be missing a concurrent change and is only returned to the caller.
+   */
+  private static final String UPDATE_COUNT_STATEMENT =
+      """
+      UPDATE "PollMessageCount"
+      SET message_count = :count, count_time = :now, version = version + 1
+      WHERE registrar_id = :registrarId AND version = :version
+      """;
+
+  private PollMessageCounter() {}
+
+  /** Returns the number of poll messages for the given registrar that are not in the future. */
+  static int getCount(String registrarId, DateTime now) {
+    EntityManager entityManager = tm().getEntityManager();
+    Instant nowInstant = Instant.ofEpochMilli(now.getMillis());
+    Object[] row =
+        (Object[])
+            entityManager
+                .createNativeQuery(COUNT_QUERY)
+                .setParameter("registrarId", registrarId)
+                .setParameter("now", nowInstant)
+                .getSingleResult();
+    Long version = row[0] == null ? null : ((Number) row[0]).longValue();
+    Integer storedCount = row[1] == null ? null : ((Number) row[1]).intValue();
+    boolean storable = Boolean.TRUE.equals(row[2]);
+    int uncounted = ((Number) row[3]).intValue();
+    boolean writable = !tm().inReadOnlyTransaction();
+
+    if (storedCount != null && storable) {
+      int count = storedCount + uncounted;
+      if (uncounted > 0 && writable) {
+        storeCount(registrarId, count, nowInstant, version);
+      }
+      return count;
+    }
+    // There is no usable stored count, so the uncounted messages are all the due messages. Only
+    // store their number if it does not replace a count made at a later time.
+    if (storable && writable) {
+      storeCount(registrarId, uncounted, nowInstant, version);
+    }
+    return uncounted;
+  }
+
+  private static void storeCount(
+      String registrarId, int count, Instant now, @Nullable Long version) {
+    EntityManager entityManager = tm().getEntityManager();
+    if (version == null) {
+      entityManager
+          .createNativeQuery(INSERT_COUNT_STATEMENT)
+          .setParameter("registrarId", registrarId)
+          .setParameter("count", count)
+          .setParameter("now", now)
+          .executeUpdate();
+    } else {
+      entityManager
+          .createNativeQuery(UPDATE_COUNT_STATEMENT)
+          .setParameter("registrarId", registrarId)
+          .setParameter("count", count)
+          .setParameter("now", now)
+          .setParameter("version", version)
+          .executeUpdate();
+    }
+  }
+}
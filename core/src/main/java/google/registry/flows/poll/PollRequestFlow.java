@@ -28,6 +28,8 @@ import google.registry.flows.ExtensionManager;
 import google.registry.flows.FlowModule.PollMessageId;
 import google.registry.flows.FlowModule.RegistrarId;
 import google.registry.flows.TransactionalFlow;
+import google.registry.flows.annotations.DatabaseRouting;
+import google.registry.flows.annotations.DatabaseRouting.Route;
 import google.registry.model.eppoutput.EppResponse;
 import google.registry.model.poll.MessageQueueInfo;
 import google.registry.model.poll.PollMessage;
@@ -47,9 +49,13 @@ import org.joda.time.DateTime;
  * ignored. The externally visible id for the poll message that the registrar sees is generated by
  * {@link PollMessageExternalKeyConverter}.
  *
+ * <p>The flow runs on the replica database unless it is stale. Its read-only transaction computes
+ * the message count without storing it (see {@link PollMessageCounter}).
+ *
  * @error {@link PollRequestFlow.UnexpectedMessageIdException}
  */
 @IsolationLevel(value = TransactionIsolationLevel.TRANSACTION_READ_COMMITTED)
+@DatabaseRouting(Route.REPLICA_IF_FRESH)
 public final class PollRequestFlow implements TransactionalFlow {
 
   @Inject ExtensionManager extensionManager;
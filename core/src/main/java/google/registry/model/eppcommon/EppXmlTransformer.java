@@ -26,6 +26,8 @@ import google.registry.xml.XmlException;
 import google.registry.xml.XmlTransformer;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.util.function.UnaryOperator;
+import javax.xml.stream.XMLStreamReader;
 
 /** {@link XmlTransformer} for marshalling to and from the Epp model classes.  */
 public class EppXmlTransformer  {
@@ -72,6 +74,17 @@ public class EppXmlTransformer  {
     return INPUT_TRANSFORMER.unmarshal(clazz, new ByteArrayInputStream(bytes));
   }
 
+  /**
+   * Unmarshal bytes into Epp classes, passing the parse through the given reader decorator.
+   *
+   * @see XmlTransformer#unmarshal(Class, java.io.InputStream, UnaryOperator)
+   */
+  public static <T> T unmarshal(
+      Class<T> clazz, byte[] bytes, UnaryOperator<XMLStreamReader> readerDecorator)
+      throws XmlException {
+    return INPUT_TRANSFORMER.unmarshal(clazz, new ByteArrayInputStream(bytes), readerDecorator);
+  }
+
   private static byte[] marshal(
       XmlTransformer transformer,
       ImmutableObject root,
@@ -53,6 +53,7 @@ import google.registry.model.domain.superuser.DomainDeleteSuperuserExtension;
 import google.registry.model.domain.superuser.DomainTransferRequestSuperuserExtension;
 import google.registry.model.domain.superuser.DomainUpdateSuperuserExtension;
 import google.registry.model.domain.token.AllocationTokenExtension;
+import google.registry.model.eppinput.ResourceCommand.AbstractSingleResourceCommand;
 import google.registry.model.eppinput.ResourceCommand.ResourceCheck;
 import google.registry.model.eppinput.ResourceCommand.SingleResourceCommand;
 import google.registry.model.host.HostCommand;
@@ -86,6 +87,25 @@ public class EppInput extends ImmutableObject {
     return commandWrapper;
   }
 
+  /**
+   * Returns a copy of this single resource command (e.g. a delete) with another target ID.
+   *
+   * <p>This lets the registry unmarshal a command that it issues to itself (e.g. from a batch
+   * action) once, and run it on many resources without unmarshalling it again for each one.
+   */
+  public EppInput withTargetId(String targetId) {
+    ResourceCommandWrapper resourceCommandWrapper =
+        clone((ResourceCommandWrapper) commandWrapper.getCommand());
+    AbstractSingleResourceCommand resourceCommand =
+        clone((AbstractSingleResourceCommand) resourceCommandWrapper.getResourceCommand());
+    resourceCommand.targetId = targetId;
+    resourceCommandWrapper.resourceCommand = resourceCommand;
+    EppInput instance = clone(this);
+    instance.commandWrapper = clone(commandWrapper);
+    instance.commandWrapper.command = resourceCommandWrapper;
+    return instance;
+  }
+
   /**
    * Returns the EPP command name, defined as the name of the {@code InnerCommand} element within
    * the {@code <command>} element (e.g. "create" or "poll"), or "hello" for the hello command.
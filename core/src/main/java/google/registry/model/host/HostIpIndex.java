@@ -0,0 +1,305 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.model.host;
+
+import static google.registry.config.RegistryConfig.getHostIpIndexRefreshInterval;
+import static google.registry.persistence.transaction.TransactionManagerFactory.replicaTm;
+import static google.registry.util.DateTimeUtils.END_OF_TIME;
+import static google.registry.util.DateTimeUtils.START_OF_TIME;
+import static google.registry.util.DateTimeUtils.latestOf;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+import google.registry.persistence.VKey;
+import google.registry.util.Clock;
+import google.registry.util.NonFinalForTesting;
+import google.registry.util.SystemClock;
+import jakarta.persistence.TypedQuery;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntUnaryOperator;
+import org.joda.time.DateTime;
+
+/**
+ * In-memory index of the active hosts by IP address.
+ *
+ * <p>Nameserver lookups by IP address are popular with abuse researchers, and each one otherwise
+ * queries the {@code inet_addresses} array of every host in the database. The index lets WHOIS
+ * and RDAP find the hosts without a database round trip.
+ *
+ * <p>The index is loaded on first use, and then refreshed at most once per refresh interval by the
+ * lookup that finds it due. Each refresh only loads the hosts whose update timestamp is later than
+ * the latest one seen so far, minus {@link #DELTA_QUERY_OVERLAP}. So lookups are eventually
+ * consistent, and may miss changes for up to the refresh interval.
+ *
+ * <p>The addresses are kept in sorted primitive arrays, IPv4 addresses as {@code int}s and IPv6
+ * addresses as pairs of {@code long}s, with the repo IDs of their hosts in parallel arrays, and
+ * looked up by binary search.
+ */
+public final class HostIpIndex {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  /**
+   * How far before the latest update timestamp seen each delta query starts.
+   *
+   * <p>The update timestamp of a host is the start time of the transaction that updated it, so a
+   * long transaction can commit an earlier timestamp after a delta query has already seen a later
+   * one. The overlap also covers the replication lag of the replica. Loading the same update twice
+   * is harmless.
+   */
+  private static final Duration DELTA_QUERY_OVERLAP = Duration.ofMinutes(5);
+
+  @NonFinalForTesting
+  private static Optional<HostIpIndex> instance =
+      create(getHostIpIndexRefreshInterval(), new SystemClock());
+
+  private final Duration refreshInterval;
+  private final Clock clock;
+
+  /** Held while loading updates, so that only one thread loads them at a time. */
+  private final ReentrantLock refreshLock = new ReentrantLock();
+
+  /** The addresses of the indexed hosts, by repo ID. Only accessed while holding the lock. */
+  private final Map<String, ImmutableSet<InetAddress>> hostAddresses = new HashMap<>();
+
+  /** The latest update timestamp seen so far. Only accessed while holding the lock. */
+  private DateTime latestUpdateTime = START_OF_TIME;
+
+  /** The time after which the next lookup refreshes the index, or null before the first load. */
+  private volatile DateTime nextRefreshTime = null;
+
+  private volatile Snapshot snapshot = Snapshot.create(ImmutableList.of());
+
+  private HostIpIndex(Duration refreshInterval, Clock clock) {
+    this.refreshInterval = refreshInterval;
+    this.clock = clock;
+  }
+
+  private static Optional<HostIpIndex> create(Duration refreshInterval, Clock clock) {
+    return refreshInterval.isZero()
+        ? Optional.empty()
+        : Optional.of(new HostIpIndex(refreshInterval, clock));
+  }
+
+  @VisibleForTesting
+  public static void setIndexForTest(Optional<Duration> refreshInterval, Clock clock) {
+    instance = refreshInterval.flatMap(interval -> create(interval, clock));
+  }
+
+  /**
+   * Returns the keys of the active hosts with the given IP address, sorted by repo ID, or empty if
+   * the index is disabled.
+   *
+   * <p>The hosts may have been updated or deleted since the index was last refreshed, so callers
+   * should load them and check them again if that matters.
+   */
+  public static Optional<ImmutableList<VKey<Host>>> getActiveHostKeys(InetAddress address) {
+    return instance.map(index -> index.lookUp(address));
+  }
+
+  private ImmutableList<VKey<Host>> lookUp(InetAddress address) {
+    refreshIfDue();
+    return snapshot.lookUp(address);
+  }
+
+  private void refreshIfDue() {
+    DateTime refreshTime = nextRefreshTime;
+    if (refreshTime != null && clock.nowUtc().isBefore(refreshTime)) {
+      return;
+    }
+    // Until the first load completes, lookups have to wait for it. After that, they keep using the
+    // current snapshot while another thread refreshes it.
+    if (refreshTime == null) {
+      refreshLock.lock();
+    } else if (!refreshLock.tryLock()) {
+      return;
+    }
+    try {
+      DateTime now = clock.nowUtc();
+      if (nextRefreshTime != null && now.isBefore(nextRefreshTime)) {
+        return;
+      }
+      loadUpdatedHosts(nextRefreshTime == null);
+      nextRefreshTime = now.plus(refreshInterval.toMillis());
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  /**
+   * Loads the hosts updated since the latest update seen so far, and rebuilds the snapshot if any
+   * of their addresses changed.
+   *
+   * <p>The initial load only needs the hosts that are not deleted. Later loads need the deleted
+   * hosts too, so that they can be removed from the index.
+   */
+  private void loadUpdatedHosts(boolean initialLoad) {
+    String queryString =
+        "SELECT repoId, inetAddresses, deletionTime, updateTimestamp.lastUpdateTime FROM Host"
+            + (initialLoad
+                ? " WHERE deletionTime = :endOfTime"
+                : " WHERE updateTimestamp.lastUpdateTime > :since");
+    DateTime since = latestUpdateTime.minus(DELTA_QUERY_OVERLAP.toMillis());
+    ImmutableList<Object[]> rows =
+        replicaTm()
+            .reTransact(
+                () -> {
+                  TypedQuery<Object[]> query = replicaTm().query(queryString, Object[].class);
+                  if (initialLoad) {
+                    query.setParameter("endOfTime", END_OF_TIME);
+                  } else {
+                    query.setParameter("since", since);
+                  }
+                  return ImmutableList.copyOf(query.getResultList());
+                });
+    boolean changed = false;
+    for (Object[] row : rows) {
+      String repoId = (String) row[0];
+      @SuppressWarnings("unchecked")
+      Set<InetAddress> addresses = (Set<InetAddress>) row[1];
+      DateTime deletionTime = (DateTime) row[2];
+      if (row[3] != null) {
+        latestUpdateTime = latestOf(latestUpdateTime, (DateTime) row[3]);
+      }
+      if (END_OF_TIME.equals(deletionTime) && addresses != null && !addresses.isEmpty()) {
+        ImmutableSet<InetAddress> newAddresses = ImmutableSet.copyOf(addresses);
+        changed |= !newAddresses.equals(hostAddresses.put(repoId, newAddresses));
+      } else {
+        changed |= hostAddresses.remove(repoId) != null;
+      }
+    }
+    if (changed) {
+      snapshot = Snapshot.create(hostAddresses.entrySet());
+    }
+    if (initialLoad) {
+      logger.atInfo().log("Loaded %d hosts into the host IP index.", hostAddresses.size());
+    }
+  }
+
+  /** An IPv4 address of a host, as an unsigned {@code int}. */
+  private record Ipv4Entry(int address, String repoId) {}
+
+  /** An IPv6 address of a host, as a pair of unsigned {@code long}s. */
+  private record Ipv6Entry(long high, long low, String repoId) {}
+
+  /** An immutable snapshot of the index, which lookups can read without locking. */
+  private static final class Snapshot {
+
+    private final int[] ipv4Addresses;
+    private final String[] ipv4RepoIds;
+    private final long[] ipv6High;
+    private final long[] ipv6Low;
+    private final String[] ipv6RepoIds;
+
+    private Snapshot(List<Ipv4Entry> ipv4Entries, List<Ipv6Entry> ipv6Entries) {
+      ipv4Addresses = ipv4Entries.stream().mapToInt(Ipv4Entry::address).toArray();
+      ipv4RepoIds = ipv4Entries.stream().map(Ipv4Entry::repoId).toArray(String[]::new);
+      ipv6High = ipv6Entries.stream().mapToLong(Ipv6Entry::high).toArray();
+      ipv6Low = ipv6Entries.stream().mapToLong(Ipv6Entry::low).toArray();
+      ipv6RepoIds = ipv6Entries.stream().map(Ipv6Entry::repoId).toArray(String[]::new);
+    }
+
+    /** Creates a snapshot of the given host addresses, keyed by repo ID. */
+    static Snapshot create(Iterable<Map.Entry<String, ImmutableSet<InetAddress>>> hostAddresses) {
+      List<Ipv4Entry> ipv4Entries = new ArrayList<>();
+      List<Ipv6Entry> ipv6Entries = new ArrayList<>();
+      for (Map.Entry<String, ImmutableSet<InetAddress>> entry : hostAddresses) {
+        for (InetAddress address : entry.getValue()) {
+          byte[] bytes = address.getAddress();
+          if (address instanceof Inet4Address) {
+            ipv4Entries.add(new Ipv4Entry(Ints.fromByteArray(bytes), entry.getKey()));
+          } else {
+            ipv6Entries.add(
+                new Ipv6Entry(
+                    Longs.fromByteArray(bytes),
+                    Longs.fromByteArray(Arrays.copyOfRange(bytes, 8, 16)),
+                    entry.getKey()));
+          }
+        }
+      }
+      ipv4Entries.sort(
+          Comparator.comparing(Ipv4Entry::address, Integer::compareUnsigned)
+              .thenComparing(Ipv4Entry::repoId));
+      ipv6Entries.sort(
+          Comparator.comparing(Ipv6Entry::high, Long::compareUnsigned)
+              .thenComparing(Ipv6Entry::low, Long::compareUnsigned)
+              .thenComparing(Ipv6Entry::repoId));
+      return new Snapshot(ipv4Entries, ipv6Entries);
+    }
+
+    /** Returns the keys of the hosts with the given address, sorted by repo ID. */
+    ImmutableList<VKey<Host>> lookUp(InetAddress address) {
+      ImmutableList.Builder<VKey<Host>> keys = new ImmutableList.Builder<>();
+      byte[] bytes = address.getAddress();
+      if (address instanceof Inet4Address) {
+        int key = Ints.fromByteArray(bytes);
+        int i =
+            lowerBound(ipv4Addresses.length, j -> Integer.compareUnsigned(ipv4Addresses[j], key));
+        for (; i < ipv4Addresses.length && ipv4Addresses[i] == key; i++) {
+          keys.add(VKey.create(Host.class, ipv4RepoIds[i]));
+        }
+      } else {
+        long high = Longs.fromByteArray(bytes);
+        long low = Longs.fromByteArray(Arrays.copyOfRange(bytes, 8, 16));
+        int i =
+            lowerBound(
+                ipv6High.length,
+                j -> {
+                  int result = Long.compareUnsigned(ipv6High[j], high);
+                  return result != 0 ? result : Long.compareUnsigned(ipv6Low[j], low);
+                });
+        for (; i < ipv6High.length && ipv6High[i] == high && ipv6Low[i] == low; i++) {
+          keys.add(VKey.create(Host.class, ipv6RepoIds[i]));
+        }
+      }
+      return keys.build();
+    }
+
+    /**
+     * Returns the index of the first element that is not less than the key, or {@code size} if
+     * there is none.
+     *
+     * @param compareToKey compares the element at an index to the key
+     */
+    private static int lowerBound(int size, IntUnaryOperator compareToKey) {
+      int low = 0;
+      int high = size;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (compareToKey.applyAsInt(middle) < 0) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+  }
+}
@@ -91,7 +91,8 @@ import org.joda.time.DateTime;
       @Index(columnList = "domainRepoId"),
       @Index(columnList = "registrarId"),
       @Index(columnList = "eventTime"),
-      @Index(columnList = "domainRepoId,domainHistoryRevisionId")
+      @Index(columnList = "domainRepoId,domainHistoryRevisionId"),
+      @Index(name = "pollmessage_registrar_id_event_time_idx", columnList = "registrarId,eventTime")
     })
 public abstract class PollMessage extends ImmutableObject
     implements Buildable, TransferServerApproveEntity, UnsafeSerializable {
@@ -0,0 +1,359 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.model.tld.label;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static google.registry.config.RegistryConfig.getDomainLabelListSnapshotDirectory;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.flogger.FluentLogger;
+import google.registry.model.CacheUtils;
+import google.registry.util.NonFinalForTesting;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * An immutable, memory-mapped snapshot of a single revision of a premium or reserved list.
+ *
+ * <p>List revisions never change once saved, so the first lookup of a revision writes all of its
+ * entries to a local file, which is memory-mapped from then on. The file holds the labels in sorted
+ * order plus a perfect hash table over them (hash and displace), so that a lookup hashes the label,
+ * reads a single slot and compares a single entry. This answers lookups without any SQL, and keeps
+ * the entries off the Java heap no matter how large the list is.
+ *
+ * <p>The file layout is as follows, with all integers stored big-endian:
+ *
+ * <pre>
+ *   int magic, int formatVersion, int entryCount, int bucketCount, int slotCount
+ *   int[bucketCount] the hash seed of each bucket
+ *   int[slotCount]   the index of the entry in each slot, or -1 if the slot is empty
+ *   int[entryCount]  the offset of each entry, relative to the start of the entries
+ *   entries, sorted by label: u16 labelLength, label (UTF-8), u16 valueLength, value (UTF-8)
+ * </pre>
+ *
+ * <p>Snapshots are keyed by list type and revision ID only, so the snapshot directory must not be
+ * shared between registry environments.
+ */
+final class DomainLabelListSnapshot {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private static final int MAGIC = 0x4e4c4c53;
+  private static final int FORMAT_VERSION = 1;
+  private static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+  /** The average number of labels in each hash bucket, i.e. the labels sharing a seed. */
+  private static final int LABELS_PER_BUCKET = 4;
+
+  /** The maximum number of seeds to try for a single bucket before giving up. */
+  private static final int MAX_SEED = 1 << 24;
+
+  @NonFinalForTesting
+  private static Optional<Path> snapshotDirectory = getDomainLabelListSnapshotDirectory();
+
+  /**
+   * In-memory cache of the open snapshots, keyed by file name.
+   *
+   * <p>Only the mappings are cached here, not the entries, so this cache is small. Snapshots of
+   * revisions that are no longer current are eventually evicted and unmapped.
+   */
+  private static final Cache<String, DomainLabelListSnapshot> snapshotCache =
+      CacheUtils.newCacheBuilder().maximumSize(100).build();
+
+  /** Read-only view of the file; only absolute reads are used, so it can be shared by threads. */
+  private final ByteBuffer buffer;
+
+  private final int entryCount;
+  private final int bucketCount;
+  private final int slotCount;
+  private final int slotsStart;
+  private final int offsetsStart;
+  private final int entriesStart;
+
+  private DomainLabelListSnapshot(ByteBuffer buffer) {
+    this.buffer = buffer;
+    checkState(
+        buffer.limit() >= HEADER_SIZE && buffer.getInt(0) == MAGIC,
+        "Not a domain label list snapshot");
+    checkState(
+        buffer.getInt(4) == FORMAT_VERSION,
+        "Unsupported snapshot format version %s",
+        buffer.getInt(4));
+    entryCount = buffer.getInt(8);
+    bucketCount = buffer.getInt(12);
+    slotCount = buffer.getInt(16);
+    slotsStart = HEADER_SIZE + bucketCount * Integer.BYTES;
+    offsetsStart = slotsStart + slotCount * Integer.BYTES;
+    entriesStart = offsetsStart + entryCount * Integer.BYTES;
+    checkState(entriesStart <= buffer.limit(), "Truncated domain label list snapshot");
+  }
+
+  /**
+   * Returns the snapshot of the given list revision, writing it from the supplied entries if this
+   * instance doesn't have it yet, or absent if snapshots are disabled.
+   *
+   * @param listType the type of the list (e.g. "premium"), since revision IDs are only unique
+   *     within a type
+   * @param entries supplies the entries of the revision, mapping each label to its value
+   */
+  static Optional<DomainLabelListSnapshot> get(
+      String listType, long revisionId, Supplier<ImmutableMap<String, String>> entries) {
+    if (snapshotDirectory.isEmpty()) {
+      return Optional.empty();
+    }
+    Path directory = snapshotDirectory.get();
+    String fileName = String.format("%s-%d.snapshot", listType, revisionId);
+    return Optional.of(
+        snapshotCache.get(fileName, name -> openOrWrite(directory.resolve(name), entries)));
+  }
+
+  @VisibleForTesting
+  static void setSnapshotDirectoryForTest(Optional<Path> directory) {
+    snapshotDirectory = directory;
+    snapshotCache.invalidateAll();
+  }
+
+  private static DomainLabelListSnapshot openOrWrite(
+      Path file, Supplier<ImmutableMap<String, String>> entries) {
+    if (Files.exists(file)) {
+      try {
+        return open(file);
+      } catch (IOException | IllegalStateException e) {
+        logger.atWarning().withCause(e).log("Rewriting unreadable snapshot %s.", file);
+      }
+    }
+    try {
+      write(file, entries.get());
+      return open(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write snapshot " + file, e);
+    }
+  }
+
+  /** Maps the snapshot stored in the given file into memory. */
+  static DomainLabelListSnapshot open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      checkState(channel.size() <= Integer.MAX_VALUE, "Snapshot %s is too large to map", file);
+      // The mapping stays valid after the channel is closed.
+      return new DomainLabelListSnapshot(
+          channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Writes a snapshot of the given entries to the given file.
+   *
+   * <p>The snapshot is written to a temporary file that is then atomically moved into place, so
+   * that concurrent readers and writers only ever see complete snapshots.
+   */
+  static void write(Path file, Map<String, String> entries) throws IOException {
+    Entry[] sorted =
+        entries.entrySet().stream()
+            .map(e -> new Entry(e.getKey(), e.getValue()))
+            .sorted(Comparator.comparing(Entry::label))
+            .toArray(Entry[]::new);
+    int entryCount = sorted.length;
+    int bucketCount = Math.max(1, (entryCount + LABELS_PER_BUCKET - 1) / LABELS_PER_BUCKET);
+    // A little headroom over a minimal table keeps the seed search for the last buckets short.
+    int slotCount = Math.max(1, entryCount + entryCount / 8);
+    int[] seeds = new int[bucketCount];
+    int[] slots = new int[slotCount];
+    Arrays.fill(slots, -1);
+    assignSlots(sorted, seeds, slots);
+
+    Files.createDirectories(file.getParent());
+    Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+    try {
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(entryCount);
+        out.writeInt(bucketCount);
+        out.writeInt(slotCount);
+        for (int seed : seeds) {
+          out.writeInt(seed);
+        }
+        for (int slot : slots) {
+          out.writeInt(slot);
+        }
+        long offset = 0;
+        for (Entry entry : sorted) {
+          out.writeInt((int) offset);
+          offset += entry.size();
+        }
+        checkState(
+            HEADER_SIZE + (long) (bucketCount + slotCount + entryCount) * Integer.BYTES + offset
+                <= Integer.MAX_VALUE,
+            "Too many entries for a single snapshot: %s",
+            entryCount);
+        for (Entry entry : sorted) {
+          out.writeShort(entry.labelBytes.length);
+          out.write(entry.labelBytes);
+          out.writeShort(entry.valueBytes.length);
+          out.write(entry.valueBytes);
+        }
+      }
+      Files.move(tempFile, file, ATOMIC_MOVE, REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Finds a seed for each bucket such that every label lands in its own slot.
+   *
+   * <p>Buckets are placed largest first, while the table is still mostly empty.
+   */
+  private static void assignSlots(Entry[] entries, int[] seeds, int[] slots) {
+    List<List<Integer>> buckets = new ArrayList<>(seeds.length);
+    for (int i = 0; i < seeds.length; i++) {
+      buckets.add(new ArrayList<>());
+    }
+    for (int i = 0; i < entries.length; i++) {
+      buckets.get(bucketOf(entries[i].labelBytes, seeds.length)).add(i);
+    }
+    Integer[] bucketOrder = new Integer[seeds.length];
+    Arrays.setAll(bucketOrder, i -> i);
+    Arrays.sort(bucketOrder, Comparator.comparingInt(b -> -buckets.get(b).size()));
+    int[] candidateSlots = new int[0];
+    for (int bucket : bucketOrder) {
+      List<Integer> members = buckets.get(bucket);
+      if (members.isEmpty()) {
+        break;
+      }
+      if (candidateSlots.length < members.size()) {
+        candidateSlots = new int[members.size()];
+      }
+      int seed = 1;
+      while (!tryPlace(entries, members, seed, slots, candidateSlots)) {
+        seed++;
+        checkState(seed < MAX_SEED, "Could not find a perfect hash for %s labels", entries.length);
+      }
+      seeds[bucket] = seed;
+      for (int i = 0; i < members.size(); i++) {
+        slots[candidateSlots[i]] = members.get(i);
+      }
+    }
+  }
+
+  /** Returns whether all the members of a bucket land in distinct empty slots with this seed. */
+  private static boolean tryPlace(
+      Entry[] entries, List<Integer> members, int seed, int[] slots, int[] candidateSlots) {
+    for (int i = 0; i < members.size(); i++) {
+      int slot = slotOf(entries[members.get(i)].labelBytes, seed, slots.length);
+      if (slots[slot] != -1) {
+        return false;
+      }
+      for (int j = 0; j < i; j++) {
+        if (candidateSlots[j] == slot) {
+          return false;
+        }
+      }
+      candidateSlots[i] = slot;
+    }
+    return true;
+  }
+
+  /** Returns the value of the given label, or absent if the label is not in the list. */
+  Optional<String> get(String label) {
+    if (entryCount == 0) {
+      return Optional.empty();
+    }
+    byte[] labelBytes = label.getBytes(UTF_8);
+    int seed = buffer.getInt(HEADER_SIZE + bucketOf(labelBytes, bucketCount) * Integer.BYTES);
+    int index = buffer.getInt(slotsStart + slotOf(labelBytes, seed, slotCount) * Integer.BYTES);
+    if (index == -1) {
+      return Optional.empty();
+    }
+    int position = entriesStart + buffer.getInt(offsetsStart + index * Integer.BYTES);
+    int labelLength = Short.toUnsignedInt(buffer.getShort(position));
+    position += Short.BYTES;
+    // The slot holds whichever label hashed to it, so the label itself still has to be compared.
+    if (labelLength != labelBytes.length) {
+      return Optional.empty();
+    }
+    for (int i = 0; i < labelLength; i++) {
+      if (buffer.get(position + i) != labelBytes[i]) {
+        return Optional.empty();
+      }
+    }
+    position += labelLength;
+    byte[] valueBytes = new byte[Short.toUnsignedInt(buffer.getShort(position))];
+    buffer.get(position + Short.BYTES, valueBytes);
+    return Optional.of(new String(valueBytes, UTF_8));
+  }
+
+  /** Returns the number of labels in the snapshot. */
+  int size() {
+    return entryCount;
+  }
+
+  private static int bucketOf(byte[] label, int bucketCount) {
+    return Math.floorMod(hash(label, 0), bucketCount);
+  }
+
+  private static int slotOf(byte[] label, int seed, int slotCount) {
+    return Math.floorMod(hash(label, seed), slotCount);
+  }
+
+  /** A seeded 64-bit FNV-1a hash with a murmur3 finalizer, truncated to 32 bits. */
+  private static int hash(byte[] label, int seed) {
+    long h = 0xcbf29ce484222325L ^ (seed * 0x9e3779b97f4a7c15L);
+    for (byte b : label) {
+      h ^= b & 0xff;
+      h *= 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return (int) h;
+  }
+
+  private record Entry(String label, byte[] labelBytes, byte[] valueBytes) {
+
+    Entry(String label, String value) {
+      this(label, label.getBytes(UTF_8), value.getBytes(UTF_8));
+      checkArgument(labelBytes.length <= 0xffff, "Label is too long: %s", label);
+      checkArgument(valueBytes.length <= 0xffff, "Value of label %s is too long", label);
+    }
+
+    int size() {
+      return 2 * Short.BYTES + labelBytes.length + valueBytes.length;
+    }
+  }
+}
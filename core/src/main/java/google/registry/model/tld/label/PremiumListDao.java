@@ -16,6 +16,7 @@ package google.registry.model.tld.label;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static google.registry.config.RegistryConfig.getDomainLabelListCacheDuration;
 import static google.registry.config.RegistryConfig.getSingletonCachePersistDuration;
 import static google.registry.config.RegistryConfig.getStaticPremiumListMaxCachedEntries;
@@ -25,6 +26,7 @@ import static google.registry.util.CollectionUtils.isNullOrEmpty;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import google.registry.model.CacheUtils;
 import google.registry.model.tld.label.PremiumList.PremiumEntry;
@@ -42,10 +44,13 @@ import org.joda.money.Money;
  * <p>This class handles both the mapping from string to SQL-level PremiumList objects as well as
  * the mapping and retrieval of {@link PremiumEntry} objects that correspond to the particular
  * {@link PremiumList} object in SQL, and caching these entries so that future lookups can be
- * quicker.
+ * quicker. If a snapshot directory is configured, prices are looked up in a memory-mapped {@link
+ * DomainLabelListSnapshot} of the latest revision instead of the per-entry cache.
  */
 public final class PremiumListDao {
 
+  private static final String SNAPSHOT_LIST_TYPE = "premium";
+
   /**
    * In-memory cache for premium lists.
    *
@@ -122,6 +127,14 @@ public final class PremiumListDao {
     if (!loadedList.getBloomFilter().mightContain(label)) {
       return Optional.empty();
     }
+    Optional<DomainLabelListSnapshot> snapshot =
+        DomainLabelListSnapshot.get(
+            SNAPSHOT_LIST_TYPE,
+            loadedList.getRevisionId(),
+            () -> loadPricesForSnapshot(loadedList.getRevisionId()));
+    if (snapshot.isPresent()) {
+      return snapshot.get().get(label).map(BigDecimal::new).map(loadedList::convertAmountToMoney);
+    }
     RevisionIdAndLabel revisionIdAndLabel =
         RevisionIdAndLabel.create(loadedList.getRevisionId(), label);
     return premiumEntryCache.get(revisionIdAndLabel).map(loadedList::convertAmountToMoney);
@@ -218,6 +231,26 @@ public final class PremiumListDao {
                     .findFirst());
   }
 
+  /**
+   * Loads the prices of all labels in the given revision, as plain strings, to write its snapshot.
+   *
+   * <p>This may be called from within a flow's transaction, so it uses {@code reTransact}.
+   */
+  private static ImmutableMap<String, String> loadPricesForSnapshot(long revisionId) {
+    return tm().reTransact(
+            () ->
+                tm().query(
+                        "SELECT pe.domainLabel, pe.price FROM PremiumEntry pe"
+                            + " WHERE pe.revisionId = :revisionId",
+                        Object[].class)
+                    .setParameter("revisionId", revisionId)
+                    .getResultStream()
+                    .collect(
+                        toImmutableMap(
+                            row -> (String) row[0],
+                            row -> ((BigDecimal) row[1]).toPlainString())));
+  }
+
   /**
    * Returns all {@link PremiumEntry PremiumEntries} in the list with the given name.
    *
@@ -62,6 +62,8 @@ import org.joda.time.DateTime;
 public final class ReservedList
     extends BaseDomainLabelList<ReservationType, ReservedList.ReservedListEntry> {
 
+  private static final String SNAPSHOT_LIST_TYPE = "reserved";
+
   /**
    * Mapping from domain label to its reserved list info.
    *
@@ -223,39 +225,36 @@ public final class ReservedList
     if (label.length() == 0) {
       return ImmutableSet.of(FULLY_BLOCKED);
     }
-    return getReservedListEntries(label, tld)
-        .stream()
-        .map(ReservedListEntry::getValue)
-        .collect(toImmutableSet());
+    return getReservationTypesInLists(label, tld);
   }
 
   /**
-   * Helper function to retrieve the entries associated with this label and TLD, or an empty set if
-   * no such entry exists.
+   * Helper function to retrieve the reservation types of this label in all reserved lists of the
+   * TLD, or an empty set if the label isn't in any of them.
    */
-  private static ImmutableSet<ReservedListEntry> getReservedListEntries(
+  private static ImmutableSet<ReservationType> getReservationTypesInLists(
       String label, String tldStr) {
     DateTime startTime = DateTime.now(UTC);
     Tld tld = Tld.get(checkNotNull(tldStr, "tld must not be null"));
-    ImmutableSet.Builder<ReservedListEntry> entriesBuilder = new ImmutableSet.Builder<>();
+    ImmutableSet.Builder<ReservationType> typesBuilder = new ImmutableSet.Builder<>();
     ImmutableSet.Builder<MetricsReservedListMatch> metricMatchesBuilder =
         new ImmutableSet.Builder<>();
 
     // Loop through all reservation lists and add each of them.
     for (ReservedList rl : loadReservedLists(tld.getReservedListNames())) {
-      if (rl.getReservedListEntries().containsKey(label)) {
-        ReservedListEntry entry = rl.getReservedListEntries().get(label);
-        entriesBuilder.add(entry);
+      Optional<ReservationType> reservationType = rl.getReservationInList(label);
+      if (reservationType.isPresent()) {
+        typesBuilder.add(reservationType.get());
         metricMatchesBuilder.add(
-            MetricsReservedListMatch.create(rl.getName(), entry.reservationType));
+            MetricsReservedListMatch.create(rl.getName(), reservationType.get()));
       }
     }
-    ImmutableSet<ReservedListEntry> entries = entriesBuilder.build();
+    ImmutableSet<ReservationType> types = typesBuilder.build();
     DomainLabelMetrics.recordReservedListCheckOutcome(
         tldStr,
         metricMatchesBuilder.build(),
         DateTime.now(UTC).getMillis() - startTime.getMillis());
-    return entries;
+    return types;
   }
 
   /** Loads and returns the reserved lists with the given names, skipping those that don't exist. */
@@ -280,10 +279,44 @@ public final class ReservedList
    * lists.
    */
   public Optional<ReservationType> getReservationInList(String label) {
+    Optional<DomainLabelListSnapshot> snapshot = getSnapshot();
+    if (snapshot.isPresent()) {
+      return snapshot.get().get(label).map(ReservationType::valueOf);
+    }
     ReservedListEntry entry = getReservedListEntries().get(label);
     return Optional.ofNullable(entry == null ? null : entry.reservationType);
   }
 
+  /**
+   * Returns the memory-mapped snapshot of this revision, or absent if snapshots are disabled or
+   * this list is not a saved revision whose entries haven't been loaded yet.
+   */
+  private Optional<DomainLabelListSnapshot> getSnapshot() {
+    synchronized (this) {
+      if (revisionId == null || reservedListMap != null) {
+        return Optional.empty();
+      }
+    }
+    return DomainLabelListSnapshot.get(
+        SNAPSHOT_LIST_TYPE, revisionId, () -> loadReservationTypesForSnapshot(revisionId));
+  }
+
+  /**
+   * Loads the reservation types of all labels in the given revision, by name, to write its
+   * snapshot.
+   */
+  private static ImmutableMap<String, String> loadReservationTypesForSnapshot(long revisionId) {
+    return tm().reTransact(
+            () ->
+                tm()
+                    .createQueryComposer(ReservedListEntry.class)
+                    .where("revisionId", EQ, revisionId)
+                    .stream()
+                    .collect(
+                        toImmutableMap(
+                            ReservedListEntry::getDomainLabel, e -> e.reservationType.name())));
+  }
+
   @Override
   @Nullable
   ReservedListEntry createFromLine(String originalLine) {
@@ -32,7 +32,8 @@ public record EppMetric(
     Optional<String> commandName,
     Optional<String> registrarId,
     Optional<String> tld,
-    Optional<Code> status) {
+    Optional<Code> status,
+    Optional<Long> sqlStatementCount) {
 
   /** Create an {@link Builder}. */
   public static Builder builder() {
@@ -75,6 +76,10 @@ public record EppMetric(
     return status;
   }
 
+  public Optional<Long> getSqlStatementCount() {
+    return sqlStatementCount;
+  }
+
   /** A builder to create instances of {@link EppMetric}. */
   @AutoBuilder
   public abstract static class Builder {
@@ -128,6 +133,9 @@ public record EppMetric(
 
     public abstract Builder setStatus(Code code);
 
+    /** Sets the number of SQL statements that the flow sent to the database, including retries. */
+    public abstract Builder setSqlStatementCount(Long sqlStatementCount);
+
     Builder setClock(Clock clock) {
       this.clock = clock;
       return this;
@@ -0,0 +1,70 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.persistence;
+
+import static com.google.monitoring.metrics.EventMetric.DEFAULT_FITTER;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.monitoring.metrics.EventMetric;
+import com.google.monitoring.metrics.IncrementableMetric;
+import com.google.monitoring.metrics.LabelDescriptor;
+import com.google.monitoring.metrics.MetricRegistryImpl;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Metrics of how long transactions wait for a connection from the HikariCP pools.
+ *
+ * <p>HikariCP instantiates this class by name, from the {@code metricsTrackerFactory} property.
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+
+  private static final ImmutableSet<LabelDescriptor> LABEL_DESCRIPTORS =
+      ImmutableSet.of(
+          LabelDescriptor.create("pool", "The name of the pool, e.g. its isolation level."));
+
+  private static final EventMetric acquireTimeMetric =
+      MetricRegistryImpl.getDefault()
+          .newEventMetric(
+              "/sql/connection_pool/acquire_time",
+              "Time spent waiting to check out a connection",
+              "milliseconds",
+              LABEL_DESCRIPTORS,
+              DEFAULT_FITTER);
+
+  private static final IncrementableMetric timeoutsMetric =
+      MetricRegistryImpl.getDefault()
+          .newIncrementableMetric(
+              "/sql/connection_pool/timeouts",
+              "Count of connection checkouts that timed out",
+              "count",
+              LABEL_DESCRIPTORS);
+
+  @Override
+  public IMetricsTracker create(String poolName, PoolStats poolStats) {
+    return new IMetricsTracker() {
+      @Override
+      public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquireTimeMetric.record(elapsedAcquiredNanos / 1_000_000.0, poolName);
+      }
+
+      @Override
+      public void recordConnectionTimeout() {
+        timeoutsMetric.increment(poolName);
+      }
+    };
+  }
+}
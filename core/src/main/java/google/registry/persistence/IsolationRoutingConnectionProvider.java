@@ -0,0 +1,205 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.persistence;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static google.registry.persistence.PersistenceModule.HIKARI_MAXIMUM_POOL_SIZE;
+import static google.registry.persistence.PersistenceModule.HIKARI_MINIMUM_IDLE;
+import static google.registry.persistence.PersistenceModule.HIKARI_POOL_NAME;
+import static google.registry.persistence.PersistenceModule.ISOLATION_LEVEL_POOL_MAXIMUM_SIZES;
+
+import com.google.common.base.Ascii;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import google.registry.persistence.PersistenceModule.TransactionIsolationLevel;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import org.hibernate.cfg.Environment;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.hikaricp.internal.HikariCPConnectionProvider;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+
+/**
+ * A Hibernate {@link ConnectionProvider} that keeps a separate HikariCP pool for each transaction
+ * isolation level.
+ *
+ * <p>Connections in each pool are created in the isolation level of the pool, so a transaction
+ * that overrides the default isolation level can check out a connection that is already in the
+ * right mode, instead of issuing a {@code SET TRANSACTION ISOLATION LEVEL} statement after it
+ * begins. The transaction manager requests an isolation level with {@link
+ * #setRequestedIsolationLevel} before it begins a transaction, which is when Hibernate acquires
+ * the connection.
+ *
+ * <p>The pool for the default isolation level (the {@code hibernate.connection.isolation}
+ * property) is created eagerly. The others are only created when first requested, and do not keep
+ * idle connections around, so that rarely used isolation levels cost no connections.
+ *
+ * <p>If {@code nomulus.isolationLevelPoolMaximumSizes} is set, only the isolation levels listed
+ * there get a pool of their own. Their sizes are taken out of the HikariCP maximum pool size, and
+ * the pool of the default isolation level gets the rest, so all pools together stay within that
+ * maximum. The other isolation levels are served by connections of the default pool, which are
+ * switched to the requested level (and switched back by HikariCP when they are returned). If the
+ * property isn't set, every isolation level gets a pool of the maximum size.
+ */
+public class IsolationRoutingConnectionProvider
+    implements ConnectionProvider, Configurable, Stoppable {
+
+  private static final ThreadLocal<TransactionIsolationLevel> requestedIsolationLevel =
+      new ThreadLocal<>();
+
+  private final Map<TransactionIsolationLevel, HikariCPConnectionProvider> pools =
+      new ConcurrentHashMap<>();
+
+  private Map<String, Object> properties;
+  private TransactionIsolationLevel defaultIsolationLevel;
+
+  /** The maximum pool size of each isolation level that has a pool, if limited. */
+  @Nullable private ImmutableMap<TransactionIsolationLevel, Integer> poolMaximumSizes;
+
+  /**
+   * Sets the isolation level of the connections acquired by the current thread, or the default
+   * isolation level if {@code null}.
+   */
+  public static void setRequestedIsolationLevel(@Nullable TransactionIsolationLevel level) {
+    if (level == null) {
+      requestedIsolationLevel.remove();
+    } else {
+      requestedIsolationLevel.set(level);
+    }
+  }
+
+  @Override
+  public void configure(Map<String, Object> configurationValues) {
+    properties = new HashMap<>(configurationValues);
+    defaultIsolationLevel =
+        TransactionIsolationLevel.valueOf((String) properties.get(Environment.ISOLATION));
+    poolMaximumSizes =
+        properties.containsKey(ISOLATION_LEVEL_POOL_MAXIMUM_SIZES)
+            ? getPoolMaximumSizes((String) properties.get(ISOLATION_LEVEL_POOL_MAXIMUM_SIZES))
+            : null;
+    getPool(defaultIsolationLevel);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    TransactionIsolationLevel level = requestedIsolationLevel.get();
+    if (level == null || level == defaultIsolationLevel) {
+      return getPool(defaultIsolationLevel).getConnection();
+    }
+    if (poolMaximumSizes == null || poolMaximumSizes.containsKey(level)) {
+      return getPool(level).getConnection();
+    }
+    // HikariCP restores the isolation level of the pool when the connection is returned.
+    Connection connection = getPool(defaultIsolationLevel).getConnection();
+    try {
+      connection.setTransactionIsolation(level.getValue());
+    } catch (SQLException e) {
+      connection.close();
+      throw e;
+    }
+    return connection;
+  }
+
+  @Override
+  public void closeConnection(Connection conn) throws SQLException {
+    // HikariCP connections return themselves to the pool they were borrowed from.
+    conn.close();
+  }
+
+  @Override
+  public boolean supportsAggressiveRelease() {
+    return false;
+  }
+
+  @Override
+  public void stop() {
+    pools.values().forEach(HikariCPConnectionProvider::stop);
+    pools.clear();
+  }
+
+  @Override
+  public boolean isUnwrappableAs(Class<?> unwrapType) {
+    return unwrapType.isInstance(this)
+        || getPool(defaultIsolationLevel).isUnwrappableAs(unwrapType);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T unwrap(Class<T> unwrapType) {
+    if (unwrapType.isInstance(this)) {
+      return (T) this;
+    }
+    HikariCPConnectionProvider defaultPool = getPool(defaultIsolationLevel);
+    if (defaultPool.isUnwrappableAs(unwrapType)) {
+      return defaultPool.unwrap(unwrapType);
+    }
+    throw new UnknownUnwrapTypeException(unwrapType);
+  }
+
+  private HikariCPConnectionProvider getPool(TransactionIsolationLevel level) {
+    checkState(properties != null, "Connection provider is not configured");
+    return pools.computeIfAbsent(level, this::createPool);
+  }
+
+  private HikariCPConnectionProvider createPool(TransactionIsolationLevel level) {
+    Map<String, Object> poolProperties = new HashMap<>(properties);
+    poolProperties.put(Environment.ISOLATION, level.name());
+    poolProperties.put(HIKARI_POOL_NAME, Ascii.toLowerCase(level.name()));
+    if (level != defaultIsolationLevel) {
+      poolProperties.put(HIKARI_MINIMUM_IDLE, "0");
+    }
+    if (poolMaximumSizes != null) {
+      poolProperties.put(HIKARI_MAXIMUM_POOL_SIZE, String.valueOf(poolMaximumSizes.get(level)));
+    }
+    HikariCPConnectionProvider pool = new HikariCPConnectionProvider();
+    pool.configure(poolProperties);
+    return pool;
+  }
+
+  /**
+   * Returns the maximum pool size of each isolation level that has a pool, with the sizes of the
+   * non-default levels listed in the property value taken out of the size of the default pool.
+   */
+  private ImmutableMap<TransactionIsolationLevel, Integer> getPoolMaximumSizes(String value) {
+    checkArgument(
+        properties.containsKey(HIKARI_MAXIMUM_POOL_SIZE),
+        "%s must be set to limit the isolation level pools",
+        HIKARI_MAXIMUM_POOL_SIZE);
+    int defaultPoolMaximumSize =
+        Integer.parseInt(String.valueOf(properties.get(HIKARI_MAXIMUM_POOL_SIZE)));
+    ImmutableMap.Builder<TransactionIsolationLevel, Integer> sizes = new ImmutableMap.Builder<>();
+    for (Map.Entry<String, String> entry :
+        Splitter.on(',').omitEmptyStrings().withKeyValueSeparator('=').split(value).entrySet()) {
+      TransactionIsolationLevel level = TransactionIsolationLevel.valueOf(entry.getKey());
+      if (level != defaultIsolationLevel) {
+        int size = Integer.parseInt(entry.getValue());
+        sizes.put(level, size);
+        defaultPoolMaximumSize -= size;
+      }
+    }
+    checkArgument(
+        defaultPoolMaximumSize > 0,
+        "The isolation level pools leave no connections to the %s pool",
+        defaultIsolationLevel);
+    return sizes.put(defaultIsolationLevel, defaultPoolMaximumSize).buildOrThrow();
+  }
+}
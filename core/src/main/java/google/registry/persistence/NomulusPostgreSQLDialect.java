@@ -15,10 +15,12 @@ package google.registry.persistence;
 
 import google.registry.persistence.converter.DurationUserType;
 import google.registry.persistence.converter.JodaMoneyType;
+import org.hibernate.boot.model.FunctionContributions;
 import org.hibernate.boot.model.TypeContributions;
 import org.hibernate.dialect.PostgreSQLDialect;
 import org.hibernate.service.ServiceRegistry;
 import org.hibernate.type.SqlTypes;
+import org.hibernate.type.StandardBasicTypes;
 import org.hibernate.type.descriptor.sql.internal.DdlTypeImpl;
 import org.hibernate.type.descriptor.sql.spi.DdlTypeRegistry;
 
@@ -48,6 +50,20 @@ public class NomulusPostgreSQLDialect extends PostgreSQLDialect {
     return elementTypeName + "[]";
   }
 
+  @Override
+  public void initializeFunctionRegistry(FunctionContributions functionContributions) {
+    super.initializeFunctionRegistry(functionContributions);
+    // Postgresql's string hash function, used to split reads into partitions in JPQL queries.
+    functionContributions
+        .getFunctionRegistry()
+        .registerNamed(
+            "hashtext",
+            functionContributions
+                .getTypeConfiguration()
+                .getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.INTEGER));
+  }
+
   @Override
   public void contributeTypes(
       TypeContributions typeContributions, ServiceRegistry serviceRegistry) {
@@ -18,8 +18,10 @@ import static com.google.common.base.Preconditions.checkState;
 import static google.registry.config.RegistryConfig.getHibernateConnectionIsolation;
 import static google.registry.config.RegistryConfig.getHibernateHikariConnectionTimeout;
 import static google.registry.config.RegistryConfig.getHibernateHikariIdleTimeout;
+import static google.registry.config.RegistryConfig.getHibernateHikariIsolationLevelPoolMaximumSizes;
 import static google.registry.config.RegistryConfig.getHibernateHikariMaximumPoolSize;
 import static google.registry.config.RegistryConfig.getHibernateHikariMinimumIdle;
+import static google.registry.config.RegistryConfig.getHibernateHikariPoolPerIsolationLevel;
 import static google.registry.config.RegistryConfig.getHibernateJdbcBatchSize;
 import static google.registry.config.RegistryConfig.getHibernateJdbcFetchSize;
 import static google.registry.config.RegistryConfig.getHibernateLogSqlQueries;
@@ -28,6 +30,7 @@ import static google.registry.persistence.transaction.TransactionManagerFactory.
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Ascii;
+import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import dagger.BindsOptionalOf;
@@ -38,6 +41,7 @@ import google.registry.config.RegistryConfig.Config;
 import google.registry.persistence.transaction.CloudSqlCredentialSupplier;
 import google.registry.persistence.transaction.JpaTransactionManager;
 import google.registry.persistence.transaction.JpaTransactionManagerImpl;
+import google.registry.persistence.transaction.SqlStatementCounter;
 import google.registry.persistence.transaction.TransactionManager;
 import google.registry.privileges.secretmanager.SqlCredential;
 import google.registry.privileges.secretmanager.SqlCredentialStore;
@@ -73,6 +77,18 @@ public abstract class PersistenceModule {
   public static final String HIKARI_MINIMUM_IDLE = "hibernate.hikari.minimumIdle";
   public static final String HIKARI_MAXIMUM_POOL_SIZE = "hibernate.hikari.maximumPoolSize";
   public static final String HIKARI_IDLE_TIMEOUT = "hibernate.hikari.idleTimeout";
+  public static final String HIKARI_POOL_NAME = "hibernate.hikari.poolName";
+  public static final String HIKARI_READ_ONLY = "hibernate.hikari.readOnly";
+  public static final String HIKARI_METRICS_TRACKER_FACTORY =
+      "hibernate.hikari.metricsTrackerFactory";
+
+  /**
+   * The maximum sizes of the pools of non-default isolation levels, as comma-separated {@code
+   * LEVEL=size} pairs, see {@link IsolationRoutingConnectionProvider}. This is not a HikariCP
+   * property.
+   */
+  public static final String ISOLATION_LEVEL_POOL_MAXIMUM_SIZES =
+      "nomulus.isolationLevelPoolMaximumSizes";
 
   public static final String HIKARI_DS_SOCKET_FACTORY = "hibernate.hikari.dataSource.socketFactory";
   public static final String HIKARI_DS_CLOUD_SQL_INSTANCE =
@@ -90,7 +106,9 @@ public abstract class PersistenceModule {
     properties.put(Environment.DRIVER, "org.postgresql.Driver");
     properties.put(
         Environment.CONNECTION_PROVIDER,
-        "org.hibernate.hikaricp.internal.HikariCPConnectionProvider");
+        getHibernateHikariPoolPerIsolationLevel()
+            ? IsolationRoutingConnectionProvider.class.getName()
+            : "org.hibernate.hikaricp.internal.HikariCPConnectionProvider");
     // Whether to automatically validate and export schema DDL to the database when the
     // SessionFactory is created. Setting it to 'none' to turn off the feature.
     properties.put(Environment.HBM2DDL_AUTO, "none");
@@ -106,8 +124,20 @@ public abstract class PersistenceModule {
     properties.put(HIKARI_MINIMUM_IDLE, getHibernateHikariMinimumIdle());
     properties.put(HIKARI_MAXIMUM_POOL_SIZE, getHibernateHikariMaximumPoolSize());
     properties.put(HIKARI_IDLE_TIMEOUT, getHibernateHikariIdleTimeout());
+    properties.put(HIKARI_METRICS_TRACKER_FACTORY, ConnectionPoolMetrics.class.getName());
+    properties.put(
+        ISOLATION_LEVEL_POOL_MAXIMUM_SIZES,
+        Joiner.on(',')
+            .withKeyValueSeparator('=')
+            .join(getHibernateHikariIsolationLevelPoolMaximumSizes()));
     properties.put(Environment.DIALECT, NomulusPostgreSQLDialect.class.getName());
     properties.put(JDBC_BATCH_SIZE, Integer.toString(getHibernateJdbcBatchSize()));
+    // Hibernate defers inserts and updates until the session is flushed, normally at commit. Sort
+    // them by entity type so that the writes of a transaction, which usually interleave several
+    // entity types, can be sent as JDBC batches.
+    properties.put(Environment.ORDER_INSERTS, "true");
+    properties.put(Environment.ORDER_UPDATES, "true");
+    properties.put(Environment.STATEMENT_INSPECTOR, SqlStatementCounter.class.getName());
     properties.put(JDBC_FETCH_SIZE, getHibernateJdbcFetchSize());
     return properties.build();
   }
@@ -176,6 +206,8 @@ public abstract class PersistenceModule {
     // which can be configured using pipeline options. See {@link RegistryPipelineOptions} for more
     // information.
     overrides.put(HIKARI_MAXIMUM_POOL_SIZE, String.valueOf(Integer.MAX_VALUE));
+    // Nothing to carve the pools of non-default isolation levels out of, so leave them unlimited.
+    overrides.remove(ISOLATION_LEVEL_POOL_MAXIMUM_SIZES);
     instanceConnectionNameOverride
         .map(Provider::get)
         .ifPresent(
@@ -273,6 +305,8 @@ public abstract class PersistenceModule {
         name -> overrides.put(HIKARI_DS_CLOUD_SQL_INSTANCE, name));
     overrides.put(
         Environment.ISOLATION, TransactionIsolationLevel.TRANSACTION_REPEATABLE_READ.name());
+    // Saves the SET TRANSACTION READ ONLY statement at the start of every transaction.
+    overrides.put(HIKARI_READ_ONLY, "true");
     return new JpaTransactionManagerImpl(create(overrides), clock, true);
   }
 
@@ -289,6 +323,8 @@ public abstract class PersistenceModule {
         name -> overrides.put(HIKARI_DS_CLOUD_SQL_INSTANCE, name));
     overrides.put(
         Environment.ISOLATION, TransactionIsolationLevel.TRANSACTION_REPEATABLE_READ.name());
+    // Saves the SET TRANSACTION READ ONLY statement at the start of every transaction.
+    overrides.put(HIKARI_READ_ONLY, "true");
     return new JpaTransactionManagerImpl(create(overrides), clock, true);
   }
 
@@ -20,6 +20,7 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static google.registry.config.RegistryConfig.getHibernateAllowNestedTransactions;
+import static google.registry.persistence.PersistenceModule.HIKARI_READ_ONLY;
 import static google.registry.persistence.transaction.DatabaseException.throwIfSqlException;
 import static google.registry.util.PreconditionsUtils.checkArgumentNotNull;
 import static java.util.AbstractMap.SimpleEntry;
@@ -34,6 +35,7 @@ import com.google.common.collect.Streams;
 import com.google.common.flogger.FluentLogger;
 import com.google.common.flogger.StackSize;
 import google.registry.model.ImmutableObject;
+import google.registry.persistence.IsolationRoutingConnectionProvider;
 import google.registry.persistence.JpaRetries;
 import google.registry.persistence.PersistenceModule.TransactionIsolationLevel;
 import google.registry.persistence.VKey;
@@ -91,11 +93,18 @@ public class JpaTransactionManagerImpl implements JpaTransactionManager {
       "Nested transaction detected. Try refactoring to avoid nested transactions. If unachievable,"
           + " use reTransact() in nested transactions";
   private static final String SQL_STATEMENT_LOG_SENTINEL_FORMAT = "SQL_STATEMENT_LOG: %s";
+  private static final SqlStatementCounter SQL_STATEMENT_COUNTER = new SqlStatementCounter();
 
   // EntityManagerFactory is thread safe.
   private final EntityManagerFactory emf;
   private final Clock clock;
   private final boolean readOnly;
+  private final SequenceIdAllocator idAllocator = new SequenceIdAllocator();
+
+  // Whether pooled connections are already in the isolation level or read-only mode that a
+  // transaction needs, so that it does not have to set them after it begins.
+  private final boolean connectionsPooledByIsolationLevel;
+  private final boolean connectionsReadOnly;
 
   private static final ThreadLocal<TransactionInfo> transactionInfo =
       ThreadLocal.withInitial(TransactionInfo::new);
@@ -104,6 +113,12 @@ public class JpaTransactionManagerImpl implements JpaTransactionManager {
     this.emf = emf;
     this.clock = clock;
     this.readOnly = readOnly;
+    Map<String, Object> properties = emf.getProperties();
+    this.connectionsPooledByIsolationLevel =
+        IsolationRoutingConnectionProvider.class
+            .getName()
+            .equals(properties.get(Environment.CONNECTION_PROVIDER));
+    this.connectionsReadOnly = readOnly && "true".equals(properties.get(HIKARI_READ_ONLY));
   }
 
   public JpaTransactionManagerImpl(EntityManagerFactory emf, Clock clock) {
@@ -151,6 +166,12 @@ public class JpaTransactionManagerImpl implements JpaTransactionManager {
     return transactionInfo.get().inTransaction;
   }
 
+  @Override
+  public boolean inReadOnlyTransaction() {
+    TransactionInfo txnInfo = transactionInfo.get();
+    return txnInfo.inTransaction && txnInfo.readOnly;
+  }
+
   @Override
   public long allocateId() {
     assertInTransaction();
@@ -249,7 +270,8 @@ public class JpaTransactionManagerImpl implements JpaTransactionManager {
                 .statementInspector(
                     s -> {
                       logger.atInfo().log(SQL_STATEMENT_LOG_SENTINEL_FORMAT, s);
-                      return s;
+                      // Replaces the inspector of the session factory, which counts statements.
+                      return SQL_STATEMENT_COUNTER.inspect(s);
                     })
                 .openSession()
             : emf.createEntityManager();
@@ -259,17 +281,32 @@ public class JpaTransactionManagerImpl implements JpaTransactionManager {
     }
     EntityTransaction txn = txnInfo.entityManager.getTransaction();
     try {
-      txn.begin();
-      txnInfo.start(clock, readOnly ? ReplicaDbIdService::allocateId : this::fetchIdFromSequence);
+      if (connectionsPooledByIsolationLevel) {
+        // Hibernate acquires the connection of the transaction when it begins.
+        IsolationRoutingConnectionProvider.setRequestedIsolationLevel(isolationLevel);
+        try {
+          txn.begin();
+        } finally {
+          IsolationRoutingConnectionProvider.setRequestedIsolationLevel(null);
+        }
+      } else {
+        txn.begin();
+      }
+      txnInfo.start(
+          clock, readOnly ? ReplicaDbIdService::allocateId : this::fetchIdFromSequence, readOnly);
       if (readOnly) {
-        getEntityManager().createNativeQuery("SET TRANSACTION READ ONLY").executeUpdate();
+        if (!connectionsReadOnly) {
+          getEntityManager().createNativeQuery("SET TRANSACTION READ ONLY").executeUpdate();
+        }
         logger.atInfo().log("Using read-only SQL replica");
       }
       if (isolationLevel != null && isolationLevel != getDefaultTransactionIsolationLevel()) {
-        getEntityManager()
-            .createNativeQuery(
-                String.format("SET TRANSACTION ISOLATION LEVEL %s", isolationLevel.getMode()))
-            .executeUpdate();
+        if (!connectionsPooledByIsolationLevel) {
+          getEntityManager()
+              .createNativeQuery(
+                  String.format("SET TRANSACTION ISOLATION LEVEL %s", isolationLevel.getMode()))
+              .executeUpdate();
+        }
         logger.atInfo().log(
             "Overriding transaction isolation level from %s to %s",
             getDefaultTransactionIsolationLevel(), isolationLevel);
@@ -607,16 +644,13 @@ public class JpaTransactionManagerImpl implements JpaTransactionManager {
   }
 
   /**
-   * A SQL Sequence based ID allocator that generates an ID from a monotonically increasing {@link
-   * AtomicLong}
+   * A SQL Sequence based ID allocator that hands out IDs from blocks reserved in the database
+   * sequence, see {@link SequenceIdAllocator}.
    *
    * <p>The generated IDs are project-wide unique.
    */
   private long fetchIdFromSequence() {
-    return (Long)
-        getEntityManager()
-            .createNativeQuery("SELECT nextval('project_wide_unique_id_seq')")
-            .getSingleResult();
+    return idAllocator.allocateId(getEntityManager());
   }
 
   private record EntityId(String name, Object value) {}
@@ -742,6 +776,7 @@ public class JpaTransactionManagerImpl implements JpaTransactionManager {
   private static class TransactionInfo {
     EntityManager entityManager;
     boolean inTransaction = false;
+    boolean readOnly = false;
     DateTime transactionTime;
     Supplier<Long> idProvider;
 
@@ -752,9 +787,10 @@ public class JpaTransactionManagerImpl implements JpaTransactionManager {
     Set<Object> objectsToSave = Collections.newSetFromMap(new IdentityHashMap<>());
 
     /** Start a new transaction. */
-    private void start(Clock clock, Supplier<Long> idProvider) {
+    private void start(Clock clock, Supplier<Long> idProvider, boolean readOnly) {
       checkArgumentNotNull(clock);
       inTransaction = true;
+      this.readOnly = readOnly;
       transactionTime = clock.nowUtc();
       this.idProvider = idProvider;
     }
@@ -762,6 +798,7 @@ public class JpaTransactionManagerImpl implements JpaTransactionManager {
     private void clear() {
       idProvider = null;
       inTransaction = false;
+      readOnly = false;
       transactionTime = null;
       objectsToSave = Collections.newSetFromMap(new IdentityHashMap<>());
       if (entityManager != null) {
@@ -0,0 +1,221 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.persistence.transaction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Streams;
+import com.google.common.collect.UnmodifiableIterator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.EntityType;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+
+/**
+ * Streams entities of one type in primary key order through a server-side database cursor, with
+ * bounded memory use.
+ *
+ * <p>The stream must be consumed inside a transaction of the transaction manager the instance was
+ * built with. Rows are fetched from the cursor {@code chunkSize} at a time, and the persistence
+ * context is flushed and cleared after each chunk so that Hibernate's first-level cache does not
+ * grow with the size of the table. Entities from the stream are therefore detached once the next
+ * chunk starts.
+ *
+ * <p>An instance remembers the key of the last entity that was fully processed, i.e., the last one
+ * after which the consumer asked for more. Calling {@link #stream} again, e.g., from a retried
+ * transaction, resumes after that entity instead of starting over. This is only correct if
+ * processing the entities has no side effects in the failed transaction, such as writes to the
+ * database; consumers with such side effects should build a new instance for every attempt.
+ *
+ * <p>Instances are not thread-safe.
+ */
+public final class KeysetStream<T> {
+
+  private static final int DEFAULT_CHUNK_SIZE = 500;
+
+  private final JpaTransactionManager jpaTm;
+  private final Class<T> entityClass;
+  private final String initialJpqlQuery;
+  private final String resumingJpqlQuery;
+  private final ImmutableMap<String, Object> parameters;
+  private final int chunkSize;
+
+  @Nullable private Object lastProcessedKey;
+
+  private KeysetStream(Builder<T> builder) {
+    EntityType<T> entityType = builder.jpaTm.getMetaModel().entity(builder.entityClass);
+    checkArgument(
+        entityType.hasSingleIdAttribute(),
+        "%s must have a single ID attribute",
+        builder.entityClass.getSimpleName());
+    String keyName = entityType.getId(entityType.getIdType().getJavaType()).getName();
+    this.jpaTm = builder.jpaTm;
+    this.entityClass = builder.entityClass;
+    if (builder.filter == null) {
+      this.initialJpqlQuery = String.format("FROM %s ORDER BY %s", entityType.getName(), keyName);
+      this.resumingJpqlQuery =
+          String.format(
+              "FROM %1$s WHERE %2$s > :lastProcessedKey ORDER BY %2$s",
+              entityType.getName(), keyName);
+    } else {
+      this.initialJpqlQuery =
+          String.format(
+              "FROM %s WHERE %s ORDER BY %s", entityType.getName(), builder.filter, keyName);
+      this.resumingJpqlQuery =
+          String.format(
+              "FROM %1$s WHERE (%2$s) AND %3$s > :lastProcessedKey ORDER BY %3$s",
+              entityType.getName(), builder.filter, keyName);
+    }
+    this.parameters = builder.parameters.buildOrThrow();
+    this.chunkSize = builder.chunkSize;
+  }
+
+  /** Returns a builder for streaming entities of type {@code T} with {@code tm()}. */
+  public static <T> Builder<T> builder(Class<T> entityClass) {
+    return builder(tm(), entityClass);
+  }
+
+  /** Returns a builder for streaming entities of type {@code T} with {@code jpaTm}. */
+  public static <T> Builder<T> builder(JpaTransactionManager jpaTm, Class<T> entityClass) {
+    return new Builder<>(jpaTm, entityClass);
+  }
+
+  /**
+   * Returns a stream of the entities after the last processed one, which must be consumed (and
+   * should be closed) in the current transaction.
+   */
+  @SuppressWarnings("unchecked")
+  public Stream<T> stream() {
+    jpaTm.assertInTransaction();
+    EntityManager entityManager = jpaTm.getEntityManager();
+    Query<T> query =
+        entityManager
+            .createQuery(
+                lastProcessedKey == null ? initialJpqlQuery : resumingJpqlQuery, entityClass)
+            .unwrap(Query.class);
+    parameters.forEach(query::setParameter);
+    if (lastProcessedKey != null) {
+      query.setParameter("lastProcessedKey", lastProcessedKey);
+    }
+    ScrollableResults<T> results =
+        query
+            .setFetchSize(chunkSize)
+            .setCacheMode(CacheMode.IGNORE)
+            .setReadOnly(true)
+            .scroll(ScrollMode.FORWARD_ONLY);
+    return Streams.stream(new CursorIterator(entityManager, results)).onClose(results::close);
+  }
+
+  /**
+   * Iterator over a cursor that clears the persistence context between chunks and records the
+   * progress of the consumer.
+   */
+  private final class CursorIterator extends UnmodifiableIterator<T> {
+
+    private final EntityManager entityManager;
+    private final ScrollableResults<T> results;
+
+    @Nullable private Object currentKey;
+    private boolean advanced;
+    private boolean hasNext;
+    private int returnedInChunk;
+
+    CursorIterator(EntityManager entityManager, ScrollableResults<T> results) {
+      this.entityManager = entityManager;
+      this.results = results;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (advanced) {
+        return hasNext;
+      }
+      // The consumer only asks for more once it is done with the entity it was last given.
+      if (currentKey != null) {
+        lastProcessedKey = currentKey;
+        currentKey = null;
+      }
+      if (returnedInChunk == chunkSize) {
+        entityManager.flush();
+        entityManager.clear();
+        returnedInChunk = 0;
+      }
+      hasNext = results.next();
+      advanced = true;
+      return hasNext;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      advanced = false;
+      returnedInChunk++;
+      T entity = results.get();
+      currentKey =
+          entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+      return entity;
+    }
+  }
+
+  /** Builder for {@link KeysetStream}. */
+  public static final class Builder<T> {
+
+    private final JpaTransactionManager jpaTm;
+    private final Class<T> entityClass;
+    private final ImmutableMap.Builder<String, Object> parameters = new ImmutableMap.Builder<>();
+    @Nullable private String filter;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    private Builder(JpaTransactionManager jpaTm, Class<T> entityClass) {
+      this.jpaTm = jpaTm;
+      this.entityClass = entityClass;
+    }
+
+    /** Restricts the stream to the entities that match a JPQL condition. */
+    public Builder<T> where(String jpqlCondition) {
+      this.filter = jpqlCondition;
+      return this;
+    }
+
+    /** Binds a named parameter of the {@link #where} condition. */
+    public Builder<T> setParameter(String name, Object value) {
+      parameters.put(name, value);
+      return this;
+    }
+
+    /**
+     * Sets the number of rows fetched from the cursor at a time, which is also the number of
+     * entities between two clears of the persistence context.
+     */
+    public Builder<T> setChunkSize(int chunkSize) {
+      checkArgument(chunkSize > 0, "chunkSize must be positive");
+      this.chunkSize = chunkSize;
+      return this;
+    }
+
+    public KeysetStream<T> build() {
+      return new KeysetStream<>(this);
+    }
+  }
+}
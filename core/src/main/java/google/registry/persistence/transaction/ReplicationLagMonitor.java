@@ -0,0 +1,107 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.persistence.transaction;
+
+import static google.registry.persistence.transaction.TransactionManagerFactory.replicaTm;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Suppliers;
+import com.google.common.flogger.FluentLogger;
+import google.registry.util.NonFinalForTesting;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Tracks how far the read-only replica lags behind the primary database.
+ *
+ * <p>The lag is queried from the replica at most once per {@link #REFRESH_INTERVAL_SECONDS}
+ * seconds, so checking it does not add a database round trip to every caller.
+ *
+ * <p>The lag only covers the WAL the replica has already received, and may be up to a second old.
+ * It bounds how stale the replica's reads are, but it does not guarantee that a client sees its
+ * own recent writes. Flows that need to read what was just written must run on the primary.
+ */
+public final class ReplicationLagMonitor {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private static final long REFRESH_INTERVAL_SECONDS = 1;
+
+  /**
+   * Returns the age of the last replayed transaction, or zero if the replica has replayed all the
+   * WAL it received (an idle primary does not make the replica stale), or if the database is not a
+   * replica at all.
+   */
+  private static final String REPLICATION_LAG_QUERY =
+      """
+      SELECT CASE
+        WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()
+          THEN 0
+        ELSE (EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000)::bigint
+      END
+      """;
+
+  @NonFinalForTesting
+  private static Supplier<Optional<Duration>> replicationLag = createReplicationLagSupplier();
+
+  private ReplicationLagMonitor() {}
+
+  private static Supplier<Optional<Duration>> createReplicationLagSupplier() {
+    return Suppliers.memoizeWithExpiration(
+        ReplicationLagMonitor::queryReplicationLag, REFRESH_INTERVAL_SECONDS, SECONDS);
+  }
+
+  /**
+   * Returns whether the replica lags behind the primary by at most {@code maxStaleness}.
+   *
+   * <p>Returns false if the lag cannot be determined.
+   */
+  public static boolean isReplicaFresh(Duration maxStaleness) {
+    return replicationLag.get().map(lag -> lag.compareTo(maxStaleness) <= 0).orElse(false);
+  }
+
+  private static Optional<Duration> queryReplicationLag() {
+    try {
+      Number lagMillis =
+          replicaTm()
+              .reTransact(
+                  () ->
+                      (Number)
+                          replicaTm()
+                              .getEntityManager()
+                              .createNativeQuery(REPLICATION_LAG_QUERY)
+                              .getSingleResult());
+      // The replay timestamp is null until the replica replays its first transaction.
+      return Optional.ofNullable(lagMillis).map(lag -> Duration.ofMillis(lag.longValue()));
+    } catch (RuntimeException e) {
+      logger.atWarning().withCause(e).atMostEvery(1, MINUTES).log(
+          "Failed to query the replication lag of the replica.");
+      return Optional.empty();
+    }
+  }
+
+  @VisibleForTesting
+  public static void setReplicationLagForTest(Optional<Duration> lag) {
+    replicationLag = () -> lag;
+  }
+
+  @VisibleForTesting
+  public static void resetReplicationLagForTest() {
+    replicationLag = createReplicationLagSupplier();
+  }
+}
@@ -0,0 +1,87 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.persistence.transaction;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.flogger.FluentLogger;
+import com.google.monitoring.metrics.IncrementableMetric;
+import com.google.monitoring.metrics.MetricRegistryImpl;
+import jakarta.persistence.EntityManager;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Allocates project-wide unique ids from {@code project_wide_unique_id_block_seq} in blocks, so
+ * that most calls to {@link TransactionManager#allocateId} do not need a database round trip.
+ *
+ * <p>The sequence is incremented by {@link #BLOCK_SIZE}, and each value it returns is the first id
+ * of a block that belongs exclusively to this allocator. The block size is a constant rather than
+ * read from the sequence definition, because reading it is not atomic with {@code nextval} when
+ * the sequence is altered concurrently. Changing the block size therefore requires a new sequence.
+ *
+ * <p>The sequence starts above every id handed out from {@code project_wide_unique_id_seq}, which
+ * is capped below its start, so servers that still draw single ids from the old sequence during a
+ * rollout never hand out the same ids (see V201__id_block_sequence.sql).
+ *
+ * <p>Like the values of the sequence itself, ids handed out in a transaction that is rolled back
+ * are not reused. Ids are only monotonic within a single allocator, i.e., within a server instance.
+ */
+@ThreadSafe
+final class SequenceIdAllocator {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  /** The number of ids in a block, which must equal the increment of the sequence. */
+  @VisibleForTesting static final long BLOCK_SIZE = 100;
+
+  private static final String FETCH_BLOCK_QUERY =
+      "SELECT nextval('project_wide_unique_id_block_seq')";
+
+  /** Metric counting exhausted id blocks, i.e., round trips to the database sequence. */
+  @VisibleForTesting
+  static final IncrementableMetric blockFetches =
+      MetricRegistryImpl.getDefault()
+          .newIncrementableMetric(
+              "/persistence/id_allocation/block_fetches",
+              "Count of id blocks fetched from the database sequence",
+              "count",
+              ImmutableSet.of());
+
+  @GuardedBy("this")
+  private long nextId;
+
+  @GuardedBy("this")
+  private long blockLimit;
+
+  /**
+   * Returns a new id, fetching a new block from the sequence with {@code entityManager} if the
+   * current one is exhausted.
+   *
+   * <p>Fetching a block is not transactional, so it is safe to use the entity manager of any
+   * ongoing transaction.
+   */
+  synchronized long allocateId(EntityManager entityManager) {
+    if (nextId >= blockLimit) {
+      nextId =
+          ((Number) entityManager.createNativeQuery(FETCH_BLOCK_QUERY).getSingleResult())
+              .longValue();
+      blockLimit = nextId + BLOCK_SIZE;
+      blockFetches.increment();
+      logger.atFine().log("Fetched id block [%d, %d).", nextId, blockLimit);
+    }
+    return nextId++;
+  }
+}
@@ -0,0 +1,41 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.persistence.transaction;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * A Hibernate {@link StatementInspector} that counts the SQL statements prepared by each thread.
+ *
+ * <p>Batched writes are prepared once per batch, so the count is close to the number of round
+ * trips to the database. Callers measure the statements of a unit of work by taking the difference
+ * of {@link #getCount} before and after it.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+  private static final ThreadLocal<AtomicLong> count = ThreadLocal.withInitial(AtomicLong::new);
+
+  /** Returns the number of SQL statements prepared by the current thread so far. */
+  public static long getCount() {
+    return count.get().get();
+  }
+
+  @Override
+  public String inspect(String sql) {
+    count.get().incrementAndGet();
+    return sql;
+  }
+}
@@ -40,6 +40,15 @@ public interface TransactionManager {
    */
   boolean inTransaction();
 
+  /**
+   * Returns {@code true} if the caller is in a read-only transaction, such as one on the replica
+   * database instance.
+   *
+   * <p>Like {@link #inTransaction}, this reflects the outermost {@link #transact} call on the
+   * current thread, whichever database instance it uses.
+   */
+  boolean inReadOnlyTransaction();
+
   /**
    * Throws {@link IllegalStateException} if the caller is not in a transaction.
    *
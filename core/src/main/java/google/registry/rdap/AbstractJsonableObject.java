@@ -14,7 +14,6 @@
 
 package google.registry.rdap;
 
-import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
 
@@ -22,33 +21,36 @@ import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Ordering;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
-import java.lang.reflect.Member;
 import java.lang.reflect.Method;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.List;
 import java.util.Optional;
 import javax.annotation.Nullable;
-import org.joda.time.DateTime;
 
 /**
- * An Jsonable that can turn itself into a JSON object using reflection.
+ * An Jsonable that can turn itself into a JSON object.
+ *
+ * <p>The annotated members of each class are read by code that {@code JsonableElementProcessor}
+ * generates at compile time, and only classes the processor can't see (e.g. anonymous classes) are
+ * read using reflection. The JSON can also be written straight to a {@link JsonWriter} with {@link
+ * #writeJson}, which avoids building the JSON tree of large responses.
  *
  * <p>This can only be used to create JSON *objects*, so if your class needs a different JSON type,
  * you'll have to implement Jsonable yourself. (for example, VCards objects are represented as a
  * list rather than an object)
  *
- * <p>You can annotate fields or methods with 0 parameters with {@link JsonElement}, and its value
- * will be "JSONified" and added to the generated JSON object.
+ * <p>You can annotate fields or methods with 0 parameters with {@link JsonableElement}, and its
+ * value will be "JSONified" and added to the generated JSON object.
  *
  * <p>This implementation is geared towards RDAP replies, and hence has RDAP-specific quirks.
  * Specifically:
@@ -210,9 +212,7 @@ import org.joda.time.DateTime;
 @SuppressWarnings("InvalidBlockTag")
 abstract class AbstractJsonableObject implements Jsonable {
 
-  private static final String ARRAY_NAME_SUFFIX = "[]";
-
-  private static final String MERGE_NAME = "*";
+  private static final String ADDER_CLASS_NAME_PREFIX = "JsonableMembers_";
 
   @Target({ElementType.METHOD, ElementType.FIELD})
   @Retention(RUNTIME)
@@ -226,42 +226,35 @@ abstract class AbstractJsonableObject implements Jsonable {
     String[] value();
   }
 
-  @Override
-  public final JsonObject toJson() {
-    try {
-      JsonObjectBuilder builder = new JsonObjectBuilder();
-
-      for (Field field : getAllJsonableElementFields()) {
-        JsonableElement jsonableElement = field.getAnnotation(JsonableElement.class);
-        Object object;
-        try {
-          field.setAccessible(true);
-          object = field.get(this);
-        } catch (IllegalAccessException e) {
-          throw new IllegalStateException(
-              String.format("Error reading value of field '%s'", field), e);
-        } finally {
-          field.setAccessible(false);
+  /**
+   * The {@link JsonableMembers.Adder} of each class.
+   *
+   * <p>This is the adder that {@code JsonableElementProcessor} generated for the nearest class (the
+   * class itself or a superclass) that declares {@link JsonableElement} members. Classes that the
+   * processor doesn't see, such as anonymous classes, fall back to a reflective adder.
+   */
+  private static final ClassValue<JsonableMembers.Adder> adders =
+      new ClassValue<>() {
+        @Override
+        protected JsonableMembers.Adder computeValue(Class<?> clazz) {
+          return findAdder(clazz);
         }
-        builder.add(jsonableElement, field, object);
-      }
+      };
 
-      for (Method method : getAllJsonableElementMethods()) {
-        JsonableElement jsonableElement = method.getAnnotation(JsonableElement.class);
-        Object object;
-        try {
-          method.setAccessible(true);
-          object = method.invoke(this);
-        } catch (ReflectiveOperationException e) {
-          throw new IllegalStateException(
-              String.format("Error reading value of method '%s'", method), e);
-        } finally {
-          method.setAccessible(false);
+  private static final ClassValue<Optional<ImmutableSet<String>>> nameRestrictions =
+      new ClassValue<>() {
+        @Override
+        protected Optional<ImmutableSet<String>> computeValue(Class<?> clazz) {
+          return findNameRestriction(clazz);
         }
-        builder.add(jsonableElement, method, object);
-      }
+      };
 
-      return builder.build();
+  @Override
+  public final JsonObject toJson() {
+    try {
+      JsonableMembers members = new JsonableMembers();
+      addMembersTo(members);
+      return members.toJsonObject();
     } catch (Throwable e) {
       throw new JsonableException(
           e, String.format("Error JSONifying %s: %s", this.getClass(), e.getMessage()));
@@ -269,82 +262,161 @@ abstract class AbstractJsonableObject implements Jsonable {
   }
 
   /**
-   * Get all the fields declared on this class.
+   * Writes the JSON object that {@link #toJson} returns, without building the JSON tree.
    *
-   * <p>We aren't using {@link Class#getFields} because that would return only the public fields.
+   * @param linkValue if present, the "value" to add to each link object (in a "links" array) that
+   *     doesn't have one
+   * @param isLink whether this object is an element of a "links" array
    */
-  private Iterable<Field> getAllJsonableElementFields() {
-    ImmutableList.Builder<Field> builder = new ImmutableList.Builder<>();
-    for (Class<?> clazz = this.getClass();
-        clazz != null;
-        clazz = clazz.getSuperclass()) {
-      for (Field field : clazz.getDeclaredFields()) {
-        if (!field.isAnnotationPresent(JsonableElement.class)) {
-          continue;
-        }
-        builder.add(field);
-      }
+  final void writeJson(JsonWriter writer, @Nullable String linkValue, boolean isLink)
+      throws IOException {
+    JsonableMembers members = new JsonableMembers();
+    try {
+      addMembersTo(members);
+    } catch (RuntimeException e) {
+      throw new JsonableException(
+          e, String.format("Error JSONifying %s: %s", this.getClass(), e.getMessage()));
     }
-    // Sorting for test consistency
-    return Ordering.natural().onResultOf(Field::getName).sortedCopy(builder.build());
+    members.writeTo(writer, linkValue, isLink);
   }
 
-  /**
-   * Get all the methods declared on this class.
-   *
-   * <p>We aren't using {@link Class#getMethods} because that would return only the public methods.
-   */
-  private Iterable<Method> getAllJsonableElementMethods() {
-    ImmutableList.Builder<Method> builder = new ImmutableList.Builder<>();
-    HashSet<String> seenNames = new HashSet<>();
-    for (Class<?> clazz = this.getClass();
-        clazz != null;
-        clazz = clazz.getSuperclass()) {
-      for (Method method : clazz.getDeclaredMethods()) {
-        if (!method.isAnnotationPresent(JsonableElement.class)) {
-          continue;
-        }
-        checkState(method.getParameterCount() == 0, "Method '%s' must have no arguments", method);
-        if (!seenNames.add(method.getName())) {
-          // We've seen the same function in a sub-class, so we already added the overridden
-          // version.
-          continue;
-        }
-        builder.add(method);
+  /** Adds the values of all the {@link JsonableElement} members of this object. */
+  final void addMembersTo(JsonableMembers members) {
+    adders.get(getClass()).addMembers(this, members);
+  }
+
+  private static JsonableMembers.Adder findAdder(Class<?> clazz) {
+    for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+      Optional<JsonableMembers.Adder> generatedAdder = loadGeneratedAdder(c);
+      if (generatedAdder.isPresent()) {
+        return generatedAdder.get();
+      }
+      if (Arrays.stream(c.getDeclaredFields())
+              .anyMatch(field -> field.isAnnotationPresent(JsonableElement.class))
+          || Arrays.stream(c.getDeclaredMethods())
+              .anyMatch(method -> method.isAnnotationPresent(JsonableElement.class))) {
+        break;
       }
     }
-    // Sorting for test consistency
-    return Ordering.natural().onResultOf(Method::getName).sortedCopy(builder.build());
+    return new ReflectiveAdder(clazz);
   }
 
-  /** Converts an Object to a JsonElement. */
-  private static JsonElement toJsonElement(String name, Member member, Object object) {
-    if (object instanceof Jsonable jsonable) {
-      verifyAllowedJsonKeyName(name, member, jsonable.getClass());
-      return jsonable.toJson();
+  /** Loads the adder generated for the given class, if there is one. */
+  private static Optional<JsonableMembers.Adder> loadGeneratedAdder(Class<?> clazz) {
+    if (clazz.isAnonymousClass() || clazz.isLocalClass()) {
+      return Optional.empty();
     }
-    if (object instanceof String) {
-      return new JsonPrimitive((String) object);
+    List<String> simpleNames = new ArrayList<>();
+    for (Class<?> c = clazz; c != null; c = c.getEnclosingClass()) {
+      simpleNames.add(0, c.getSimpleName());
     }
-    if (object instanceof Number) {
-      return new JsonPrimitive((Number) object);
+    String adderClassName =
+        String.format(
+            "%s.%s%s",
+            clazz.getPackageName(), ADDER_CLASS_NAME_PREFIX, String.join("_", simpleNames));
+    try {
+      return Optional.of(
+          (JsonableMembers.Adder)
+              Class.forName(adderClassName, true, clazz.getClassLoader())
+                  .getDeclaredConstructor()
+                  .newInstance());
+    } catch (ClassNotFoundException e) {
+      return Optional.empty();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(
+          String.format("Error loading the JSON member adder of %s", clazz), e);
+    }
+  }
+
+  /** Adds the members of classes without a generated adder, using reflection. */
+  private static final class ReflectiveAdder implements JsonableMembers.Adder {
+
+    private final ImmutableList<Field> fields;
+    private final ImmutableList<Method> methods;
+
+    ReflectiveAdder(Class<?> clazz) {
+      fields = getAllJsonableElementFields(clazz);
+      methods = getAllJsonableElementMethods(clazz);
+      // The members are cached and shared by threads, so they are never made inaccessible again.
+      fields.forEach(field -> field.setAccessible(true));
+      methods.forEach(method -> method.setAccessible(true));
+    }
+
+    @Override
+    public void addMembers(AbstractJsonableObject object, JsonableMembers members) {
+      for (Field field : fields) {
+        Object value;
+        try {
+          value = field.get(object);
+        } catch (IllegalAccessException e) {
+          throw new IllegalStateException(
+              String.format("Error reading value of field '%s'", field), e);
+        }
+        members.add(getJsonName(field, field.getName()), field.toString(), value);
+      }
+      for (Method method : methods) {
+        Object value;
+        try {
+          value = method.invoke(object);
+        } catch (ReflectiveOperationException e) {
+          throw new IllegalStateException(
+              String.format("Error reading value of method '%s'", method), e);
+        }
+        members.add(getJsonName(method, method.getName()), method.toString(), value);
+      }
     }
-    if (object instanceof Boolean) {
-      return new JsonPrimitive((Boolean) object);
+
+    private static String getJsonName(AnnotatedElement member, String memberName) {
+      String name = member.getAnnotation(JsonableElement.class).value();
+      return name.isEmpty() ? memberName : name;
     }
-    if (object instanceof DateTime) {
-      // According to RFC 9083 section 3, the syntax of dates and times is defined in RFC3339.
-      //
-      // According to RFC3339, we should use ISO8601, which is what DateTime.toString does!
-      return new JsonPrimitive(object.toString());
+
+    /**
+     * Get all the fields declared on this class.
+     *
+     * <p>We aren't using {@link Class#getFields} because that would return only the public fields.
+     */
+    private static ImmutableList<Field> getAllJsonableElementFields(Class<?> clazz) {
+      ImmutableList.Builder<Field> builder = new ImmutableList.Builder<>();
+      for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+        for (Field field : c.getDeclaredFields()) {
+          if (!field.isAnnotationPresent(JsonableElement.class)) {
+            continue;
+          }
+          builder.add(field);
+        }
+      }
+      // Sorting for test consistency
+      return Ordering.natural().onResultOf(Field::getName).immutableSortedCopy(builder.build());
     }
-    if (object == null) {
-      return JsonNull.INSTANCE;
+
+    /**
+     * Get all the methods declared on this class.
+     *
+     * <p>We aren't using {@link Class#getMethods} because that would return only the public
+     * methods.
+     */
+    private static ImmutableList<Method> getAllJsonableElementMethods(Class<?> clazz) {
+      ImmutableList.Builder<Method> builder = new ImmutableList.Builder<>();
+      HashSet<String> seenNames = new HashSet<>();
+      for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+        for (Method method : c.getDeclaredMethods()) {
+          if (!method.isAnnotationPresent(JsonableElement.class)) {
+            continue;
+          }
+          checkState(
+              method.getParameterCount() == 0, "Method '%s' must have no arguments", method);
+          if (!seenNames.add(method.getName())) {
+            // We've seen the same function in a sub-class, so we already added the overridden
+            // version.
+            continue;
+          }
+          builder.add(method);
+        }
+      }
+      // Sorting for test consistency
+      return Ordering.natural().onResultOf(Method::getName).immutableSortedCopy(builder.build());
     }
-    throw new IllegalArgumentException(
-        String.format(
-            "Unknows object type '%s' in member '%s'",
-            object.getClass(), member));
   }
 
   /**
@@ -356,6 +428,10 @@ abstract class AbstractJsonableObject implements Jsonable {
    * the class is an element in a array with this name.
    */
   static Optional<ImmutableSet<String>> getNameRestriction(Class<?> clazz) {
+    return nameRestrictions.get(clazz);
+  }
+
+  private static Optional<ImmutableSet<String>> findNameRestriction(Class<?> clazz) {
     // Find the first superclass that has an RestrictJsonNames annotation.
     //
     // The reason we don't use @Inherited on the annotation instead is that we want a good error
@@ -379,7 +455,7 @@ abstract class AbstractJsonableObject implements Jsonable {
    *
    * <p>If there's no @RestrictJsonNames annotation, all names are allowed.
    */
-  static void verifyAllowedJsonKeyName(String name, @Nullable Member member, Class<?> clazz) {
+  static void verifyAllowedJsonKeyName(String name, @Nullable String member, Class<?> clazz) {
     Optional<ImmutableSet<String>> allowedFieldNames = getNameRestriction(clazz);
     if (allowedFieldNames.isEmpty()) {
       return;
@@ -399,119 +475,6 @@ abstract class AbstractJsonableObject implements Jsonable {
         member);
   }
 
-  private static final class JsonObjectBuilder {
-    private final JsonObject jsonObject = new JsonObject();
-    private final HashMap<String, Member> seenNames = new HashMap<>();
-
-    void add(JsonableElement jsonableElement, Member member, Object object) {
-      checkNotNull(
-          object, "Member '%s' is null. If you want an optional member - use Optional", member);
-
-      // We ignore any Optional that are empty, as if they didn't exist at all
-      if (object instanceof Optional<?> optional) {
-        if (optional.isEmpty()) {
-          return;
-        }
-        object = optional.get();
-      }
-
-      // First, if this is a Merge element, merge it with the current elements
-      if (MERGE_NAME.equals(jsonableElement.value())) {
-        // We want to merge this member with the current member.
-        // Recursively get all the ElementData of this member
-        checkState(
-            object instanceof AbstractJsonableObject,
-            "JsonableElement(\"*\") annotating a non-AbstractJsonableObject object in '%s'",
-            member);
-        AbstractJsonableObject jsonableObject = (AbstractJsonableObject) object;
-        mergeWith(jsonableObject.toJson(), member);
-        return;
-      }
-
-      String name =
-          jsonableElement.value().isEmpty() ? member.getName() : jsonableElement.value();
-
-      // If this is an Iterable, return a stream of the inner elements
-      if (object instanceof Iterable) {
-        checkState(
-            !name.endsWith(ARRAY_NAME_SUFFIX),
-            "Error in JsonableElement(\"%s\") on '%s': Can't have array of arrays",
-            name,
-            member);
-        // Adds each element individually into the array
-        for (Object innerObject : (Iterable<?>) object) {
-          addObjectIntoArray(name, member, innerObject);
-        }
-        return;
-      }
-
-      if (name.endsWith(ARRAY_NAME_SUFFIX)) {
-        // If the name ends with the "array suffix", add it as if it's an element in an iterable
-        addObjectIntoArray(
-            name.substring(0, name.length() - ARRAY_NAME_SUFFIX.length()), member, object);
-      } else {
-        // Otherwise, add the object as-is
-        addObject(name, member, object);
-      }
-    }
-
-    JsonObject build() {
-      return jsonObject;
-    }
-
-    private void mergeWith(JsonObject otherJsonObject, Member member) {
-      for (Map.Entry<String, JsonElement> entry : otherJsonObject.entrySet()) {
-        String name = entry.getKey();
-        JsonElement otherElement = entry.getValue();
-
-        JsonElement ourElement = jsonObject.get(name);
-        if (ourElement == null) {
-          jsonObject.add(name, otherElement);
-          seenNames.put(name, member);
-        } else {
-          // Both this and the other object have element with the same name. That's only OK if that
-          // element is an array - in which case we merge the arrays.
-          checkState((ourElement instanceof JsonArray) && (otherElement instanceof JsonArray),
-              "Encountered the same field name '%s' multiple times: '%s' vs. '%s'",
-              name,
-              member,
-              seenNames.get(name));
-          ((JsonArray) ourElement).addAll((JsonArray) otherElement);
-        }
-      }
-
-    }
-
-    private void addObject(String name, Member member, Object object) {
-      checkState(
-          !jsonObject.has(name),
-          "Encountered the same field name '%s' multiple times: '%s' vs. '%s'",
-          name,
-          member,
-          seenNames.get(name));
-      seenNames.put(name, member);
-      jsonObject.add(name, toJsonElement(name, member, object));
-    }
-
-    private void addObjectIntoArray(String name, Member member, Object object) {
-      JsonElement innerElement = jsonObject.get(name);
-      JsonArray jsonArray;
-      if (innerElement == null) {
-        jsonArray = new JsonArray();
-        jsonObject.add(name, jsonArray);
-      } else {
-        checkState(innerElement instanceof JsonArray,
-          "Encountered the same field name '%s' multiple times: '%s' vs. '%s'",
-          name,
-          member,
-          seenNames.get(name));
-        jsonArray = (JsonArray) innerElement;
-      }
-      seenNames.put(name, member);
-      jsonArray.add(toJsonElement(name + ARRAY_NAME_SUFFIX, member, object));
-    }
-  }
-
   static class JsonableException extends RuntimeException {
 
     JsonableException(String message) {
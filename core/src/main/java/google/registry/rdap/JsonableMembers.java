@@ -0,0 +1,258 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.rdap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.Nullable;
+import org.joda.time.DateTime;
+
+/**
+ * The JSON members of an {@link AbstractJsonableObject}, in the order they were added.
+ *
+ * <p>This only holds references to the member values, so the members can either be turned into a
+ * {@link JsonObject}, or be written straight to a {@link JsonWriter} without building the JSON tree
+ * of the whole response first.
+ *
+ * <p>See {@link AbstractJsonableObject} for how the members are named, merged and validated.
+ */
+final class JsonableMembers {
+
+  /**
+   * Adds the values of the {@code @JsonableElement} members of an object.
+   *
+   * <p>The implementations are generated by {@code JsonableElementProcessor}.
+   */
+  interface Adder {
+    void addMembers(AbstractJsonableObject object, JsonableMembers members);
+  }
+
+  private static final String ARRAY_NAME_SUFFIX = "[]";
+
+  private static final String MERGE_NAME = "*";
+
+  /** Only used to write the (small) JSON trees of {@link Jsonable}s that aren't JSON objects. */
+  private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+  /** The value of each member, or an {@link ArrayValue} for the members that are arrays. */
+  private final LinkedHashMap<String, Object> values = new LinkedHashMap<>();
+
+  private final HashMap<String, String> seenMembers = new HashMap<>();
+
+  /** The elements of an array member. */
+  private static final class ArrayValue {
+    final ArrayList<Object> elements = new ArrayList<>();
+  }
+
+  /**
+   * Adds the value of a member.
+   *
+   * @param name the JSON name of the member, which can also end with "[]" or be "*"
+   * @param member a description of the member, for error messages
+   */
+  void add(String name, String member, Object object) {
+    checkNotNull(
+        object, "Member '%s' is null. If you want an optional member - use Optional", member);
+
+    // We ignore any Optional that are empty, as if they didn't exist at all
+    if (object instanceof Optional<?> optional) {
+      if (optional.isEmpty()) {
+        return;
+      }
+      object = optional.get();
+    }
+
+    // First, if this is a Merge element, merge it with the current elements
+    if (MERGE_NAME.equals(name)) {
+      checkState(
+          object instanceof AbstractJsonableObject,
+          "JsonableElement(\"*\") annotating a non-AbstractJsonableObject object in '%s'",
+          member);
+      ((AbstractJsonableObject) object).addMembersTo(this);
+      return;
+    }
+
+    // If this is an Iterable, add each of the inner elements
+    if (object instanceof Iterable) {
+      checkState(
+          !name.endsWith(ARRAY_NAME_SUFFIX),
+          "Error in JsonableElement(\"%s\") on '%s': Can't have array of arrays",
+          name,
+          member);
+      for (Object innerObject : (Iterable<?>) object) {
+        addObjectIntoArray(name, member, innerObject);
+      }
+      return;
+    }
+
+    if (name.endsWith(ARRAY_NAME_SUFFIX)) {
+      // If the name ends with the "array suffix", add it as if it's an element in an iterable
+      addObjectIntoArray(
+          name.substring(0, name.length() - ARRAY_NAME_SUFFIX.length()), member, object);
+    } else {
+      // Otherwise, add the object as-is
+      addObject(name, member, object);
+    }
+  }
+
+  private void addObject(String name, String member, Object object) {
+    checkState(
+        !values.containsKey(name),
+        "Encountered the same field name '%s' multiple times: '%s' vs. '%s'",
+        name,
+        member,
+        seenMembers.get(name));
+    checkSupported(name, member, object);
+    seenMembers.put(name, member);
+    values.put(name, object);
+  }
+
+  private void addObjectIntoArray(String name, String member, @Nullable Object object) {
+    Object value = values.get(name);
+    ArrayValue arrayValue;
+    if (value == null) {
+      arrayValue = new ArrayValue();
+      values.put(name, arrayValue);
+    } else {
+      checkState(
+          value instanceof ArrayValue,
+          "Encountered the same field name '%s' multiple times: '%s' vs. '%s'",
+          name,
+          member,
+          seenMembers.get(name));
+      arrayValue = (ArrayValue) value;
+    }
+    checkSupported(name + ARRAY_NAME_SUFFIX, member, object);
+    seenMembers.put(name, member);
+    arrayValue.elements.add(object);
+  }
+
+  /** Checks that the object can be turned into JSON under the given name. */
+  private static void checkSupported(String name, String member, @Nullable Object object) {
+    if (object instanceof Jsonable jsonable) {
+      AbstractJsonableObject.verifyAllowedJsonKeyName(name, member, jsonable.getClass());
+      return;
+    }
+    if (object == null
+        || object instanceof String
+        || object instanceof Number
+        || object instanceof Boolean
+        || object instanceof DateTime) {
+      return;
+    }
+    throw new IllegalArgumentException(
+        String.format("Unknows object type '%s' in member '%s'", object.getClass(), member));
+  }
+
+  /** Returns the members as a {@link JsonObject}. */
+  JsonObject toJsonObject() {
+    JsonObject jsonObject = new JsonObject();
+    for (Map.Entry<String, Object> entry : values.entrySet()) {
+      if (entry.getValue() instanceof ArrayValue arrayValue) {
+        JsonArray jsonArray = new JsonArray();
+        arrayValue.elements.forEach(element -> jsonArray.add(toJsonElement(element)));
+        jsonObject.add(entry.getKey(), jsonArray);
+      } else {
+        jsonObject.add(entry.getKey(), toJsonElement(entry.getValue()));
+      }
+    }
+    return jsonObject;
+  }
+
+  private static JsonElement toJsonElement(@Nullable Object object) {
+    if (object instanceof Jsonable jsonable) {
+      return jsonable.toJson();
+    }
+    if (object instanceof String string) {
+      return new JsonPrimitive(string);
+    }
+    if (object instanceof Number number) {
+      return new JsonPrimitive(number);
+    }
+    if (object instanceof Boolean bool) {
+      return new JsonPrimitive(bool);
+    }
+    if (object instanceof DateTime) {
+      // According to RFC 9083 section 3, the syntax of dates and times is defined in RFC3339.
+      //
+      // According to RFC3339, we should use ISO8601, which is what DateTime.toString does!
+      return new JsonPrimitive(object.toString());
+    }
+    return JsonNull.INSTANCE;
+  }
+
+  /**
+   * Writes the members as a JSON object.
+   *
+   * @param linkValue if present, the "value" to add to each link object (in a "links" array) that
+   *     doesn't have one
+   * @param isLink whether this object is an element of a "links" array
+   */
+  void writeTo(JsonWriter writer, @Nullable String linkValue, boolean isLink) throws IOException {
+    writer.beginObject();
+    for (Map.Entry<String, Object> entry : values.entrySet()) {
+      writer.name(entry.getKey());
+      if (entry.getValue() instanceof ArrayValue arrayValue) {
+        boolean isLinksArray = entry.getKey().equals("links");
+        writer.beginArray();
+        for (Object element : arrayValue.elements) {
+          writeValue(writer, element, linkValue, isLinksArray);
+        }
+        writer.endArray();
+      } else {
+        writeValue(writer, entry.getValue(), linkValue, false);
+      }
+    }
+    if (isLink && linkValue != null && !values.containsKey("value")) {
+      writer.name("value").value(linkValue);
+    }
+    writer.endObject();
+  }
+
+  private static void writeValue(
+      JsonWriter writer, @Nullable Object object, @Nullable String linkValue, boolean isLink)
+      throws IOException {
+    if (object instanceof AbstractJsonableObject jsonableObject) {
+      jsonableObject.writeJson(writer, linkValue, isLink);
+    } else if (object instanceof Jsonable jsonable) {
+      GSON.toJson(jsonable.toJson(), writer);
+    } else if (object instanceof String string) {
+      writer.value(string);
+    } else if (object instanceof Number number) {
+      writer.value(number);
+    } else if (object instanceof Boolean bool) {
+      writer.value(bool);
+    } else if (object instanceof DateTime) {
+      writer.value(object.toString());
+    } else {
+      writer.nullValue();
+    }
+  }
+}
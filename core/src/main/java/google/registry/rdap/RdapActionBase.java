@@ -16,31 +16,36 @@ package google.registry.rdap;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.net.HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN;
+import static com.google.common.net.HttpHeaders.ETAG;
+import static com.google.common.net.HttpHeaders.IF_NONE_MATCH;
 import static google.registry.request.Actions.getPathForAction;
 import static google.registry.util.DomainNameUtils.canonicalizeHostname;
 import static jakarta.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
 import static jakarta.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
 import static jakarta.servlet.http.HttpServletResponse.SC_NOT_FOUND;
+import static jakarta.servlet.http.HttpServletResponse.SC_NOT_MODIFIED;
 import static jakarta.servlet.http.HttpServletResponse.SC_OK;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
-import com.google.common.collect.Streams;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.google.common.flogger.FluentLogger;
 import com.google.common.net.MediaType;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 import google.registry.config.RegistryConfig.Config;
 import google.registry.model.EppResource;
 import google.registry.model.registrar.Registrar;
 import google.registry.rdap.RdapMetrics.EndpointType;
+import google.registry.rdap.RdapMetrics.ResponseCacheResult;
 import google.registry.rdap.RdapObjectClasses.ErrorResponse;
 import google.registry.rdap.RdapObjectClasses.ReplyPayloadBase;
 import google.registry.rdap.RdapObjectClasses.TopLevelReplyObject;
+import google.registry.rdap.RdapResponseCache.CachedResponse;
 import google.registry.rdap.RdapSearchResults.BaseSearchResponse;
 import google.registry.request.Action;
+import google.registry.request.Header;
 import google.registry.request.HttpException;
 import google.registry.request.Parameter;
 import google.registry.request.RequestMethod;
@@ -49,6 +54,9 @@ import google.registry.request.RequestUrl;
 import google.registry.request.Response;
 import google.registry.util.Clock;
 import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Optional;
@@ -85,10 +93,20 @@ public abstract class RdapActionBase implements Runnable {
   @Inject RdapJsonFormatter rdapJsonFormatter;
   @Inject @Parameter("includeDeleted") Optional<Boolean> includeDeletedParam;
   @Inject @Parameter("formatOutput") Optional<Boolean> formatOutputParam;
+  @Inject @Header(IF_NONE_MATCH) Optional<String> ifNoneMatch;
   @Inject @Config("rdapResultSetMaxSize") int rdapResultSetMaxSize;
   @Inject RdapMetrics rdapMetrics;
   @Inject Clock clock;
 
+  /**
+   * The lookup endpoints, whose responses are cached in the {@link RdapResponseCache}.
+   *
+   * <p>Search responses aren't cached, as they are much less likely to be repeated, and depend on
+   * more than one resource.
+   */
+  private static final ImmutableSet<EndpointType> CACHEABLE_ENDPOINT_TYPES =
+      Sets.immutableEnumSet(EndpointType.DOMAIN, EndpointType.ENTITY, EndpointType.NAMESERVER);
+
   /** Builder for metric recording. */
   final RdapMetrics.RdapMetricInformation.Builder metricInformationBuilder =
       RdapMetrics.RdapMetricInformation.builder();
@@ -103,6 +121,11 @@ public abstract class RdapActionBase implements Runnable {
   /** The endpoint type used for recording metrics. */
   private final EndpointType endpointType;
 
+  /** The ID and update time of the resource returned by a lookup, used for its entity tag. */
+  private Optional<ResourceVersion> resourceVersion = Optional.empty();
+
+  private record ResourceVersion(String resourceId, DateTime lastUpdateTime) {}
+
   /** Returns the servlet action path; used to extract the search string from the incoming path. */
   final String getActionPath() {
     return getPathForAction(getClass());
@@ -154,17 +177,39 @@ public abstract class RdapActionBase implements Runnable {
       String pathSearchString = pathProper.substring(getActionPath().length());
       logger.atInfo().log("path search string: '%s'.", pathSearchString);
 
+      Optional<RdapResponseCache.Key> cacheKey = getResponseCacheKey();
+      Optional<CachedResponse> cachedResponse = cacheKey.flatMap(RdapResponseCache::get);
+      if (cachedResponse.isPresent()) {
+        setCachedResponse(cachedResponse.get(), ResponseCacheResult.HIT);
+        rdapMetrics.updateMetrics(metricInformationBuilder.build());
+        return;
+      }
       ReplyPayloadBase replyObject =
           getJsonObjectForResource(pathSearchString, requestMethod == Action.Method.HEAD);
       if (replyObject instanceof BaseSearchResponse) {
         metricInformationBuilder.setIncompletenessWarningType(
             ((BaseSearchResponse) replyObject).incompletenessWarningType());
       }
-      // RFC7480 5.1 - if the server has the information requested and wishes to respond, it returns
-      // that answer in the body of a 200 (OK) response
-      response.setStatus(SC_OK);
-      setPayload(replyObject);
-      metricInformationBuilder.setStatusCode(SC_OK);
+      if (CACHEABLE_ENDPOINT_TYPES.contains(endpointType) && resourceVersion.isPresent()) {
+        // The payload is rendered even for HEAD requests, as their ETag must be the same as GET's.
+        String payload = renderPayload(replyObject);
+        CachedResponse newResponse =
+            CachedResponse.create(
+                RdapResponseCache.createEntityTag(
+                    resourceVersion.get().resourceId(),
+                    resourceVersion.get().lastUpdateTime(),
+                    payload,
+                    getRequestTime()),
+                payload);
+        cacheKey.ifPresent(key -> RdapResponseCache.put(key, newResponse));
+        setCachedResponse(newResponse, ResponseCacheResult.MISS);
+      } else {
+        // RFC7480 5.1 - if the server has the information requested and wishes to respond, it
+        // returns that answer in the body of a 200 (OK) response
+        response.setStatus(SC_OK);
+        setPayload(replyObject);
+        metricInformationBuilder.setStatusCode(SC_OK);
+      }
     } catch (RdapDomainAction.DomainBlockedByBsaException e) {
       logger.atInfo().withCause(e).log("Domain blocked by BSA");
       setErrorCodes(SC_NOT_FOUND);
@@ -201,12 +246,76 @@ public abstract class RdapActionBase implements Runnable {
     if (requestMethod == Action.Method.HEAD) {
       return;
     }
+    response.setPayload(renderPayload(replyObject));
+  }
+
+  /**
+   * Records the resource returned by a lookup, so that its response can be cached and revalidated
+   * using an entity tag.
+   *
+   * @param resourceId the unique ID of the resource, e.g. its repo ID
+   * @param lastUpdateTime the time the resource was last updated
+   */
+  void setResourceVersion(String resourceId, DateTime lastUpdateTime) {
+    resourceVersion = Optional.of(new ResourceVersion(resourceId, lastUpdateTime));
+  }
+
+  /** Returns the key of the response in the {@link RdapResponseCache}, if it can be cached. */
+  private Optional<RdapResponseCache.Key> getResponseCacheKey() {
+    if (!RdapResponseCache.isEnabled() || !CACHEABLE_ENDPOINT_TYPES.contains(endpointType)) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new RdapResponseCache.Key(
+            requestUrl,
+            rdapAuthorization,
+            shouldIncludeDeleted(),
+            formatOutputParam.orElse(false)));
+  }
+
+  /**
+   * Sets a successful lookup response, or a 304 (Not Modified) if the client already has it.
+   *
+   * <p>The response is either a cached one, or was just rendered (and possibly cached).
+   */
+  private void setCachedResponse(CachedResponse cachedResponse, ResponseCacheResult cacheResult) {
+    // RFC 9110 15.4.5 - a 304 response must include the ETag header that a 200 response would
+    // have included.
+    response.setHeader(ETAG, cachedResponse.eTag());
+    boolean notModified =
+        ifNoneMatch
+            .map(header -> RdapResponseCache.matchesIfNoneMatch(header, cachedResponse.eTag()))
+            .orElse(false);
+    int status = notModified ? SC_NOT_MODIFIED : SC_OK;
+    response.setStatus(status);
+    metricInformationBuilder.setStatusCode(status);
+    if (!notModified && requestMethod != Action.Method.HEAD) {
+      response.setPayload(cachedResponse.payload());
+    }
+    if (RdapResponseCache.isEnabled()) {
+      rdapMetrics.recordResponseCacheLookup(
+          endpointType, cacheResult, notModified, cachedResponse.payloadSize());
+    }
+  }
+
+  private String renderPayload(ReplyPayloadBase replyObject) {
     TopLevelReplyObject topLevelObject =
         TopLevelReplyObject.create(replyObject, rdapJsonFormatter.createTosNotice());
     Gson gson = formatOutputParam.orElse(false) ? FORMATTED_OUTPUT_GSON : GSON;
-    JsonObject jsonResult = topLevelObject.toJson();
-    addLinkValuesRecursively(jsonResult);
-    response.setPayload(gson.toJson(jsonResult));
+    // The JSON is written to a buffer rather than straight to the response, so that a failure
+    // half-way through can still be reported as an error response.
+    StringWriter stringWriter = new StringWriter();
+    try (JsonWriter jsonWriter = gson.newJsonWriter(stringWriter)) {
+      // Per RFC 8288, each link object gets a "value" referencing the request URL (the "context
+      // URI"), as required by the RDAP February 2024 response profile sections 2.6.3 and 2.10, and
+      // the technical implementation guide sections 3.2 and 3.3.2. This is added while writing
+      // because many of the links (e.g. terms of service) are static constants, and thus cannot by
+      // default know what the request URL was.
+      topLevelObject.writeJson(jsonWriter, requestUrl, false);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return stringWriter.toString();
   }
 
   /**
@@ -271,35 +380,4 @@ public abstract class RdapActionBase implements Runnable {
   DateTime getRequestTime() {
     return rdapJsonFormatter.getRequestTime();
   }
-
-  /**
-   * Adds a request-referencing "value" to each link object.
-   *
-   * <p>This is the "context URI" as described in RFC 8288. Basically, this contains a reference to
-   * the request URL that generated this RDAP response.
-   *
-   * <p>This is required per the RDAP February 2024 response profile sections 2.6.3 and 2.10, and
-   * the technical implementation guide sections 3.2 and 3.3.2.
-   *
-   * <p>We must do this here (instead of where the links are generated) because many of the links
-   * (e.g. terms of service) are static constants, and thus cannot by default know what the request
-   * URL was.
-   */
-  private void addLinkValuesRecursively(JsonElement jsonElement) {
-    if (jsonElement instanceof JsonArray jsonArray) {
-      jsonArray.forEach(this::addLinkValuesRecursively);
-    } else if (jsonElement instanceof JsonObject jsonObject) {
-      if (jsonObject.get("links") instanceof JsonArray linksArray) {
-        addLinkValues(linksArray);
-      }
-      jsonObject.entrySet().forEach(entry -> addLinkValuesRecursively(entry.getValue()));
-    }
-  }
-
-  private void addLinkValues(JsonArray linksArray) {
-    Streams.stream(linksArray)
-        .map(JsonElement::getAsJsonObject)
-        .filter(o -> !o.has("value"))
-        .forEach(o -> o.addProperty("value", requestUrl));
-  }
 }
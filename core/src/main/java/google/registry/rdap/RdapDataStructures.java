@@ -91,7 +91,7 @@ final class RdapDataStructures {
    * them. So we will divide all the "types" from the RFC to two enums - one for Notices and one for
    * Remarks.
    */
-  private abstract static class NoticeOrRemark extends AbstractJsonableObject {
+  abstract static class NoticeOrRemark extends AbstractJsonableObject {
     @JsonableElement abstract Optional<String> title();
     @JsonableElement abstract ImmutableList<String> description();
     @JsonableElement abstract ImmutableList<Link> links();
@@ -236,7 +236,7 @@ final class RdapDataStructures {
    * <p>There's a type of Event that must not have the "eventActor" (see 5.1), so we create 2
    * versions - one with and one without.
    */
-  private abstract static class EventBase extends AbstractJsonableObject {
+  abstract static class EventBase extends AbstractJsonableObject {
     @JsonableElement abstract EventAction eventAction();
     @JsonableElement abstract DateTime eventDate();
     @JsonableElement abstract ImmutableList<Link> links();
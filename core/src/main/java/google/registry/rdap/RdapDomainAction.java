@@ -81,6 +81,7 @@ public class RdapDomainAction extends RdapActionBase {
       // exists but we don't want to show it to you", because we DON'T wish to say that.
       throw new NotFoundException(pathSearchString + " not found");
     }
+    setResourceVersion(domain.get().getRepoId(), domain.get().getUpdateTimestamp().getTimestamp());
     return rdapJsonFormatter.createRdapDomain(domain.get(), OutputDataType.FULL);
   }
 
@@ -14,6 +14,7 @@
 
 package google.registry.rdap;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static google.registry.model.EppResourceUtils.loadByForeignKeyByCache;
 import static google.registry.persistence.transaction.TransactionManagerFactory.replicaTm;
@@ -31,9 +32,11 @@ import com.google.common.collect.Iterables;
 import com.google.common.flogger.FluentLogger;
 import com.google.common.net.InetAddresses;
 import com.google.common.primitives.Booleans;
+import google.registry.model.EppResource;
 import google.registry.model.ForeignKeyUtils;
 import google.registry.model.domain.Domain;
 import google.registry.model.host.Host;
+import google.registry.model.host.HostIpIndex;
 import google.registry.persistence.VKey;
 import google.registry.persistence.transaction.CriteriaQueryBuilder;
 import google.registry.rdap.RdapJsonFormatter.OutputDataType;
@@ -192,6 +195,9 @@ public class RdapDomainSearchAction extends RdapSearchActionBase {
   /** Searches for domains by domain name with an initial string, wildcard and possible suffix. */
   private DomainSearchResponse searchByDomainNameWithInitialString(
       final RdapSearchPattern partialStringQuery) {
+    if (!shouldIncludeDeleted()) {
+      return searchUndeletedDomainsByDomainNameWithInitialString(partialStringQuery);
+    }
     // We can't query for undeleted domains as part of the query itself; that would require an
     // inequality query on deletion time, and we are already using inequality queries on
     // domainName. So we instead pick an arbitrary limit of RESULT_SET_SIZE_SCALING_FACTOR times the
@@ -230,6 +236,94 @@ public class RdapDomainSearchAction extends RdapSearchActionBase {
     return makeSearchResults(resultSet);
   }
 
+  /**
+   * Searches for undeleted domains by domain name with an initial string, wildcard and possible
+   * suffix.
+   *
+   * <p>Domains that are neither deleted nor pending delete are read from the partial {@code
+   * domain_active_domain_name_idx} index, and the (few) domains pending delete using the deletion
+   * time index. Both queries use keyset pagination, i.e. they start right after the cursor in
+   * domain name order, and stop after a page's worth of domains. So the cost of each page stays
+   * the same however many deleted domains match the initial string.
+   *
+   * <p>The domain names are compared in the "C" collation of the index, which is also the order of
+   * {@link String#compareTo} for the ASCII domain names.
+   */
+  private DomainSearchResponse searchUndeletedDomainsByDomainNameWithInitialString(
+      final RdapSearchPattern partialStringQuery) {
+    // Add 1 so we can detect truncation.
+    int querySizeLimit = rdapResultSetMaxSize + 1;
+    ImmutableMap.Builder<String, Object> parameters =
+        new ImmutableMap.Builder<String, Object>()
+            .put("namePattern", String.format("%s%%", partialStringQuery.getInitialString()));
+    StringBuilder queryBuilder =
+        new StringBuilder(
+            "SELECT * FROM \"Domain\" WHERE domain_name COLLATE \"C\" LIKE :namePattern");
+    if (cursorString.isPresent()) {
+      queryBuilder.append(" AND domain_name COLLATE \"C\" > :cursor");
+      parameters.put("cursor", cursorString.get());
+    }
+    if (partialStringQuery.getSuffix() != null) {
+      queryBuilder.append(" AND tld = :tld");
+      parameters.put("tld", partialStringQuery.getSuffix());
+    }
+    if (getDesiredRegistrar().isPresent()) {
+      queryBuilder.append(" AND current_sponsor_registrar_id = :desiredRegistrar");
+      parameters.put("desiredRegistrar", getDesiredRegistrar().get());
+    }
+    // The end of time is inlined rather than a parameter, so that the query planner can match the
+    // condition of the partial index even with a generic plan.
+    String activeDomainsQuery =
+        String.format(
+            "%s AND deletion_time = '%s' ORDER BY domain_name COLLATE \"C\"",
+            queryBuilder, END_OF_TIME);
+    String pendingDeleteDomainsQuery =
+        String.format(
+            "%s AND deletion_time > CAST(:requestTime AS timestamptz) AND deletion_time < '%s'"
+                + " ORDER BY domain_name COLLATE \"C\"",
+            queryBuilder, END_OF_TIME);
+    ImmutableMap<String, Object> activeDomainsParameters = parameters.build();
+    ImmutableMap<String, Object> pendingDeleteDomainsParameters =
+        new ImmutableMap.Builder<String, Object>()
+            .putAll(activeDomainsParameters)
+            .put("requestTime", getRequestTime().toString())
+            .build();
+    ImmutableList<Domain> domains =
+        replicaTm()
+            .transact(
+                () ->
+                    Stream.concat(
+                            queryDomains(
+                                activeDomainsQuery, activeDomainsParameters, querySizeLimit),
+                            queryDomains(
+                                pendingDeleteDomainsQuery,
+                                pendingDeleteDomainsParameters,
+                                querySizeLimit))
+                        .collect(toImmutableList()));
+    // Each query returns at most a page's worth of domains (plus one), so the first ones of the
+    // merged results are the first ones overall.
+    return makeSearchResults(
+        domains.stream()
+            .sorted(Comparator.comparing(Domain::getDomainName))
+            .limit(querySizeLimit)
+            .collect(toImmutableList()),
+        IncompletenessWarningType.COMPLETE,
+        Optional.of((long) domains.size()));
+  }
+
+  private static Stream<Domain> queryDomains(
+      String queryString, ImmutableMap<String, Object> parameters, int querySizeLimit) {
+    Query query =
+        replicaTm()
+            .getEntityManager()
+            .createNativeQuery(queryString, Domain.class)
+            .setMaxResults(querySizeLimit);
+    parameters.forEach(query::setParameter);
+    @SuppressWarnings("unchecked")
+    List<Domain> resultList = query.getResultList();
+    return resultList.stream();
+  }
+
   /** Searches for domains by domain name with a TLD suffix. */
   private DomainSearchResponse searchByDomainNameByTld(String tld) {
     // Even though we are not searching on domainName, we want the results to come back ordered by
@@ -421,6 +515,12 @@ public class RdapDomainSearchAction extends RdapSearchActionBase {
    */
   private DomainSearchResponse searchByNameserverIp(final InetAddress inetAddress) {
     Optional<String> desiredRegistrar = getDesiredRegistrar();
+    Optional<ImmutableList<VKey<Host>>> indexedHostKeys =
+        HostIpIndex.getActiveHostKeys(inetAddress);
+    if (indexedHostKeys.isPresent()) {
+      return searchByNameserverRefs(
+          filterIndexedHostKeys(indexedHostKeys.get(), desiredRegistrar));
+    }
     ImmutableSet<VKey<Host>> hostKeys;
       // Hibernate does not allow us to query @Converted array fields directly, either
       // in the CriteriaQuery or the raw text format. However, Postgres does -- so we
@@ -456,6 +556,25 @@ public class RdapDomainSearchAction extends RdapSearchActionBase {
     return searchByNameserverRefs(hostKeys);
   }
 
+  /**
+   * Filters the keys of the hosts found in the {@link HostIpIndex} the same way {@link
+   * #searchByNameserverIp} filters the results of its query.
+   *
+   * <p>The hosts only need to be loaded, from the EPP resource cache, to check their registrar.
+   */
+  private ImmutableSet<VKey<Host>> filterIndexedHostKeys(
+      ImmutableList<VKey<Host>> hostKeys, Optional<String> desiredRegistrar) {
+    return hostKeys.stream()
+        .filter(
+            key ->
+                desiredRegistrar.isEmpty()
+                    || EppResource.loadByCache(key)
+                        .getPersistedCurrentSponsorRegistrarId()
+                        .equals(desiredRegistrar.get()))
+        .limit(maxNameserversInFirstStage)
+        .collect(toImmutableSet());
+  }
+
   /**
    * Locates all domains which are linked to a set of host keys.
    *
@@ -60,7 +60,7 @@ public class RdapEntityAction extends RdapActionBase {
     if (ianaIdentifier != null) {
       Optional<Registrar> registrar = getRegistrarByIanaIdentifier(ianaIdentifier);
       if (registrar.isPresent() && isAuthorized(registrar.get())) {
-        return rdapJsonFormatter.createRdapRegistrarEntity(registrar.get(), OutputDataType.FULL);
+        return createRdapRegistrarEntity(registrar.get());
       }
     }
 
@@ -68,7 +68,7 @@ public class RdapEntityAction extends RdapActionBase {
     // fn as handle
     Optional<Registrar> registrar = getRegistrarByName(pathSearchString);
     if (registrar.isPresent() && isAuthorized(registrar.get())) {
-      return rdapJsonFormatter.createRdapRegistrarEntity(registrar.get(), OutputDataType.FULL);
+      return createRdapRegistrarEntity(registrar.get());
     }
 
     // At this point, we have failed to find a registrar.
@@ -80,4 +80,9 @@ public class RdapEntityAction extends RdapActionBase {
     // exists, but we don't want to show it to you", because we DON'T wish to say that.
     throw new NotFoundException(pathSearchString + " not found");
   }
+
+  private RdapEntity createRdapRegistrarEntity(Registrar registrar) {
+    setResourceVersion(registrar.getRegistrarId(), registrar.getLastUpdateTime());
+    return rdapJsonFormatter.createRdapRegistrarEntity(registrar, OutputDataType.FULL);
+  }
 }
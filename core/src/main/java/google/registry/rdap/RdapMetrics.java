@@ -61,6 +61,12 @@ public class RdapMetrics {
     TREATED_AS_WILDCARD
   }
 
+  /** The result of looking up a response in the {@link RdapResponseCache}. */
+  enum ResponseCacheResult {
+    HIT,
+    MISS
+  }
+
   private static final int MAX_RECORDED_PREFIX_LENGTH = 5;
   private static final String MAX_PREFIX_LENGTH_LABEL = "5+";
 
@@ -94,6 +100,12 @@ public class RdapMetrics {
                   MAX_RECORDED_PREFIX_LENGTH)),
           LabelDescriptor.create("include_deleted", "Whether deleted records are included."));
 
+  private static final ImmutableSet<LabelDescriptor> LABEL_DESCRIPTORS_FOR_RESPONSE_CACHE =
+      ImmutableSet.of(
+          LabelDescriptor.create("endpoint_type", "The RDAP endpoint."),
+          LabelDescriptor.create("cache_result", "Whether the response was cached (HIT or MISS)."),
+          LabelDescriptor.create("not_modified", "Whether a 304 (Not Modified) was returned."));
+
   // Fibonacci fitter more suitable for integer-type values. Allows values between 0 and 4181,
   // which is the 19th Fibonacci number.
   private static final DistributionFitter FIBONACCI_FITTER = FibonacciFitter.create(4181);
@@ -133,6 +145,25 @@ public class RdapMetrics {
               LABEL_DESCRIPTORS_FOR_RETRIEVAL_COUNTS,
               FIBONACCI_FITTER);
 
+  @VisibleForTesting
+  static final IncrementableMetric responseCacheLookups =
+      MetricRegistryImpl.getDefault()
+          .newIncrementableMetric(
+              "/rdap/response_cache/lookups",
+              "Count of RDAP lookups checked against the response cache",
+              "count",
+              LABEL_DESCRIPTORS_FOR_RESPONSE_CACHE);
+
+  @VisibleForTesting
+  static final IncrementableMetric responseCacheBytesSaved =
+      MetricRegistryImpl.getDefault()
+          .newIncrementableMetric(
+              "/rdap/response_cache/bytes_saved",
+              "Size of the RDAP responses that were served from the cache instead of being "
+                  + "rendered, or that weren't sent because the client already had them",
+              "bytes",
+              LABEL_DESCRIPTORS_FOR_RESPONSE_CACHE);
+
   @Inject
   public RdapMetrics() {}
 
@@ -183,6 +214,29 @@ public class RdapMetrics {
     }
   }
 
+  /**
+   * Records a lookup in the RDAP response cache.
+   *
+   * @param endpointType the RDAP endpoint
+   * @param cacheResult whether the response was found in the cache
+   * @param notModified whether the client already had the response, and got a 304 instead
+   * @param payloadSize the size of the response payload in bytes; this counts as saved if the
+   *     response was cached, or if it didn't need to be sent
+   */
+  public void recordResponseCacheLookup(
+      EndpointType endpointType,
+      ResponseCacheResult cacheResult,
+      boolean notModified,
+      long payloadSize) {
+    String[] labels = {
+      endpointType.toString(), cacheResult.toString(), notModified ? "YES" : "NO"
+    };
+    responseCacheLookups.increment(labels);
+    if (cacheResult == ResponseCacheResult.HIT || notModified) {
+      responseCacheBytesSaved.incrementBy(payloadSize, labels);
+    }
+  }
+
   /**
    * Information on RDAP metrics.
    *
@@ -14,11 +14,14 @@
 
 package google.registry.rdap;
 
+import static com.google.common.net.HttpHeaders.IF_NONE_MATCH;
+
 import com.google.common.collect.ImmutableSet;
 import com.google.common.flogger.FluentLogger;
 import dagger.Module;
 import dagger.Provides;
 import google.registry.model.console.User;
+import google.registry.request.Header;
 import google.registry.request.Parameter;
 import google.registry.request.RequestParameters;
 import google.registry.request.auth.AuthResult;
@@ -98,6 +101,12 @@ public final class RdapModule {
     return RequestParameters.extractOptionalParameter(req, "cursor");
   }
 
+  @Provides
+  @Header(IF_NONE_MATCH)
+  static Optional<String> provideIfNoneMatch(HttpServletRequest req) {
+    return RequestParameters.extractOptionalHeader(req, IF_NONE_MATCH);
+  }
+
   @Provides
   static RdapAuthorization provideRdapAuthorization(
       AuthResult authResult, AuthenticatedRegistrarAccessor registrarAccessor) {
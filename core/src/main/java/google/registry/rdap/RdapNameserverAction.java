@@ -75,6 +75,7 @@ public class RdapNameserverAction extends RdapActionBase {
       // exists but we don't want to show it to you", because we DON'T wish to say that.
       throw new NotFoundException(pathSearchString + " not found");
     }
+    setResourceVersion(host.get().getRepoId(), host.get().getUpdateTimestamp().getTimestamp());
     return rdapJsonFormatter.createRdapNameserver(host.get(), OutputDataType.FULL);
   }
 }
@@ -14,19 +14,24 @@
 
 package google.registry.rdap;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static google.registry.model.EppResourceUtils.loadByForeignKeyByCache;
 import static google.registry.persistence.transaction.TransactionManagerFactory.replicaTm;
 import static google.registry.request.Action.Method.GET;
 import static google.registry.request.Action.Method.HEAD;
 import static google.registry.util.DateTimeUtils.END_OF_TIME;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Iterables;
 import com.google.common.net.InetAddresses;
 import com.google.common.primitives.Booleans;
+import google.registry.model.EppResource;
 import google.registry.model.domain.Domain;
 import google.registry.model.host.Host;
+import google.registry.model.host.HostIpIndex;
+import google.registry.persistence.VKey;
 import google.registry.persistence.transaction.CriteriaQueryBuilder;
 import google.registry.rdap.RdapJsonFormatter.OutputDataType;
 import google.registry.rdap.RdapMetrics.EndpointType;
@@ -239,6 +244,14 @@ public class RdapNameserverSearchAction extends RdapSearchActionBase {
   private NameserverSearchResponse searchByIp(InetAddress inetAddress) {
     // Add 1 so we can detect truncation.
     int querySizeLimit = getStandardQuerySizeLimit();
+    if (getDeletedItemHandling().equals(DeletedItemHandling.EXCLUDE)) {
+      Optional<ImmutableList<VKey<Host>>> indexedHostKeys =
+          HostIpIndex.getActiveHostKeys(inetAddress);
+      if (indexedHostKeys.isPresent()) {
+        return makeSearchResults(
+            searchIndexedHosts(indexedHostKeys.get(), querySizeLimit), CursorType.ADDRESS);
+      }
+    }
     RdapResultSet<Host> rdapResultSet;
       // Hibernate does not allow us to query @Converted array fields directly, either in the
       // CriteriaQuery or the raw text format. However, Postgres does -- so we use native queries to
@@ -279,6 +292,34 @@ public class RdapNameserverSearchAction extends RdapSearchActionBase {
     return makeSearchResults(rdapResultSet, CursorType.ADDRESS);
   }
 
+  /**
+   * Filters the hosts found in the {@link HostIpIndex} the same way {@link #searchByIp} filters the
+   * results of its query.
+   *
+   * <p>The hosts are loaded from the EPP resource cache, and checked again in case they were
+   * deleted or transferred since the index was refreshed.
+   */
+  private RdapResultSet<Host> searchIndexedHosts(
+      ImmutableList<VKey<Host>> hostKeys, int querySizeLimit) {
+    ImmutableList<Host> hosts =
+        hostKeys.stream()
+            // The keys are sorted by repo ID, like the query results, so the cursor still applies.
+            .filter(
+                key ->
+                    cursorString.isEmpty()
+                        || ((String) key.getKey()).compareTo(cursorString.get()) > 0)
+            .map(EppResource::loadByCache)
+            .filter(host -> host.getDeletionTime().equals(END_OF_TIME))
+            .filter(
+                host ->
+                    getDesiredRegistrar().isEmpty()
+                        || host.getPersistedCurrentSponsorRegistrarId()
+                            .equals(getDesiredRegistrar().get()))
+            .limit(querySizeLimit)
+            .collect(toImmutableList());
+    return filterResourcesByVisibility(hosts, querySizeLimit);
+  }
+
   /** Output JSON for a lists of hosts contained in an {@link RdapResultSet}. */
   private NameserverSearchResponse makeSearchResults(
       RdapResultSet<Host> resultSet, CursorType cursorType) {
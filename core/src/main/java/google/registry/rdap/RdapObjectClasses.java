@@ -195,7 +195,7 @@ final class RdapObjectClasses {
    *
    * <p>Not part of the spec, but seems convenient.
    */
-  private abstract static class RdapObjectBase extends ReplyPayloadBase {
+  abstract static class RdapObjectBase extends ReplyPayloadBase {
     @SuppressWarnings("unused")
     @JsonableElement
     final ObjectClassName objectClassName;
@@ -357,7 +357,7 @@ final class RdapObjectClasses {
    *
    * <p>Not part of the spec, but seems convenient.
    */
-  private abstract static class RdapNamedObjectBase extends RdapObjectBase {
+  abstract static class RdapNamedObjectBase extends RdapObjectBase {
 
     @JsonableElement abstract String ldhName();
 
@@ -539,13 +539,13 @@ final class RdapObjectClasses {
   @SuppressWarnings("UnusedVariable")
   public static class DomainBlockedByBsaErrorResponse extends ReplyPayloadBase {
 
-    @JsonableElement private static final LanguageIdentifier lang = LanguageIdentifier.EN;
+    @JsonableElement static final LanguageIdentifier lang = LanguageIdentifier.EN;
 
-    @JsonableElement private static final int errorCode = HttpServletResponse.SC_NOT_FOUND;
+    @JsonableElement static final int errorCode = HttpServletResponse.SC_NOT_FOUND;
 
-    @JsonableElement private static final String title = "Not Found";
+    @JsonableElement static final String title = "Not Found";
 
-    @JsonableElement private final ImmutableList<String> description;
+    @JsonableElement final ImmutableList<String> description;
 
     DomainBlockedByBsaErrorResponse(String message) {
       super(BoilerplateType.DOMAIN_BLOCKED_BY_BSA);
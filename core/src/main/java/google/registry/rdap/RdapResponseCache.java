@@ -0,0 +1,170 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.rdap;
+
+import static google.registry.config.RegistryConfig.getEppResourceCachingDuration;
+import static google.registry.config.RegistryConfig.getEppResourceMaxCachedEntries;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
+import com.google.common.hash.Hashing;
+import google.registry.config.RegistryConfig;
+import google.registry.model.CacheUtils;
+import google.registry.util.NonFinalForTesting;
+import java.time.Duration;
+import java.util.Optional;
+import org.joda.time.DateTime;
+
+/**
+ * Cache of rendered RDAP lookup responses.
+ *
+ * <p>Lookups of popular names make up most of the RDAP traffic, and each one otherwise reloads the
+ * resource and renders the whole response again. Responses are cached for the EPP resource caching
+ * duration, so they are no staler than the resources that {@link
+ * google.registry.model.EppResourceUtils#loadByForeignKeyByCache} would return anyway.
+ *
+ * <p>Each cached response has a weak entity tag, so that clients can revalidate it with an
+ * {@code If-None-Match} header and get a 304 (Not Modified) response without a body. The tag is
+ * weak because renderings of an unchanged resource differ in the dates of their "last update of
+ * RDAP database" events, and so are only semantically equivalent (RFC 9110 section 8.8.1).
+ */
+final class RdapResponseCache {
+
+  /**
+   * The key of a cached response.
+   *
+   * <p>This includes everything the response of a lookup depends on, besides the resource itself.
+   */
+  record Key(
+      String requestUrl,
+      RdapAuthorization authorization,
+      boolean includeDeleted,
+      boolean formatOutput) {}
+
+  /**
+   * A rendered response.
+   *
+   * @param eTag the weak entity tag of the response, including the surrounding quotes
+   * @param payload the JSON payload of the response
+   * @param payloadSize the size of the payload in bytes
+   */
+  record CachedResponse(String eTag, String payload, long payloadSize) {
+
+    static CachedResponse create(String eTag, String payload) {
+      return new CachedResponse(eTag, payload, payload.getBytes(UTF_8).length);
+    }
+  }
+
+  private static final Splitter ENTITY_TAG_SPLITTER = Splitter.on(',').trimResults();
+
+  /** The prefix of weak entity tags, which the weak comparison function ignores. */
+  private static final String WEAK_ENTITY_TAG_PREFIX = "W/";
+
+  @NonFinalForTesting
+  private static Optional<Cache<Key, CachedResponse>> cache =
+      RegistryConfig.isEppResourceCachingEnabled() && !getEppResourceCachingDuration().isZero()
+          ? Optional.of(createCache(getEppResourceCachingDuration()))
+          : Optional.empty();
+
+  private static Cache<Key, CachedResponse> createCache(Duration expiry) {
+    return CacheUtils.newCacheBuilder()
+        .expireAfterWrite(expiry)
+        .maximumSize(getEppResourceMaxCachedEntries())
+        .build();
+  }
+
+  @VisibleForTesting
+  static void setCacheForTest(Optional<Duration> expiry) {
+    cache = expiry.map(RdapResponseCache::createCache);
+  }
+
+  /** Returns whether responses are cached at all. */
+  static boolean isEnabled() {
+    return cache.isPresent();
+  }
+
+  /** Returns the cached response for the key, if any. */
+  static Optional<CachedResponse> get(Key key) {
+    return cache.map(c -> c.getIfPresent(key));
+  }
+
+  /** Caches the response for the key, if caching is enabled. */
+  static void put(Key key, CachedResponse response) {
+    cache.ifPresent(c -> c.put(key, response));
+  }
+
+  /**
+   * Creates the weak entity tag of the response of a lookup.
+   *
+   * <p>The tag is derived from the identity and update time of the resource that was looked up, as
+   * well as the payload itself. The payload is needed because the response also includes some
+   * data of linked objects (e.g. the nameservers and registrar of a domain), and changing these
+   * doesn't update the resource itself.
+   *
+   * <p>Every response also has a "last update of RDAP database" event dated at the time of the
+   * request, so values equal to the request time are left out of the hashed payload. Otherwise each
+   * rendering of an unchanged resource would get a different tag. Since the tag is then shared by
+   * responses that aren't byte-for-byte identical, it must be a weak one.
+   *
+   * @param resourceId the unique ID of the resource, e.g. its repo ID
+   * @param lastUpdateTime the time that the resource was last updated
+   * @param payload the rendered response
+   * @param requestTime the time of the request that the response was rendered for
+   */
+  static String createEntityTag(
+      String resourceId, DateTime lastUpdateTime, String payload, DateTime requestTime) {
+    return String.format(
+        "%s\"%s\"",
+        WEAK_ENTITY_TAG_PREFIX,
+        Hashing.sha256()
+            .newHasher()
+            .putString(resourceId, UTF_8)
+            .putLong(lastUpdateTime.getMillis())
+            .putString(payload.replace(String.format("\"%s\"", requestTime), "\"\""), UTF_8)
+            .hash()
+            .toString()
+            .substring(0, 32));
+  }
+
+  /**
+   * Returns whether an If-None-Match header value matches the entity tag, as described in RFC 9110
+   * section 13.1.2.
+   *
+   * <p>The header value is either "*" or a list of entity tags, which match using the weak
+   * comparison function, i.e. ignoring the "W/" prefix of weak tags.
+   */
+  static boolean matchesIfNoneMatch(String ifNoneMatch, String eTag) {
+    if (ifNoneMatch.trim().equals("*")) {
+      return true;
+    }
+    String opaqueTag = stripWeakPrefix(eTag);
+    for (String tag : ENTITY_TAG_SPLITTER.split(ifNoneMatch)) {
+      if (stripWeakPrefix(tag).equals(opaqueTag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String stripWeakPrefix(String tag) {
+    return tag.startsWith(WEAK_ENTITY_TAG_PREFIX)
+        ? tag.substring(WEAK_ENTITY_TAG_PREFIX.length())
+        : tag;
+  }
+
+  private RdapResponseCache() {}
+}
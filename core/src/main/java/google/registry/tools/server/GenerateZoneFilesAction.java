@@ -22,16 +22,23 @@ import static google.registry.request.Action.Method.POST;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.StorageException;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.flogger.FluentLogger;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
 import google.registry.config.RegistryConfig.Config;
 import google.registry.gcs.GcsUtils;
 import google.registry.model.domain.Domain;
 import google.registry.model.domain.secdns.DomainDsData;
 import google.registry.model.host.Host;
 import google.registry.model.tld.Tld;
+import google.registry.persistence.transaction.KeysetStream;
 import google.registry.request.Action;
 import google.registry.request.Action.GaeService;
 import google.registry.request.HttpException.BadRequestException;
@@ -46,12 +53,17 @@ import java.io.PrintWriter;
 import java.io.Writer;
 import java.net.Inet4Address;
 import java.net.InetAddress;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import org.hibernate.CacheMode;
-import org.hibernate.ScrollMode;
-import org.hibernate.ScrollableResults;
-import org.hibernate.query.Query;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
 import org.joda.time.DateTime;
 import org.joda.time.Duration;
 
@@ -61,6 +73,9 @@ import org.joda.time.Duration;
  * <p>Zone files for each requested TLD are written to GCS. TLDs without entries produce zone files
  * with only a header. The export time must be at least two minutes in the past and no more than 29
  * days in the past, and must be at midnight UTC.
+ *
+ * <p>The domains of each TLD are split into segments of consecutive repo IDs, which are rendered
+ * concurrently and streamed to the zone file in order as they complete.
  */
 @Action(
     service = GaeService.TOOLS,
@@ -76,6 +91,24 @@ public class GenerateZoneFilesAction implements Runnable, JsonActionRunner.JsonA
   /** Number of domains to process in one batch. */
   private static final int BATCH_SIZE = 1000;
 
+  /** Maximum number of domains in one segment of a zone file. */
+  private static final int DEFAULT_SEGMENT_SIZE = 20000;
+
+  /** Number of segments that are rendered concurrently. */
+  private static final int MAX_CONCURRENT_SEGMENTS = 8;
+
+  /** Number of segments that may be rendered ahead of the one being written. */
+  private static final int MAX_BUFFERED_SEGMENTS = 2 * MAX_CONCURRENT_SEGMENTS;
+
+  /**
+   * Query for the repo ID of every {@code segmentSize}-th domain of a TLD, which splits the domains
+   * into consecutive segments.
+   */
+  private static final String SEGMENT_BOUNDARIES_QUERY =
+      "SELECT repo_id FROM (SELECT repo_id, row_number() OVER (ORDER BY repo_id) AS row_num"
+          + " FROM \"Domain\" WHERE tld = :tld AND deletion_time > :exportTime) AS d"
+          + " WHERE row_num % :segmentSize = 0 ORDER BY repo_id";
+
   /** Format for the zone file name. */
   private static final String FILENAME_FORMAT = "%s-%s.zone";
 
@@ -108,6 +141,8 @@ public class GenerateZoneFilesAction implements Runnable, JsonActionRunner.JsonA
   @Inject Clock clock;
   @Inject GcsUtils gcsUtils;
 
+  @VisibleForTesting int segmentSize = DEFAULT_SEGMENT_SIZE;
+
   @Inject GenerateZoneFilesAction() {}
 
   @Override
@@ -132,7 +167,7 @@ public class GenerateZoneFilesAction implements Runnable, JsonActionRunner.JsonA
           String.format(
               "Invalid export time: must be < %d days ago", databaseRetention.getStandardDays()));
     }
-    tlds.forEach(tld -> generateForTld(tld, exportTime));
+    generateForTlds(tlds, exportTime);
     ImmutableList<String> filenames =
         tlds.stream()
             .map(
@@ -144,40 +179,138 @@ public class GenerateZoneFilesAction implements Runnable, JsonActionRunner.JsonA
         "filenames", filenames);
   }
 
-  private void generateForTld(String tld, DateTime exportTime) {
-    ImmutableList<String> stanzas = tm().transact(() -> getStanzasForTld(tld, exportTime));
-    BlobId outputBlobId = BlobId.of(bucket, String.format(FILENAME_FORMAT, tld, exportTime));
-    try (OutputStream gcsOutput = gcsUtils.openOutputStream(outputBlobId);
-        Writer osWriter = new OutputStreamWriter(gcsOutput, UTF_8);
-        PrintWriter writer = new PrintWriter(osWriter)) {
-      writer.printf(HEADER_FORMAT, tld);
-      stanzas.forEach(writer::println);
-      writer.flush();
-    } catch (IOException e) {
-      throw new RuntimeException(e);
+  private void generateForTlds(ImmutableSet<String> tlds, DateTime exportTime) {
+    ImmutableListMultimap.Builder<String, Segment> segmentsBuilder =
+        new ImmutableListMultimap.Builder<>();
+    tlds.forEach(tld -> segmentsBuilder.putAll(tld, getSegmentsForTld(tld, exportTime)));
+    ImmutableListMultimap<String, Segment> segments = segmentsBuilder.build();
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            MAX_CONCURRENT_SEGMENTS,
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("zone-file-segment-%d")
+                .build());
+    try {
+      // Segments of all TLDs are rendered ahead of the writer in file order, so that the next
+      // zone file is already being rendered while the previous one is still being written.
+      Iterator<Segment> segmentsToSubmit = segments.values().iterator();
+      Deque<Future<ImmutableList<String>>> renderedSegments = new ArrayDeque<>();
+      for (String tld : tlds) {
+        BlobId outputBlobId = BlobId.of(bucket, String.format(FILENAME_FORMAT, tld, exportTime));
+        try (OutputStream gcsOutput = gcsUtils.openOutputStream(outputBlobId);
+            Writer osWriter = new OutputStreamWriter(gcsOutput, UTF_8);
+            PrintWriter writer = new PrintWriter(osWriter)) {
+          writer.printf(HEADER_FORMAT, tld);
+          for (int i = 0; i < segments.get(tld).size(); i++) {
+            while (renderedSegments.size() < MAX_BUFFERED_SEGMENTS
+                && segmentsToSubmit.hasNext()) {
+              Segment segment = segmentsToSubmit.next();
+              renderedSegments.add(executor.submit(() -> renderSegment(segment, exportTime)));
+            }
+            getRenderedSegment(renderedSegments.remove()).forEach(writer::println);
+            writer.flush();
+          }
+          if (writer.checkError()) {
+            throw new IOException("Failed to write zone file " + outputBlobId);
+          }
+        } catch (IOException | RuntimeException e) {
+          // Closing the output stream has committed whatever was written so far, and a truncated
+          // zone file must not be mistaken for a complete one.
+          try {
+            gcsUtils.delete(outputBlobId);
+          } catch (StorageException deleteException) {
+            e.addSuppressed(deleteException);
+          }
+          Throwables.throwIfUnchecked(e);
+          throw new RuntimeException(e);
+        }
+      }
+    } finally {
+      executor.shutdownNow();
     }
   }
 
-  private ImmutableList<String> getStanzasForTld(String tld, DateTime exportTime) {
-    ImmutableList.Builder<String> result = new ImmutableList.Builder<>();
-    ScrollableResults<Domain> scrollableResults =
-        tm().query("FROM Domain WHERE tld = :tld AND deletionTime > :exportTime")
-            .setParameter("tld", tld)
+  /**
+   * Splits the domains of a TLD into consecutive repo ID ranges of at most {@link #segmentSize}
+   * domains each.
+   *
+   * <p>The boundaries are computed from the current state of the database rather than the state at
+   * the export time, which only affects how evenly the domains are spread over the segments.
+   */
+  private ImmutableList<Segment> getSegmentsForTld(String tld, DateTime exportTime) {
+    @SuppressWarnings("unchecked")
+    ImmutableList<String> boundaries =
+        tm().transact(
+                () ->
+                    ImmutableList.copyOf(
+                        (List<String>)
+                            tm().getEntityManager()
+                                .createNativeQuery(SEGMENT_BOUNDARIES_QUERY, String.class)
+                                .setParameter("tld", tld)
+                                .setParameter("exportTime", exportTime.toDate())
+                                .setParameter("segmentSize", segmentSize)
+                                .getResultList()));
+    ImmutableList.Builder<Segment> segments = new ImmutableList.Builder<>();
+    String lowerRepoId = null;
+    for (String upperRepoId : boundaries) {
+      segments.add(new Segment(tld, lowerRepoId, upperRepoId));
+      lowerRepoId = upperRepoId;
+    }
+    return segments.add(new Segment(tld, lowerRepoId, null)).build();
+  }
+
+  private ImmutableList<String> renderSegment(Segment segment, DateTime exportTime) {
+    StringBuilder filter = new StringBuilder("tld = :tld AND deletionTime > :exportTime");
+    KeysetStream.Builder<Domain> domainsBuilder =
+        KeysetStream.builder(Domain.class)
+            .setParameter("tld", segment.tld())
             .setParameter("exportTime", exportTime)
-            .unwrap(Query.class)
-            .setCacheMode(CacheMode.IGNORE)
-            .scroll(ScrollMode.FORWARD_ONLY);
-    for (int i = 1; scrollableResults.next(); i = (i + 1) % BATCH_SIZE) {
-      Domain domain = scrollableResults.get();
-      populateStanzasForDomain(domain, exportTime, result);
-      if (i == 0) {
-        tm().getEntityManager().flush();
-        tm().getEntityManager().clear();
-      }
+            .setChunkSize(BATCH_SIZE);
+    if (segment.lowerRepoId() != null) {
+      filter.append(" AND repoId > :lowerRepoId");
+      domainsBuilder.setParameter("lowerRepoId", segment.lowerRepoId());
     }
+    if (segment.upperRepoId() != null) {
+      filter.append(" AND repoId <= :upperRepoId");
+      domainsBuilder.setParameter("upperRepoId", segment.upperRepoId());
+    }
+    KeysetStream<Domain> domains = domainsBuilder.where(filter.toString()).build();
+    ImmutableList.Builder<String> result = new ImmutableList.Builder<>();
+    // A retried transaction resumes after the last domain whose stanzas were already added, so
+    // the stanzas of each domain are only added once they are all generated.
+    tm().transact(
+            () -> {
+              try (Stream<Domain> stream = domains.stream()) {
+                stream.forEach(
+                    domain -> {
+                      ImmutableList.Builder<String> stanzas = new ImmutableList.Builder<>();
+                      populateStanzasForDomain(domain, exportTime, stanzas);
+                      result.addAll(stanzas.build());
+                    });
+              }
+            });
     return result.build();
   }
 
+  private static ImmutableList<String> getRenderedSegment(
+      Future<ImmutableList<String>> renderedSegment) {
+    try {
+      return Uninterruptibles.getUninterruptibly(renderedSegment);
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  /**
+   * A range of domains of a TLD, by repo ID.
+   *
+   * <p>A null bound means the range is unbounded on that side.
+   */
+  private record Segment(
+      String tld, @Nullable String lowerRepoId, @Nullable String upperRepoId) {}
+
   private void populateStanzasForDomain(
       Domain domain, DateTime exportTime, ImmutableList.Builder<String> result) {
     domain = loadAtPointInTime(domain, exportTime);
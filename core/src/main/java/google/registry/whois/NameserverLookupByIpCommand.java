@@ -24,9 +24,15 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Streams;
 import com.google.common.net.InetAddresses;
 import com.google.common.net.InternetDomainName;
+import google.registry.model.EppResource;
 import google.registry.model.host.Host;
+import google.registry.model.host.HostIpIndex;
 import google.registry.model.tld.Tlds;
+import google.registry.persistence.VKey;
 import java.net.InetAddress;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
 import org.joda.time.DateTime;
 
 /**
@@ -42,34 +48,21 @@ final class NameserverLookupByIpCommand implements WhoisCommand {
   @VisibleForTesting
   final InetAddress ipAddress;
 
-  NameserverLookupByIpCommand(InetAddress ipAddress) {
+  private final boolean cached;
+
+  NameserverLookupByIpCommand(InetAddress ipAddress, boolean cached) {
     this.ipAddress = checkNotNull(ipAddress, "ipAddress");
+    this.cached = cached;
   }
 
   @Override
-  @SuppressWarnings("unchecked")
   public WhoisResponse executeQuery(DateTime now) throws WhoisException {
-    Iterable<Host> hostsFromDb;
-    hostsFromDb =
-        replicaTm()
-            .transact(
-                () ->
-                    // We cannot query @Convert-ed fields in HQL, so we must use native Postgres.
-                    replicaTm()
-                        .getEntityManager()
-                        /*
-                         * Using array_operator <@ (contained-by) with gin index on inet_address.
-                         * Without gin index, this is slightly slower than the alternative form of
-                         * ':address = ANY(inet_address)'.
-                         */
-                        .createNativeQuery(
-                            "SELECT * From \"Host\" WHERE "
-                                + "ARRAY[ CAST(:address AS TEXT) ] <@ inet_addresses AND "
-                                + "deletion_time > CAST(:now AS timestamptz)",
-                            Host.class)
-                        .setParameter("address", InetAddresses.toAddrString(ipAddress))
-                        .setParameter("now", now.toString())
-                        .getResultList());
+    Optional<ImmutableList<VKey<Host>>> indexedHostKeys =
+        cached ? HostIpIndex.getActiveHostKeys(ipAddress) : Optional.empty();
+    Iterable<Host> hostsFromDb =
+        indexedHostKeys.isPresent()
+            ? loadIndexedHosts(indexedHostKeys.get(), now)
+            : queryHostsByIp(now);
     ImmutableList<Host> hosts =
         Streams.stream(hostsFromDb)
             .filter(
@@ -81,4 +74,37 @@ final class NameserverLookupByIpCommand implements WhoisCommand {
     }
     return new NameserverWhoisResponse(hosts, now);
   }
+
+  /** Loads the hosts found in the {@link HostIpIndex}, which may have been deleted since. */
+  private static ImmutableList<Host> loadIndexedHosts(
+      ImmutableList<VKey<Host>> hostKeys, DateTime now) {
+    return EppResource.loadByCacheIfEnabled(ImmutableList.copyOf(hostKeys)).values().stream()
+        .map(Host.class::cast)
+        .filter(host -> host.getDeletionTime().isAfter(now))
+        .sorted(Comparator.comparing(Host::getRepoId))
+        .collect(toImmutableList());
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Host> queryHostsByIp(DateTime now) {
+    return replicaTm()
+        .transact(
+            () ->
+                // We cannot query @Convert-ed fields in HQL, so we must use native Postgres.
+                replicaTm()
+                    .getEntityManager()
+                    /*
+                     * Using array_operator <@ (contained-by) with gin index on inet_address.
+                     * Without gin index, this is slightly slower than the alternative form of
+                     * ':address = ANY(inet_address)'.
+                     */
+                    .createNativeQuery(
+                        "SELECT * From \"Host\" WHERE "
+                            + "ARRAY[ CAST(:address AS TEXT) ] <@ inet_addresses AND "
+                            + "deletion_time > CAST(:now AS timestamptz)",
+                        Host.class)
+                    .setParameter("address", InetAddresses.toAddrString(ipAddress))
+                    .setParameter("now", now.toString())
+                    .getResultList());
+  }
 }
@@ -36,4 +36,9 @@ public final class NonCachingWhoisModule extends BaseWhoisModule {
   static WhoisCommandFactory provideWhoisCommandFactory() {
     return WhoisCommandFactory.createNonCached();
   }
+
+  @Provides
+  static WhoisResponseCache provideWhoisResponseCache() {
+    return WhoisResponseCache.disabled();
+  }
 }
@@ -19,6 +19,7 @@ import static jakarta.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
 import static jakarta.servlet.http.HttpServletResponse.SC_OK;
 
 import com.google.common.flogger.FluentLogger;
+import com.google.common.io.CharStreams;
 import com.google.common.net.MediaType;
 import google.registry.config.RegistryConfig.Config;
 import google.registry.request.Action;
@@ -27,11 +28,14 @@ import google.registry.request.Response;
 import google.registry.request.auth.Auth;
 import google.registry.util.Clock;
 import google.registry.util.Retrier;
-import google.registry.whois.WhoisException.UncheckedWhoisException;
+import google.registry.whois.WhoisMetrics.ResponseCacheResult;
 import google.registry.whois.WhoisMetrics.WhoisMetric;
 import google.registry.whois.WhoisResponse.WhoisResponseResults;
+import google.registry.whois.WhoisResponseCache.CachedResponse;
 import jakarta.inject.Inject;
 import java.io.Reader;
+import java.io.StringReader;
+import java.util.Optional;
 import org.joda.time.DateTime;
 
 /**
@@ -70,6 +74,7 @@ public class WhoisAction implements Runnable {
   @Inject @Config("whoisDisclaimer") String disclaimer;
   @Inject WhoisMetric.Builder metricBuilder;
   @Inject WhoisMetrics whoisMetrics;
+  @Inject WhoisResponseCache responseCache;
 
   @Inject
   WhoisAction() {}
@@ -77,23 +82,29 @@ public class WhoisAction implements Runnable {
   @Override
   public void run() {
     String responseText;
+    Optional<ResponseCacheResult> cacheResult = Optional.empty();
     final DateTime now = clock.nowUtc();
     try {
-      final WhoisCommand command = whoisReader.readCommand(input, false, now);
-      metricBuilder.setCommand(command);
-      WhoisResponseResults results;
-      try {
-        results = command.executeQuery(now).getResponse(PREFER_UNICODE, disclaimer);
-      } catch (WhoisException e) {
-        throw new UncheckedWhoisException(e);
+      String commandText = CharStreams.toString(input);
+      Optional<WhoisResponseCache.Key> cacheKey =
+          responseCache.isEnabled()
+              ? WhoisResponseCache.Key.create(commandText, PREFER_UNICODE)
+              : Optional.empty();
+      Optional<CachedResponse> cachedResponse = cacheKey.flatMap(responseCache::get);
+      CachedResponse renderedResponse;
+      if (cachedResponse.isPresent()) {
+        cacheResult = Optional.of(ResponseCacheResult.HIT);
+        renderedResponse = cachedResponse.get();
+      } else {
+        cacheResult = cacheKey.map(key -> ResponseCacheResult.MISS);
+        WhoisCommand command =
+            whoisReader.readCommand(new StringReader(commandText), false, now);
+        renderedResponse = renderResponse(command, now);
+        cacheKey.ifPresent(key -> responseCache.put(key, renderedResponse));
       }
-      responseText = results.plainTextOutput();
-      setWhoisMetrics(metricBuilder, results.numResults(), SC_OK);
-    } catch (UncheckedWhoisException u) {
-      WhoisException e = (WhoisException) u.getCause();
-      WhoisResponseResults results = e.getResponse(PREFER_UNICODE, disclaimer);
-      responseText = results.plainTextOutput();
-      setWhoisMetrics(metricBuilder, 0, e.getStatus());
+      metricBuilder.setCommandName(renderedResponse.commandName());
+      responseText = renderedResponse.plainTextOutput();
+      setWhoisMetrics(metricBuilder, renderedResponse.numResults(), renderedResponse.status());
     } catch (WhoisException e) {
       WhoisResponseResults results = e.getResponse(PREFER_UNICODE, disclaimer);
       responseText = results.plainTextOutput();
@@ -110,7 +121,32 @@ public class WhoisAction implements Runnable {
     response.setStatus(SC_OK);
     response.setContentType(CONTENT_TYPE);
     response.setPayload(responseText);
-    whoisMetrics.recordWhoisMetric(metricBuilder.build());
+    WhoisMetric metric = metricBuilder.build();
+    whoisMetrics.recordWhoisMetric(metric);
+    cacheResult.ifPresent(result -> whoisMetrics.recordResponseCacheLookup(metric, result));
+  }
+
+  /**
+   * Executes the command and renders its response, which may be cached.
+   *
+   * <p>Errors from executing the command (e.g. a domain that is not found) are rendered too, so
+   * that repeated lookups of the same missing name are also served from the cache. Errors from
+   * parsing the command are not, because parsing is cheap.
+   */
+  private CachedResponse renderResponse(WhoisCommand command, DateTime now) {
+    String commandName = WhoisMetric.getCommandName(command);
+    try {
+      WhoisResponseResults results =
+          command.executeQuery(now).getResponse(PREFER_UNICODE, disclaimer);
+      return new CachedResponse(
+          commandName, results.plainTextOutput(), results.numResults(), SC_OK);
+    } catch (WhoisException e) {
+      return new CachedResponse(
+          commandName,
+          e.getResponse(PREFER_UNICODE, disclaimer).plainTextOutput(),
+          0,
+          e.getStatus());
+    }
   }
 
   private static void setWhoisMetrics(
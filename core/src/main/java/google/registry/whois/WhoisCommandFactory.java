@@ -60,7 +60,7 @@ public class WhoisCommandFactory {
    * Returns a new {@link WhoisCommand} to perform a nameserver lookup on the specified IP address.
    */
   public WhoisCommand nameserverLookupByIp(InetAddress inetAddress) {
-    return new NameserverLookupByIpCommand(inetAddress);
+    return new NameserverLookupByIpCommand(inetAddress, cached);
   }
 
   /**
@@ -35,6 +35,12 @@ import org.joda.time.DateTime;
  */
 public class WhoisMetrics {
 
+  /** The result of looking up a response in the {@link WhoisResponseCache}. */
+  public enum ResponseCacheResult {
+    HIT,
+    MISS
+  }
+
   private static final ImmutableSet<LabelDescriptor> LABEL_DESCRIPTORS =
       ImmutableSet.of(
           LabelDescriptor.create("command_name", "The name of the WHOIS command."),
@@ -42,6 +48,11 @@ public class WhoisMetrics {
               "num_results", "The number of results returned by the WHOIS command."),
           LabelDescriptor.create("status", "The return status of the WHOIS command."));
 
+  private static final ImmutableSet<LabelDescriptor> LABEL_DESCRIPTORS_FOR_RESPONSE_CACHE =
+      ImmutableSet.of(
+          LabelDescriptor.create("command_name", "The name of the WHOIS command."),
+          LabelDescriptor.create("cache_result", "Whether the response was cached (HIT or MISS)."));
+
   private static final IncrementableMetric whoisRequests =
       MetricRegistryImpl.getDefault()
           .newIncrementableMetric(
@@ -56,6 +67,23 @@ public class WhoisMetrics {
               LABEL_DESCRIPTORS,
               DEFAULT_FITTER);
 
+  private static final IncrementableMetric responseCacheLookups =
+      MetricRegistryImpl.getDefault()
+          .newIncrementableMetric(
+              "/whois/response_cache/lookups",
+              "Count of WHOIS response cache lookups",
+              "count",
+              LABEL_DESCRIPTORS_FOR_RESPONSE_CACHE);
+
+  private static final EventMetric responseCacheProcessingTime =
+      MetricRegistryImpl.getDefault()
+          .newEventMetric(
+              "/whois/response_cache/processing_time",
+              "WHOIS Processing Time by response cache result",
+              "milliseconds",
+              LABEL_DESCRIPTORS_FOR_RESPONSE_CACHE,
+              DEFAULT_FITTER);
+
   @Inject
   public WhoisMetrics() {}
 
@@ -72,6 +100,20 @@ public class WhoisMetrics {
         Integer.toString(metric.status()));
   }
 
+  /**
+   * Records the result of looking up the response to a WHOIS request in the response cache.
+   *
+   * <p>The processing time is recorded again, split by the cache result, so that the latency of
+   * hits and misses can be compared.
+   */
+  public void recordResponseCacheLookup(WhoisMetric metric, ResponseCacheResult cacheResult) {
+    responseCacheLookups.increment(metric.commandName().orElse(""), cacheResult.name());
+    responseCacheProcessingTime.record(
+        metric.endTimestamp().getMillis() - metric.startTimestamp().getMillis(),
+        metric.commandName().orElse(""),
+        cacheResult.name());
+  }
+
   /** A value class for recording attributes of a WHOIS metric. */
   public record WhoisMetric(
       Optional<String> commandName,
@@ -90,6 +132,13 @@ public class WhoisMetrics {
       return WhoisMetric.builder().setStartTimestamp(clock.nowUtc()).setClock(clock);
     }
 
+    /** Returns the name of the command, as recorded in the {@code command_name} label. */
+    static String getCommandName(WhoisCommand command) {
+      // All WHOIS command class names share the "Command" suffix, so strip it out in order to have
+      // shorter labels.
+      return command.getClass().getSimpleName().replaceFirst("Command$", "");
+    }
+
     /** Create a {@link WhoisMetric.Builder}. */
     public static Builder builder() {
       return new AutoBuilder_WhoisMetrics_WhoisMetric_Builder();
@@ -105,9 +154,7 @@ public class WhoisMetrics {
       private Clock clock = null;
 
       public Builder setCommand(WhoisCommand command) {
-        // All WHOIS command class names share the "Command" suffix, so strip it out in order to
-        // have shorter labels.
-        return setCommandName(command.getClass().getSimpleName().replaceFirst("Command$", ""));
+        return setCommandName(getCommandName(command));
       }
 
       public abstract Builder setCommandName(String commandName);
@@ -40,4 +40,9 @@ public final class WhoisModule extends BaseWhoisModule {
       @Config("whoisCommandFactoryClass") String factoryClass) {
     return instantiate(getClassFromString(factoryClass, WhoisCommandFactory.class));
   }
+
+  @Provides
+  static WhoisResponseCache provideWhoisResponseCache() {
+    return WhoisResponseCache.shared();
+  }
 }
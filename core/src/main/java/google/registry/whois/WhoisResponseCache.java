@@ -0,0 +1,124 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.whois;
+
+import static google.registry.config.RegistryConfig.getWhoisResponseCachingDuration;
+import static google.registry.config.RegistryConfig.getWhoisResponseMaxCachedEntries;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import google.registry.model.CacheUtils;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache of rendered responses to WHOIS commands.
+ *
+ * <p>Lookups of popular domains make up most of the port 43 traffic, and each one otherwise parses
+ * the command, loads the domain with its contacts and hosts, and renders the whole response again.
+ * Responses are only cached for a short time, so they are at most that much staler than the
+ * database.
+ *
+ * <p>Which instance is used depends on the Dagger module: {@link WhoisModule} provides the shared
+ * instance, configured by the {@code caching.whoisResponseCachingSeconds} setting, and {@link
+ * NonCachingWhoisModule} a disabled one.
+ */
+final class WhoisResponseCache {
+
+  private static final Splitter WHITESPACE_SPLITTER = Splitter.onPattern("\\s").omitEmptyStrings();
+  private static final Joiner SPACE_JOINER = Joiner.on(' ');
+
+  /**
+   * The key of a cached response.
+   *
+   * @param command the WHOIS command, with its tokens separated by single spaces
+   * @param preferUnicode whether the response prefers Unicode to ASCII domain names
+   */
+  record Key(String command, boolean preferUnicode) {
+
+    /**
+     * Creates the key for the text of a WHOIS command, or returns empty if there is no command.
+     *
+     * <p>The tokens of the command are split the same way {@link WhoisReader} splits them, so that
+     * commands that only differ in their whitespace share the same response.
+     */
+    static Optional<Key> create(String commandText, boolean preferUnicode) {
+      String command = SPACE_JOINER.join(WHITESPACE_SPLITTER.split(commandText));
+      return command.isEmpty() ? Optional.empty() : Optional.of(new Key(command, preferUnicode));
+    }
+  }
+
+  /**
+   * A rendered response, with the data needed to record its metrics.
+   *
+   * @param commandName the name of the command, as recorded in {@link WhoisMetrics}
+   * @param plainTextOutput the text of the response
+   * @param numResults the number of results in the response
+   * @param status the HTTP status code of the response
+   */
+  record CachedResponse(String commandName, String plainTextOutput, int numResults, int status) {}
+
+  private static final WhoisResponseCache DISABLED = new WhoisResponseCache(Optional.empty());
+
+  private static final Supplier<WhoisResponseCache> SHARED =
+      Suppliers.memoize(
+          () -> create(getWhoisResponseCachingDuration(), getWhoisResponseMaxCachedEntries()));
+
+  private final Optional<Cache<Key, CachedResponse>> cache;
+
+  private WhoisResponseCache(Optional<Cache<Key, CachedResponse>> cache) {
+    this.cache = cache;
+  }
+
+  /** Returns the instance shared by all requests, as configured for this environment. */
+  static WhoisResponseCache shared() {
+    return SHARED.get();
+  }
+
+  /** Returns an instance that never caches anything. */
+  static WhoisResponseCache disabled() {
+    return DISABLED;
+  }
+
+  /** Creates a new instance, which is disabled if the expiry is zero. */
+  @VisibleForTesting
+  static WhoisResponseCache create(Duration expiry, int maxEntries) {
+    if (expiry.isZero()) {
+      return DISABLED;
+    }
+    Cache<Key, CachedResponse> cache =
+        CacheUtils.newCacheBuilder().expireAfterWrite(expiry).maximumSize(maxEntries).build();
+    return new WhoisResponseCache(Optional.of(cache));
+  }
+
+  /** Returns whether responses are cached at all. */
+  boolean isEnabled() {
+    return cache.isPresent();
+  }
+
+  /** Returns the cached response for the key, if any. */
+  Optional<CachedResponse> get(Key key) {
+    return cache.map(c -> c.getIfPresent(key));
+  }
+
+  /** Caches the response for the key, if caching is enabled. */
+  void put(Key key, CachedResponse response) {
+    cache.ifPresent(c -> c.put(key, response));
+  }
+}
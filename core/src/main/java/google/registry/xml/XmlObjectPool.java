@@ -0,0 +1,166 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.xml;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.monitoring.metrics.IncrementableMetric;
+import com.google.monitoring.metrics.LabelDescriptor;
+import com.google.monitoring.metrics.MetricRegistryImpl;
+import jakarta.xml.bind.JAXBException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A bounded pool of pre-configured objects that are expensive to create and not thread-safe, such
+ * as JAXB {@link jakarta.xml.bind.Marshaller marshallers} and schema {@link
+ * javax.xml.validation.Validator validators}.
+ *
+ * <p>At most {@code maxSize} objects are created for the pool. When all of them are checked out,
+ * {@link #borrow} waits up to {@code maxWait} for one to be released, and then falls back to
+ * creating a throwaway object rather than failing the request.
+ *
+ * <p>Objects that were in use when an exception was thrown should be {@link #discard discarded}
+ * rather than {@link #release released}, since their internal state is then unknown.
+ */
+@ThreadSafe
+final class XmlObjectPool<T> {
+
+  /** Outcomes of {@link #borrow}, recorded in {@link #checkouts}. */
+  enum Outcome {
+    /** An idle pooled object was available. */
+    HIT,
+    /** A new object had to be created. */
+    MISS,
+    /** All pooled objects were in use, so the caller had to wait. */
+    WAIT
+  }
+
+  /** Factory for pooled objects. */
+  @FunctionalInterface
+  interface Factory<T> {
+    T create() throws JAXBException;
+  }
+
+  private static final ImmutableSet<LabelDescriptor> LABEL_DESCRIPTORS =
+      ImmutableSet.of(
+          LabelDescriptor.create("pool", "Name of the XML object pool."),
+          LabelDescriptor.create("outcome", "Outcome of the checkout (HIT, MISS or WAIT)."));
+
+  /**
+   * Metric counting checkouts from XML object pools.
+   *
+   * <p>A checkout that had to wait is counted as both a {@code WAIT} and the {@code HIT} or {@code
+   * MISS} it eventually resolved to.
+   */
+  @VisibleForTesting
+  static final IncrementableMetric checkouts =
+      MetricRegistryImpl.getDefault()
+          .newIncrementableMetric(
+              "/xml/pool/checkouts",
+              "Count of checkouts from XML object pools",
+              "count",
+              LABEL_DESCRIPTORS);
+
+  private final String name;
+  private final Factory<T> factory;
+  private final int maxSize;
+  private final Duration maxWait;
+  private final ArrayBlockingQueue<T> idle;
+
+  /**
+   * Number of live objects that belong to the pool, whether idle or checked out.
+   *
+   * <p>This is only an approximation once the pool has been saturated, because objects created as
+   * a fallback are indistinguishable from pooled ones when they are released. The number of idle
+   * objects is always bounded by the capacity of {@link #idle}, though.
+   */
+  private final AtomicInteger size = new AtomicInteger();
+
+  XmlObjectPool(String name, Factory<T> factory, int maxSize, Duration maxWait) {
+    checkArgument(maxSize > 0, "maxSize must be positive");
+    this.name = name;
+    this.factory = factory;
+    this.maxSize = maxSize;
+    this.maxWait = maxWait;
+    this.idle = new ArrayBlockingQueue<>(maxSize);
+  }
+
+  /** Checks out an object, which must later be {@link #release released} or {@link #discard}ed. */
+  T borrow() throws JAXBException {
+    T object = idle.poll();
+    if (object != null) {
+      checkouts.increment(name, Outcome.HIT.name());
+      return object;
+    }
+    if (tryReserveSlot()) {
+      try {
+        object = factory.create();
+      } catch (JAXBException | RuntimeException e) {
+        size.decrementAndGet();
+        throw e;
+      }
+      checkouts.increment(name, Outcome.MISS.name());
+      return object;
+    }
+    checkouts.increment(name, Outcome.WAIT.name());
+    try {
+      object = idle.poll(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (object != null) {
+      checkouts.increment(name, Outcome.HIT.name());
+      return object;
+    }
+    // The pool is saturated. Hand out an object that is not counted in the pool size.
+    checkouts.increment(name, Outcome.MISS.name());
+    return factory.create();
+  }
+
+  /** Returns an object in a reusable state to the pool. */
+  void release(T object) {
+    if (!idle.offer(object)) {
+      // The queue can only be full if objects were created while the pool was saturated.
+      discard();
+    }
+  }
+
+  /** Drops a checked-out object whose state is unknown, making room for a new one. */
+  void discard() {
+    size.updateAndGet(current -> current > 0 ? current - 1 : 0);
+  }
+
+  @VisibleForTesting
+  int idleCount() {
+    return idle.size();
+  }
+
+  private boolean tryReserveSlot() {
+    int current;
+    do {
+      current = size.get();
+      if (current >= maxSize) {
+        return false;
+      }
+    } while (!size.compareAndSet(current, current + 1));
+    return true;
+  }
+}
@@ -22,6 +22,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import com.google.common.io.Closer;
 import com.google.common.io.Resources;
 import jakarta.xml.bind.JAXBContext;
@@ -37,14 +38,17 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.time.Duration;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.Map;
+import java.util.function.UnaryOperator;
 import javax.annotation.Nullable;
 import javax.xml.XMLConstants;
 import javax.xml.stream.FactoryConfigurationError;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Result;
 import javax.xml.transform.Transformer;
@@ -54,6 +58,7 @@ import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
@@ -75,6 +80,25 @@ public class XmlTransformer {
   /** A {@link Schema} to validate XML. */
   private final Schema schema;
 
+  /**
+   * Maximum number of pooled instances of each kind of {@link Unmarshaller}, {@link Marshaller} and
+   * {@link Validator}. This should be at least the number of requests a server handles
+   * concurrently.
+   */
+  private static final int MAX_POOLED_INSTANCES = 64;
+
+  /** How long to wait for a pooled instance before creating a throwaway one. */
+  private static final Duration MAX_POOL_WAIT = Duration.ofMillis(50);
+
+  /** Pre-configured unmarshallers, which all validate against {@link #schema}. */
+  private final XmlObjectPool<Unmarshaller> unmarshallerPool;
+
+  /** Pre-configured marshallers, keyed by whether they validate against {@link #schema}. */
+  private final EnumMap<ValidationMode, XmlObjectPool<Marshaller>> marshallerPools;
+
+  /** Validators for {@link #schema}. */
+  private final XmlObjectPool<Validator> validatorPool;
+
   /**
    * Create a new XmlTransformer that validates using the given schemas, but uses the given classes
    * (rather than generated ones) for marshaling and unmarshaling.
@@ -89,6 +113,11 @@ public class XmlTransformer {
     } catch (JAXBException e) {
       throw new RuntimeException(e);
     }
+    String poolNamePrefix =
+        recognizedClasses.length > 0 ? recognizedClasses[0].getSimpleName() : "";
+    this.unmarshallerPool = createUnmarshallerPool(poolNamePrefix);
+    this.marshallerPools = createMarshallerPools(poolNamePrefix);
+    this.validatorPool = createValidatorPool(poolNamePrefix);
   }
 
   /**
@@ -106,6 +135,38 @@ public class XmlTransformer {
     } catch (JAXBException e) {
       throw new RuntimeException(e);
     }
+    this.unmarshallerPool = createUnmarshallerPool(pakkage.getName());
+    this.marshallerPools = createMarshallerPools(pakkage.getName());
+    this.validatorPool = createValidatorPool(pakkage.getName());
+  }
+
+  private XmlObjectPool<Unmarshaller> createUnmarshallerPool(String poolNamePrefix) {
+    return new XmlObjectPool<>(
+        poolNamePrefix + "/unmarshaller",
+        this::createUnmarshaller,
+        MAX_POOLED_INSTANCES,
+        MAX_POOL_WAIT);
+  }
+
+  private EnumMap<ValidationMode, XmlObjectPool<Marshaller>> createMarshallerPools(
+      String poolNamePrefix) {
+    EnumMap<ValidationMode, XmlObjectPool<Marshaller>> pools =
+        Maps.newEnumMap(ValidationMode.class);
+    for (ValidationMode validation : ValidationMode.values()) {
+      pools.put(
+          validation,
+          new XmlObjectPool<>(
+              poolNamePrefix + "/marshaller/" + validation,
+              () -> createMarshaller(STRICT.equals(validation) ? schema : null),
+              MAX_POOLED_INSTANCES,
+              MAX_POOL_WAIT));
+    }
+    return pools;
+  }
+
+  private XmlObjectPool<Validator> createValidatorPool(String poolNamePrefix) {
+    return new XmlObjectPool<>(
+        poolNamePrefix + "/validator", schema::newValidator, MAX_POOLED_INSTANCES, MAX_POOL_WAIT);
   }
 
   private static XMLInputFactory createInputFactory() throws FactoryConfigurationError {
@@ -125,10 +186,18 @@ public class XmlTransformer {
    * @throws XmlException if XML input was invalid or root element doesn't match {@code expect}.
    */
   public void validate(String xml) throws XmlException {
+    Validator validator = null;
     try {
-      schema.newValidator().validate(new StreamSource(new StringReader(xml)));
-    } catch (SAXException | IOException e) {
+      validator = validatorPool.borrow();
+      validator.validate(new StreamSource(new StringReader(xml)));
+    } catch (SAXException | IOException | JAXBException e) {
       throw new XmlException(e);
+    } finally {
+      if (validator != null) {
+        // A validator is reusable after a validation failure once it has been reset.
+        validator.reset();
+        validatorPool.release(validator);
+      }
     }
   }
 
@@ -143,9 +212,34 @@ public class XmlTransformer {
    * @see <a href="https://errorprone.info/bugpattern/TypeParameterUnusedInFormals">TypeParameterUnusedInFormals</a>
    */
   public <T> T unmarshal(Class<T> clazz, InputStream stream) throws XmlException {
+    return unmarshal(clazz, stream, UnaryOperator.identity());
+  }
+
+  /**
+   * Turns XML text into an object like {@link #unmarshal(Class, InputStream)}, but lets the caller
+   * observe the parse by decorating the {@link XMLStreamReader} that JAXB consumes.
+   *
+   * <p>Schema validation and unmarshalling are both driven by the decorated reader, so a decorator
+   * sees every event of the document exactly once without the input being read again.
+   *
+   * @param readerDecorator wraps the reader created for {@code stream}, e.g. with a {@link
+   *     javax.xml.stream.util.StreamReaderDelegate}
+   */
+  public <T> T unmarshal(
+      Class<T> clazz, InputStream stream, UnaryOperator<XMLStreamReader> readerDecorator)
+      throws XmlException {
+    Unmarshaller unmarshaller = null;
+    boolean reusable = false;
     try (InputStream autoClosingStream = stream) {
-      return clazz.cast(getUnmarshaller().unmarshal(
-          XML_INPUT_FACTORY.createXMLStreamReader(new StreamSource(autoClosingStream, SYSTEM_ID))));
+      unmarshaller = unmarshallerPool.borrow();
+      T result =
+          clazz.cast(
+              unmarshaller.unmarshal(
+                  readerDecorator.apply(
+                      XML_INPUT_FACTORY.createXMLStreamReader(
+                          new StreamSource(autoClosingStream, SYSTEM_ID)))));
+      reusable = true;
+      return result;
     } catch (UnmarshalException e) {
       // Plain old parsing exceptions have a SAXParseException with no further cause.
       if (e.getLinkedException() instanceof SAXParseException sae
@@ -169,6 +263,8 @@ public class XmlTransformer {
       throw new XmlException(e);
     } catch (JAXBException | XMLStreamException | IOException e) {
       throw new XmlException(e);
+    } finally {
+      returnToPool(unmarshallerPool, unmarshaller, reusable);
     }
   }
 
@@ -186,14 +282,18 @@ public class XmlTransformer {
    * @throws XmlException to rethrow {@link JAXBException}.
    */
   public void marshal(Object root, Writer writer, ValidationMode validation) throws XmlException {
+    XmlObjectPool<Marshaller> pool = marshallerPools.get(validation);
+    Marshaller marshaller = null;
+    boolean reusable = false;
     try {
       // Omit XML declaration because character-oriented output prevents us from knowing.
-      getMarshaller(
-          STRICT.equals(validation) ? schema : null,
-          ImmutableMap.of(Marshaller.JAXB_FRAGMENT, true)).marshal(
-              checkNotNull(root, "root"), checkNotNull(writer, "writer"));
+      marshaller = borrowMarshaller(pool, true, UTF_8);
+      marshaller.marshal(checkNotNull(root, "root"), checkNotNull(writer, "writer"));
+      reusable = true;
     } catch (JAXBException e) {
       throw new XmlException(e);
+    } finally {
+      returnToPool(pool, marshaller, reusable);
     }
   }
 
@@ -214,13 +314,17 @@ public class XmlTransformer {
    */
   public void marshal(Object root, OutputStream out, Charset charset, ValidationMode validation)
       throws XmlException {
+    XmlObjectPool<Marshaller> pool = marshallerPools.get(validation);
+    Marshaller marshaller = null;
+    boolean reusable = false;
     try {
-      getMarshaller(
-          STRICT.equals(validation) ? schema : null,
-          ImmutableMap.of(Marshaller.JAXB_ENCODING, charset.toString())).marshal(
-              checkNotNull(root, "root"), checkNotNull(out, "out"));
+      marshaller = borrowMarshaller(pool, false, charset);
+      marshaller.marshal(checkNotNull(root, "root"), checkNotNull(out, "out"));
+      reusable = true;
     } catch (JAXBException e) {
       throw new XmlException(e);
+    } finally {
+      returnToPool(pool, marshaller, reusable);
     }
   }
 
@@ -237,11 +341,17 @@ public class XmlTransformer {
    * @throws XmlException to rethrow {@link JAXBException}.
    */
   public void marshalStrict(Object root, Result result) throws XmlException {
+    XmlObjectPool<Marshaller> pool = marshallerPools.get(STRICT);
+    Marshaller marshaller = null;
+    boolean reusable = false;
     try {
-      getMarshaller(schema, ImmutableMap.of())
-          .marshal(checkNotNull(root, "root"), checkNotNull(result, "result"));
+      marshaller = borrowMarshaller(pool, false, UTF_8);
+      marshaller.marshal(checkNotNull(root, "root"), checkNotNull(result, "result"));
+      reusable = true;
     } catch (JAXBException e) {
       throw new XmlException(e);
+    } finally {
+      returnToPool(pool, marshaller, reusable);
     }
   }
 
@@ -272,8 +382,8 @@ public class XmlTransformer {
     return JAXBContext.newInstance(prefix + Joiner.on(':' + prefix).join(schemaNames));
   }
 
-  /** Get a {@link Unmarshaller} instance with the default configuration. */
-  private Unmarshaller getUnmarshaller() throws JAXBException {
+  /** Creates a {@link Unmarshaller} instance with the default configuration. */
+  private Unmarshaller createUnmarshaller() throws JAXBException {
     Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
     unmarshaller.setSchema(schema);
     // This handler was the default in JAXB 1.0. It fails on any exception thrown while
@@ -283,18 +393,48 @@ public class XmlTransformer {
     return unmarshaller;
   }
 
-  /** Get a {@link Marshaller} instance with the given configuration. */
-  private Marshaller getMarshaller(@Nullable Schema schemaParam, Map<String, ?> properties)
-      throws JAXBException {
+  /** Creates a {@link Marshaller} instance that validates against the given schema, if any. */
+  private Marshaller createMarshaller(@Nullable Schema schemaParam) throws JAXBException {
     Marshaller marshaller = jaxbContext.createMarshaller();
-    for (Map.Entry<String, ?> entry : properties.entrySet()) {
-      marshaller.setProperty(entry.getKey(), entry.getValue());
-    }
     marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
     marshaller.setSchema(schemaParam);
     return marshaller;
   }
 
+  /**
+   * Checks out a pooled {@link Marshaller} and sets the per-call properties.
+   *
+   * <p>Both properties are always set, since the marshaller may have been used with other values.
+   */
+  private static Marshaller borrowMarshaller(
+      XmlObjectPool<Marshaller> pool, boolean fragment, Charset charset) throws JAXBException {
+    Marshaller marshaller = pool.borrow();
+    try {
+      marshaller.setProperty(Marshaller.JAXB_FRAGMENT, fragment);
+      marshaller.setProperty(Marshaller.JAXB_ENCODING, charset.toString());
+    } catch (JAXBException | RuntimeException e) {
+      pool.discard();
+      throw e;
+    }
+    return marshaller;
+  }
+
+  /**
+   * Returns a checked-out object to its pool, or discards it if it was in use when an exception
+   * was thrown.
+   */
+  private static <T> void returnToPool(
+      XmlObjectPool<T> pool, @Nullable T object, boolean reusable) {
+    if (object == null) {
+      return;
+    }
+    if (reusable) {
+      pool.release(object);
+    } else {
+      pool.discard();
+    }
+  }
+
   /** Pretty print XML. */
   public static String prettyPrint(String xmlString) {
     StringWriter prettyXml = new StringWriter();
@@ -24,6 +24,7 @@ import static google.registry.testing.DatabaseHelper.loadByEntity;
 import static google.registry.testing.DatabaseHelper.persistActiveDomain;
 import static google.registry.testing.DatabaseHelper.persistResource;
 import static google.registry.util.DateTimeUtils.END_OF_TIME;
+import static jakarta.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
 
 import com.google.common.collect.ImmutableSet;
 import google.registry.flows.DaggerEppTestComponent;
@@ -59,12 +60,13 @@ class DeleteExpiredDomainsActionTest {
       new JpaTestExtensions.Builder().withClock(clock).buildIntegrationTestExtension();
 
   private final FakeResponse response = new FakeResponse();
+  private EppController eppController;
   private DeleteExpiredDomainsAction action;
 
   @BeforeEach
   void beforeEach() {
     createTld("tld");
-    EppController eppController =
+    eppController =
         DaggerEppTestComponent.builder()
             .fakesAndMocksModule(FakesAndMocksModule.create(clock))
             .build()
@@ -72,7 +74,12 @@ class DeleteExpiredDomainsActionTest {
             .eppController();
     action =
         new DeleteExpiredDomainsAction(
-            eppController, "NewRegistrar", clock, new FakeLockHandler(true), response);
+            eppController,
+            "NewRegistrar",
+            clock,
+            new FakeLockHandler(true),
+            response,
+            Optional.empty());
   }
 
   @Test
@@ -160,6 +167,55 @@ class DeleteExpiredDomainsActionTest {
     assertThat(loadByEntity(domain3).getStatusValues()).contains(PENDING_DELETE);
   }
 
+  @Test
+  void test_retriesFailedBatchOneDomainAtATime() {
+    action =
+        new DeleteExpiredDomainsAction(
+            eppController,
+            "NewRegistrar",
+            clock,
+            new FakeLockHandler(true),
+            response,
+            Optional.of(2));
+    Domain domain1 = persistNonAutorenewingDomain("ecck1.tld");
+    // The delete flow fails for a domain with subordinate hosts, which rolls back its whole batch.
+    Domain domainWithHost =
+        persistResource(
+            persistNonAutorenewingDomain("veee2.tld")
+                .asBuilder()
+                .addSubordinateHost("ns1.veee2.tld")
+                .build());
+    Domain domain3 = persistNonAutorenewingDomain("tarm3.tld");
+
+    clock.setAutoIncrementByOneMilli();
+    action.run();
+    clock.disableAutoIncrement();
+
+    assertThat(loadByEntity(domain1).getStatusValues()).contains(PENDING_DELETE);
+    assertThat(loadByEntity(domainWithHost).getStatusValues()).doesNotContain(PENDING_DELETE);
+    assertThat(loadByEntity(domain3).getStatusValues()).contains(PENDING_DELETE);
+    assertThat(response.getPayload())
+        .startsWith("Finished; 2 domains were successfully deleted and 1 errored out in ");
+  }
+
+  @Test
+  void test_invalidBatchSize() {
+    action =
+        new DeleteExpiredDomainsAction(
+            eppController,
+            "NewRegistrar",
+            clock,
+            new FakeLockHandler(true),
+            response,
+            Optional.of(0));
+    persistNonAutorenewingDomain("ecck1.tld");
+
+    action.run();
+
+    assertThat(response.getStatus()).isEqualTo(SC_INTERNAL_SERVER_ERROR);
+    assertThat(response.getPayload()).contains("The batch size must be greater than 0");
+  }
+
   private Domain persistNonAutorenewingDomain(String domainName) {
     Domain pendingExpirationDomain = persistActiveDomain(domainName);
     DomainHistory createHistoryEntry =
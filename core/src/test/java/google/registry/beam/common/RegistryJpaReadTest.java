@@ -14,6 +14,7 @@
 
 package google.registry.beam.common;
 
+import static com.google.common.truth.Truth.assertThat;
 import static google.registry.persistence.transaction.JpaTransactionManagerExtension.makeRegistrar1;
 import static google.registry.testing.DatabaseHelper.newContact;
 import static google.registry.testing.DatabaseHelper.newTld;
@@ -21,6 +22,7 @@ import static google.registry.testing.DatabaseHelper.persistResource;
 import static google.registry.testing.DatabaseHelper.persistResources;
 import static google.registry.util.DateTimeUtils.END_OF_TIME;
 import static google.registry.util.DateTimeUtils.START_OF_TIME;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -162,6 +164,82 @@ public class RegistryJpaReadTest {
     testPipeline.run();
   }
 
+  @Test
+  void readWithPartitionedTypedQuery() {
+    Read<Contact, String> read =
+        RegistryJpaIO.read(
+                "select c from Contact c where "
+                    + RegistryJpaIO.hashPartitionPredicate("c.repoId", 4),
+                Contact.class,
+                ContactBase::getContactId)
+            .withCoder(StringUtf8Coder.of())
+            .withPartitions(4);
+    PCollection<String> contactIds = testPipeline.apply(read);
+
+    PAssert.that(contactIds).containsInAnyOrder("contact_0", "contact_1", "contact_2");
+    testPipeline.run();
+  }
+
+  @Test
+  void readWithPartitionedNativeQuery() {
+    Read<String, String> read =
+        RegistryJpaIO.<String, String>read(
+                "select contact_id from \"Contact\" where "
+                    + RegistryJpaIO.hashPartitionPredicate("repo_id", 2),
+                true,
+                x -> x)
+            .withCoder(StringUtf8Coder.of())
+            .withPartitions(2);
+    PCollection<String> contactIds = testPipeline.apply(read);
+
+    PAssert.that(contactIds).containsInAnyOrder("contact_0", "contact_1", "contact_2");
+    testPipeline.run();
+  }
+
+  @Test
+  void readWithPartitionPredicate_singlePartition() {
+    Read<Contact, String> read =
+        RegistryJpaIO.read(
+                "select c from Contact c where "
+                    + RegistryJpaIO.hashPartitionPredicate("c.repoId", 1),
+                Contact.class,
+                ContactBase::getContactId)
+            .withCoder(StringUtf8Coder.of());
+    PCollection<String> contactIds = testPipeline.apply(read);
+
+    PAssert.that(contactIds).containsInAnyOrder("contact_0", "contact_1", "contact_2");
+    testPipeline.run();
+  }
+
+  @Test
+  void hashPartitionPredicate_singlePartition_isNoOp() {
+    assertThat(RegistryJpaIO.hashPartitionPredicate("c.repoId", 1)).isEqualTo("1 = 1");
+    assertThat(RegistryJpaIO.hashPartitionPredicate("c.repoId", 2))
+        .isEqualTo("ABS(MOD(hashtext(c.repoId), :partitionCount)) = :partitionIndex");
+    assertThrows(
+        IllegalArgumentException.class, () -> RegistryJpaIO.hashPartitionPredicate("c.repoId", 0));
+  }
+
+  @Test
+  void withPartitions_failure_queryNotPartitionable() {
+    Read<Contact, String> read =
+        RegistryJpaIO.read(
+            () -> CriteriaQueryBuilder.create(Contact.class).build(), ContactBase::getContactId);
+    IllegalArgumentException thrown =
+        assertThrows(IllegalArgumentException.class, () -> read.withPartitions(2));
+    assertThat(thrown).hasMessageThat().contains(":partitionIndex");
+  }
+
+  @Test
+  void withPartitions_failure_notPositive() {
+    Read<Contact, String> read =
+        RegistryJpaIO.read(
+            "select c from Contact c where " + RegistryJpaIO.hashPartitionPredicate("c.repoId", 2),
+            Contact.class,
+            ContactBase::getContactId);
+    assertThrows(IllegalArgumentException.class, () -> read.withPartitions(0));
+  }
+
   private void setupForJoinQuery() {
     Tld registry = newTld("com", "ABCD_APP");
     Registrar registrar =
@@ -49,6 +49,7 @@ import dagger.Lazy;
 import google.registry.dns.DnsMetrics.ActionStatus;
 import google.registry.dns.DnsMetrics.CommitStatus;
 import google.registry.dns.DnsMetrics.PublishStatus;
+import google.registry.dns.writer.DnsPrefetchContext;
 import google.registry.dns.writer.DnsWriter;
 import google.registry.groups.GmailClient;
 import google.registry.model.domain.Domain;
@@ -174,6 +175,7 @@ public class PublishDnsUpdatesActionTest {
     action.run();
 
     verify(dnsWriter).publishHost("ns1.example.xn--q9jyb4c");
+    verify(dnsWriter).setPrefetchContext(any(DnsPrefetchContext.class));
     verify(dnsWriter).commit();
     verifyNoMoreInteractions(dnsWriter);
     verify(dnsMetrics).incrementPublishDomainRequests("xn--q9jyb4c", 0, PublishStatus.ACCEPTED);
@@ -201,6 +203,7 @@ public class PublishDnsUpdatesActionTest {
     action.run();
 
     verify(dnsWriter).publishDomain("example.xn--q9jyb4c");
+    verify(dnsWriter).setPrefetchContext(any(DnsPrefetchContext.class));
     verify(dnsWriter).commit();
     verifyNoMoreInteractions(dnsWriter);
     verify(dnsMetrics).incrementPublishDomainRequests("xn--q9jyb4c", 1, PublishStatus.ACCEPTED);
@@ -460,6 +463,7 @@ public class PublishDnsUpdatesActionTest {
     verify(dnsWriter).publishHost("ns1.example.xn--q9jyb4c");
     verify(dnsWriter).publishHost("ns2.example.xn--q9jyb4c");
     verify(dnsWriter).publishHost("ns1.example2.xn--q9jyb4c");
+    verify(dnsWriter).setPrefetchContext(any(DnsPrefetchContext.class));
     verify(dnsWriter).commit();
     verifyNoMoreInteractions(dnsWriter);
     verify(dnsMetrics).incrementPublishDomainRequests("xn--q9jyb4c", 2, PublishStatus.ACCEPTED);
@@ -490,6 +494,7 @@ public class PublishDnsUpdatesActionTest {
 
     action.run();
 
+    verify(dnsWriter).setPrefetchContext(any(DnsPrefetchContext.class));
     verify(dnsWriter).commit();
     verifyNoMoreInteractions(dnsWriter);
     verify(dnsMetrics).incrementPublishDomainRequests("xn--q9jyb4c", 0, PublishStatus.ACCEPTED);
@@ -0,0 +1,97 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.dns.writer;
+
+import static com.google.common.truth.Truth.assertThat;
+import static google.registry.testing.DatabaseHelper.createTld;
+import static google.registry.testing.DatabaseHelper.newDomain;
+import static google.registry.testing.DatabaseHelper.persistActiveDomain;
+import static google.registry.testing.DatabaseHelper.persistActiveHost;
+import static google.registry.testing.DatabaseHelper.persistDeletedDomain;
+import static google.registry.testing.DatabaseHelper.persistResource;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import google.registry.model.domain.Domain;
+import google.registry.model.host.Host;
+import google.registry.persistence.transaction.JpaTestExtensions;
+import google.registry.persistence.transaction.JpaTestExtensions.JpaIntegrationTestExtension;
+import google.registry.testing.FakeClock;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+/** Unit tests for {@link DnsPrefetchContext}. */
+class DnsPrefetchContextTest {
+
+  private final FakeClock clock = new FakeClock(DateTime.parse("2024-01-01T00:00:00Z"));
+
+  @RegisterExtension
+  final JpaIntegrationTestExtension jpa =
+      new JpaTestExtensions.Builder().withClock(clock).buildIntegrationTestExtension();
+
+  @BeforeEach
+  void beforeEach() {
+    createTld("tld");
+  }
+
+  @Test
+  void testLoad_domainsAndNameservers() {
+    Host external = persistActiveHost("ns1.example.com");
+    Host subordinate = persistActiveHost("ns1.example.tld");
+    persistResource(
+        newDomain("example.tld")
+            .asBuilder()
+            .addSubordinateHost("ns1.example.tld")
+            .setNameservers(ImmutableSet.of(external.createVKey(), subordinate.createVKey()))
+            .build());
+    persistActiveDomain("other.tld");
+
+    DnsPrefetchContext context =
+        DnsPrefetchContext.load(ImmutableList.of("example.tld", "other.tld"), clock.nowUtc());
+
+    Domain domain = context.loadDomain("example.tld", clock.nowUtc()).get();
+    assertThat(context.loadNameserverHostNames(domain))
+        .containsExactly("ns1.example.com", "ns1.example.tld")
+        .inOrder();
+    assertThat(context.loadHost("ns1.example.tld", clock.nowUtc()).get().getInetAddresses())
+        .isEqualTo(subordinate.getInetAddresses());
+    assertThat(context.loadDomain("other.tld", clock.nowUtc())).isPresent();
+  }
+
+  @Test
+  void testLoad_missingAndDeletedDomains_areEmpty() {
+    persistDeletedDomain("deleted.tld", clock.nowUtc().minusDays(1));
+
+    DnsPrefetchContext context =
+        DnsPrefetchContext.load(ImmutableList.of("deleted.tld", "missing.tld"), clock.nowUtc());
+
+    assertThat(context.loadDomain("deleted.tld", clock.nowUtc())).isEmpty();
+    assertThat(context.loadDomain("missing.tld", clock.nowUtc())).isEmpty();
+  }
+
+  @Test
+  void testLoad_notPrefetched_fallsBackToDatabase() {
+    persistActiveDomain("example.tld");
+    persistActiveHost("ns1.other.tld");
+
+    DnsPrefetchContext context = DnsPrefetchContext.load(ImmutableList.of(), clock.nowUtc());
+
+    assertThat(context.loadDomain("example.tld", clock.nowUtc())).isPresent();
+    assertThat(context.loadHost("ns1.other.tld", clock.nowUtc())).isPresent();
+    assertThat(DnsPrefetchContext.empty().loadDomain("example.tld", clock.nowUtc())).isPresent();
+  }
+}
@@ -17,20 +17,37 @@ package google.registry.dns.writer.dnsupdate;
 import static com.google.common.io.BaseEncoding.base16;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.base.VerifyException;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import google.registry.dns.DnsMetrics;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.EOFException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.InetAddress;
+import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.net.SocketFactory;
 import org.joda.time.Duration;
 import org.junit.jupiter.api.BeforeEach;
@@ -54,6 +71,7 @@ class DnsMessageTransportTest {
 
   private final SocketFactory mockFactory = mock(SocketFactory.class);
   private final Socket mockSocket = mock(Socket.class);
+  private final DnsMetrics dnsMetrics = mock(DnsMetrics.class);
 
   private Message simpleQuery;
   private Message expectedResponse;
@@ -67,7 +85,7 @@ class DnsMessageTransportTest {
     expectedResponse = responseMessageWithCode(simpleQuery, Rcode.NOERROR);
     when(mockFactory.createSocket(InetAddress.getByName(UPDATE_HOST), DnsMessageTransport.DNS_PORT))
         .thenReturn(mockSocket);
-    resolver = new DnsMessageTransport(mockFactory, UPDATE_HOST, Duration.ZERO);
+    resolver = new DnsMessageTransport(mockFactory, UPDATE_HOST, Duration.ZERO, 0, dnsMetrics);
   }
 
   @Test
@@ -122,7 +140,8 @@ class DnsMessageTransportTest {
     when(mockSocket.getOutputStream()).thenReturn(new ByteArrayOutputStream());
 
     Duration testTimeout = Duration.standardSeconds(1);
-    DnsMessageTransport resolver = new DnsMessageTransport(mockFactory, UPDATE_HOST, testTimeout);
+    DnsMessageTransport resolver =
+        new DnsMessageTransport(mockFactory, UPDATE_HOST, testTimeout, 0, dnsMetrics);
     Message expectedQuery = new Message();
     assertThrows(SocketTimeoutException.class, () -> resolver.send(expectedQuery));
     verify(mockSocket).setSoTimeout((int) testTimeout.getMillis());
@@ -174,6 +193,167 @@ class DnsMessageTransportTest {
         .contains("response opcode 'STATUS' does not match query opcode 'QUERY'");
   }
 
+  @Test
+  void testPooled_reusesConnection() throws Exception {
+    try (FakeDnsServer server = new FakeDnsServer(1, false)) {
+      DnsMessageTransport transport = createPooledTransport(server, 4);
+      for (int i = 0; i < 3; i++) {
+        Message query = newQuery("example" + i + ".com.");
+        assertThat(transport.send(query).getHeader().getID()).isEqualTo(query.getHeader().getID());
+      }
+      assertThat(server.connectionCount.get()).isEqualTo(1);
+      verify(dnsMetrics).incrementUpdateConnectionsOpened(UPDATE_HOST);
+      verify(dnsMetrics, times(3)).recordUpdateRoundTrip(eq(UPDATE_HOST), any(), eq(1));
+    }
+  }
+
+  @Test
+  void testPooled_pipelinesMessages_responsesOutOfOrder() throws Exception {
+    // The server only answers once it has read two queries, and answers them in reverse order.
+    try (FakeDnsServer server = new FakeDnsServer(2, false)) {
+      DnsMessageTransport transport = createPooledTransport(server, 1);
+      ImmutableList<Message> queries =
+          ImmutableList.of(newQuery("first.com."), newQuery("second.com."));
+      ExecutorService executor = Executors.newFixedThreadPool(2);
+      try {
+        List<Future<Message>> responses = new ArrayList<>();
+        for (Message query : queries) {
+          responses.add(executor.submit(() -> transport.send(query)));
+        }
+        for (int i = 0; i < queries.size(); i++) {
+          assertThat(responses.get(i).get().getHeader().getID())
+              .isEqualTo(queries.get(i).getHeader().getID());
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+      assertThat(server.connectionCount.get()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void testPooled_reconnectsAfterConnectionIsClosed() throws Exception {
+    // The server closes each connection after answering one query.
+    try (FakeDnsServer server = new FakeDnsServer(1, true)) {
+      DnsMessageTransport transport = createPooledTransport(server, 4);
+      for (int i = 0; i < 3; i++) {
+        Message query = newQuery("example" + i + ".com.");
+        assertThat(transport.send(query).getHeader().getID()).isEqualTo(query.getHeader().getID());
+      }
+      assertThat(server.connectionCount.get()).isEqualTo(3);
+    }
+  }
+
+  @Test
+  void testPooled_sentMessageTooLongThrowsException() throws Exception {
+    try (FakeDnsServer server = new FakeDnsServer(1, false)) {
+      DnsMessageTransport transport = createPooledTransport(server, 4);
+      Update oversize = new Update(Name.fromString("tld", Name.root));
+      for (int i = 0; i < 2000; i++) {
+        oversize.add(
+            ARecord.newRecord(
+                Name.fromString("test-extremely-long-name-" + i + ".tld", Name.root),
+                Type.A,
+                DClass.IN));
+      }
+      assertThrows(IllegalArgumentException.class, () -> transport.send(oversize));
+      assertThat(server.connectionCount.get()).isEqualTo(0);
+    }
+  }
+
+  /** Creates a pooled transport whose sockets connect to the given server instead of port 53. */
+  private DnsMessageTransport createPooledTransport(FakeDnsServer server, int maxConnections)
+      throws IOException {
+    SocketFactory factory = mock(SocketFactory.class);
+    when(factory.createSocket(any(InetAddress.class), anyInt()))
+        .thenAnswer(
+            invocation ->
+                new Socket(InetAddress.getLoopbackAddress(), server.serverSocket.getLocalPort()));
+    server.socketFactory = factory;
+    return new DnsMessageTransport(
+        factory, UPDATE_HOST, Duration.standardSeconds(10), maxConnections, dnsMetrics);
+  }
+
+  private static Message newQuery(String name) throws Exception {
+    return Message.newQuery(Record.newRecord(Name.fromString(name), Type.A, DClass.IN));
+  }
+
+  /**
+   * A DNS server on a local port that reads queries in batches and answers each batch in reverse
+   * order.
+   */
+  private final class FakeDnsServer implements AutoCloseable {
+
+    final ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    final AtomicInteger connectionCount = new AtomicInteger();
+    final List<Socket> sockets = new ArrayList<>();
+    final int batchSize;
+    final boolean closeAfterBatch;
+    SocketFactory socketFactory;
+
+    FakeDnsServer(int batchSize, boolean closeAfterBatch) throws IOException {
+      this.batchSize = batchSize;
+      this.closeAfterBatch = closeAfterBatch;
+      Thread acceptor = new Thread(this::acceptConnections);
+      acceptor.setDaemon(true);
+      acceptor.start();
+    }
+
+    private void acceptConnections() {
+      try {
+        while (true) {
+          Socket socket = serverSocket.accept();
+          connectionCount.incrementAndGet();
+          synchronized (sockets) {
+            sockets.add(socket);
+          }
+          Thread handler = new Thread(() -> serve(socket));
+          handler.setDaemon(true);
+          handler.start();
+        }
+      } catch (IOException e) {
+        // The server socket was closed.
+      }
+    }
+
+    private void serve(Socket socket) {
+      try (socket) {
+        DataInputStream inputStream = new DataInputStream(socket.getInputStream());
+        OutputStream outputStream = socket.getOutputStream();
+        while (true) {
+          List<Message> batch = new ArrayList<>();
+          for (int i = 0; i < batchSize; i++) {
+            batch.add(DnsMessageTransport.readMessage(inputStream));
+          }
+          for (Message query : Lists.reverse(batch)) {
+            outputStream.write(
+                messageToBytesWithLength(responseMessageWithCode(query, Rcode.NOERROR)));
+          }
+          outputStream.flush();
+          if (closeAfterBatch) {
+            return;
+          }
+        }
+      } catch (IOException e) {
+        // The client closed the connection.
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (socketFactory != null) {
+        DnsConnectionPool.get(socketFactory, UPDATE_HOST, DnsMessageTransport.DNS_PORT, 0, 1)
+            .closeAll();
+      }
+      serverSocket.close();
+      synchronized (sockets) {
+        for (Socket socket : sockets) {
+          socket.close();
+        }
+      }
+    }
+  }
+
   private Message responseMessageWithCode(Message query, int responseCode) {
     Message message = new Message(query.getHeader().getID());
     message.getHeader().setOpcode(query.getHeader().getOpcode());
@@ -35,6 +35,7 @@ import com.google.common.base.VerifyException;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.net.InetAddresses;
+import google.registry.dns.writer.DnsPrefetchContext;
 import google.registry.model.domain.Domain;
 import google.registry.model.domain.secdns.DomainDsData;
 import google.registry.model.eppcommon.StatusValue;
@@ -477,6 +478,46 @@ public class DnsUpdateWriterTest {
     assertThatTotalUpdateSetsIs(update, 5);
   }
 
+  @Test
+  void testPublishDomainExternalAndInBailiwickNameServer_prefetched() throws Exception {
+    Host externalNameserver = persistResource(newHost("ns1.example.com"));
+    Host inBailiwickNameserver =
+        persistResource(
+            newHost("ns1.example.tld")
+                .asBuilder()
+                .setInetAddresses(ImmutableSet.of(InetAddresses.forString("10.0.0.1")))
+                .build());
+    persistResource(
+        DatabaseHelper.newDomain("example.tld")
+            .asBuilder()
+            .addSubordinateHost("ns1.example.tld")
+            .addNameservers(
+                ImmutableSet.of(
+                    externalNameserver.createVKey(), inBailiwickNameserver.createVKey()))
+            .build());
+
+    writer.setPrefetchContext(
+        DnsPrefetchContext.load(ImmutableList.of("example.tld"), clock.nowUtc()));
+    writer.publishDomain("example.tld");
+    writer.commit();
+
+    verify(mockResolver).send(updateCaptor.capture());
+    Update update = updateCaptor.getValue();
+    assertThatUpdatedZoneIs(update, "tld.");
+    assertThatUpdateDeletes(update, "example.tld.", Type.ANY);
+    assertThatUpdateDeletes(update, "ns1.example.tld.", Type.ANY);
+    assertThatUpdateAdds(
+        update,
+        "example.tld.",
+        Type.NS,
+        Duration.ZERO.getStandardSeconds(),
+        "ns1.example.com.",
+        "ns1.example.tld.");
+    assertThatUpdateAdds(
+        update, "ns1.example.tld.", Type.A, Duration.ZERO.getStandardSeconds(), "10.0.0.1");
+    assertThatTotalUpdateSetsIs(update, 4);
+  }
+
   @Test
   void testPublishDomainDeleteOrphanGlues() throws Exception {
     Host inBailiwickNameserver =
@@ -0,0 +1,137 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.dns.writer.dnsupdate;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xbill.DNS.DClass;
+import org.xbill.DNS.Flags;
+import org.xbill.DNS.Message;
+import org.xbill.DNS.Name;
+import org.xbill.DNS.Record;
+import org.xbill.DNS.Type;
+
+/** Unit tests for {@link PipelinedDnsConnection}. */
+class PipelinedDnsConnectionTest {
+
+  private static final int READ_TIMEOUT_MILLIS = 200;
+
+  private ServerSocket serverSocket;
+  private Socket serverSide;
+  private PipelinedDnsConnection connection;
+
+  @BeforeEach
+  void beforeEach() throws Exception {
+    serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+    Socket clientSide = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+    clientSide.setSoTimeout(READ_TIMEOUT_MILLIS);
+    serverSide = serverSocket.accept();
+    connection =
+        new PipelinedDnsConnection(
+            clientSide,
+            runnable -> {
+              Thread thread = new Thread(runnable);
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  @AfterEach
+  void afterEach() throws Exception {
+    connection.close();
+    serverSide.close();
+    serverSocket.close();
+  }
+
+  @Test
+  void testReadTimeoutBetweenResponses_keepsWaiting() throws Exception {
+    Message query = newQuery();
+    CompletableFuture<Message> response =
+        connection.send(query.getHeader().getID(), frame(query)).get();
+    // Let the read time out a few times while the query is in flight.
+    Thread.sleep(3 * READ_TIMEOUT_MILLIS);
+    assertThat(connection.isOpen()).isTrue();
+
+    writeToClient(frame(responseTo(query)));
+    assertThat(response.get(10, SECONDS).getHeader().getID())
+        .isEqualTo(query.getHeader().getID());
+  }
+
+  @Test
+  void testReadTimeoutInsideResponse_closesConnection() throws Exception {
+    Message query = newQuery();
+    CompletableFuture<Message> response =
+        connection.send(query.getHeader().getID(), frame(query)).get();
+    // The length prefix and the first byte of the message, after which the server stalls.
+    writeToClient(Arrays.copyOf(frame(responseTo(query)), 3));
+
+    ExecutionException thrown =
+        assertThrows(ExecutionException.class, () -> response.get(10, SECONDS));
+    assertThat(thrown).hasCauseThat().isInstanceOf(SocketTimeoutException.class);
+    assertThat(connection.isOpen()).isFalse();
+  }
+
+  @Test
+  void testReadTimeoutInsideLengthPrefix_closesConnection() throws Exception {
+    Message query = newQuery();
+    CompletableFuture<Message> response =
+        connection.send(query.getHeader().getID(), frame(query)).get();
+    writeToClient(Arrays.copyOf(frame(responseTo(query)), 1));
+
+    ExecutionException thrown =
+        assertThrows(ExecutionException.class, () -> response.get(10, SECONDS));
+    assertThat(thrown).hasCauseThat().isInstanceOf(SocketTimeoutException.class);
+    assertThat(connection.isOpen()).isFalse();
+  }
+
+  private void writeToClient(byte[] bytes) throws Exception {
+    OutputStream outputStream = serverSide.getOutputStream();
+    outputStream.write(bytes);
+    outputStream.flush();
+  }
+
+  private static Message newQuery() throws Exception {
+    return Message.newQuery(Record.newRecord(Name.fromString("example.com."), Type.A, DClass.IN));
+  }
+
+  private static Message responseTo(Message query) {
+    Message message = new Message(query.getHeader().getID());
+    message.getHeader().setFlag(Flags.QR);
+    return message;
+  }
+
+  private static byte[] frame(Message message) {
+    byte[] bytes = message.toWire();
+    ByteBuffer buffer =
+        ByteBuffer.allocate(bytes.length + DnsMessageTransport.MESSAGE_LENGTH_FIELD_BYTES);
+    buffer.putShort((short) bytes.length);
+    buffer.put(bytes);
+    return buffer.array();
+  }
+}
@@ -152,6 +152,22 @@ class EppControllerTest {
     EppMetric expectedMetric = metricBuilder.build();
     verify(eppMetrics).incrementEppRequests(eq(expectedMetric));
     verify(eppMetrics).recordProcessingTime(eq(expectedMetric));
+    verify(eppMetrics).recordSqlStatements(eq(expectedMetric));
+  }
+
+  @Test
+  void testHandleEppCommand_singlePassParse_runsFlow() throws Exception {
+    eppController.singlePassEppParse = true;
+    EppOutput output =
+        eppController.handleEppCommand(
+            sessionMetadata,
+            transportCredentials,
+            EppRequestSource.UNIT_TEST,
+            false,
+            true,
+            domainCreateXml.getBytes(UTF_8));
+    assertThat(output).isSameInstanceAs(eppOutput);
+    verify(flowRunner).run(eppController.eppMetricBuilder);
   }
 
   @Test
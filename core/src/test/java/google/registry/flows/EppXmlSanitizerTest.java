@@ -16,6 +16,7 @@ package google.registry.flows;
 
 import static com.google.common.truth.Truth.assertThat;
 import static google.registry.flows.EppXmlSanitizer.sanitizeEppXml;
+import static google.registry.flows.EppXmlSanitizer.sanitizeEppXmlCompact;
 import static google.registry.testing.TestDataHelper.loadBytes;
 import static google.registry.xml.XmlTestUtils.assertXmlEqualsIgnoreHeader;
 import static java.nio.charset.StandardCharsets.UTF_16LE;
@@ -127,4 +128,34 @@ class EppXmlSanitizerTest {
 
     assertThat(sanitizedXml).isEqualTo(inputXml);
   }
+
+  @Test
+  void testSanitizeCompact_loginPasswords_sanitizedOnOneLine() throws Exception {
+    String inputXml =
+        new EppLoader(
+                this,
+                "login_update_password.xml",
+                ImmutableMap.of("PW", "oldpass", "NEWPW", "newPw"))
+            .getEppXml();
+    String sanitizedXml = sanitizeEppXmlCompact(inputXml.getBytes(UTF_8));
+    assertThat(sanitizedXml).doesNotContain("\n");
+    assertThat(sanitizedXml).contains("<pw>*******</pw><newPW>*****</newPW>");
+    assertThat(sanitizedXml).doesNotContain("oldpass");
+    assertThat(sanitizedXml).doesNotContain("newPw");
+  }
+
+  @Test
+  void testSanitizeCompact_textContentPreserved() {
+    byte[] inputXmlBytes = "<a>\n  <b>x y</b>\n  <c/>\n</a>\n".getBytes(UTF_8);
+    String sanitizedXml = sanitizeEppXmlCompact(inputXmlBytes);
+    assertThat(sanitizedXml).doesNotContain("\n");
+    assertThat(sanitizedXml).endsWith("<a><b>x y</b><c></c></a>");
+  }
+
+  @Test
+  void testSanitizeCompact_invalidXml_encodedToBase64OnOneLine() {
+    byte[] inputXmlBytes = "<pw>".repeat(100).getBytes(UTF_8);
+    assertThat(sanitizeEppXmlCompact(inputXmlBytes))
+        .isEqualTo(Base64.getEncoder().encodeToString(inputXmlBytes));
+  }
 }
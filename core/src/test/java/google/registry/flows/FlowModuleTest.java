@@ -22,12 +22,24 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import dagger.Component;
 import google.registry.flows.FlowComponent.FlowComponentModule;
+import google.registry.flows.annotations.DatabaseRouting;
+import google.registry.flows.annotations.DatabaseRouting.Route;
+import google.registry.flows.domain.DomainCreateFlow;
+import google.registry.flows.domain.DomainInfoFlow;
+import google.registry.flows.host.HostCheckFlow;
+import google.registry.flows.host.HostInfoFlow;
+import google.registry.flows.poll.PollFlowUtils;
+import google.registry.flows.poll.PollRequestFlow;
 import google.registry.model.eppinput.EppInput;
 import google.registry.persistence.transaction.DatabaseException;
 import google.registry.persistence.transaction.JpaTestExtensions;
 import google.registry.persistence.transaction.JpaTestExtensions.JpaIntegrationTestExtension;
 import google.registry.persistence.transaction.JpaTransactionManager;
+import google.registry.persistence.transaction.ReplicationLagMonitor;
 import google.registry.testing.EppLoader;
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
@@ -38,6 +50,11 @@ public class FlowModuleTest {
   final JpaIntegrationTestExtension jpa =
       new JpaTestExtensions.Builder().buildIntegrationTestExtension();
 
+  @AfterEach
+  void afterEach() {
+    ReplicationLagMonitor.resetReplicationLagForTest();
+  }
+
   private EppInput getEppInput(String eppInputXmlFilename) throws EppException {
     return new EppLoader(this, eppInputXmlFilename).getEpp();
   }
@@ -74,6 +91,76 @@ public class FlowModuleTest {
         .contains("cannot execute INSERT in a read-only transaction");
   }
 
+  @Test
+  void givenReplicaIfFreshFlow_andFreshReplica_thenReplicaTmIsUsed() throws EppException {
+    ReplicationLagMonitor.setReplicationLagForTest(Optional.of(Duration.ofMillis(100)));
+    assertThat(getJpaTm("host_info.xml")).isEqualTo(replicaTm());
+  }
+
+  @Test
+  void givenDomainInfoFlow_andFreshReplica_thenPrimaryTmIsUsed() throws EppException {
+    ReplicationLagMonitor.setReplicationLagForTest(Optional.of(Duration.ZERO));
+    assertThat(getJpaTm("domain_info.xml")).isEqualTo(tm());
+  }
+
+  @Test
+  void givenPollRequestFlow_andFreshReplica_thenMessageCountIsReadOnReplica()
+      throws EppException {
+    ReplicationLagMonitor.setReplicationLagForTest(Optional.of(Duration.ofMillis(100)));
+    JpaTransactionManager tm = getJpaTm("poll.xml");
+    assertThat(tm).isEqualTo(replicaTm());
+    assertThat(
+            tm.transact(
+                () -> PollFlowUtils.getPollMessageCount("TheRegistrar", tm.getTransactionTime())))
+        .isEqualTo(0);
+  }
+
+  @Test
+  void givenReplicaIfFreshFlow_andStaleReplica_thenPrimaryTmIsUsed() throws EppException {
+    ReplicationLagMonitor.setReplicationLagForTest(Optional.of(Duration.ofMinutes(1)));
+    assertThat(getJpaTm("host_info.xml")).isEqualTo(tm());
+  }
+
+  @Test
+  void givenReplicaIfFreshFlow_andUnknownReplicationLag_thenPrimaryTmIsUsed()
+      throws EppException {
+    ReplicationLagMonitor.setReplicationLagForTest(Optional.empty());
+    assertThat(getJpaTm("domain_check.xml")).isEqualTo(tm());
+  }
+
+  @Test
+  void testGetDatabaseRoute() {
+    assertThat(FlowModule.getDatabaseRoute(DomainCreateFlow.class)).isEqualTo(Route.PRIMARY);
+    assertThat(FlowModule.getDatabaseRoute(HostCheckFlow.class)).isEqualTo(Route.REPLICA);
+    assertThat(FlowModule.getDatabaseRoute(DomainInfoFlow.class)).isEqualTo(Route.PRIMARY);
+    assertThat(FlowModule.getDatabaseRoute(HostInfoFlow.class)).isEqualTo(Route.REPLICA_IF_FRESH);
+    assertThat(FlowModule.getDatabaseRoute(PollRequestFlow.class))
+        .isEqualTo(Route.REPLICA_IF_FRESH);
+  }
+
+  @Test
+  void testGetDatabaseRoute_mutatingFlowOnReplica_throws() {
+    IllegalStateException thrown =
+        assertThrows(
+            IllegalStateException.class,
+            () -> FlowModule.getDatabaseRoute(MutatingFlowOnReplica.class));
+    assertThat(thrown)
+        .hasMessageThat()
+        .isEqualTo("Mutating flow MutatingFlowOnReplica must run on the primary database");
+  }
+
+  private JpaTransactionManager getJpaTm(String eppInputXmlFilename) throws EppException {
+    FlowModule flowModule =
+        new FlowModule.Builder().setEppInput(getEppInput(eppInputXmlFilename)).build();
+    return DaggerFlowModuleTest_FlowModuleTestComponent.builder()
+        .flowModule(flowModule)
+        .build()
+        .jpaTm();
+  }
+
+  @DatabaseRouting(Route.REPLICA)
+  private abstract static class MutatingFlowOnReplica implements MutatingFlow {}
+
   @FlowScope
   @Component(modules = {FlowModule.class, FlowComponentModule.class})
   public interface FlowModuleTestComponent {
@@ -103,6 +103,7 @@ class FlowRunnerTest {
     flowRunner.flowProvider = TestCommandFlow::new;
     flowRunner.flowClass = TestCommandFlow.class;
     flowRunner.inputXmlBytes = "<xml/>".getBytes(UTF_8);
+    flowRunner.sanitizedInputXml = Optional.empty();
     flowRunner.isDryRun = false;
     flowRunner.isSuperuser = false;
     flowRunner.isTransactional = false;
@@ -140,6 +141,22 @@ class FlowRunnerTest {
     assertThat(eppMetricBuilder.build().getCommandName()).hasValue("TestTransactional");
   }
 
+  @Test
+  void testRun_nonTransactionalCommand_setsSqlStatementCountOnMetric() throws Exception {
+    flowRunner.run(eppMetricBuilder);
+    assertThat(eppMetricBuilder.build().getSqlStatementCount()).hasValue(0L);
+  }
+
+  @Test
+  void testRun_transactionalCommand_setsSqlStatementCountOnMetric() throws Exception {
+    flowRunner.isTransactional = true;
+    flowRunner.flowClass = TestTransactionalFlow.class;
+    flowRunner.flowProvider = () -> new TestTransactionalFlow(Optional.empty());
+    flowRunner.run(eppMetricBuilder);
+    // The flow looks up the isolation level of its transaction.
+    assertThat(eppMetricBuilder.build().getSqlStatementCount().get()).isAtLeast(1L);
+  }
+
   @Test
   void testRun_callsFlowReporterOnce() throws Exception {
     flowRunner.run(eppMetricBuilder);
@@ -224,4 +241,29 @@ class FlowRunnerTest {
     String xml = Joiner.on('\n').join(lines.subList(3, lines.size() - 4));
     assertThat(xml).isEqualTo(sanitizedDomainCreateXml);
   }
+
+  @Test
+  void testRun_loggingStatement_compactEppInput() throws Exception {
+    String domainCreateXml = loadFile(getClass(), "domain_create_prettyprinted.xml");
+    flowRunner.inputXmlBytes = domainCreateXml.getBytes(UTF_8);
+    flowRunner.compactEppCommandLog = true;
+    flowRunner.run(eppMetricBuilder);
+    List<String> lines =
+        Splitter.on("\n\t").splitToList(findFirstLogMessageByPrefix(handler, "EPP Command\n\t"));
+    assertThat(lines).hasSize(9);
+    assertThat(lines.get(4)).doesNotContain("\n");
+    assertThat(lines.get(4)).contains("<domain:pw>*******</domain:pw>");
+    assertThat(lines.get(4)).doesNotContain("2fooBAR");
+  }
+
+  @Test
+  void testRun_loggingStatement_usesRecordedSanitizedXml() throws Exception {
+    flowRunner.inputXmlBytes = "<xml><pw>secret</pw></xml>".getBytes(UTF_8);
+    flowRunner.sanitizedInputXml = Optional.of("<xml><pw>recorded</pw></xml>");
+    flowRunner.compactEppCommandLog = true;
+    flowRunner.run(eppMetricBuilder);
+    List<String> lines =
+        Splitter.on("\n\t").splitToList(findFirstLogMessageByPrefix(handler, "EPP Command\n\t"));
+    assertThat(lines.get(4)).isEqualTo("<xml><pw>recorded</pw></xml>");
+  }
 }
@@ -0,0 +1,85 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.flows;
+
+import static com.google.common.truth.Truth.assertThat;
+import static google.registry.flows.FlowUtils.unmarshalEpp;
+import static google.registry.xml.XmlTestUtils.assertXmlEqualsIgnoreHeader;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ImmutableMap;
+import google.registry.flows.EppException.SyntaxErrorException;
+import google.registry.model.eppinput.EppInput;
+import google.registry.testing.EppLoader;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link SanitizedXmlRecorder}. */
+class SanitizedXmlRecorderTest {
+
+  private final byte[] inputXmlBytes =
+      new EppLoader(
+              this,
+              "login_update_password.xml",
+              ImmutableMap.of("CLID", "NewRegistrar", "PW", "oldpass", "NEWPW", "newPass1"))
+          .getEppXml()
+          .getBytes(UTF_8);
+
+  @Test
+  void testRecord_matchesSanitizer() throws Exception {
+    SanitizedXmlRecorder recorder = new SanitizedXmlRecorder(false);
+    EppInput eppInput = unmarshalEpp(EppInput.class, inputXmlBytes, recorder);
+    assertThat(eppInput.getCommandType()).isEqualTo("login");
+    Optional<String> sanitizedXml = recorder.getSanitizedXml();
+    assertThat(sanitizedXml).isPresent();
+    assertThat(sanitizedXml.get()).contains("<pw>*******</pw>");
+    assertThat(sanitizedXml.get()).contains("<newPW>********</newPW>");
+    assertThat(sanitizedXml.get()).doesNotContain("oldpass");
+    assertXmlEqualsIgnoreHeader(
+        EppXmlSanitizer.sanitizeEppXml(inputXmlBytes), sanitizedXml.get());
+  }
+
+  @Test
+  void testRecord_compact() throws Exception {
+    SanitizedXmlRecorder recorder = new SanitizedXmlRecorder(true);
+    unmarshalEpp(EppInput.class, inputXmlBytes, recorder);
+    String sanitizedXml = recorder.getSanitizedXml().get();
+    assertThat(sanitizedXml).doesNotContain("\n");
+    assertThat(sanitizedXml).contains("<clID>NewRegistrar</clID><pw>*******</pw>");
+    assertXmlEqualsIgnoreHeader(EppXmlSanitizer.sanitizeEppXmlCompact(inputXmlBytes), sanitizedXml);
+  }
+
+  @Test
+  void testRecord_notApplied_isEmpty() {
+    assertThat(new SanitizedXmlRecorder(false).getSanitizedXml()).isEmpty();
+  }
+
+  @Test
+  void testRecord_invalidXml_stillFailsUnmarshalling() {
+    SanitizedXmlRecorder recorder = new SanitizedXmlRecorder(false);
+    assertThrows(
+        SyntaxErrorException.class,
+        () -> unmarshalEpp(EppInput.class, "<epp><bogus/></epp>".getBytes(UTF_8), recorder));
+  }
+
+  @Test
+  void testApply_twice_fails() throws Exception {
+    SanitizedXmlRecorder recorder = new SanitizedXmlRecorder(false);
+    unmarshalEpp(EppInput.class, inputXmlBytes, recorder);
+    assertThrows(
+        IllegalStateException.class, () -> unmarshalEpp(EppInput.class, inputXmlBytes, recorder));
+  }
+}
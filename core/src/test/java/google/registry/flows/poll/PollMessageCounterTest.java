@@ -0,0 +1,274 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.flows.poll;
+
+import static com.google.common.truth.Truth.assertThat;
+import static google.registry.persistence.transaction.TransactionManagerFactory.replicaTm;
+import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+import static google.registry.testing.DatabaseHelper.createHistoryEntryForEppResource;
+import static google.registry.testing.DatabaseHelper.createTld;
+import static google.registry.testing.DatabaseHelper.deleteResource;
+import static google.registry.testing.DatabaseHelper.persistActiveContact;
+import static google.registry.testing.DatabaseHelper.persistResource;
+import static google.registry.util.DateTimeUtils.END_OF_TIME;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import google.registry.model.domain.Domain;
+import google.registry.model.poll.PollMessage;
+import google.registry.persistence.transaction.JpaTestExtensions;
+import google.registry.persistence.transaction.JpaTestExtensions.JpaIntegrationTestExtension;
+import google.registry.testing.DatabaseHelper;
+import google.registry.testing.FakeClock;
+import java.util.Optional;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+/** Unit tests for {@link PollMessageCounter}. */
+class PollMessageCounterTest {
+
+  private static final String REGISTRAR_ID = "NewRegistrar";
+
+  private final FakeClock clock = new FakeClock(DateTime.parse("2011-01-02T01:01:01Z"));
+
+  @RegisterExtension
+  final JpaIntegrationTestExtension jpa =
+      new JpaTestExtensions.Builder().withClock(clock).buildIntegrationTestExtension();
+
+  private Domain domain;
+
+  @BeforeEach
+  void beforeEach() {
+    createTld("example");
+    domain =
+        persistResource(DatabaseHelper.newDomain("test.example", persistActiveContact("jd1234")));
+  }
+
+  private PollMessage persistOneTimePollMessage(String registrarId, DateTime eventTime) {
+    return persistResource(
+        new PollMessage.OneTime.Builder()
+            .setRegistrarId(registrarId)
+            .setEventTime(eventTime)
+            .setMsg("Some poll message.")
+            .setHistoryEntry(createHistoryEntryForEppResource(domain))
+            .build());
+  }
+
+  private PollMessage persistOneTimePollMessage(DateTime eventTime) {
+    return persistOneTimePollMessage(REGISTRAR_ID, eventTime);
+  }
+
+  private static int getCount() {
+    return tm().transact(
+            () -> PollMessageCounter.getCount(REGISTRAR_ID, tm().getTransactionTime()));
+  }
+
+  private static int getReplicaCount() {
+    return replicaTm()
+        .transact(
+            () -> PollMessageCounter.getCount(REGISTRAR_ID, replicaTm().getTransactionTime()));
+  }
+
+  /** Returns the stored count, without folding in the messages it does not cover. */
+  private static Optional<Integer> getStoredCount() {
+    return tm().transact(
+            () ->
+                tm()
+                    .getEntityManager()
+                    .createNativeQuery(
+                        "SELECT message_count FROM \"PollMessageCount\""
+                            + " WHERE registrar_id = :registrarId")
+                    .setParameter("registrarId", REGISTRAR_ID)
+                    .getResultStream()
+                    .findFirst()
+                    .map(count -> count == null ? null : ((Number) count).intValue()));
+  }
+
+  private static long getStoredVersion() {
+    return tm().transact(
+            () ->
+                ((Number)
+                        tm().getEntityManager()
+                            .createNativeQuery(
+                                "SELECT version FROM \"PollMessageCount\""
+                                    + " WHERE registrar_id = :registrarId")
+                            .setParameter("registrarId", REGISTRAR_ID)
+                            .getSingleResult())
+                    .longValue());
+  }
+
+  @Test
+  void testGetCount_noMessages() {
+    assertThat(getCount()).isEqualTo(0);
+    assertThat(getStoredCount()).hasValue(0);
+  }
+
+  @Test
+  void testGetCount_ignoresFutureMessagesAndOtherRegistrars() {
+    persistOneTimePollMessage(clock.nowUtc().minusDays(1));
+    persistOneTimePollMessage(clock.nowUtc().minusDays(2));
+    persistOneTimePollMessage(clock.nowUtc().plusDays(1));
+    persistOneTimePollMessage("TheRegistrar", clock.nowUtc().minusDays(1));
+    assertThat(getCount()).isEqualTo(2);
+    assertThat(getStoredCount()).hasValue(2);
+  }
+
+  @Test
+  void testGetCount_readOnlyTransaction_countIsNotStored() {
+    persistOneTimePollMessage(clock.nowUtc().minusDays(1));
+    assertThat(getReplicaCount()).isEqualTo(1);
+    assertThat(getStoredCount()).isEmpty();
+  }
+
+  @Test
+  void testGetCount_readOnlyTransaction_dueMessagesCountedButNotStored() {
+    persistOneTimePollMessage(clock.nowUtc().plusDays(1));
+    assertThat(getCount()).isEqualTo(0);
+    clock.advanceBy(Duration.standardDays(2));
+    assertThat(getReplicaCount()).isEqualTo(1);
+    assertThat(getStoredCount()).hasValue(0);
+    // The next count in a writable transaction stores the messages that have become due.
+    assertThat(getCount()).isEqualTo(1);
+    assertThat(getStoredCount()).hasValue(1);
+  }
+
+  @Test
+  void testGetCount_insertAfterCount_maintainedInSameTransaction() {
+    persistOneTimePollMessage(clock.nowUtc().minusDays(1));
+    assertThat(getCount()).isEqualTo(1);
+    clock.advanceOneMilli();
+    persistOneTimePollMessage(clock.nowUtc().minusDays(1));
+    // The trigger adjusted the stored count when the message was inserted.
+    assertThat(getStoredCount()).hasValue(2);
+    assertThat(getCount()).isEqualTo(2);
+  }
+
+  @Test
+  void testGetCount_deleteAfterCount_maintainedInSameTransaction() {
+    PollMessage pollMessage = persistOneTimePollMessage(clock.nowUtc().minusDays(1));
+    persistOneTimePollMessage(clock.nowUtc().minusDays(1));
+    assertThat(getCount()).isEqualTo(2);
+    deleteResource(pollMessage);
+    assertThat(getStoredCount()).hasValue(1);
+    assertThat(getCount()).isEqualTo(1);
+  }
+
+  @Test
+  void testGetCount_seesChangesOfOwnTransaction() {
+    persistOneTimePollMessage(clock.nowUtc().minusDays(1));
+    PollMessage pollMessage = persistOneTimePollMessage(clock.nowUtc().minusDays(1));
+    assertThat(getCount()).isEqualTo(2);
+    clock.advanceOneMilli();
+    int count =
+        tm().transact(
+                () -> {
+                  PollFlowUtils.ackPollMessage(pollMessage);
+                  return PollMessageCounter.getCount(REGISTRAR_ID, tm().getTransactionTime());
+                });
+    assertThat(count).isEqualTo(1);
+    assertThat(getCount()).isEqualTo(1);
+  }
+
+  @Test
+  void testGetCount_rolledBackInsert_doesNotChangeCount() {
+    persistOneTimePollMessage(clock.nowUtc().minusDays(1));
+    assertThat(getCount()).isEqualTo(1);
+    clock.advanceOneMilli();
+    PollMessage pollMessage =
+        new PollMessage.OneTime.Builder()
+            .setRegistrarId(REGISTRAR_ID)
+            .setEventTime(clock.nowUtc().minusDays(1))
+            .setMsg("Rolled back.")
+            .setHistoryEntry(createHistoryEntryForEppResource(domain))
+            .build();
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            tm().transact(
+                    () -> {
+                      tm().insert(pollMessage);
+                      assertThat(
+                              PollMessageCounter.getCount(
+                                  REGISTRAR_ID, tm().getTransactionTime()))
+                          .isEqualTo(2);
+                      throw new IllegalStateException("Roll back");
+                    }));
+    assertThat(getStoredCount()).hasValue(1);
+    assertThat(getCount()).isEqualTo(1);
+  }
+
+  @Test
+  void testGetCount_futureMessageBecomesDue() {
+    persistOneTimePollMessage(clock.nowUtc().minusDays(1));
+    persistOneTimePollMessage(clock.nowUtc().plusDays(1));
+    assertThat(getCount()).isEqualTo(1);
+    clock.advanceBy(Duration.standardDays(2));
+    assertThat(getCount()).isEqualTo(2);
+    assertThat(getStoredCount()).hasValue(2);
+  }
+
+  @Test
+  void testGetCount_autorenewAcked_movesOutOfCount() {
+    PollMessage autorenew =
+        persistResource(
+            new PollMessage.Autorenew.Builder()
+                .setRegistrarId(REGISTRAR_ID)
+                .setEventTime(clock.nowUtc().minusMonths(6))
+                .setAutorenewEndTime(END_OF_TIME)
+                .setMsg("Domain was auto-renewed.")
+                .setTargetId("test.example")
+                .setHistoryEntry(createHistoryEntryForEppResource(domain))
+                .build());
+    assertThat(getCount()).isEqualTo(1);
+    clock.advanceOneMilli();
+    tm().transact(() -> PollFlowUtils.ackPollMessage(autorenew));
+    assertThat(getStoredCount()).hasValue(0);
+    assertThat(getCount()).isEqualTo(0);
+    clock.advanceBy(Duration.standardDays(365));
+    assertThat(getCount()).isEqualTo(1);
+  }
+
+  @Test
+  void testGetCount_earlierTransactionTime_notStored() {
+    persistOneTimePollMessage(clock.nowUtc().minusDays(1));
+    assertThat(getCount()).isEqualTo(1);
+    int count =
+        tm().transact(
+                () -> PollMessageCounter.getCount(REGISTRAR_ID, clock.nowUtc().minusDays(2)));
+    assertThat(count).isEqualTo(0);
+    assertThat(getStoredCount()).hasValue(1);
+  }
+
+  @Test
+  void testGetCount_updateOfOtherColumns_doesNotTouchCount() {
+    PollMessage message = persistOneTimePollMessage(clock.nowUtc().minusDays(1));
+    assertThat(getCount()).isEqualTo(1);
+    long version = getStoredVersion();
+    persistResource(message.asBuilder().setMsg("Another poll message.").build());
+    assertThat(getStoredVersion()).isEqualTo(version);
+    assertThat(getStoredCount()).hasValue(1);
+  }
+
+  @Test
+  void testGetCount_updateOfEventTime_movesOutOfCount() {
+    PollMessage message = persistOneTimePollMessage(clock.nowUtc().minusDays(1));
+    assertThat(getCount()).isEqualTo(1);
+    persistResource(message.asBuilder().setEventTime(clock.nowUtc().plusDays(1)).build());
+    assertThat(getStoredCount()).hasValue(0);
+    assertThat(getCount()).isEqualTo(0);
+  }
+}
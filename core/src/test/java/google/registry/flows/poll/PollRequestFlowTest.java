@@ -14,6 +14,8 @@
 
 package google.registry.flows.poll;
 
+import static com.google.common.truth.Truth.assertThat;
+import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
 import static google.registry.testing.DatabaseHelper.createHistoryEntryForEppResource;
 import static google.registry.testing.DatabaseHelper.createTld;
 import static google.registry.testing.DatabaseHelper.persistActiveContact;
@@ -39,8 +41,12 @@ import google.registry.model.reporting.HistoryEntry;
 import google.registry.model.transfer.TransferResponse.ContactTransferResponse;
 import google.registry.model.transfer.TransferResponse.DomainTransferResponse;
 import google.registry.model.transfer.TransferStatus;
+import google.registry.persistence.transaction.ReplicationLagMonitor;
 import google.registry.testing.DatabaseHelper;
+import java.time.Duration;
+import java.util.Optional;
 import org.joda.time.DateTime;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -51,6 +57,11 @@ class PollRequestFlowTest extends FlowTestCase<PollRequestFlow> {
   private Contact contact;
   private Host host;
 
+  @AfterEach
+  void afterEach() {
+    ReplicationLagMonitor.resetReplicationLagForTest();
+  }
+
   @BeforeEach
   void setUp() {
     setEppInput("poll.xml");
@@ -272,6 +283,22 @@ class PollRequestFlowTest extends FlowTestCase<PollRequestFlow> {
     runFlowAssertResponse(loadFile("poll_response_host_delete.xml"));
   }
 
+  @Test
+  void testSuccess_freshReplica_countIsNotStored() throws Exception {
+    ReplicationLagMonitor.setReplicationLagForTest(Optional.of(Duration.ofMillis(100)));
+    persistPendingTransferPollMessage();
+    assertMutatingFlow(false);
+    runFlowAssertResponse(loadFile("poll_response_domain_transfer.xml"));
+    // The flow ran in a read-only replica transaction, which cannot store the count.
+    assertThat(
+            tm().transact(
+                    () ->
+                        tm().getEntityManager()
+                            .createNativeQuery("SELECT count(*) FROM \"PollMessageCount\"")
+                            .getSingleResult()))
+        .isEqualTo(0L);
+  }
+
   @Test
   void testFailure_messageIdProvided() throws Exception {
     setEppInput("poll_with_id.xml");
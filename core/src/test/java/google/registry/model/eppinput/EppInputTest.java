@@ -51,6 +51,19 @@ class EppInputTest {
     assertThat(input.getTargetIds()).containsExactly("example.com", "example.net", "example.org");
   }
 
+  @Test
+  void testWithTargetId_domainDelete() throws Exception {
+    EppInput input =
+        unmarshal(EppInput.class, loadBytes(DomainTest.class, "domain_delete.xml").read());
+    EppInput retargeted = input.withTargetId("other.tld");
+    assertThat(retargeted.getCommandType()).isEqualTo("delete");
+    assertThat(retargeted.getResourceType()).hasValue("domain");
+    assertThat(retargeted.getSingleTargetId()).hasValue("other.tld");
+    assertThat(retargeted.getCommandWrapper().getClTrid()).hasValue("ABC-12345");
+    // The original input is left unchanged.
+    assertThat(input.getSingleTargetId()).hasValue("example.com");
+  }
+
   @Test
   void testUnmarshalling_login() throws Exception {
     EppInput input = unmarshal(EppInput.class, loadBytes(getClass(), "login_valid.xml").read());
@@ -0,0 +1,118 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.model.host;
+
+import static com.google.common.truth.Truth.assertThat;
+import static google.registry.testing.DatabaseHelper.persistResource;
+import static google.registry.testing.FullFieldsTestEntityHelper.makeHost;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.net.InetAddresses;
+import google.registry.model.EntityTestCase;
+import google.registry.persistence.VKey;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link HostIpIndex}. */
+class HostIpIndexTest extends EntityTestCase {
+
+  @BeforeEach
+  void beforeEach() {
+    HostIpIndex.setIndexForTest(Optional.of(Duration.ofMinutes(1)), fakeClock);
+  }
+
+  @AfterEach
+  void afterEach() {
+    HostIpIndex.setIndexForTest(Optional.empty(), fakeClock);
+  }
+
+  private static ImmutableList<VKey<Host>> lookUp(String address) {
+    return HostIpIndex.getActiveHostKeys(InetAddresses.forString(address)).get();
+  }
+
+  @Test
+  void testLookUp() {
+    Host host1 = persistResource(makeHost("ns1.cat.lol", "1.2.3.4", "bad:f00d:cafe::15:beef"));
+    Host host2 = persistResource(makeHost("ns2.cat.lol", "1.2.3.4"));
+    Host host3 = persistResource(makeHost("ns3.cat.lol", "1.2.3.5", "bad:f00d:cafe::15:beee"));
+    assertThat(lookUp("1.2.3.4")).containsExactly(host1.createVKey(), host2.createVKey());
+    assertThat(lookUp("1.2.3.4")).isInOrder(Comparator.comparing(key -> (String) key.getKey()));
+    assertThat(lookUp("1.2.3.5")).containsExactly(host3.createVKey());
+    assertThat(lookUp("1.2.3.3")).isEmpty();
+    assertThat(lookUp("bad:f00d:cafe::15:beef")).containsExactly(host1.createVKey());
+    assertThat(lookUp("bad:f00d:cafe::15:beee")).containsExactly(host3.createVKey());
+    assertThat(lookUp("bad:f00d:cafe::15:beed")).isEmpty();
+  }
+
+  @Test
+  void testLookUp_unsignedOrder() {
+    // Addresses with the high bit set must sort after the others, not before them.
+    Host host1 = persistResource(makeHost("ns1.cat.lol", "200.1.1.1", "ffff::1"));
+    Host host2 = persistResource(makeHost("ns2.cat.lol", "100.1.1.1", "1::1"));
+    assertThat(lookUp("200.1.1.1")).containsExactly(host1.createVKey());
+    assertThat(lookUp("100.1.1.1")).containsExactly(host2.createVKey());
+    assertThat(lookUp("ffff::1")).containsExactly(host1.createVKey());
+    assertThat(lookUp("1::1")).containsExactly(host2.createVKey());
+  }
+
+  @Test
+  void testLookUp_deletedHostNotIndexed() {
+    persistResource(
+        makeHost("ns1.cat.lol", "1.2.3.4")
+            .asBuilder()
+            .setDeletionTime(fakeClock.nowUtc().minusDays(1))
+            .build());
+    assertThat(lookUp("1.2.3.4")).isEmpty();
+  }
+
+  @Test
+  void testRefresh_loadsUpdatedHosts() {
+    Host host1 = persistResource(makeHost("ns1.cat.lol", "1.2.3.4"));
+    assertThat(lookUp("1.2.3.4")).containsExactly(host1.createVKey());
+    Host host2 = persistResource(makeHost("ns2.cat.lol", "1.2.3.4"));
+    persistResource(
+        host1
+            .asBuilder()
+            .setInetAddresses(ImmutableSet.of(InetAddresses.forString("5.6.7.8")))
+            .build());
+    // The index is not refreshed until the refresh interval has passed.
+    assertThat(lookUp("1.2.3.4")).containsExactly(host1.createVKey());
+    assertThat(lookUp("5.6.7.8")).isEmpty();
+    fakeClock.advanceBy(org.joda.time.Duration.standardMinutes(2));
+    assertThat(lookUp("1.2.3.4")).containsExactly(host2.createVKey());
+    assertThat(lookUp("5.6.7.8")).containsExactly(host1.createVKey());
+  }
+
+  @Test
+  void testRefresh_removesDeletedHosts() {
+    Host host = persistResource(makeHost("ns1.cat.lol", "1.2.3.4"));
+    assertThat(lookUp("1.2.3.4")).containsExactly(host.createVKey());
+    persistResource(host.asBuilder().setDeletionTime(fakeClock.nowUtc()).build());
+    fakeClock.advanceBy(org.joda.time.Duration.standardMinutes(2));
+    assertThat(lookUp("1.2.3.4")).isEmpty();
+  }
+
+  @Test
+  void testDisabled() {
+    persistResource(makeHost("ns1.cat.lol", "1.2.3.4"));
+    HostIpIndex.setIndexForTest(Optional.empty(), fakeClock);
+    assertThat(HostIpIndex.getActiveHostKeys(InetAddresses.forString("1.2.3.4"))).isEmpty();
+  }
+}
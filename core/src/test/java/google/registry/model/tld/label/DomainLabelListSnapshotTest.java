@@ -0,0 +1,158 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.model.tld.label;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableMap;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Unit tests for {@link DomainLabelListSnapshot}. */
+class DomainLabelListSnapshotTest {
+
+  private static final ImmutableMap<String, String> ENTRIES =
+      ImmutableMap.of("silver", "10.23", "gold", "1305.47", "palladium", "1552.78");
+
+  @TempDir Path tmpDir;
+
+  @AfterEach
+  void afterEach() {
+    DomainLabelListSnapshot.setSnapshotDirectoryForTest(Optional.empty());
+  }
+
+  @Test
+  void testWriteAndOpen_findsAllLabels() throws Exception {
+    Path file = tmpDir.resolve("list.snapshot");
+    DomainLabelListSnapshot.write(file, ENTRIES);
+    DomainLabelListSnapshot snapshot = DomainLabelListSnapshot.open(file);
+    assertThat(snapshot.size()).isEqualTo(3);
+    assertThat(snapshot.get("silver")).hasValue("10.23");
+    assertThat(snapshot.get("gold")).hasValue("1305.47");
+    assertThat(snapshot.get("palladium")).hasValue("1552.78");
+  }
+
+  @Test
+  void testGet_absentLabels() throws Exception {
+    Path file = tmpDir.resolve("list.snapshot");
+    DomainLabelListSnapshot.write(file, ENTRIES);
+    DomainLabelListSnapshot snapshot = DomainLabelListSnapshot.open(file);
+    assertThat(snapshot.get("zirconium")).isEmpty();
+    assertThat(snapshot.get("silve")).isEmpty();
+    assertThat(snapshot.get("silvers")).isEmpty();
+    assertThat(snapshot.get("")).isEmpty();
+  }
+
+  @Test
+  void testGet_emptyList() throws Exception {
+    Path file = tmpDir.resolve("list.snapshot");
+    DomainLabelListSnapshot.write(file, ImmutableMap.of());
+    DomainLabelListSnapshot snapshot = DomainLabelListSnapshot.open(file);
+    assertThat(snapshot.size()).isEqualTo(0);
+    assertThat(snapshot.get("silver")).isEmpty();
+  }
+
+  @Test
+  void testGet_unicodeLabels() throws Exception {
+    Path file = tmpDir.resolve("list.snapshot");
+    DomainLabelListSnapshot.write(
+        file,
+        ImmutableMap.of("ñandú", "FULLY_BLOCKED", "xn--and-6ma2c", "RESERVED_FOR_SPECIFIC_USE"));
+    DomainLabelListSnapshot snapshot = DomainLabelListSnapshot.open(file);
+    assertThat(snapshot.get("ñandú")).hasValue("FULLY_BLOCKED");
+    assertThat(snapshot.get("xn--and-6ma2c")).hasValue("RESERVED_FOR_SPECIFIC_USE");
+    assertThat(snapshot.get("nandu")).isEmpty();
+  }
+
+  @Test
+  void testGet_largeList() throws Exception {
+    ImmutableMap<String, String> entries =
+        IntStream.range(0, 100_000)
+            .boxed()
+            .collect(toImmutableMap(i -> "label" + i, String::valueOf));
+    Path file = tmpDir.resolve("list.snapshot");
+    DomainLabelListSnapshot.write(file, entries);
+    DomainLabelListSnapshot snapshot = DomainLabelListSnapshot.open(file);
+    assertThat(snapshot.size()).isEqualTo(100_000);
+    entries.forEach((label, value) -> assertThat(snapshot.get(label)).hasValue(value));
+    for (int i = 100_000; i < 110_000; i++) {
+      assertThat(snapshot.get("label" + i)).isEmpty();
+    }
+  }
+
+  @Test
+  void testGet_disabled() {
+    AtomicInteger loads = new AtomicInteger();
+    assertThat(
+            DomainLabelListSnapshot.get(
+                "premium",
+                1L,
+                () -> {
+                  loads.incrementAndGet();
+                  return ENTRIES;
+                }))
+        .isEmpty();
+    assertThat(loads.get()).isEqualTo(0);
+  }
+
+  @Test
+  void testGet_writesEachRevisionOnce() {
+    DomainLabelListSnapshot.setSnapshotDirectoryForTest(Optional.of(tmpDir));
+    AtomicInteger loads = new AtomicInteger();
+    DomainLabelListSnapshot snapshot =
+        DomainLabelListSnapshot.get(
+                "premium",
+                1L,
+                () -> {
+                  loads.incrementAndGet();
+                  return ENTRIES;
+                })
+            .get();
+    assertThat(snapshot.get("gold")).hasValue("1305.47");
+    assertThat(Files.exists(tmpDir.resolve("premium-1.snapshot"))).isTrue();
+
+    // A new cache (e.g. after a restart) maps the existing file rather than reloading the entries.
+    DomainLabelListSnapshot.setSnapshotDirectoryForTest(Optional.of(tmpDir));
+    assertThat(
+            DomainLabelListSnapshot.get(
+                    "premium",
+                    1L,
+                    () -> {
+                      loads.incrementAndGet();
+                      return ENTRIES;
+                    })
+                .get()
+                .get("gold"))
+        .hasValue("1305.47");
+    assertThat(loads.get()).isEqualTo(1);
+  }
+
+  @Test
+  void testGet_rewritesCorruptFile() throws Exception {
+    DomainLabelListSnapshot.setSnapshotDirectoryForTest(Optional.of(tmpDir));
+    Files.write(tmpDir.resolve("reserved-7.snapshot"), "garbage".getBytes(UTF_8));
+    DomainLabelListSnapshot snapshot =
+        DomainLabelListSnapshot.get("reserved", 7L, () -> ENTRIES).get();
+    assertThat(snapshot.get("silver")).hasValue("10.23");
+  }
+}
@@ -27,12 +27,15 @@ import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.flogger.FluentLogger;
+import google.registry.model.tld.label.PremiumListDao.RevisionIdAndLabel;
 import google.registry.persistence.transaction.JpaTestExtensions;
 import google.registry.persistence.transaction.JpaTestExtensions.JpaIntegrationWithCoverageExtension;
 import google.registry.testing.FakeClock;
 import google.registry.testing.TestCacheExtension;
 import jakarta.persistence.OptimisticLockException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
@@ -43,6 +46,7 @@ import org.joda.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 
 /** Unit tests for {@link PremiumListDao}. */
 public class PremiumListDaoTest {
@@ -233,6 +237,36 @@ public class PremiumListDaoTest {
     assertThat(PremiumListDao.getPremiumPrice("premlist", "zirconium")).isEmpty();
   }
 
+  @Test
+  void getPremiumPrice_fromSnapshot(@TempDir Path tmpDir) {
+    DomainLabelListSnapshot.setSnapshotDirectoryForTest(Optional.of(tmpDir));
+    try {
+      PremiumList premiumList =
+          PremiumListDao.save(
+              new PremiumList.Builder()
+                  .setName("premlist")
+                  .setCurrency(USD)
+                  .setLabelsToPrices(TEST_PRICES)
+                  .setCreationTimestamp(fakeClock.nowUtc())
+                  .build());
+      persistResource(newTld("foobar", "FOOBAR").asBuilder().setPremiumList(premiumList).build());
+      assertThat(PremiumListDao.getPremiumPrice("premlist", "silver"))
+          .hasValue(Money.of(USD, 10.23));
+      assertThat(PremiumListDao.getPremiumPrice("premlist", "gold"))
+          .hasValue(Money.of(USD, 1305.47));
+      assertThat(PremiumListDao.getPremiumPrice("premlist", "zirconium")).isEmpty();
+      long revisionId = premiumList.getRevisionId();
+      assertThat(Files.exists(tmpDir.resolve("premium-" + revisionId + ".snapshot"))).isTrue();
+      // The prices came from the snapshot, not from the per-entry cache.
+      assertThat(
+              PremiumListDao.premiumEntryCache.getIfPresent(
+                  RevisionIdAndLabel.create(revisionId, "silver")))
+          .isNull();
+    } finally {
+      DomainLabelListSnapshot.setSnapshotDirectoryForTest(Optional.empty());
+    }
+  }
+
   @Test
   void testGetPremiumPrice_worksForJPY() {
     PremiumList premiumList =
@@ -37,10 +37,14 @@ import google.registry.model.tld.Tld;
 import google.registry.persistence.transaction.JpaTestExtensions;
 import google.registry.persistence.transaction.JpaTestExtensions.JpaIntegrationTestExtension;
 import google.registry.testing.FakeClock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
 import org.joda.time.DateTime;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 
 /** Unit tests for {@link ReservedList}. */
 class ReservedListTest {
@@ -224,6 +228,28 @@ class ReservedListTest {
         .hasNoOtherValues();
   }
 
+  @Test
+  void testGetReservationTypes_fromSnapshot(@TempDir Path tmpDir) {
+    DomainLabelListSnapshot.setSnapshotDirectoryForTest(Optional.of(tmpDir));
+    try {
+      ReservedList rl1 =
+          persistReservedList("reserved1", "lol,NAME_COLLISION", "roflcopter,ALLOWED_IN_SUNRISE");
+      ReservedList rl2 = persistReservedList("reserved2", "lol,FULLY_BLOCKED");
+      createTld("tld");
+      persistResource(Tld.get("tld").asBuilder().setReservedLists(rl1, rl2).build());
+      assertThat(getReservationTypes("lol", "tld"))
+          .containsExactly(FULLY_BLOCKED, NAME_COLLISION);
+      assertThat(getReservationTypes("roflcopter", "tld")).containsExactly(ALLOWED_IN_SUNRISE);
+      assertThat(getReservationTypes("snowcrash", "tld")).isEmpty();
+      assertThat(Files.exists(tmpDir.resolve("reserved-" + rl1.getRevisionId() + ".snapshot")))
+          .isTrue();
+      assertThat(Files.exists(tmpDir.resolve("reserved-" + rl2.getRevisionId() + ".snapshot")))
+          .isTrue();
+    } finally {
+      DomainLabelListSnapshot.setSnapshotDirectoryForTest(Optional.empty());
+    }
+  }
+
   @Test
   void testSave() {
     ReservedList rl = persistReservedList("tld-reserved", "lol,FULLY_BLOCKED # yup");
@@ -0,0 +1,169 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.persistence;
+
+import static com.google.common.truth.Truth.assertThat;
+import static google.registry.persistence.PersistenceModule.TransactionIsolationLevel.TRANSACTION_READ_COMMITTED;
+import static google.registry.persistence.PersistenceModule.TransactionIsolationLevel.TRANSACTION_REPEATABLE_READ;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.HashMap;
+import java.util.Map;
+import org.hibernate.cfg.Environment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/** Unit tests for {@link IsolationRoutingConnectionProvider}. */
+@Testcontainers
+class IsolationRoutingConnectionProviderTest {
+
+  @Container
+  private final PostgreSQLContainer database =
+      new PostgreSQLContainer(NomulusPostgreSql.getDockerImageName());
+
+  private final IsolationRoutingConnectionProvider provider =
+      new IsolationRoutingConnectionProvider();
+
+  @BeforeEach
+  void beforeEach() {
+    provider.configure(getProperties());
+  }
+
+  private Map<String, Object> getProperties() {
+    Map<String, Object> properties =
+        new HashMap<>(PersistenceModule.provideDefaultDatabaseConfigs());
+    properties.put(Environment.URL, database.getJdbcUrl());
+    properties.put(Environment.USER, database.getUsername());
+    properties.put(Environment.PASS, database.getPassword());
+    return properties;
+  }
+
+  @AfterEach
+  void afterEach() {
+    IsolationRoutingConnectionProvider.setRequestedIsolationLevel(null);
+    provider.stop();
+  }
+
+  @Test
+  void testGetConnection_defaultIsolationLevel() throws Exception {
+    Connection connection = provider.getConnection();
+    assertThat(connection.getTransactionIsolation())
+        .isEqualTo(Connection.TRANSACTION_SERIALIZABLE);
+    provider.closeConnection(connection);
+  }
+
+  @Test
+  void testGetConnection_requestedIsolationLevel() throws Exception {
+    try {
+      IsolationRoutingConnectionProvider.setRequestedIsolationLevel(TRANSACTION_READ_COMMITTED);
+      Connection connection = provider.getConnection();
+      assertThat(connection.getTransactionIsolation())
+          .isEqualTo(Connection.TRANSACTION_READ_COMMITTED);
+      provider.closeConnection(connection);
+
+      IsolationRoutingConnectionProvider.setRequestedIsolationLevel(null);
+      connection = provider.getConnection();
+      assertThat(connection.getTransactionIsolation())
+          .isEqualTo(Connection.TRANSACTION_SERIALIZABLE);
+      provider.closeConnection(connection);
+    } finally {
+      IsolationRoutingConnectionProvider.setRequestedIsolationLevel(null);
+    }
+  }
+
+  @Test
+  void testGetConnection_poolSizesTakenOutOfMaximum() throws Exception {
+    IsolationRoutingConnectionProvider limitedProvider =
+        createLimitedProvider("TRANSACTION_READ_COMMITTED=1");
+    try {
+      IsolationRoutingConnectionProvider.setRequestedIsolationLevel(TRANSACTION_READ_COMMITTED);
+      Connection connection = limitedProvider.getConnection();
+      assertThrows(SQLTransientConnectionException.class, limitedProvider::getConnection);
+      limitedProvider.closeConnection(connection);
+
+      // The default pool gets the remaining 2 of the 3 connections.
+      IsolationRoutingConnectionProvider.setRequestedIsolationLevel(null);
+      Connection first = limitedProvider.getConnection();
+      Connection second = limitedProvider.getConnection();
+      assertThrows(SQLTransientConnectionException.class, limitedProvider::getConnection);
+      limitedProvider.closeConnection(first);
+      limitedProvider.closeConnection(second);
+    } finally {
+      IsolationRoutingConnectionProvider.setRequestedIsolationLevel(null);
+      limitedProvider.stop();
+    }
+  }
+
+  @Test
+  void testGetConnection_isolationLevelWithoutPool_usesDefaultPool() throws Exception {
+    IsolationRoutingConnectionProvider limitedProvider =
+        createLimitedProvider("TRANSACTION_READ_COMMITTED=1");
+    try {
+      IsolationRoutingConnectionProvider.setRequestedIsolationLevel(TRANSACTION_REPEATABLE_READ);
+      Connection connection = limitedProvider.getConnection();
+      assertThat(connection.getTransactionIsolation())
+          .isEqualTo(Connection.TRANSACTION_REPEATABLE_READ);
+      limitedProvider.closeConnection(connection);
+
+      // The connection is back in the isolation level of the default pool.
+      IsolationRoutingConnectionProvider.setRequestedIsolationLevel(null);
+      Connection first = limitedProvider.getConnection();
+      Connection second = limitedProvider.getConnection();
+      assertThat(first.getTransactionIsolation()).isEqualTo(Connection.TRANSACTION_SERIALIZABLE);
+      assertThat(second.getTransactionIsolation()).isEqualTo(Connection.TRANSACTION_SERIALIZABLE);
+      limitedProvider.closeConnection(first);
+      limitedProvider.closeConnection(second);
+    } finally {
+      IsolationRoutingConnectionProvider.setRequestedIsolationLevel(null);
+      limitedProvider.stop();
+    }
+  }
+
+  @Test
+  void testConfigure_poolSizesExceedMaximum() {
+    Map<String, Object> properties = getProperties();
+    properties.put(PersistenceModule.HIKARI_MAXIMUM_POOL_SIZE, "3");
+    properties.put(
+        PersistenceModule.ISOLATION_LEVEL_POOL_MAXIMUM_SIZES,
+        "TRANSACTION_READ_COMMITTED=2,TRANSACTION_REPEATABLE_READ=1");
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new IsolationRoutingConnectionProvider().configure(properties));
+  }
+
+  /** Creates a provider with at most 3 connections, out of which the given pools are carved. */
+  private IsolationRoutingConnectionProvider createLimitedProvider(String poolMaximumSizes) {
+    Map<String, Object> properties = getProperties();
+    properties.put(PersistenceModule.HIKARI_MAXIMUM_POOL_SIZE, "3");
+    properties.put(PersistenceModule.ISOLATION_LEVEL_POOL_MAXIMUM_SIZES, poolMaximumSizes);
+    properties.put(PersistenceModule.HIKARI_CONNECTION_TIMEOUT, "250");
+    IsolationRoutingConnectionProvider limitedProvider = new IsolationRoutingConnectionProvider();
+    limitedProvider.configure(properties);
+    return limitedProvider;
+  }
+
+  @Test
+  void testGetConnection_notConfigured() {
+    assertThrows(
+        IllegalStateException.class,
+        () -> new IsolationRoutingConnectionProvider().getConnection());
+  }
+}
@@ -230,7 +230,7 @@ public abstract class JpaTransactionManagerExtension
                 TransactionManagerFactory.tm()
                     .getEntityManager()
                     .createNativeQuery(
-                        "alter sequence if exists project_wide_unique_id_seq start 1 minvalue 1"
+                        "alter sequence if exists project_wide_unique_id_block_seq start 1 minvalue 1"
                             + " restart with 1")
                     .executeUpdate());
     if (withCannedData) {
@@ -286,6 +286,22 @@ class JpaTransactionManagerImplTest {
     assertThat(loadByKey(theEntityKey)).isEqualTo(theEntity);
   }
 
+  @Test
+  void insert_interleavedEntityTypes_batchedByType() {
+    long statementsBefore = SqlStatementCounter.getCount();
+    tm().transact(
+            () -> {
+              tm().insert(moreEntities.get(0));
+              tm().insert(new TestCompoundIdEntity("entity1", 1, "foo"));
+              tm().insert(moreEntities.get(1));
+              tm().insert(new TestCompoundIdEntity("entity2", 2, "bar"));
+            });
+    // The inserts are sorted by entity type at flush, giving one JDBC batch per type.
+    assertThat(SqlStatementCounter.getCount() - statementsBefore).isEqualTo(2);
+    assertThat(existsInDb(moreEntities.get(0))).isTrue();
+    assertThat(existsInDb(moreEntities.get(1))).isTrue();
+  }
+
   @Test
   void transact_retriesOptimisticLockExceptions() {
     JpaTransactionManager spyJpaTm = spy(tm());
@@ -0,0 +1,143 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.persistence.transaction;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+import static google.registry.testing.DatabaseHelper.persistResources;
+
+import com.google.common.collect.ImmutableList;
+import google.registry.model.ImmutableObject;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.OptimisticLockException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+/** Unit tests for {@link KeysetStream}. */
+class KeysetStreamTest {
+
+  @RegisterExtension
+  final JpaTestExtensions.JpaUnitTestExtension jpa =
+      new JpaTestExtensions.Builder().withEntityClass(TestEntity.class).buildUnitTestExtension();
+
+  @BeforeEach
+  void beforeEach() {
+    // Insert in reverse order, so that the stream has to sort by key.
+    persistResources(
+        ImmutableList.of(
+            new TestEntity("C4", "b"),
+            new TestEntity("C3", "a"),
+            new TestEntity("C2", "b"),
+            new TestEntity("C1", "a")));
+  }
+
+  @Test
+  void testStream_allEntitiesInKeyOrder() {
+    KeysetStream<TestEntity> entities =
+        KeysetStream.builder(TestEntity.class).setChunkSize(3).build();
+    assertThat(tm().transact(() -> getIds(entities)))
+        .containsExactly("C1", "C2", "C3", "C4")
+        .inOrder();
+  }
+
+  @Test
+  void testStream_withFilter() {
+    KeysetStream<TestEntity> entities =
+        KeysetStream.builder(TestEntity.class)
+            .where("data = :data")
+            .setParameter("data", "b")
+            .build();
+    assertThat(tm().transact(() -> getIds(entities))).containsExactly("C2", "C4").inOrder();
+  }
+
+  @Test
+  void testStream_clearsPersistenceContextBetweenChunks() {
+    KeysetStream<TestEntity> entities =
+        KeysetStream.builder(TestEntity.class).setChunkSize(2).build();
+    tm().transact(
+            () -> {
+              Iterator<TestEntity> iterator = entities.stream().iterator();
+              TestEntity first = iterator.next();
+              TestEntity second = iterator.next();
+              assertThat(tm().getEntityManager().contains(first)).isTrue();
+              TestEntity third = iterator.next();
+              assertThat(tm().getEntityManager().contains(first)).isFalse();
+              assertThat(tm().getEntityManager().contains(second)).isFalse();
+              assertThat(tm().getEntityManager().contains(third)).isTrue();
+            });
+  }
+
+  @Test
+  void testStream_resumesAfterLastProcessedEntity() {
+    KeysetStream<TestEntity> entities = KeysetStream.builder(TestEntity.class).build();
+    tm().transact(
+            () -> {
+              Iterator<TestEntity> iterator = entities.stream().iterator();
+              iterator.next();
+              // The consumer never asks for more after the second entity, so it may not be done
+              // with it.
+              iterator.next();
+            });
+    assertThat(tm().transact(() -> getIds(entities)))
+        .containsExactly("C2", "C3", "C4")
+        .inOrder();
+    assertThat(tm().transact(() -> getIds(entities))).isEmpty();
+  }
+
+  @Test
+  void testStream_retriedTransactionResumes() {
+    KeysetStream<TestEntity> entities =
+        KeysetStream.builder(TestEntity.class).setChunkSize(2).build();
+    AtomicBoolean failed = new AtomicBoolean();
+    List<String> processed = new ArrayList<>();
+    tm().transact(
+            () ->
+                entities
+                    .stream()
+                    .forEach(
+                        entity -> {
+                          if (entity.id.equals("C3") && !failed.getAndSet(true)) {
+                            throw new OptimisticLockException();
+                          }
+                          processed.add(entity.id);
+                        }));
+    assertThat(processed).containsExactly("C1", "C2", "C3", "C4").inOrder();
+  }
+
+  private static ImmutableList<String> getIds(KeysetStream<TestEntity> entities) {
+    return entities.stream().map(entity -> entity.id).collect(toImmutableList());
+  }
+
+  @Entity(name = "TestEntity")
+  static class TestEntity extends ImmutableObject {
+    @Id String id;
+
+    String data;
+
+    TestEntity() {}
+
+    private TestEntity(String id, String data) {
+      this.id = id;
+      this.data = data;
+    }
+  }
+}
@@ -0,0 +1,66 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.persistence.transaction;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import google.registry.persistence.transaction.JpaTestExtensions.JpaIntegrationTestExtension;
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+/** Unit tests for {@link ReplicationLagMonitor}. */
+public class ReplicationLagMonitorTest {
+
+  @RegisterExtension
+  final JpaIntegrationTestExtension jpa =
+      new JpaTestExtensions.Builder().buildIntegrationTestExtension();
+
+  @AfterEach
+  void afterEach() {
+    ReplicationLagMonitor.resetReplicationLagForTest();
+  }
+
+  @Test
+  void testIsReplicaFresh_notAReplica() {
+    // The test database is not in recovery, so it never lags.
+    ReplicationLagMonitor.resetReplicationLagForTest();
+    assertThat(ReplicationLagMonitor.isReplicaFresh(Duration.ZERO)).isTrue();
+  }
+
+  @Test
+  void testIsReplicaFresh_insideTransaction() {
+    ReplicationLagMonitor.resetReplicationLagForTest();
+    assertThat(
+            TransactionManagerFactory.tm()
+                .transact(() -> ReplicationLagMonitor.isReplicaFresh(Duration.ZERO)))
+        .isTrue();
+  }
+
+  @Test
+  void testIsReplicaFresh_lagging() {
+    ReplicationLagMonitor.setReplicationLagForTest(Optional.of(Duration.ofSeconds(2)));
+    assertThat(ReplicationLagMonitor.isReplicaFresh(Duration.ofSeconds(1))).isFalse();
+    assertThat(ReplicationLagMonitor.isReplicaFresh(Duration.ofSeconds(2))).isTrue();
+  }
+
+  @Test
+  void testIsReplicaFresh_unknownLag() {
+    ReplicationLagMonitor.setReplicationLagForTest(Optional.empty());
+    assertThat(ReplicationLagMonitor.isReplicaFresh(Duration.ofDays(1))).isFalse();
+  }
+}
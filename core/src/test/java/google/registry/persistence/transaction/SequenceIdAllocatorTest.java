@@ -0,0 +1,83 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.persistence.transaction;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.monitoring.metrics.contrib.LongMetricSubject.assertThat;
+import static google.registry.persistence.transaction.TransactionManagerFactory.tm;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import google.registry.persistence.transaction.JpaTestExtensions.JpaIntegrationTestExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+/** Unit tests for {@link SequenceIdAllocator}. */
+public class SequenceIdAllocatorTest {
+
+  @RegisterExtension
+  final JpaIntegrationTestExtension jpa =
+      new JpaTestExtensions.Builder().buildIntegrationTestExtension();
+
+  private final SequenceIdAllocator allocator = new SequenceIdAllocator();
+
+  @BeforeEach
+  void beforeEach() {
+    SequenceIdAllocator.blockFetches.reset();
+  }
+
+  @Test
+  void testAllocateId_idsWithinBlockAreContiguous() {
+    assertThat(allocateId(allocator)).isEqualTo(1);
+    assertThat(allocateId(allocator)).isEqualTo(2);
+    assertThat(allocateId(allocator)).isEqualTo(3);
+    assertThat(SequenceIdAllocator.blockFetches).hasValueForLabels(1).and().hasNoOtherValues();
+  }
+
+  @Test
+  void testAllocateId_fetchesNextBlockWhenExhausted() {
+    for (int i = 1; i <= SequenceIdAllocator.BLOCK_SIZE; i++) {
+      assertThat(allocateId(allocator)).isEqualTo(i);
+    }
+    assertThat(allocateId(allocator)).isEqualTo(SequenceIdAllocator.BLOCK_SIZE + 1);
+    assertThat(SequenceIdAllocator.blockFetches).hasValueForLabels(2).and().hasNoOtherValues();
+  }
+
+  @Test
+  void testAllocateId_allocatorsDoNotShareBlocks() {
+    SequenceIdAllocator otherAllocator = new SequenceIdAllocator();
+    assertThat(allocateId(allocator)).isEqualTo(1);
+    assertThat(allocateId(otherAllocator)).isEqualTo(101);
+    assertThat(allocateId(allocator)).isEqualTo(2);
+    assertThat(allocateId(otherAllocator)).isEqualTo(102);
+  }
+
+  @Test
+  void testAllocateId_rolledBackIdsAreNotReused() {
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            tm().transact(
+                    () -> {
+                      allocator.allocateId(tm().getEntityManager());
+                      throw new IllegalStateException("rollback");
+                    }));
+    assertThat(allocateId(allocator)).isEqualTo(2);
+  }
+
+  private static long allocateId(SequenceIdAllocator allocator) {
+    return tm().transact(() -> allocator.allocateId(tm().getEntityManager()));
+  }
+}
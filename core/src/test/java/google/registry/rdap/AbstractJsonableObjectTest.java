@@ -22,8 +22,10 @@ import com.google.common.collect.ImmutableList;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
 import google.registry.rdap.AbstractJsonableObject.JsonableException;
 import google.registry.rdap.AbstractJsonableObject.RestrictJsonNames;
+import java.io.StringWriter;
 import java.util.Optional;
 import org.joda.time.DateTime;
 import org.junit.jupiter.api.Test;
@@ -369,4 +371,78 @@ final class AbstractJsonableObjectTest {
     assertThat(jsonable.toJson())
         .isEqualTo(createJson("{'key':'value','middleKey':'middleValue','innerKey':'innerValue'}"));
   }
+
+  static class GeneratedBase extends AbstractJsonableObject {
+    @JsonableElement static final String BASE_KEY = "baseValue";
+
+    @JsonableElement("links[]")
+    final Optional<Jsonable> link = Optional.empty();
+
+    @JsonableElement
+    String method() {
+      return "base";
+    }
+  }
+
+  static final class GeneratedObject extends GeneratedBase {
+    @JsonableElement String key = "value";
+
+    @JsonableElement("links[]")
+    final AbstractJsonableObject selfLink =
+        new AbstractJsonableObject() {
+          @JsonableElement final String href = "https://example.tld/self";
+        };
+
+    @JsonableElement("links[]")
+    final AbstractJsonableObject otherLink =
+        new AbstractJsonableObject() {
+          @JsonableElement final String href = "https://example.tld/other";
+          @JsonableElement final String value = "https://example.tld/";
+        };
+
+    @Override
+    String method() {
+      return "overridden";
+    }
+  }
+
+  @Test
+  void testGeneratedAdder_isUsedForNamedClasses() throws Exception {
+    assertThat(
+            Class.forName(
+                "google.registry.rdap.JsonableMembers_AbstractJsonableObjectTest_GeneratedObject"))
+        .isNotNull();
+    assertThat(new GeneratedObject().toJson())
+        .isEqualTo(
+            createJson(
+                "{",
+                "  'BASE_KEY':'baseValue',",
+                "  'key':'value',",
+                "  'links':[",
+                "    {'href':'https://example.tld/other','value':'https://example.tld/'},",
+                "    {'href':'https://example.tld/self'}",
+                "  ],",
+                "  'method':'overridden'",
+                "}"));
+  }
+
+  @Test
+  void testWriteJson_addsLinkValues() throws Exception {
+    StringWriter stringWriter = new StringWriter();
+    try (JsonWriter jsonWriter = new JsonWriter(stringWriter)) {
+      new GeneratedObject().writeJson(jsonWriter, "https://example.tld/request", false);
+    }
+    assertThat(createJson(stringWriter.toString()))
+        .isEqualTo(
+            createJson(
+                "{",
+                "  'BASE_KEY':'baseValue',",
+                "  'key':'value',",
+                "  'links':[",
+                "    {'href':'https://example.tld/other','value':'https://example.tld/'},",
+                "    {'href':'https://example.tld/self','value':'https://example.tld/request'}",
+                "  ],",
+                "  'method':'overridden'",
+                "}"));
+  }
 }
@@ -88,6 +88,7 @@ abstract class RdapActionBaseTestCase<A extends RdapActionBase> {
     action = TypeUtils.instantiate(rdapActionClass);
     action.includeDeletedParam = Optional.empty();
     action.formatOutputParam = Optional.empty();
+    action.ifNoneMatch = Optional.empty();
     action.response = response;
     action.rdapJsonFormatter = RdapTestHelper.getTestRdapJsonFormatter(clock);
     action.rdapMetrics = rdapMetrics;
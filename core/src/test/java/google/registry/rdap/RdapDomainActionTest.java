@@ -15,7 +15,9 @@
 package google.registry.rdap;
 
 import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.net.HttpHeaders.ETAG;
 import static google.registry.bsa.persistence.BsaTestingUtils.persistBsaLabel;
+import static google.registry.model.EppResourceUtils.loadByForeignKey;
 import static google.registry.testing.DatabaseHelper.createTld;
 import static google.registry.testing.DatabaseHelper.persistActiveDomain;
 import static google.registry.testing.DatabaseHelper.persistDomainWithDependentResources;
@@ -28,6 +30,11 @@ import static google.registry.testing.FullFieldsTestEntityHelper.makeRegistrar;
 import static google.registry.testing.FullFieldsTestEntityHelper.makeRegistrarPocs;
 import static google.registry.testing.GsonSubject.assertAboutJson;
 import static google.registry.util.DateTimeUtils.START_OF_TIME;
+import static jakarta.servlet.http.HttpServletResponse.SC_NOT_FOUND;
+import static jakarta.servlet.http.HttpServletResponse.SC_NOT_MODIFIED;
+import static jakarta.servlet.http.HttpServletResponse.SC_OK;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 
 import com.google.common.collect.ImmutableList;
@@ -44,10 +51,13 @@ import google.registry.model.registrar.Registrar;
 import google.registry.model.reporting.HistoryEntry;
 import google.registry.model.tld.Tld;
 import google.registry.rdap.RdapMetrics.EndpointType;
+import google.registry.rdap.RdapMetrics.ResponseCacheResult;
 import google.registry.rdap.RdapMetrics.SearchType;
 import google.registry.rdap.RdapMetrics.WildcardType;
 import google.registry.rdap.RdapSearchResults.IncompletenessWarningType;
 import google.registry.request.Action;
+import google.registry.testing.FakeResponse;
+import java.time.Duration;
 import java.util.Optional;
 import org.joda.time.DateTime;
 import org.junit.jupiter.api.BeforeEach;
@@ -438,6 +448,90 @@ class RdapDomainActionTest extends RdapActionBaseTestCase<RdapDomainAction> {
                 .build());
   }
 
+  @Test
+  void testETag_notModified() {
+    generateActualJson("cat.lol");
+    String eTag = (String) response.getHeaders().get(ETAG);
+    assertThat(eTag).matches("W/\"[0-9a-f]{32}\"");
+
+    action.response = response = new FakeResponse();
+    action.ifNoneMatch = Optional.of("\"someOtherTag\", " + eTag);
+    generateHeadPayload("cat.lol");
+    assertThat(response.getStatus()).isEqualTo(SC_NOT_MODIFIED);
+    assertThat(response.getHeaders()).containsEntry(ETAG, eTag);
+    assertThat(response.getPayload()).isEmpty();
+  }
+
+  @Test
+  void testETag_notModified_afterClockAdvances() {
+    generateActualJson("cat.lol");
+    String eTag = (String) response.getHeaders().get(ETAG);
+
+    // A later request renders a different "last update of RDAP database" event.
+    clock.setTo(clock.nowUtc().plusMinutes(5));
+    action.rdapJsonFormatter = RdapTestHelper.getTestRdapJsonFormatter(clock);
+    action.rdapJsonFormatter.rdapAuthorization = action.rdapAuthorization;
+    action.response = response = new FakeResponse();
+    action.ifNoneMatch = Optional.of(eTag);
+    generateHeadPayload("cat.lol");
+    assertThat(response.getStatus()).isEqualTo(SC_NOT_MODIFIED);
+    assertThat(response.getHeaders()).containsEntry(ETAG, eTag);
+    assertThat(response.getPayload()).isEmpty();
+  }
+
+  @Test
+  void testETag_changesWhenDomainIsUpdated() {
+    generateActualJson("cat.lol");
+    String eTag = (String) response.getHeaders().get(ETAG);
+
+    clock.advanceOneMilli();
+    persistResource(
+        loadByForeignKey(Domain.class, "cat.lol", clock.nowUtc())
+            .get()
+            .asBuilder()
+            .addStatusValue(StatusValue.CLIENT_HOLD)
+            .build());
+    action.response = response = new FakeResponse();
+    action.ifNoneMatch = Optional.of(eTag);
+    generateActualJson("cat.lol");
+    assertThat(response.getStatus()).isEqualTo(SC_OK);
+    assertThat(response.getHeaders().get(ETAG)).isNotEqualTo(eTag);
+  }
+
+  @Test
+  void testResponseCache_hit() {
+    RdapResponseCache.setCacheForTest(Optional.of(Duration.ofDays(1)));
+    try {
+      JsonObject expected = generateActualJson("cat.lol");
+      String eTag = (String) response.getHeaders().get(ETAG);
+      verify(rdapMetrics)
+          .recordResponseCacheLookup(
+              eq(EndpointType.DOMAIN), eq(ResponseCacheResult.MISS), eq(false), anyLong());
+
+      // The cached response is returned even though the domain has been deleted since.
+      persistResource(
+          loadByForeignKey(Domain.class, "cat.lol", clock.nowUtc())
+              .get()
+              .asBuilder()
+              .setDeletionTime(clock.nowUtc().minusDays(1))
+              .build());
+      action.response = response = new FakeResponse();
+      assertThat(generateActualJson("cat.lol")).isEqualTo(expected);
+      assertThat(response.getHeaders()).containsEntry(ETAG, eTag);
+      verify(rdapMetrics)
+          .recordResponseCacheLookup(
+              eq(EndpointType.DOMAIN), eq(ResponseCacheResult.HIT), eq(false), anyLong());
+
+      // Other authorizations are cached separately.
+      loginAsAdmin();
+      action.response = response = new FakeResponse();
+      generateActualJson("cat.lol");
+      assertThat(response.getStatus()).isEqualTo(SC_NOT_FOUND);
+    } finally {
+      RdapResponseCache.setCacheForTest(Optional.empty());
+    }
+  }
+
   @Test
   void testBlockedByBsa() {
     persistResource(
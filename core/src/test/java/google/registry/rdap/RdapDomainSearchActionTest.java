@@ -932,7 +932,7 @@ class RdapDomainSearchActionTest extends RdapSearchActionTestCase<RdapDomainSear
   void testDomainMatchDeletedDomainWithWildcard_notFound() {
     persistDomainAsDeleted(domainCatLol, clock.nowUtc().minusDays(1));
     runNotFoundTest(RequestType.NAME, "cat.lo*", "No domains found");
-    verifyErrorMetrics(SearchType.BY_DOMAIN_NAME, Optional.of(1L), 404);
+    verifyErrorMetrics(SearchType.BY_DOMAIN_NAME, Optional.of(0L), 404);
   }
 
   @Test
@@ -940,7 +940,7 @@ class RdapDomainSearchActionTest extends RdapSearchActionTestCase<RdapDomainSear
     persistDomainAsDeleted(domainCatLol, clock.nowUtc().minusDays(1));
     persistDomainAsDeleted(domainCatLol2, clock.nowUtc().minusDays(1));
     runNotFoundTest(RequestType.NAME, "cat*.lol", "No domains found");
-    verifyErrorMetrics(SearchType.BY_DOMAIN_NAME, Optional.of(2L), 404);
+    verifyErrorMetrics(SearchType.BY_DOMAIN_NAME, Optional.of(0L), 404);
   }
 
   // TODO(b/27376E-95): reenable or delete this test
@@ -960,7 +960,7 @@ class RdapDomainSearchActionTest extends RdapSearchActionTestCase<RdapDomainSear
     JsonObject obj = generateActualJson(RequestType.NAME, "domain*.lol");
     assertThat(response.getStatus()).isEqualTo(200);
     checkNumberOfDomainsInResult(obj, 4);
-    verifyMetrics(SearchType.BY_DOMAIN_NAME, Optional.of(16L));
+    verifyMetrics(SearchType.BY_DOMAIN_NAME, Optional.of(4L));
   }
 
   @Test
@@ -971,14 +971,13 @@ class RdapDomainSearchActionTest extends RdapSearchActionTestCase<RdapDomainSear
     JsonObject obj = generateActualJson(RequestType.NAME, "domain*.lol");
     assertThat(response.getStatus()).isEqualTo(200);
     checkNumberOfDomainsInResult(obj, 3);
-    verifyMetrics(SearchType.BY_DOMAIN_NAME, Optional.of(60L));
+    verifyMetrics(SearchType.BY_DOMAIN_NAME, Optional.of(3L));
   }
 
   @Test
-  void testDomainMatch_manyDeletedDomains_partialResultSetDueToFetchingLimit() {
-    // This is not exactly desired behavior, but expected: There are enough domains to fill a full
-    // result set, but there are so many deleted domains that we run out of patience before we work
-    // our way through all of them.
+  void testDomainMatch_manyDeletedDomains_deletedDomainsNotFetched() {
+    // Deleted domains are excluded by the database, so they no longer use up the fetch limit and
+    // the active domains are found no matter how many deleted domains precede them.
     createManyDomainsAndHosts(4, 50, 2);
     rememberWildcardType("domain*.lol");
     assertAboutJson()
@@ -988,13 +987,26 @@ class RdapDomainSearchActionTest extends RdapSearchActionTestCase<RdapDomainSear
                 .addDomain("domain100.lol", "8E-LOL")
                 .addDomain("domain150.lol", "5C-LOL")
                 .addDomain("domain200.lol", "2A-LOL")
-                .addDomain("domainunused.lol", "unused-LOL")
-                .load("rdap_incomplete_domain_result_set.json"));
+                .addDomain("domain50.lol", "C0-LOL")
+                .load("rdap_nontruncated_domains.json"));
     assertThat(response.getStatus()).isEqualTo(200);
-    verifyMetrics(
-        SearchType.BY_DOMAIN_NAME,
-        Optional.of(120L),
-        IncompletenessWarningType.MIGHT_BE_INCOMPLETE);
+    verifyMetrics(SearchType.BY_DOMAIN_NAME, Optional.of(4L));
+  }
+
+  @Test
+  void testDomainMatch_pendingDeleteDomain_found() {
+    persistResource(
+        domainCatLol2.asBuilder().setDeletionTime(clock.nowUtc().plusDays(30)).build());
+    rememberWildcardType("cat*.lol");
+    JsonObject obj = generateActualJson(RequestType.NAME, "cat*.lol");
+    assertThat(response.getStatus()).isEqualTo(200);
+    JsonArray searchResults = obj.getAsJsonArray("domainSearchResults");
+    assertThat(searchResults).hasSize(2);
+    assertThat(searchResults.get(0).getAsJsonObject().get("ldhName").getAsString())
+        .isEqualTo("cat.lol");
+    assertThat(searchResults.get(1).getAsJsonObject().get("ldhName").getAsString())
+        .isEqualTo("cat2.lol");
+    verifyMetrics(SearchType.BY_DOMAIN_NAME, Optional.of(2L));
   }
 
   @Test
@@ -1075,7 +1087,7 @@ class RdapDomainSearchActionTest extends RdapSearchActionTestCase<RdapDomainSear
                 .setNextQuery("name=domain*.lol&cursor=ZG9tYWluMzAubG9s")
                 .load("rdap_domains_four_truncated.json"));
     assertThat(response.getStatus()).isEqualTo(200);
-    verifyMetrics(SearchType.BY_DOMAIN_NAME, Optional.of(27L), IncompletenessWarningType.TRUNCATED);
+    verifyMetrics(SearchType.BY_DOMAIN_NAME, Optional.of(5L), IncompletenessWarningType.TRUNCATED);
   }
 
   @Test
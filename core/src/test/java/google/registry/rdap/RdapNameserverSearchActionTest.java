@@ -34,6 +34,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import google.registry.model.domain.Domain;
 import google.registry.model.host.Host;
+import google.registry.model.host.HostIpIndex;
 import google.registry.model.registrar.Registrar;
 import google.registry.rdap.RdapMetrics.EndpointType;
 import google.registry.rdap.RdapMetrics.SearchType;
@@ -42,7 +43,9 @@ import google.registry.rdap.RdapSearchResults.IncompletenessWarningType;
 import google.registry.testing.FakeResponse;
 import google.registry.testing.FullFieldsTestEntityHelper;
 import java.net.URLDecoder;
+import java.time.Duration;
 import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -95,6 +98,11 @@ class RdapNameserverSearchActionTest extends RdapSearchActionTestCase<RdapNamese
     return parseJsonObject(response.getPayload());
   }
 
+  @AfterEach
+  void afterEach() {
+    HostIpIndex.setIndexForTest(Optional.empty(), clock);
+  }
+
   @BeforeEach
   void beforeEach() {
     // cat.lol and cat2.lol
@@ -754,6 +762,25 @@ class RdapNameserverSearchActionTest extends RdapSearchActionTestCase<RdapNamese
     verifyMetrics(2);
   }
 
+  @Test
+  void testAddressMatchV6Address_foundMultiple_hostIpIndex() {
+    HostIpIndex.setIndexForTest(Optional.of(Duration.ofMinutes(1)), clock);
+    assertAboutJson()
+        .that(generateActualJsonWithIp("bad:f00d:cafe::15:beef"))
+        .isEqualTo(loadJsonFile("rdap_multiple_hosts.json"));
+    assertThat(response.getStatus()).isEqualTo(200);
+    verifyMetrics(2);
+  }
+
+  @Test
+  void testAddressMatchV4Address_notFound_differentRegistrarRequested_hostIpIndex() {
+    HostIpIndex.setIndexForTest(Optional.of(Duration.ofMinutes(1)), clock);
+    action.registrarParam = Optional.of("unicoderegistrar");
+    generateActualJsonWithIp("1.2.3.4");
+    assertThat(response.getStatus()).isEqualTo(404);
+    verifyErrorMetrics();
+  }
+
   @Test
   void testAddressMatchLocalhost_notFound() {
     generateActualJsonWithIp("127.0.0.1");
@@ -807,6 +834,19 @@ class RdapNameserverSearchActionTest extends RdapSearchActionTestCase<RdapNamese
     verifyMetrics(5, IncompletenessWarningType.TRUNCATED);
   }
 
+  @Test
+  void testAddressMatch_truncatedResultSet_hostIpIndex() {
+    createManyHosts(5);
+    HostIpIndex.setIndexForTest(Optional.of(Duration.ofMinutes(1)), clock);
+    assertAboutJson()
+        .that(generateActualJsonWithIp("5.5.5.1"))
+        .isEqualTo(
+            loadJsonFile(
+                "rdap_truncated_hosts.json", "QUERY", "ip=5.5.5.1&cursor=MTQtUk9JRA%3D%3D"));
+    assertThat(response.getStatus()).isEqualTo(200);
+    verifyMetrics(5, IncompletenessWarningType.TRUNCATED);
+  }
+
   @Test
   void testAddressMatchDeleted_notFound_includeDeletedNotSpecified() {
     createDeletedHost();
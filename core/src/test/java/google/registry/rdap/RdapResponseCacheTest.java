@@ -0,0 +1,123 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.rdap;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import google.registry.rdap.RdapResponseCache.CachedResponse;
+import java.time.Duration;
+import java.util.Optional;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link RdapResponseCache}. */
+class RdapResponseCacheTest {
+
+  private static final DateTime UPDATE_TIME = DateTime.parse("2026-01-01T00:00:00Z");
+  private static final DateTime REQUEST_TIME = DateTime.parse("2026-02-01T00:00:00Z");
+
+  private final RdapResponseCache.Key key =
+      new RdapResponseCache.Key(
+          "https://example.tld/rdap/domain/cat.lol",
+          RdapAuthorization.PUBLIC_AUTHORIZATION,
+          false,
+          false);
+
+  @AfterEach
+  void afterEach() {
+    RdapResponseCache.setCacheForTest(Optional.empty());
+  }
+
+  @Test
+  void testGetAndPut() {
+    RdapResponseCache.setCacheForTest(Optional.of(Duration.ofDays(1)));
+    assertThat(RdapResponseCache.isEnabled()).isTrue();
+    assertThat(RdapResponseCache.get(key)).isEmpty();
+    CachedResponse cachedResponse = CachedResponse.create("\"tag\"", "{\"ldhName\":\"cát\"}");
+    assertThat(cachedResponse.payloadSize()).isEqualTo(18);
+    RdapResponseCache.put(key, cachedResponse);
+    assertThat(RdapResponseCache.get(key)).hasValue(cachedResponse);
+    assertThat(
+            RdapResponseCache.get(
+                new RdapResponseCache.Key(
+                    key.requestUrl(), RdapAuthorization.ADMINISTRATOR_AUTHORIZATION, false, false)))
+        .isEmpty();
+  }
+
+  @Test
+  void testDisabled() {
+    RdapResponseCache.setCacheForTest(Optional.empty());
+    assertThat(RdapResponseCache.isEnabled()).isFalse();
+    RdapResponseCache.put(key, CachedResponse.create("\"tag\"", "{}"));
+    assertThat(RdapResponseCache.get(key)).isEmpty();
+  }
+
+  @Test
+  void testCreateEntityTag() {
+    String eTag = RdapResponseCache.createEntityTag("6-LOL", UPDATE_TIME, "{}", REQUEST_TIME);
+    assertThat(eTag).matches("W/\"[0-9a-f]{32}\"");
+    assertThat(RdapResponseCache.createEntityTag("6-LOL", UPDATE_TIME, "{}", REQUEST_TIME))
+        .isEqualTo(eTag);
+    assertThat(RdapResponseCache.createEntityTag("7-LOL", UPDATE_TIME, "{}", REQUEST_TIME))
+        .isNotEqualTo(eTag);
+    assertThat(
+            RdapResponseCache.createEntityTag(
+                "6-LOL", UPDATE_TIME.plusMillis(1), "{}", REQUEST_TIME))
+        .isNotEqualTo(eTag);
+    assertThat(RdapResponseCache.createEntityTag("6-LOL", UPDATE_TIME, "{ }", REQUEST_TIME))
+        .isNotEqualTo(eTag);
+  }
+
+  @Test
+  void testCreateEntityTag_ignoresRequestTime() {
+    DateTime laterRequestTime = REQUEST_TIME.plusMinutes(1);
+    String eTag =
+        RdapResponseCache.createEntityTag(
+            "6-LOL",
+            UPDATE_TIME,
+            String.format("{\"eventDate\":\"%s\"}", REQUEST_TIME),
+            REQUEST_TIME);
+    assertThat(
+            RdapResponseCache.createEntityTag(
+                "6-LOL",
+                UPDATE_TIME,
+                String.format("{\"eventDate\":\"%s\"}", laterRequestTime),
+                laterRequestTime))
+        .isEqualTo(eTag);
+    // Other dates in the payload are still part of the tag.
+    assertThat(
+            RdapResponseCache.createEntityTag(
+                "6-LOL",
+                UPDATE_TIME,
+                String.format("{\"eventDate\":\"%s\"}", laterRequestTime),
+                REQUEST_TIME))
+        .isNotEqualTo(eTag);
+  }
+
+  @Test
+  void testMatchesIfNoneMatch() {
+    assertThat(RdapResponseCache.matchesIfNoneMatch("\"abc\"", "\"abc\"")).isTrue();
+    assertThat(RdapResponseCache.matchesIfNoneMatch("W/\"abc\"", "\"abc\"")).isTrue();
+    assertThat(RdapResponseCache.matchesIfNoneMatch("\"xyz\", \"abc\"", "\"abc\"")).isTrue();
+    assertThat(RdapResponseCache.matchesIfNoneMatch(" * ", "\"abc\"")).isTrue();
+    assertThat(RdapResponseCache.matchesIfNoneMatch("\"xyz\"", "\"abc\"")).isFalse();
+    assertThat(RdapResponseCache.matchesIfNoneMatch("abc", "\"abc\"")).isFalse();
+    assertThat(RdapResponseCache.matchesIfNoneMatch("", "\"abc\"")).isFalse();
+    assertThat(RdapResponseCache.matchesIfNoneMatch("\"abc\"", "W/\"abc\"")).isTrue();
+    assertThat(RdapResponseCache.matchesIfNoneMatch("W/\"abc\"", "W/\"abc\"")).isTrue();
+    assertThat(RdapResponseCache.matchesIfNoneMatch("W/\"xyz\"", "W/\"abc\"")).isFalse();
+  }
+}
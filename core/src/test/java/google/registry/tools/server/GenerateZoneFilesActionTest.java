@@ -57,6 +57,7 @@ class GenerateZoneFilesActionTest {
       new JpaTestExtensions.Builder().buildIntegrationTestExtension();
 
   private final GcsUtils gcsUtils = new GcsUtils(LocalStorageHelper.getOptions());
+  private final GenerateZoneFilesAction action = new GenerateZoneFilesAction();
 
   @Test
   void testGenerate_defaultTtls() throws Exception {
@@ -64,6 +65,13 @@ class GenerateZoneFilesActionTest {
     testGenerate("tld.zone");
   }
 
+  @Test
+  void testGenerate_multipleSegments() throws Exception {
+    createTlds("tld", "com");
+    action.segmentSize = 2;
+    testGenerate("tld.zone");
+  }
+
   @Test
   void testGenerate_customTldTtls() throws Exception {
     createTlds("tld", "com");
@@ -143,7 +151,6 @@ class GenerateZoneFilesActionTest {
             .setDsData(ImmutableSet.of(DomainDsData.create(1, 2, 3, new byte[] {0, 1, 2})))
             .build());
 
-    GenerateZoneFilesAction action = new GenerateZoneFilesAction();
     action.bucket = "zonefiles-bucket";
     action.gcsUtils = gcsUtils;
     action.databaseRetention = standardDays(29);
@@ -35,6 +35,7 @@ import static jakarta.servlet.http.HttpServletResponse.SC_OK;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -56,6 +57,7 @@ import google.registry.testing.FakeSleeper;
 import google.registry.testing.FullFieldsTestEntityHelper;
 import google.registry.testing.TestCacheExtension;
 import google.registry.util.Retrier;
+import google.registry.whois.WhoisMetrics.ResponseCacheResult;
 import google.registry.whois.WhoisMetrics.WhoisMetric;
 import java.io.IOException;
 import java.io.Reader;
@@ -99,6 +101,7 @@ public class WhoisActionTest {
     whoisAction.disclaimer =
         "Doodle Disclaimer\nI exist so that carriage return\nin disclaimer can be tested.";
     whoisAction.retrier = new Retrier(new FakeSleeper(clock), 3);
+    whoisAction.responseCache = WhoisResponseCache.disabled();
     return whoisAction;
   }
 
@@ -676,4 +679,87 @@ public class WhoisActionTest {
     verify(action.whoisMetrics).recordWhoisMetric(eq(expected));
     assertThat(response.getPayload()).isEqualTo("Internal Server Error");
   }
+
+  @Test
+  void testRun_responseCache_hit() throws Exception {
+    Registrar registrar =
+        persistResource(makeRegistrar("evilregistrar", "Yes Virginia", ACTIVE));
+    persistResource(makeDomainWithRegistrar(registrar));
+    persistResources(makeRegistrarPocs(registrar));
+    WhoisResponseCache responseCache = WhoisResponseCache.create(Duration.ofMinutes(1), 10);
+    WhoisAction action = newWhoisAction("domain cat.lol\r\n");
+    action.responseCache = responseCache;
+    action.whoisMetrics = mock(WhoisMetrics.class);
+    action.run();
+    assertThat(response.getPayload()).isEqualTo(loadFile("whois_action_domain.txt"));
+    verify(action.whoisMetrics).recordResponseCacheLookup(any(), eq(ResponseCacheResult.MISS));
+
+    // The same command with different whitespace is served from the cache without being parsed.
+    FakeResponse cachedResponse = new FakeResponse();
+    action = newWhoisAction(" domain\tcat.lol \r\n");
+    action.response = cachedResponse;
+    action.responseCache = responseCache;
+    action.whoisReader = mock(WhoisReader.class);
+    action.whoisMetrics = mock(WhoisMetrics.class);
+    action.run();
+    assertThat(cachedResponse.getStatus()).isEqualTo(200);
+    assertThat(cachedResponse.getPayload()).isEqualTo(loadFile("whois_action_domain.txt"));
+    verify(action.whoisReader, never())
+        .readCommand(any(Reader.class), eq(false), any(DateTime.class));
+    WhoisMetric expected =
+        WhoisMetric.builderForRequest(clock)
+            .setCommandName("DomainLookup")
+            .setNumResults(1)
+            .setStatus(SC_OK)
+            .build();
+    verify(action.whoisMetrics).recordWhoisMetric(eq(expected));
+    verify(action.whoisMetrics)
+        .recordResponseCacheLookup(eq(expected), eq(ResponseCacheResult.HIT));
+  }
+
+  @Test
+  void testRun_responseCache_notFoundIsCached() throws Exception {
+    WhoisResponseCache responseCache = WhoisResponseCache.create(Duration.ofMinutes(1), 10);
+    WhoisAction action = newWhoisAction("domain cat.lol\r\n");
+    action.responseCache = responseCache;
+    action.run();
+    assertThat(response.getPayload()).isEqualTo(loadFile("whois_action_domain_not_found.txt"));
+
+    FakeResponse cachedResponse = new FakeResponse();
+    action = newWhoisAction("domain cat.lol\r\n");
+    action.response = cachedResponse;
+    action.responseCache = responseCache;
+    action.whoisReader = mock(WhoisReader.class);
+    action.whoisMetrics = mock(WhoisMetrics.class);
+    action.run();
+    assertThat(cachedResponse.getPayload())
+        .isEqualTo(loadFile("whois_action_domain_not_found.txt"));
+    WhoisMetric expected =
+        WhoisMetric.builderForRequest(clock)
+            .setCommandName("DomainLookup")
+            .setNumResults(0)
+            .setStatus(SC_NOT_FOUND)
+            .build();
+    verify(action.whoisMetrics).recordWhoisMetric(eq(expected));
+    verify(action.whoisMetrics)
+        .recordResponseCacheLookup(eq(expected), eq(ResponseCacheResult.HIT));
+  }
+
+  @Test
+  void testRun_responseCache_badRequestNotCached() {
+    WhoisAction action = newWhoisAction("\r\n");
+    action.responseCache = WhoisResponseCache.create(Duration.ofMinutes(1), 10);
+    action.whoisMetrics = mock(WhoisMetrics.class);
+    action.run();
+    assertThat(response.getPayload()).isEqualTo(loadFile("whois_action_no_command.txt"));
+    verify(action.whoisMetrics, never()).recordResponseCacheLookup(any(), any());
+  }
+
+  @Test
+  void testRun_responseCacheDisabled_noCacheMetrics() {
+    WhoisAction action = newWhoisAction("domain cat.lol\r\n");
+    action.whoisMetrics = mock(WhoisMetrics.class);
+    action.run();
+    verify(action.whoisMetrics, never()).recordResponseCacheLookup(any(), any());
+  }
 }
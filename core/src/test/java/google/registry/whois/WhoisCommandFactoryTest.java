@@ -22,10 +22,12 @@ import static google.registry.testing.DatabaseHelper.persistNewRegistrar;
 import static google.registry.testing.DatabaseHelper.persistResource;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.net.InetAddresses;
 import com.google.common.net.InternetDomainName;
 import google.registry.config.RegistryConfig;
 import google.registry.model.domain.Domain;
 import google.registry.model.host.Host;
+import google.registry.model.host.HostIpIndex;
 import google.registry.model.registrar.Registrar;
 import google.registry.persistence.transaction.JpaTestExtensions;
 import google.registry.persistence.transaction.JpaTestExtensions.JpaIntegrationTestExtension;
@@ -34,6 +36,7 @@ import google.registry.testing.FakeClock;
 import google.registry.testing.TestCacheExtension;
 import java.net.InetAddress;
 import java.time.Duration;
+import java.util.Optional;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -89,6 +92,7 @@ class WhoisCommandFactoryTest {
     // original value in an instance variable (I suspect there may be some overlap in test
     // execution) so just restore to zero.
     RegistryConfig.CONFIG_SETTINGS.get().caching.singletonCacheRefreshSeconds = 0;
+    HostIpIndex.setIndexForTest(Optional.empty(), clock);
   }
 
   @Test
@@ -219,8 +223,8 @@ class WhoisCommandFactoryTest {
 
   @Test
   void testNonCached_NameserverLookupByIpCommand() throws Exception {
-    // Note that this lookup currently doesn't cache the hosts, so there's no point in testing the
-    // "cached" case.  This test is here so that it will fail if anyone adds caching.
+    // The non-cached lookup must not use the host IP index either, so enable it to make sure.
+    HostIpIndex.setIndexForTest(Optional.of(Duration.ofMinutes(1)), clock);
     WhoisResponse response =
         noncachedFactory
             .nameserverLookupByIp(InetAddress.getByName("1.2.3.4"))
@@ -241,4 +245,30 @@ class WhoisCommandFactoryTest {
     assertThat(response.getResponse(false, "").plainTextOutput())
         .contains("Registrar: OtherRegistrar");
   }
+
+  @Test
+  void testCached_NameserverLookupByIpCommand() throws Exception {
+    HostIpIndex.setIndexForTest(Optional.of(Duration.ofMinutes(1)), clock);
+    WhoisResponse response =
+        cachedFactory
+            .nameserverLookupByIp(InetAddress.getByName("1.2.3.4"))
+            .executeQuery(clock.nowUtc());
+    assertThat(response.getResponse(false, "").plainTextOutput())
+        .contains("Registrar: The Registrar");
+
+    tm().transact(
+            () ->
+                tm().put(
+                        host.asBuilder()
+                            .setPersistedCurrentSponsorRegistrarId("OtherRegistrar")
+                            .setInetAddresses(ImmutableSet.of(InetAddresses.forString("5.6.7.8")))
+                            .build()));
+    // Both the host IP index and the host itself are cached.
+    response =
+        cachedFactory
+            .nameserverLookupByIp(InetAddress.getByName("1.2.3.4"))
+            .executeQuery(clock.nowUtc());
+    assertThat(response.getResponse(false, "").plainTextOutput())
+        .contains("Registrar: The Registrar");
+  }
 }
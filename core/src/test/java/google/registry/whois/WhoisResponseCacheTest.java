@@ -0,0 +1,71 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.whois;
+
+import static com.google.common.truth.Truth.assertThat;
+import static jakarta.servlet.http.HttpServletResponse.SC_OK;
+
+import google.registry.whois.WhoisResponseCache.CachedResponse;
+import google.registry.whois.WhoisResponseCache.Key;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link WhoisResponseCache}. */
+class WhoisResponseCacheTest {
+
+  private static final CachedResponse RESPONSE =
+      new CachedResponse("DomainLookup", "Domain Name: cat.lol\r\n", 1, SC_OK);
+
+  @Test
+  void testKey_normalizesWhitespace() {
+    assertThat(Key.create("  domain \t cat.lol\r\n", false))
+        .hasValue(new Key("domain cat.lol", false));
+  }
+
+  @Test
+  void testKey_emptyCommand() {
+    assertThat(Key.create(" \r\n", false)).isEmpty();
+  }
+
+  @Test
+  void testKey_differsByPreferUnicode() {
+    assertThat(Key.create("cat.lol", false)).isNotEqualTo(Key.create("cat.lol", true));
+  }
+
+  @Test
+  void testPutAndGet() {
+    WhoisResponseCache cache = WhoisResponseCache.create(Duration.ofMinutes(1), 10);
+    Key key = new Key("cat.lol", false);
+    assertThat(cache.isEnabled()).isTrue();
+    assertThat(cache.get(key)).isEmpty();
+    cache.put(key, RESPONSE);
+    assertThat(cache.get(key)).hasValue(RESPONSE);
+    assertThat(cache.get(new Key("cat.lol", true))).isEmpty();
+  }
+
+  @Test
+  void testDisabled() {
+    WhoisResponseCache cache = WhoisResponseCache.disabled();
+    Key key = new Key("cat.lol", false);
+    cache.put(key, RESPONSE);
+    assertThat(cache.isEnabled()).isFalse();
+    assertThat(cache.get(key)).isEmpty();
+  }
+
+  @Test
+  void testCreate_zeroExpiryIsDisabled() {
+    assertThat(WhoisResponseCache.create(Duration.ZERO, 10).isEnabled()).isFalse();
+  }
+}
@@ -0,0 +1,109 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.xml;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import jakarta.xml.bind.JAXBException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link XmlObjectPool}. */
+class XmlObjectPoolTest {
+
+  private final AtomicInteger created = new AtomicInteger();
+
+  private XmlObjectPool<Integer> createPool(int maxSize) {
+    return new XmlObjectPool<>("test", created::incrementAndGet, maxSize, Duration.ofMillis(1));
+  }
+
+  @Test
+  void testBorrow_reusesReleasedObject() throws Exception {
+    XmlObjectPool<Integer> pool = createPool(2);
+    Integer first = pool.borrow();
+    pool.release(first);
+    assertThat(pool.idleCount()).isEqualTo(1);
+    assertThat(pool.borrow()).isSameInstanceAs(first);
+    assertThat(created.get()).isEqualTo(1);
+    assertThat(pool.idleCount()).isEqualTo(0);
+  }
+
+  @Test
+  void testBorrow_createsUpToMaxSize() throws Exception {
+    XmlObjectPool<Integer> pool = createPool(2);
+    assertThat(pool.borrow()).isEqualTo(1);
+    assertThat(pool.borrow()).isEqualTo(2);
+    assertThat(created.get()).isEqualTo(2);
+  }
+
+  @Test
+  void testBorrow_saturated_createsThrowawayObject() throws Exception {
+    XmlObjectPool<Integer> pool = createPool(1);
+    Integer pooled = pool.borrow();
+    Integer extra = pool.borrow();
+    assertThat(extra).isNotEqualTo(pooled);
+    pool.release(pooled);
+    pool.release(extra);
+    // Only one object fits in the pool, so the other one is dropped.
+    assertThat(pool.idleCount()).isEqualTo(1);
+  }
+
+  @Test
+  void testBorrow_saturated_waitsForRelease() throws Exception {
+    XmlObjectPool<Integer> pool =
+        new XmlObjectPool<>("test", created::incrementAndGet, 1, Duration.ofSeconds(10));
+    Integer pooled = pool.borrow();
+    Thread releaser = new Thread(() -> pool.release(pooled));
+    releaser.start();
+    assertThat(pool.borrow()).isSameInstanceAs(pooled);
+    releaser.join();
+    assertThat(created.get()).isEqualTo(1);
+  }
+
+  @Test
+  void testDiscard_makesRoomForNewObject() throws Exception {
+    XmlObjectPool<Integer> pool = createPool(1);
+    pool.borrow();
+    pool.discard();
+    assertThat(pool.borrow()).isEqualTo(2);
+    assertThat(pool.idleCount()).isEqualTo(0);
+  }
+
+  @Test
+  void testBorrow_factoryFailure_releasesSlot() throws Exception {
+    AtomicInteger attempts = new AtomicInteger();
+    XmlObjectPool<Integer> pool =
+        new XmlObjectPool<>(
+            "test",
+            () -> {
+              if (attempts.incrementAndGet() == 1) {
+                throw new JAXBException("boom");
+              }
+              return attempts.get();
+            },
+            1,
+            Duration.ofSeconds(10));
+    assertThrows(JAXBException.class, pool::borrow);
+    // The failed creation must not count against the pool size, or this would block.
+    assertThat(pool.borrow()).isEqualTo(2);
+  }
+
+  @Test
+  void testCreate_invalidSize() {
+    assertThrows(IllegalArgumentException.class, () -> createPool(0));
+  }
+}
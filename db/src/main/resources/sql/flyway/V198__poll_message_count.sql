@@ -0,0 +1,71 @@
+-- Copyright 2026 The Nomulus Authors. All Rights Reserved.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+
+-- Per-registrar count of the poll messages whose event time is at or before
+-- count_time. A null message_count means that the count is unknown. The
+-- version is bumped on every change, so that a count computed from an older
+-- snapshot is never stored over a newer one.
+CREATE TABLE "PollMessageCount" (
+    registrar_id text NOT NULL,
+    message_count integer,
+    count_time timestamp with time zone,
+    version bigint NOT NULL,
+    PRIMARY KEY (registrar_id)
+);
+
+CREATE INDEX pollmessage_registrar_id_event_time_idx
+    ON "PollMessage" (registrar_id, event_time);
+
+-- Applies a poll message insertion (delta = 1) or deletion (delta = -1) to
+-- the count of its registrar. Messages far in the future cannot be part of
+-- any stored count or of any count being computed concurrently, so they do
+-- not touch the (contended) count row.
+CREATE FUNCTION public.adjust_poll_message_count(p_registrar_id text, p_event_time timestamp with time zone, p_delta integer) RETURNS void
+    LANGUAGE plpgsql
+    AS $$
+BEGIN
+  IF p_event_time <= now() + interval '1 day' OR EXISTS (
+      SELECT 1 FROM public."PollMessageCount"
+      WHERE registrar_id = p_registrar_id AND p_event_time <= count_time) THEN
+    INSERT INTO public."PollMessageCount" AS c (registrar_id, version)
+        VALUES (p_registrar_id, 1)
+        ON CONFLICT (registrar_id) DO UPDATE SET
+            message_count = c.message_count
+                + CASE WHEN p_event_time <= c.count_time THEN p_delta ELSE 0 END,
+            version = c.version + 1;
+  END IF;
+END;
+$$;
+
+CREATE FUNCTION public.update_poll_message_count() RETURNS trigger
+    LANGUAGE plpgsql
+    AS $$
+BEGIN
+  IF TG_OP = 'UPDATE' AND OLD.registrar_id = NEW.registrar_id
+      AND OLD.event_time = NEW.event_time THEN
+    RETURN NULL;
+  END IF;
+  IF TG_OP <> 'INSERT' THEN
+    PERFORM public.adjust_poll_message_count(OLD.registrar_id, OLD.event_time, -1);
+  END IF;
+  IF TG_OP <> 'DELETE' THEN
+    PERFORM public.adjust_poll_message_count(NEW.registrar_id, NEW.event_time, 1);
+  END IF;
+  RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER poll_message_count_trigger
+    AFTER INSERT OR DELETE OR UPDATE OF registrar_id, event_time ON "PollMessage"
+    FOR EACH ROW EXECUTE FUNCTION public.update_poll_message_count();
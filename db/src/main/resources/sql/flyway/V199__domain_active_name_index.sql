@@ -0,0 +1,20 @@
+-- Copyright 2026 The Nomulus Authors. All Rights Reserved.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+
+-- Index of the names of the domains that are neither deleted nor pending
+-- delete, for RDAP domain name prefix searches. The "C" collation turns prefix
+-- matches into index range scans, in the order used for keyset pagination.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS domain_active_domain_name_idx
+    ON "Domain" (domain_name COLLATE "C")
+    WHERE deletion_time = '294247-01-10 04:00:54.775+00';
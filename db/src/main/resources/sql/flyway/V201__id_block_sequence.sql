@@ -0,0 +1,42 @@
+-- Copyright 2026 The Nomulus Authors. All Rights Reserved.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+
+-- Creates the sequence that servers reserve blocks of 100 ids from, with a
+-- single call to nextval per block. Each value it returns is the first id of
+-- a block that belongs exclusively to the caller.
+--
+-- The block sequence starts a million ids above the last value reserved from
+-- project_wide_unique_id_seq, including values that sessions have cached, and
+-- that sequence is capped below the start. Servers of the previous release,
+-- which still draw single ids from project_wide_unique_id_seq, can therefore
+-- run alongside new ones until the rollout completes without handing out ids
+-- from the same range, so the schema and the servers can be deployed in any
+-- order.
+--
+-- The increment must match SequenceIdAllocator.BLOCK_SIZE. Changing the block
+-- size requires a new sequence rather than altering this one.
+DO $$
+DECLARE
+  block_start bigint;
+BEGIN
+  SELECT last_value + 1000000 INTO block_start
+      FROM public.project_wide_unique_id_seq;
+  EXECUTE format(
+      'CREATE SEQUENCE public.project_wide_unique_id_block_seq START WITH %s INCREMENT BY 100',
+      block_start);
+  EXECUTE format(
+      'ALTER SEQUENCE public.project_wide_unique_id_seq MAXVALUE %s',
+      block_start - 1);
+END;
+$$;
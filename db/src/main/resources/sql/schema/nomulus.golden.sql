@@ -31,6 +31,51 @@ CREATE EXTENSION IF NOT EXISTS hstore WITH SCHEMA public;
 COMMENT ON EXTENSION hstore IS 'data type for storing sets of (key, value) pairs';
 
 
+--
+-- Name: adjust_poll_message_count(text, timestamp with time zone, integer); Type: FUNCTION; Schema: public; Owner: -
+--
+
+CREATE FUNCTION public.adjust_poll_message_count(p_registrar_id text, p_event_time timestamp with time zone, p_delta integer) RETURNS void
+    LANGUAGE plpgsql
+    AS $$
+BEGIN
+  IF p_event_time <= now() + interval '1 day' OR EXISTS (
+      SELECT 1 FROM public."PollMessageCount"
+      WHERE registrar_id = p_registrar_id AND p_event_time <= count_time) THEN
+    INSERT INTO public."PollMessageCount" AS c (registrar_id, version)
+        VALUES (p_registrar_id, 1)
+        ON CONFLICT (registrar_id) DO UPDATE SET
+            message_count = c.message_count
+                + CASE WHEN p_event_time <= c.count_time THEN p_delta ELSE 0 END,
+            version = c.version + 1;
+  END IF;
+END;
+$$;
+
+
+--
+-- Name: update_poll_message_count(); Type: FUNCTION; Schema: public; Owner: -
+--
+
+CREATE FUNCTION public.update_poll_message_count() RETURNS trigger
+    LANGUAGE plpgsql
+    AS $$
+BEGIN
+  IF TG_OP = 'UPDATE' AND OLD.registrar_id = NEW.registrar_id
+      AND OLD.event_time = NEW.event_time THEN
+    RETURN NULL;
+  END IF;
+  IF TG_OP <> 'INSERT' THEN
+    PERFORM public.adjust_poll_message_count(OLD.registrar_id, OLD.event_time, -1);
+  END IF;
+  IF TG_OP <> 'DELETE' THEN
+    PERFORM public.adjust_poll_message_count(NEW.registrar_id, NEW.event_time, 1);
+  END IF;
+  RETURN NULL;
+END;
+$$;
+
+
 SET default_tablespace = '';
 
 SET default_table_access_method = heap;
@@ -892,6 +937,18 @@ CREATE TABLE public."PollMessage" (
 );
 
 
+--
+-- Name: PollMessageCount; Type: TABLE; Schema: public; Owner: -
+--
+
+CREATE TABLE public."PollMessageCount" (
+    registrar_id text NOT NULL,
+    message_count integer,
+    count_time timestamp with time zone,
+    version bigint NOT NULL
+);
+
+
 --
 -- Name: PremiumEntry; Type: TABLE; Schema: public; Owner: -
 --
@@ -1405,6 +1462,18 @@ CREATE TABLE public."UserUpdateHistory" (
 );
 
 
+--
+-- Name: project_wide_unique_id_block_seq; Type: SEQUENCE; Schema: public; Owner: -
+--
+
+CREATE SEQUENCE public.project_wide_unique_id_block_seq
+    START WITH 59881480006
+    INCREMENT BY 100
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+
 --
 -- Name: project_wide_unique_id_seq; Type: SEQUENCE; Schema: public; Owner: -
 --
@@ -1413,7 +1482,7 @@ CREATE SEQUENCE public.project_wide_unique_id_seq
     START WITH 59880480006
     INCREMENT BY 1
     MINVALUE 59880480005
-    NO MAXVALUE
+    MAXVALUE 59881480005
     CACHE 10;
 
 
@@ -1741,6 +1810,14 @@ ALTER TABLE ONLY public."PollMessage"
     ADD CONSTRAINT "PollMessage_pkey" PRIMARY KEY (poll_message_id);
 
 
+--
+-- Name: PollMessageCount PollMessageCount_pkey; Type: CONSTRAINT; Schema: public; Owner: -
+--
+
+ALTER TABLE ONLY public."PollMessageCount"
+    ADD CONSTRAINT "PollMessageCount_pkey" PRIMARY KEY (registrar_id);
+
+
 --
 -- Name: PremiumEntry PremiumEntry_pkey; Type: CONSTRAINT; Schema: public; Owner: -
 --
@@ -1924,6 +2001,13 @@ ALTER TABLE ONLY public."User"
 CREATE INDEX allocation_token_domain_name_idx ON public."AllocationToken" USING btree (domain_name);
 
 
+--
+-- Name: domain_active_domain_name_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX domain_active_domain_name_idx ON public."Domain" USING btree (domain_name COLLATE "C") WHERE (deletion_time = '294247-01-10 04:00:54.775+00'::timestamp with time zone);
+
+
 --
 -- Name: domain_history_to_ds_data_history_idx; Type: INDEX; Schema: public; Owner: -
 --
@@ -1938,6 +2022,13 @@ CREATE INDEX domain_history_to_ds_data_history_idx ON public."DomainDsDataHistor
 CREATE INDEX domain_history_to_transaction_record_idx ON public."DomainTransactionRecord" USING btree (domain_repo_id, history_revision_id);
 
 
+--
+-- Name: host_update_timestamp_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX host_update_timestamp_idx ON public."Host" USING btree (update_timestamp);
+
+
 --
 -- Name: idx1dyqmqb61xbnj7mt7bk27ds25; Type: INDEX; Schema: public; Owner: -
 --
@@ -2617,6 +2708,13 @@ CREATE INDEX idxtmlqd31dpvvd2g1h9i7erw6aj ON public."AllocationToken" USING btre
 CREATE INDEX idxy98mebut8ix1v07fjxxdkqcx ON public."Host" USING btree (creation_time);
 
 
+--
+-- Name: pollmessage_registrar_id_event_time_idx; Type: INDEX; Schema: public; Owner: -
+--
+
+CREATE INDEX pollmessage_registrar_id_event_time_idx ON public."PollMessage" USING btree (registrar_id, event_time);
+
+
 --
 -- Name: premiumlist_name_idx; Type: INDEX; Schema: public; Owner: -
 --
@@ -2666,6 +2764,13 @@ CREATE INDEX spec11threatmatch_registrar_id_idx ON public."Spec11ThreatMatch" US
 CREATE INDEX spec11threatmatch_tld_idx ON public."Spec11ThreatMatch" USING btree (tld);
 
 
+--
+-- Name: PollMessage poll_message_count_trigger; Type: TRIGGER; Schema: public; Owner: -
+--
+
+CREATE TRIGGER poll_message_count_trigger AFTER INSERT OR DELETE OR UPDATE OF registrar_id, event_time ON public."PollMessage" FOR EACH ROW EXECUTE FUNCTION public.update_poll_message_count();
+
+
 --
 -- Name: Contact fk1sfyj7o7954prbn1exk7lpnoe; Type: FK CONSTRAINT; Schema: public; Owner: -
 --
@@ -0,0 +1,376 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.client;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import com.google.common.base.Ascii;
+import com.google.common.collect.ImmutableList;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A benchmark that compares the epoll and NIO Netty transports under a burst of connections.
+ *
+ * <p>The benchmark starts a local server that frames messages the same way as the EPP proxy does
+ * and echoes them back, then opens all client connections at once (as registrars do during a
+ * drop-catching burst) and sends requests on each of them, one at a time. The connection setup
+ * time, request throughput, request latency percentiles and garbage collection activity are
+ * reported for each transport.
+ *
+ * <p>TLS and the backend relay are left out on purpose, so that the numbers reflect the cost of the
+ * transport itself. Run the benchmark on the same kind of Linux host as the proxy, e.g.:
+ *
+ * <pre>
+ * java -cp loadTest.jar google.registry.client.TransportBenchmark --connections 5000
+ * </pre>
+ */
+@Parameters(separators = " =")
+@SuppressWarnings("FutureReturnValueIgnored")
+public class TransportBenchmark {
+
+  private static final String HOST = "127.0.0.1";
+
+  /** Same maximum frame length as the EPP client. */
+  private static final int MAX_FRAME_LENGTH = 512 * 1024;
+
+  private static final int TIMEOUT_SECONDS = 600;
+
+  /** The Netty transports under comparison. */
+  enum Transport {
+    NIO(
+        NioEventLoopGroup::new,
+        NioServerSocketChannel.class,
+        NioSocketChannel.class,
+        () -> true),
+    EPOLL(
+        EpollEventLoopGroup::new,
+        EpollServerSocketChannel.class,
+        EpollSocketChannel.class,
+        Epoll::isAvailable);
+
+    private final EventLoopGroupFactory eventLoopGroupFactory;
+    private final Class<? extends ServerSocketChannel> serverSocketChannelClass;
+    private final Class<? extends SocketChannel> socketChannelClass;
+    private final Supplier<Boolean> isAvailable;
+
+    Transport(
+        EventLoopGroupFactory eventLoopGroupFactory,
+        Class<? extends ServerSocketChannel> serverSocketChannelClass,
+        Class<? extends SocketChannel> socketChannelClass,
+        Supplier<Boolean> isAvailable) {
+      this.eventLoopGroupFactory = eventLoopGroupFactory;
+      this.serverSocketChannelClass = serverSocketChannelClass;
+      this.socketChannelClass = socketChannelClass;
+      this.isAvailable = isAvailable;
+    }
+  }
+
+  /** Creates an {@link EventLoopGroup} with a given number of threads, 0 for Netty's default. */
+  private interface EventLoopGroupFactory {
+    EventLoopGroup create(int threads);
+  }
+
+  @Parameter(
+      names = {"--help"},
+      description = "Print this help message.",
+      help = true)
+  private boolean help = false;
+
+  @Parameter(
+      names = {"--transports"},
+      description = "Comma-separated transports to benchmark, in order.")
+  private List<String> transports = ImmutableList.of("nio", "epoll");
+
+  @Parameter(
+      names = {"--port"},
+      description = "Local port that the benchmark server listens on.")
+  private int port = 30700;
+
+  @Parameter(
+      names = {"--connections", "-cn"},
+      description = "Number of concurrent client connections.")
+  private int connections = 1000;
+
+  @Parameter(
+      names = {"--requests"},
+      description = "Number of requests sent on each connection.")
+  private int requestsPerConnection = 20;
+
+  @Parameter(
+      names = {"--payload_bytes"},
+      description = "Size of each request and response payload in bytes.")
+  private int payloadBytes = 2048;
+
+  @Parameter(
+      names = {"--server_threads"},
+      description = "Number of server I/O threads, 0 for Netty's default (twice the CPU count).")
+  private int serverThreads = 0;
+
+  @Parameter(
+      names = {"--acceptors"},
+      description =
+          "Number of server sockets bound to the port with SO_REUSEPORT. Only used with epoll.")
+  private int acceptors = 4;
+
+  public static void main(String[] args) throws InterruptedException {
+    TransportBenchmark benchmark = new TransportBenchmark();
+    JCommander jCommander = new JCommander(benchmark);
+    jCommander.parse(args);
+    if (benchmark.help) {
+      jCommander.usage();
+      return;
+    }
+    for (String name : benchmark.transports) {
+      Transport transport = Transport.valueOf(Ascii.toUpperCase(name));
+      if (!transport.isAvailable.get()) {
+        System.out.printf("Skipping %s transport, which is not available on this host.\n", name);
+        continue;
+      }
+      benchmark.run(transport);
+    }
+  }
+
+  /** Server handler that echoes every frame back to the client. */
+  @Sharable
+  private static class EchoHandler extends SimpleChannelInboundHandler<ByteBuf> {
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+      ctx.writeAndFlush(msg.retain());
+    }
+  }
+
+  /** Client handler that sends requests one at a time, and records their latencies. */
+  private class RequestHandler extends SimpleChannelInboundHandler<ByteBuf> {
+
+    private final ByteBuf payload;
+    private final long[] latencies;
+    private final AtomicInteger latencyCount;
+    private final CountDownLatch done;
+    private int requestsSent = 0;
+    private long requestSentNanos;
+
+    RequestHandler(
+        ByteBuf payload, long[] latencies, AtomicInteger latencyCount, CountDownLatch done) {
+      this.payload = payload;
+      this.latencies = latencies;
+      this.latencyCount = latencyCount;
+      this.done = done;
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) throws Exception {
+      sendRequest(ctx);
+      super.channelActive(ctx);
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+      latencies[latencyCount.getAndIncrement()] = System.nanoTime() - requestSentNanos;
+      if (requestsSent < requestsPerConnection) {
+        sendRequest(ctx);
+      } else {
+        done.countDown();
+        ctx.close();
+      }
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      System.out.printf("Connection %s failed: %s\n", ctx.channel(), cause);
+      done.countDown();
+      ctx.close();
+    }
+
+    private void sendRequest(ChannelHandlerContext ctx) {
+      requestsSent++;
+      requestSentNanos = System.nanoTime();
+      ctx.writeAndFlush(payload.retainedDuplicate());
+    }
+  }
+
+  private void run(Transport transport) throws InterruptedException {
+    EventLoopGroup serverGroup = transport.eventLoopGroupFactory.create(serverThreads);
+    EventLoopGroup clientGroup = transport.eventLoopGroupFactory.create(0);
+    ByteBuf payload = Unpooled.unreleasableBuffer(Unpooled.directBuffer(payloadBytes));
+    payload.writeZero(payloadBytes);
+    long[] latencies = new long[connections * requestsPerConnection];
+    AtomicInteger latencyCount = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(connections);
+    EchoHandler echoHandler = new EchoHandler();
+    try {
+      ServerBootstrap serverBootstrap =
+          new ServerBootstrap()
+              .group(serverGroup)
+              .channel(transport.serverSocketChannelClass)
+              .option(ChannelOption.SO_BACKLOG, connections)
+              .childHandler(
+                  new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                      ch.pipeline()
+                          .addLast(new LengthFieldBasedFrameDecoder(MAX_FRAME_LENGTH, 0, 4, -4, 4))
+                          .addLast(new LengthFieldPrepender(4, true))
+                          .addLast(echoHandler);
+                    }
+                  });
+      int serverSockets = 1;
+      if (transport == Transport.EPOLL && acceptors > 1) {
+        serverBootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+        serverSockets = acceptors;
+      }
+      List<Channel> serverChannels = new ArrayList<>();
+      for (int i = 0; i < serverSockets; i++) {
+        serverChannels.add(serverBootstrap.bind(HOST, port).sync().channel());
+      }
+
+      Bootstrap bootstrap =
+          new Bootstrap()
+              .group(clientGroup)
+              .channel(transport.socketChannelClass)
+              .handler(
+                  new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                      ch.pipeline()
+                          .addLast(new LengthFieldBasedFrameDecoder(MAX_FRAME_LENGTH, 0, 4, -4, 4))
+                          .addLast(new LengthFieldPrepender(4, true))
+                          .addLast(new RequestHandler(payload, latencies, latencyCount, done));
+                    }
+                  });
+
+      GcStats gcBefore = GcStats.now();
+      long startNanos = System.nanoTime();
+      CountDownLatch connected = new CountDownLatch(connections);
+      for (int i = 0; i < connections; i++) {
+        bootstrap
+            .connect(HOST, port)
+            .addListener(
+                future -> {
+                  if (!future.isSuccess()) {
+                    System.out.printf("Cannot connect to %s:%s: %s\n", HOST, port, future.cause());
+                    done.countDown();
+                  }
+                  connected.countDown();
+                });
+      }
+      connected.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      long connectedNanos = System.nanoTime();
+      boolean finished = done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      long endNanos = System.nanoTime();
+      GcStats gcAfter = GcStats.now();
+
+      serverChannels.forEach(Channel::close);
+      printSummary(
+          transport,
+          serverSockets,
+          finished,
+          Arrays.copyOf(latencies, latencyCount.get()),
+          connectedNanos - startNanos,
+          endNanos - startNanos,
+          gcAfter.minus(gcBefore));
+    } finally {
+      clientGroup.shutdownGracefully().syncUninterruptibly();
+      serverGroup.shutdownGracefully().syncUninterruptibly();
+    }
+  }
+
+  private void printSummary(
+      Transport transport,
+      int serverSockets,
+      boolean finished,
+      long[] latencies,
+      long connectNanos,
+      long totalNanos,
+      GcStats gcStats) {
+    Arrays.sort(latencies);
+    System.out.println();
+    System.out.printf("====== %s SUMMARY ======\n", transport);
+    System.out.printf("Number of connections: %d\n", connections);
+    System.out.printf("Number of requests per connection: %d\n", requestsPerConnection);
+    System.out.printf("Number of server sockets: %d\n", serverSockets);
+    if (!finished) {
+      System.out.printf("Timed out after %d seconds!\n", TIMEOUT_SECONDS);
+    }
+    System.out.printf("Time to connect all: %d ms\n", TimeUnit.NANOSECONDS.toMillis(connectNanos));
+    System.out.printf("Total time: %d ms\n", TimeUnit.NANOSECONDS.toMillis(totalNanos));
+    System.out.printf("Completed requests: %d\n", latencies.length);
+    System.out.printf(
+        "Average Response QPS: %.2f\n", latencies.length * 1e9 / Math.max(totalNanos, 1));
+    if (latencies.length > 0) {
+      System.out.printf(
+          "Latency (us): p50 %d, p90 %d, p99 %d, max %d\n",
+          percentileMicros(latencies, 50),
+          percentileMicros(latencies, 90),
+          percentileMicros(latencies, 99),
+          TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length - 1]));
+    }
+    System.out.printf("GC collections: %d, GC time: %d ms\n", gcStats.count, gcStats.timeMillis);
+  }
+
+  private static long percentileMicros(long[] sortedLatencies, int percentile) {
+    int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+    return TimeUnit.NANOSECONDS.toMicros(sortedLatencies[Math.max(index, 0)]);
+  }
+
+  /** Cumulative garbage collection activity of the JVM. */
+  private record GcStats(long count, long timeMillis) {
+
+    static GcStats now() {
+      long count = 0;
+      long timeMillis = 0;
+      for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+        count += Math.max(bean.getCollectionCount(), 0);
+        timeMillis += Math.max(bean.getCollectionTime(), 0);
+      }
+      return new GcStats(count, timeMillis);
+    }
+
+    GcStats minus(GcStats other) {
+      return new GcStats(count - other.count, timeMillis - other.timeMillis);
+    }
+  }
+}
@@ -23,7 +23,6 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.embedded.EmbeddedChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.ssl.SslProvider;
@@ -56,7 +55,7 @@ public class SslClientInitializer<C extends Channel> extends ChannelInitializer<
   private final Supplier<PrivateKey> privateKeySupplier;
   private final Supplier<ImmutableList<X509Certificate>> certificateChainSupplier;
 
-  public static SslClientInitializer<NioSocketChannel>
+  public static <C extends Channel> SslClientInitializer<C>
       createSslClientInitializerWithSystemTrustStore(
           SslProvider sslProvider,
           Function<Channel, String> hostProvider,
@@ -64,7 +63,7 @@ public class SslClientInitializer<C extends Channel> extends ChannelInitializer<
     return new SslClientInitializer<>(sslProvider, hostProvider, portProvider, null, null, null);
   }
 
-  public static SslClientInitializer<NioSocketChannel>
+  public static <C extends Channel> SslClientInitializer<C>
       createSslClientInitializerWithSystemTrustStoreAndClientAuthentication(
           SslProvider sslProvider,
           Function<Channel, String> hostProvider,
@@ -0,0 +1,281 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.processors;
+
+import com.google.common.collect.ImmutableList;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeSpec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Generated;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Processor to generate the member adders of RDAP {@code AbstractJsonableObject} classes.
+ *
+ * <p>For every class that declares members annotated with {@code @JsonableElement}, this generates
+ * a {@code JsonableMembers_<class>} class that adds the values of all the annotated members of the
+ * class, including the inherited ones, in the order that the reflective implementation used (fields
+ * then methods, each sorted by name). This lets RDAP objects be serialized without reflection.
+ */
+@SupportedAnnotationTypes(JsonableElementProcessor.JSONABLE_ELEMENT_ANNOTATION)
+@SupportedSourceVersion(SourceVersion.RELEASE_21)
+public class JsonableElementProcessor extends AbstractProcessor {
+
+  static final String JSONABLE_ELEMENT_ANNOTATION =
+      "google.registry.rdap.AbstractJsonableObject.JsonableElement";
+
+  private static final String ADDER_CLASS_NAME_PREFIX = "JsonableMembers_";
+
+  private static final ClassName ABSTRACT_JSONABLE_OBJECT =
+      ClassName.get("google.registry.rdap", "AbstractJsonableObject");
+
+  private static final ClassName JSONABLE_MEMBERS =
+      ClassName.get("google.registry.rdap", "JsonableMembers");
+
+  private static final ClassName ADDER = JSONABLE_MEMBERS.nestedClass("Adder");
+
+  /** A member annotated with {@code @JsonableElement}, with its resolved JSON name. */
+  private record JsonableMember(Element element, String jsonName) {}
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (TypeElement annotation : annotations) {
+      Set<TypeElement> annotatedTypes = new LinkedHashSet<>();
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        annotatedTypes.add((TypeElement) element.getEnclosingElement());
+      }
+      for (TypeElement type : annotatedTypes) {
+        if (isValid(type)) {
+          try {
+            createJavaFile(type).writeTo(processingEnv.getFiler());
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks that the members are well-formed, and that the generated code will be able to access
+   * the type and all its members.
+   *
+   * <p>Anonymous, local and private classes (and classes with private members) can't be accessed
+   * from the generated code. These are silently skipped, and fall back to reflection at runtime.
+   */
+  private boolean isValid(TypeElement type) {
+    boolean valid = true;
+    for (JsonableMember member : getMembers(type)) {
+      if (member.element() instanceof ExecutableElement method
+          && !method.getParameters().isEmpty()) {
+        error(method, "@JsonableElement methods must have no arguments");
+        valid = false;
+      }
+    }
+    return valid && isAccessible(type);
+  }
+
+  private boolean isAccessible(TypeElement type) {
+    for (TypeElement t : getClassHierarchy(type)) {
+      if (!isAnnotatedType(t)) {
+        continue;
+      }
+      for (Element e = t; e instanceof TypeElement; e = e.getEnclosingElement()) {
+        NestingKind nestingKind = ((TypeElement) e).getNestingKind();
+        if (e.getModifiers().contains(Modifier.PRIVATE)
+            || nestingKind == NestingKind.ANONYMOUS
+            || nestingKind == NestingKind.LOCAL) {
+          return false;
+        }
+      }
+    }
+    return getMembers(type).stream()
+        .noneMatch(member -> member.element().getModifiers().contains(Modifier.PRIVATE));
+  }
+
+  private JavaFile createJavaFile(TypeElement type) {
+    ClassName typeName = ClassName.get(type);
+    ImmutableList<JsonableMember> members = getMembers(type);
+    CodeBlock.Builder body = CodeBlock.builder();
+    if (members.stream().anyMatch(m -> !m.element().getModifiers().contains(Modifier.STATIC))) {
+      body.addStatement("$T typed = ($T) object", typeName, typeName);
+    }
+    for (JsonableMember member : members) {
+      Element element = member.element();
+      TypeElement declaringType = (TypeElement) element.getEnclosingElement();
+      String description = getDescription(declaringType, element);
+      String name = element.getSimpleName().toString();
+      if (element.getModifiers().contains(Modifier.STATIC)) {
+        body.addStatement(
+            "members.add($S, $S, $T.$L)",
+            member.jsonName(),
+            description,
+            ClassName.get(declaringType),
+            name);
+      } else if (element.getKind().isField()) {
+        body.addStatement("members.add($S, $S, typed.$L)", member.jsonName(), description, name);
+      } else {
+        body.addStatement(
+            "members.add($S, $S, typed.$L())", member.jsonName(), description, name);
+      }
+    }
+    MethodSpec addMembers =
+        MethodSpec.methodBuilder("addMembers")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter(ABSTRACT_JSONABLE_OBJECT, "object")
+            .addParameter(JSONABLE_MEMBERS, "members")
+            .addCode(body.build())
+            .build();
+    TypeSpec adder =
+        TypeSpec.classBuilder(getAdderClassName(type))
+            .addJavadoc("Adds the JSON members of {@link $T}.\n", typeName)
+            .addAnnotation(
+                AnnotationSpec.builder(Generated.class)
+                    .addMember("value", "$S", JsonableElementProcessor.class.getName())
+                    .build())
+            .addModifiers(Modifier.FINAL)
+            .addSuperinterface(ADDER)
+            .addMethod(addMembers)
+            .build();
+    return JavaFile.builder(typeName.packageName(), adder).build();
+  }
+
+  /**
+   * Returns the annotated members of the type and its superclasses.
+   *
+   * <p>Fields come first, then methods, each sorted by name. A method overridden in a subclass is
+   * only included once, as dispatch will call the override anyway.
+   */
+  private ImmutableList<JsonableMember> getMembers(TypeElement type) {
+    List<JsonableMember> fields = new ArrayList<>();
+    List<JsonableMember> methods = new ArrayList<>();
+    Set<String> seenMethodNames = new HashSet<>();
+    for (TypeElement t : getClassHierarchy(type)) {
+      for (VariableElement field : ElementFilter.fieldsIn(t.getEnclosedElements())) {
+        getJsonName(field).ifPresent(name -> fields.add(new JsonableMember(field, name)));
+      }
+      for (ExecutableElement method : ElementFilter.methodsIn(t.getEnclosedElements())) {
+        getJsonName(method)
+            .filter(unused -> seenMethodNames.add(method.getSimpleName().toString()))
+            .ifPresent(name -> methods.add(new JsonableMember(method, name)));
+      }
+    }
+    Comparator<JsonableMember> byName =
+        Comparator.comparing(member -> member.element().getSimpleName().toString());
+    fields.sort(byName);
+    methods.sort(byName);
+    return ImmutableList.<JsonableMember>builder().addAll(fields).addAll(methods).build();
+  }
+
+  /** Returns the type followed by all its superclasses. */
+  private static ImmutableList<TypeElement> getClassHierarchy(TypeElement type) {
+    ImmutableList.Builder<TypeElement> hierarchy = new ImmutableList.Builder<>();
+    for (TypeElement t = type; t != null; t = getSuperclass(t)) {
+      hierarchy.add(t);
+    }
+    return hierarchy.build();
+  }
+
+  private static TypeElement getSuperclass(TypeElement type) {
+    TypeMirror superclass = type.getSuperclass();
+    return superclass.getKind() == TypeKind.DECLARED
+        ? (TypeElement) ((DeclaredType) superclass).asElement()
+        : null;
+  }
+
+  private boolean isAnnotatedType(TypeElement type) {
+    return type.getEnclosedElements().stream().anyMatch(e -> getJsonName(e).isPresent());
+  }
+
+  /**
+   * Returns the JSON name of an annotated member, i.e. the annotation value or else the member's
+   * name, or absent if the member isn't annotated.
+   */
+  private static Optional<String> getJsonName(Element element) {
+    for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+      TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+      if (!annotationType.getQualifiedName().contentEquals(JSONABLE_ELEMENT_ANNOTATION)) {
+        continue;
+      }
+      String value =
+          mirror.getElementValues().entrySet().stream()
+              .filter(e -> e.getKey().getSimpleName().contentEquals("value"))
+              .map(e -> (String) e.getValue().getValue())
+              .findFirst()
+              .orElse("");
+      return Optional.of(value.isEmpty() ? element.getSimpleName().toString() : value);
+    }
+    return Optional.empty();
+  }
+
+  /** Returns a description of the member for error messages, e.g. "Link.href()". */
+  private static String getDescription(TypeElement declaringType, Element member) {
+    return String.format(
+        "%s.%s%s",
+        String.join(".", getSimpleNames(declaringType)),
+        member.getSimpleName(),
+        member.getKind().isField() ? "" : "()");
+  }
+
+  /** Returns the name of the generated class, e.g. "JsonableMembers_RdapObjectClasses_Link". */
+  private static String getAdderClassName(TypeElement type) {
+    return ADDER_CLASS_NAME_PREFIX + String.join("_", getSimpleNames(type));
+  }
+
+  /** Returns the simple names of the type and its enclosing types, outermost first. */
+  private static ImmutableList<String> getSimpleNames(TypeElement type) {
+    List<String> names = new ArrayList<>();
+    for (Element e = type;
+        e instanceof TypeElement t && t.getNestingKind() != NestingKind.LOCAL;
+        e = e.getEnclosingElement()) {
+      names.add(0, e.getSimpleName().toString());
+    }
+    return ImmutableList.copyOf(names);
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+}
@@ -30,12 +30,13 @@ import google.registry.proxy.handler.ProxyProtocolHandler;
 import google.registry.proxy.handler.QuotaHandler.EppQuotaHandler;
 import google.registry.proxy.handler.RelayHandler.FullHttpRequestRelayHandler;
 import google.registry.proxy.metric.FrontendMetrics;
+import google.registry.proxy.quota.EppCommandRateLimiter;
 import google.registry.proxy.quota.QuotaConfig;
 import google.registry.proxy.quota.QuotaManager;
 import google.registry.proxy.quota.TokenStore;
 import google.registry.util.Clock;
 import io.netty.channel.ChannelHandler;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.handler.ssl.SslProvider;
@@ -85,7 +86,7 @@ public final class EppProtocolModule {
   @EppProtocol
   static ImmutableList<Provider<? extends ChannelHandler>> provideHandlerProviders(
       Provider<ProxyProtocolHandler> proxyProtocolHandlerProvider,
-      @EppProtocol Provider<SslServerInitializer<NioSocketChannel>> sslServerInitializerProvider,
+      @EppProtocol Provider<SslServerInitializer<SocketChannel>> sslServerInitializerProvider,
       @EppProtocol Provider<ReadTimeoutHandler> readTimeoutHandlerProvider,
       Provider<LengthFieldBasedFrameDecoder> lengthFieldBasedFrameDecoderProvider,
       Provider<LengthFieldPrepender> lengthFieldPrependerProvider,
@@ -152,6 +153,7 @@ public final class EppProtocolModule {
       @Named("idToken") Supplier<String> idTokenSupplier,
       @Named("hello") byte[] helloBytes,
       @Named("canary") boolean canary,
+      EppCommandRateLimiter rateLimiter,
       FrontendMetrics metrics,
       ProxyConfig config,
       @HttpsRelayProtocol boolean localRelay) {
@@ -161,13 +163,20 @@ public final class EppProtocolModule {
         canary,
         idTokenSupplier,
         helloBytes,
+        rateLimiter,
         metrics);
   }
 
+  @Singleton
+  @Provides
+  static EppCommandRateLimiter provideEppCommandRateLimiter(ProxyConfig config, Clock clock) {
+    return new EppCommandRateLimiter(config.epp.commandRateLimit, clock);
+  }
+
   @Singleton
   @Provides
   @EppProtocol
-  static SslServerInitializer<NioSocketChannel> provideSslServerInitializer(
+  static SslServerInitializer<SocketChannel> provideSslServerInitializer(
       SslProvider sslProvider,
       Supplier<PrivateKey> privateKeySupplier,
       Supplier<ImmutableList<X509Certificate>> certificatesSupplier) {
@@ -179,7 +188,8 @@ public final class EppProtocolModule {
   @EppProtocol
   static TokenStore provideTokenStore(
       ProxyConfig config, ScheduledExecutorService refreshExecutor, Clock clock) {
-    return new TokenStore(new QuotaConfig(config.epp.quota, PROTOCOL_NAME), refreshExecutor, clock);
+    return TokenStore.create(
+        new QuotaConfig(config.epp.quota, PROTOCOL_NAME), refreshExecutor, clock);
   }
 
   @Provides
@@ -24,7 +24,7 @@ import google.registry.proxy.Protocol.BackendProtocol;
 import google.registry.proxy.handler.BackendMetricsHandler;
 import google.registry.proxy.handler.RelayHandler.FullHttpResponseRelayHandler;
 import io.netty.channel.ChannelHandler;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpClientCodec;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.logging.LoggingHandler;
@@ -73,7 +73,7 @@ public class HttpsRelayProtocolModule {
 
   @Provides
   @HttpsRelayProtocol
-  static SslClientInitializer<NioSocketChannel> provideSslClientInitializer(
+  static SslClientInitializer<SocketChannel> provideSslClientInitializer(
       SslProvider sslProvider) {
     return createSslClientInitializerWithSystemTrustStore(
         sslProvider,
@@ -86,7 +86,7 @@ public class HttpsRelayProtocolModule {
   static ImmutableList<Provider<? extends ChannelHandler>> provideHandlerProviders(
       @HttpsRelayProtocol boolean localRelay,
       @HttpsRelayProtocol
-          Provider<SslClientInitializer<NioSocketChannel>> sslClientInitializerProvider,
+          Provider<SslClientInitializer<SocketChannel>> sslClientInitializerProvider,
       Provider<HttpClientCodec> httpClientCodecProvider,
       Provider<HttpObjectAggregator> httpObjectAggregatorProvider,
       Provider<BackendMetricsHandler> backendMetricsHandlerProvider,
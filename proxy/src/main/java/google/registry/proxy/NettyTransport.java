@@ -0,0 +1,131 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.proxy;
+
+import com.google.common.base.Ascii;
+import com.google.common.flogger.FluentLogger;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import javax.annotation.Nullable;
+
+/** The Netty transport that the proxy uses for network I/O. */
+enum NettyTransport {
+
+  /** Java NIO, available on all platforms. */
+  NIO {
+    @Override
+    EventLoopGroup newEventLoopGroup() {
+      return new NioEventLoopGroup();
+    }
+
+    @Override
+    Class<? extends ServerSocketChannel> serverSocketChannelClass() {
+      return NioServerSocketChannel.class;
+    }
+
+    @Override
+    Class<? extends SocketChannel> socketChannelClass() {
+      return NioSocketChannel.class;
+    }
+
+    @Override
+    boolean supportsReusePort() {
+      return false;
+    }
+
+    @Nullable
+    @Override
+    Throwable unavailabilityCause() {
+      return null;
+    }
+  },
+
+  /**
+   * Native edge-triggered epoll, available on Linux only.
+   *
+   * <p>Compared to NIO, it produces less garbage per I/O operation and supports {@code
+   * SO_REUSEPORT}, which allows several server sockets, each served by its own I/O thread, to
+   * accept connections on the same port.
+   */
+  EPOLL {
+    @Override
+    EventLoopGroup newEventLoopGroup() {
+      return new EpollEventLoopGroup();
+    }
+
+    @Override
+    Class<? extends ServerSocketChannel> serverSocketChannelClass() {
+      return EpollServerSocketChannel.class;
+    }
+
+    @Override
+    Class<? extends SocketChannel> socketChannelClass() {
+      return EpollSocketChannel.class;
+    }
+
+    @Override
+    boolean supportsReusePort() {
+      return true;
+    }
+
+    @Nullable
+    @Override
+    Throwable unavailabilityCause() {
+      return Epoll.unavailabilityCause();
+    }
+  };
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  /** Creates an {@link EventLoopGroup} with the default number of threads. */
+  abstract EventLoopGroup newEventLoopGroup();
+
+  /** The class of server channels that listen on a port. */
+  abstract Class<? extends ServerSocketChannel> serverSocketChannelClass();
+
+  /** The class of channels that connect to a remote peer, or that are accepted on a port. */
+  abstract Class<? extends SocketChannel> socketChannelClass();
+
+  /** Whether server channels of this transport can bind to the same port. */
+  abstract boolean supportsReusePort();
+
+  /** The reason why this transport cannot be used on this host, or null if it can be used. */
+  @Nullable
+  abstract Throwable unavailabilityCause();
+
+  /**
+   * Returns the transport with the given (case-insensitive) name, or {@link #NIO} if that
+   * transport is not available on this host.
+   */
+  static NettyTransport select(String name) {
+    NettyTransport transport = valueOf(Ascii.toUpperCase(name));
+    Throwable unavailabilityCause = transport.unavailabilityCause();
+    if (unavailabilityCause != null) {
+      logger.atWarning().withCause(unavailabilityCause).log(
+          "%s transport is not available, falling back to %s.", transport, NIO);
+      return NIO;
+    }
+    logger.atInfo().log("Using %s transport.", transport);
+    return transport;
+  }
+}
@@ -19,7 +19,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.SocketChannel;
 import io.netty.util.Attribute;
 import io.netty.util.AttributeKey;
 import jakarta.inject.Provider;
@@ -72,7 +72,7 @@ public interface Protocol {
   /**
    * Connection parameters for a connection from the client to the proxy.
    *
-   * <p>This protocol is associated to a {@link NioSocketChannel} established by remote peer
+   * <p>This protocol is associated to a {@link SocketChannel} established by remote peer
    * connecting to the given {@code port} that the proxy is listening on.
    */
   @AutoValue
@@ -114,7 +114,7 @@ public interface Protocol {
   /**
    * Connection parameters for a connection from the proxy to the GAE app.
    *
-   * <p>This protocol is associated to a {@link NioSocketChannel} established by the proxy
+   * <p>This protocol is associated to a {@link SocketChannel} established by the proxy
    * connecting to a remote peer.
    */
   @AutoValue
@@ -44,6 +44,7 @@ public class ProxyConfig {
   public String oauthClientId;
   public List<String> gcpScopes;
   public int serverCertificateCacheSeconds;
+  public Transport transport;
   public Gcs gcs;
   public Kms kms;
   public Epp epp;
@@ -53,6 +54,12 @@ public class ProxyConfig {
   public HttpsRelay httpsRelay;
   public Metrics metrics;
 
+  /** Configuration options that apply to the Netty transport. */
+  public static class Transport {
+    public String type;
+    public int acceptorsPerPort;
+  }
+
   /** Configuration options that apply to GCS. */
   public static class Gcs {
     public String bucket;
@@ -75,6 +82,7 @@ public class ProxyConfig {
     public int headerLengthBytes;
     public int readTimeoutSeconds;
     public Quota quota;
+    public CommandRateLimit commandRateLimit;
   }
 
   /** Configuration options that apply to WHOIS protocol. */
@@ -106,6 +114,8 @@ public class ProxyConfig {
     public int port;
     public int localPort;
     public int maxMessageLengthBytes;
+    public int maxPooledConnectionsPerEventLoop;
+    public int maxPendingPooledRequestsPerEventLoop;
   }
 
   /** Configuration options that apply to Stackdriver monitoring metrics. */
@@ -128,10 +138,27 @@ public class ProxyConfig {
     }
 
     public int refreshSeconds;
+    public String tokenStore;
     public QuotaGroup defaultQuota;
     public List<QuotaGroup> customQuota;
   }
 
+  /** Configuration options that apply to per-registrar EPP command rate limiting. */
+  public static class CommandRateLimit {
+
+    /** Rate limit for a set of EPP command classes, e.g. {@code domain:check}. */
+    public static class CommandLimit {
+      public List<String> commands;
+      public double tokensPerSecond;
+      public int burstTokens;
+    }
+
+    public boolean adaptive;
+    public int targetLatencyMillis;
+    public double minRateFraction;
+    public List<CommandLimit> limits;
+  }
+
   static ProxyConfig getProxyConfig(Environment env) {
     String defaultYaml = readResourceUtf8(ProxyConfig.class, DEFAULT_CONFIG);
     String customYaml =
@@ -433,6 +433,8 @@ public class ProxyModule {
 
     Set<FrontendProtocol> protocols();
 
+    ProxyConfig proxyConfig();
+
     MetricReporter metricReporter();
   }
 }
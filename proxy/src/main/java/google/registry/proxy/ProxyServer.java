@@ -14,19 +14,25 @@
 
 package google.registry.proxy;
 
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static google.registry.proxy.Protocol.PROTOCOL_KEY;
+import static google.registry.proxy.handler.BackendConnectionPool.CONNECTION_POOL_KEY;
 import static google.registry.proxy.handler.RelayHandler.RELAY_BUFFER_KEY;
 import static google.registry.proxy.handler.RelayHandler.RELAY_CHANNEL_KEY;
 import static google.registry.proxy.handler.RelayHandler.writeToRelayChannel;
 
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
 import com.google.common.flogger.FluentLogger;
 import com.google.monitoring.metrics.MetricReporter;
 import google.registry.proxy.Protocol.BackendProtocol;
 import google.registry.proxy.Protocol.FrontendProtocol;
 import google.registry.proxy.ProxyConfig.Environment;
 import google.registry.proxy.ProxyModule.ProxyComponent;
+import google.registry.proxy.handler.BackendConnectionPool;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
@@ -36,16 +42,14 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.socket.SocketChannel;
 import io.netty.util.ReferenceCountUtil;
 import io.netty.util.concurrent.Future;
 import io.netty.util.internal.logging.InternalLoggerFactory;
 import io.netty.util.internal.logging.JdkLoggerFactory;
 import jakarta.inject.Provider;
 import java.util.ArrayDeque;
-import java.util.HashMap;
 import java.util.Queue;
 import java.util.concurrent.TimeoutException;
 
@@ -60,17 +64,56 @@ public class ProxyServer implements Runnable {
   private static final int MAX_SOCKET_BACKLOG = 128;
 
   private final ImmutableSet<FrontendProtocol> protocols;
-  private final HashMap<Integer, Channel> portToChannelMap = new HashMap<>();
-  private final EventLoopGroup eventGroup = new NioEventLoopGroup();
+  private final ImmutableMap<BackendProtocol, BackendConnectionPool> connectionPools;
+  private final ListMultimap<Integer, Channel> portToChannelMap = ArrayListMultimap.create();
+  private final NettyTransport transport;
+  private final int acceptorsPerPort;
+  private final EventLoopGroup eventGroup;
 
   ProxyServer(ProxyComponent proxyComponent) {
+    ProxyConfig config = proxyComponent.proxyConfig();
     this.protocols = ImmutableSet.copyOf(proxyComponent.protocols());
+    this.transport = NettyTransport.select(config.transport.type);
+    this.acceptorsPerPort =
+        transport.supportsReusePort() ? Math.max(config.transport.acceptorsPerPort, 1) : 1;
+    this.eventGroup = transport.newEventLoopGroup();
+    this.connectionPools = createConnectionPools(protocols, transport, config);
+  }
+
+  /**
+   * Creates a {@link BackendConnectionPool} for each {@link BackendProtocol} relayed to.
+   *
+   * <p>Returns an empty map if pooling is disabled, in which case each inbound {@link Channel}
+   * establishes its own outbound relay {@link Channel}.
+   */
+  private static ImmutableMap<BackendProtocol, BackendConnectionPool> createConnectionPools(
+      ImmutableSet<FrontendProtocol> protocols, NettyTransport transport, ProxyConfig config) {
+    if (config.httpsRelay.maxPooledConnectionsPerEventLoop <= 0) {
+      return ImmutableMap.of();
+    }
+    Bootstrap bootstrap =
+        new Bootstrap()
+            .channel(transport.socketChannelClass())
+            .option(ChannelOption.SO_KEEPALIVE, true);
+    return protocols.stream()
+        .filter(FrontendProtocol::hasBackend)
+        .map(FrontendProtocol::relayProtocol)
+        .distinct()
+        .collect(
+            toImmutableMap(
+                protocol -> protocol,
+                protocol ->
+                    BackendConnectionPool.create(
+                        protocol,
+                        bootstrap,
+                        config.httpsRelay.maxPooledConnectionsPerEventLoop,
+                        config.httpsRelay.maxPendingPooledRequestsPerEventLoop)));
   }
 
   /**
    * A {@link ChannelInitializer} for connections from a client of a certain protocol.
    *
-   * <p>The {@link #initChannel(NioSocketChannel)} method does the following:
+   * <p>The {@link #initChannel(SocketChannel)} method does the following:
    *
    * <ol>
    *   <li>Determine the {@link FrontendProtocol} of the inbound {@link Channel} from its parent
@@ -81,10 +124,25 @@ public class ProxyServer implements Runnable {
    *   <li>After the outbound {@link Channel} connects successfully, enable {@link
    *       ChannelOption#AUTO_READ} on the inbound {@link Channel} to start reading.
    * </ol>
+   *
+   * <p>If the {@link FrontendProtocol#relayProtocol} has a {@link BackendConnectionPool}, no
+   * outbound {@link Channel} is established. Instead, the inbound {@link Channel} starts reading
+   * immediately and relays each request over a pooled outbound {@link Channel}.
    */
-  private static class ServerChannelInitializer extends ChannelInitializer<NioSocketChannel> {
+  private static class ServerChannelInitializer extends ChannelInitializer<SocketChannel> {
+
+    private final NettyTransport transport;
+    private final ImmutableMap<BackendProtocol, BackendConnectionPool> connectionPools;
+
+    ServerChannelInitializer(
+        NettyTransport transport,
+        ImmutableMap<BackendProtocol, BackendConnectionPool> connectionPools) {
+      this.transport = transport;
+      this.connectionPools = connectionPools;
+    }
+
     @Override
-    protected void initChannel(NioSocketChannel inboundChannel) {
+    protected void initChannel(SocketChannel inboundChannel) {
       // Add inbound channel handlers.
       FrontendProtocol inboundProtocol =
           (FrontendProtocol) inboundChannel.parent().attr(PROTOCOL_KEY).get();
@@ -99,28 +157,16 @@ public class ProxyServer implements Runnable {
       } else {
         logger.atInfo().log(
             "Connection established: %s %s", inboundProtocol.name(), inboundChannel);
-        // Connect to the relay (outbound) channel specified by the BackendProtocol.
         BackendProtocol outboundProtocol = inboundProtocol.relayProtocol();
-        Bootstrap bootstrap =
-            new Bootstrap()
-                // Use the same thread to connect to the relay channel, therefore avoiding
-                // synchronization handling due to interactions between the two channels
-                .group(inboundChannel.eventLoop())
-                .channel(NioSocketChannel.class)
-                .handler(
-                    new ChannelInitializer<NioSocketChannel>() {
-                      @Override
-                      protected void initChannel(NioSocketChannel outboundChannel) {
-                        addHandlers(
-                            outboundChannel.pipeline(), outboundProtocol.handlerProviders());
-                      }
-                    })
-                .option(ChannelOption.SO_KEEPALIVE, true)
-                // Outbound channel relays to inbound channel.
-                .attr(RELAY_CHANNEL_KEY, inboundChannel)
-                .attr(PROTOCOL_KEY, outboundProtocol);
-
-        connectOutboundChannel(bootstrap, inboundProtocol, outboundProtocol, inboundChannel);
+        BackendConnectionPool connectionPool = connectionPools.get(outboundProtocol);
+        if (connectionPool != null) {
+          // Outbound channels are acquired from the pool for each request, start reading
+          // immediately.
+          inboundChannel.attr(CONNECTION_POOL_KEY).set(connectionPool);
+          inboundChannel.config().setAutoRead(true);
+        } else {
+          bootstrapOutboundChannel(inboundChannel, inboundProtocol, outboundProtocol);
+        }
         // If the inbound connection is closed, close its outbound relay connection as well. There
         // is no way to recover from an inbound connection termination, as the connection can only
         // be initiated by the client.
@@ -132,7 +178,8 @@ public class ProxyServer implements Runnable {
                       logger.atInfo().log(
                           "Connection terminated: %s %s", inboundProtocol.name(), inboundChannel);
                       // Check if there's a relay connection. In case that the outbound connection
-                      // is not successful, this attribute is not set.
+                      // is not successful, or pooled outbound connections are used, this attribute
+                      // is not set.
                       Channel outboundChannel = inboundChannel.attr(RELAY_CHANNEL_KEY).get();
                       if (outboundChannel != null) {
                         ChannelFuture unusedChannelFuture2 = outboundChannel.close();
@@ -154,6 +201,33 @@ public class ProxyServer implements Runnable {
       }
     }
 
+    /** Establishes the dedicated outbound relay channel of an inbound channel. */
+    private void bootstrapOutboundChannel(
+        SocketChannel inboundChannel,
+        FrontendProtocol inboundProtocol,
+        BackendProtocol outboundProtocol) {
+      // Connect to the relay (outbound) channel specified by the BackendProtocol.
+      Bootstrap bootstrap =
+          new Bootstrap()
+              // Use the same thread to connect to the relay channel, therefore avoiding
+              // synchronization handling due to interactions between the two channels
+              .group(inboundChannel.eventLoop())
+              .channel(transport.socketChannelClass())
+              .handler(
+                  new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel outboundChannel) {
+                      addHandlers(outboundChannel.pipeline(), outboundProtocol.handlerProviders());
+                    }
+                  })
+              .option(ChannelOption.SO_KEEPALIVE, true)
+              // Outbound channel relays to inbound channel.
+              .attr(RELAY_CHANNEL_KEY, inboundChannel)
+              .attr(PROTOCOL_KEY, outboundProtocol);
+
+      connectOutboundChannel(bootstrap, inboundProtocol, outboundProtocol, inboundChannel);
+    }
+
     /**
      * Establishes an outbound relay channel and sets the relevant metadata on both channels.
      *
@@ -167,7 +241,7 @@ public class ProxyServer implements Runnable {
         Bootstrap bootstrap,
         FrontendProtocol inboundProtocol,
         BackendProtocol outboundProtocol,
-        NioSocketChannel inboundChannel) {
+        SocketChannel inboundChannel) {
       ChannelFuture outboundChannelFuture =
           bootstrap.connect(outboundProtocol.host(), outboundProtocol.port());
       outboundChannelFuture.addListener(
@@ -252,26 +326,34 @@ public class ProxyServer implements Runnable {
       ServerBootstrap serverBootstrap =
           new ServerBootstrap()
               .group(eventGroup)
-              .channel(NioServerSocketChannel.class)
-              .childHandler(new ServerChannelInitializer())
+              .channel(transport.serverSocketChannelClass())
+              .childHandler(new ServerChannelInitializer(transport, connectionPools))
               .option(ChannelOption.SO_BACKLOG, MAX_SOCKET_BACKLOG)
               .childOption(ChannelOption.SO_KEEPALIVE, true)
               // Do not read before relay channel is established.
               .childOption(ChannelOption.AUTO_READ, false);
+      if (acceptorsPerPort > 1) {
+        // Let the kernel balance incoming connections across all server channels bound to the same
+        // port. Each server channel is registered to a different event loop, so that connections
+        // are accepted on multiple threads.
+        serverBootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+      }
 
       // Bind to each port specified in portToHandlersMap.
       protocols.forEach(
           protocol -> {
             int port = protocol.port();
             try {
-              // Wait for binding to be established for each listening port.
-              ChannelFuture serverChannelFuture = serverBootstrap.bind(port).sync();
-              if (serverChannelFuture.isSuccess()) {
-                logger.atInfo().log(
-                    "Start listening on port %s for %s protocol.", port, protocol.name());
-                Channel serverChannel = serverChannelFuture.channel();
-                serverChannel.attr(PROTOCOL_KEY).set(protocol);
-                portToChannelMap.put(port, serverChannel);
+              for (int i = 0; i < acceptorsPerPort; i++) {
+                // Wait for binding to be established for each listening port.
+                ChannelFuture serverChannelFuture = serverBootstrap.bind(port).sync();
+                if (serverChannelFuture.isSuccess()) {
+                  logger.atInfo().log(
+                      "Start listening on port %s for %s protocol.", port, protocol.name());
+                  Channel serverChannel = serverChannelFuture.channel();
+                  serverChannel.attr(PROTOCOL_KEY).set(protocol);
+                  portToChannelMap.put(port, serverChannel);
+                }
               }
             } catch (InterruptedException e) {
               logger.atSevere().withCause(e).log(
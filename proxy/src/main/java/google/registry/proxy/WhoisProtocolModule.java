@@ -122,7 +122,7 @@ public final class WhoisProtocolModule {
   @WhoisProtocol
   static TokenStore provideTokenStore(
       ProxyConfig config, ScheduledExecutorService refreshExecutor, Clock clock) {
-    return new TokenStore(
+    return TokenStore.create(
         new QuotaConfig(config.whois.quota, PROTOCOL_NAME), refreshExecutor, clock);
   }
 
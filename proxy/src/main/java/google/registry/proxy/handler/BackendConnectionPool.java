@@ -0,0 +1,277 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.proxy.handler;
+
+import static google.registry.proxy.Protocol.PROTOCOL_KEY;
+import static google.registry.proxy.handler.RelayHandler.RELAY_BUFFER_KEY;
+import static google.registry.proxy.handler.RelayHandler.RELAY_CHANNEL_KEY;
+import static google.registry.proxy.handler.RelayHandler.writeToRelayChannel;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.flogger.FluentLogger;
+import google.registry.proxy.Protocol.BackendProtocol;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.EventLoop;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.channel.pool.ChannelPoolHandler;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.handler.codec.http.HttpMessage;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.util.AttributeKey;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.ReferenceCounted;
+import io.netty.util.concurrent.Future;
+import jakarta.inject.Provider;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A pool of keep-alive backend connections shared by all frontend channels of the same protocol.
+ *
+ * <p>Without pooling, every frontend channel owns a dedicated backend connection for its whole
+ * lifetime, so the number of backend connections (and TLS handshakes) grows linearly with the
+ * number of client sessions, most of which are idle at any given moment. With pooling, a frontend
+ * channel borrows a backend connection only for the duration of a single request-response
+ * exchange, and returns it to the pool once the response is relayed back.
+ *
+ * <p>This works because the backend is stateless with respect to connections: session state is
+ * carried by the cookies that {@link HttpsRelayServiceHandler} keeps for each frontend channel and
+ * writes into every request it relays, so any pooled connection can serve any session.
+ *
+ * <p>There is one {@link ChannelPool} per {@link EventLoop}. A frontend channel always borrows from
+ * the pool of its own event loop, so that (as with dedicated connections) a frontend channel and
+ * the backend connection serving it are handled by the same thread and need no synchronization.
+ *
+ * <p>A frontend channel has at most one request in flight at any time. Requests that arrive while
+ * one is in flight are queued in the frontend channel's relay buffer and sent in order after the
+ * response to the previous request is relayed back, which preserves the request-response ordering
+ * that EPP requires within a session.
+ */
+public class BackendConnectionPool implements ChannelPoolHandler {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  /**
+   * Key used to retrieve the {@link BackendConnectionPool} from a frontend channel that relays over
+   * it, or from a pooled backend channel.
+   */
+  public static final AttributeKey<BackendConnectionPool> CONNECTION_POOL_KEY =
+      AttributeKey.valueOf("CONNECTION_POOL_KEY");
+
+  /** Key used to mark a frontend channel that is waiting for the response to a relayed request. */
+  private static final AttributeKey<Boolean> REQUEST_IN_FLIGHT_KEY =
+      AttributeKey.valueOf("REQUEST_IN_FLIGHT_KEY");
+
+  /** Factory that creates the {@link ChannelPool} serving a given {@link EventLoop}. */
+  @VisibleForTesting
+  interface ChannelPoolFactory {
+    ChannelPool create(EventLoop eventLoop, ChannelPoolHandler handler);
+  }
+
+  private final BackendProtocol protocol;
+  private final ChannelPoolFactory channelPoolFactory;
+  private final ConcurrentHashMap<EventLoop, ChannelPool> channelPools =
+      new ConcurrentHashMap<>();
+
+  @VisibleForTesting
+  BackendConnectionPool(BackendProtocol protocol, ChannelPoolFactory channelPoolFactory) {
+    this.protocol = protocol;
+    this.channelPoolFactory = channelPoolFactory;
+  }
+
+  /**
+   * Creates a {@link BackendConnectionPool} that connects to the given {@link BackendProtocol}.
+   *
+   * @param bootstrap bootstrap used to open backend connections, without an event loop group or a
+   *     handler, both of which are set by the pool.
+   * @param maxConnectionsPerEventLoop maximum number of backend connections per event loop.
+   * @param maxPendingRequestsPerEventLoop maximum number of requests per event loop waiting for a
+   *     backend connection to become available, beyond which the requesting frontend channel is
+   *     closed.
+   */
+  public static BackendConnectionPool create(
+      BackendProtocol protocol,
+      Bootstrap bootstrap,
+      int maxConnectionsPerEventLoop,
+      int maxPendingRequestsPerEventLoop) {
+    return new BackendConnectionPool(
+        protocol,
+        (eventLoop, handler) ->
+            new FixedChannelPool(
+                bootstrap.clone(eventLoop).remoteAddress(protocol.host(), protocol.port()),
+                handler,
+                maxConnectionsPerEventLoop,
+                maxPendingRequestsPerEventLoop));
+  }
+
+  /** Relays a message received by a channel, depending on whether it is a frontend or not. */
+  void relay(Channel channel, Object msg) {
+    if (channel.attr(PROTOCOL_KEY).get() instanceof BackendProtocol) {
+      relayResponse(channel, msg);
+    } else {
+      relayRequest(channel, msg);
+    }
+  }
+
+  /** Relays a request from a frontend channel, or queues it if the channel has one in flight. */
+  private void relayRequest(Channel frontendChannel, Object request) {
+    frontendChannel.attr(RELAY_BUFFER_KEY).get().add(request);
+    if (frontendChannel.attr(REQUEST_IN_FLIGHT_KEY).get() == null) {
+      relayNextRequest(frontendChannel);
+    }
+  }
+
+  private void relayNextRequest(Channel frontendChannel) {
+    if (!frontendChannel.isActive()) {
+      // Buffered requests are released by the close listener of the frontend channel.
+      return;
+    }
+    Object request = frontendChannel.attr(RELAY_BUFFER_KEY).get().poll();
+    if (request == null) {
+      return;
+    }
+    frontendChannel.attr(REQUEST_IN_FLIGHT_KEY).set(true);
+    ChannelPool channelPool = getChannelPool(frontendChannel.eventLoop());
+    Future<Channel> unusedFuture =
+        channelPool
+            .acquire()
+            .addListener(
+                (Future<Channel> future) -> {
+                  if (!future.isSuccess()) {
+                    logger.atSevere().withCause(future.cause()).log(
+                        "Cannot acquire pooled relay channel for %s channel: %s.",
+                        frontendChannel.attr(PROTOCOL_KEY).get().name(), frontendChannel);
+                    ReferenceCountUtil.release(request);
+                    ChannelFuture unusedFuture2 = frontendChannel.close();
+                    return;
+                  }
+                  Channel backendChannel = future.getNow();
+                  if (!frontendChannel.isActive()) {
+                    ReferenceCountUtil.release(request);
+                    Future<Void> unusedFuture2 = channelPool.release(backendChannel);
+                    return;
+                  }
+                  writeRequest(frontendChannel, backendChannel, request);
+                });
+  }
+
+  private void writeRequest(Channel frontendChannel, Channel backendChannel, Object request) {
+    backendChannel.attr(RELAY_CHANNEL_KEY).set(frontendChannel);
+    // Keep a reference to the request so that it can be retried over another connection if the
+    // write fails, see RelayHandler#writeToRelayChannel.
+    if (request instanceof ReferenceCounted) {
+      ((ReferenceCounted) request).retain();
+    }
+    ChannelFuture unusedFuture =
+        backendChannel
+            .writeAndFlush(request)
+            .addListener(
+                future -> {
+                  if (future.isSuccess()) {
+                    ReferenceCountUtil.release(request);
+                    return;
+                  }
+                  logger.atWarning().withCause(future.cause()).log(
+                      "Relay failed: %s --> %s\nINBOUND: %s\nOUTBOUND: %s\nHASH: %s",
+                      frontendChannel.attr(PROTOCOL_KEY).get().name(),
+                      protocol.name(),
+                      frontendChannel,
+                      backendChannel,
+                      request.hashCode());
+                  // The pooled connection is broken. Discard it and retry the request over
+                  // another connection, ahead of any request queued after it.
+                  if (backendChannel.attr(RELAY_CHANNEL_KEY).getAndSet(null) != null) {
+                    ChannelFuture unusedFuture2 = backendChannel.close();
+                    releaseChannel(backendChannel);
+                  }
+                  frontendChannel.attr(RELAY_BUFFER_KEY).get().addFirst(request);
+                  frontendChannel.attr(REQUEST_IN_FLIGHT_KEY).set(null);
+                  relayNextRequest(frontendChannel);
+                });
+  }
+
+  /** Relays a response from a pooled backend channel, and returns the channel to the pool. */
+  private void relayResponse(Channel backendChannel, Object response) {
+    Channel frontendChannel = backendChannel.attr(RELAY_CHANNEL_KEY).getAndSet(null);
+    if (frontendChannel == null) {
+      logger.atWarning().log(
+          "Unsolicited response received on pooled relay channel: %s", backendChannel);
+      ReferenceCountUtil.release(response);
+      ChannelFuture unusedFuture = backendChannel.close();
+      return;
+    }
+    if (response instanceof HttpMessage && !HttpUtil.isKeepAlive((HttpMessage) response)) {
+      // Closing an inactive channel before releasing it stops the pool from handing it out again.
+      ChannelFuture unusedFuture = backendChannel.close();
+    }
+    releaseChannel(backendChannel);
+    writeToRelayChannel(backendChannel, frontendChannel, response, false);
+    frontendChannel.attr(REQUEST_IN_FLIGHT_KEY).set(null);
+    relayNextRequest(frontendChannel);
+  }
+
+  private void releaseChannel(Channel backendChannel) {
+    Future<Void> unusedFuture = getChannelPool(backendChannel.eventLoop()).release(backendChannel);
+  }
+
+  private ChannelPool getChannelPool(EventLoop eventLoop) {
+    return channelPools.computeIfAbsent(
+        eventLoop, loop -> channelPoolFactory.create(loop, this));
+  }
+
+  @Override
+  public void channelCreated(Channel backendChannel) {
+    backendChannel.attr(PROTOCOL_KEY).set(protocol);
+    backendChannel.attr(CONNECTION_POOL_KEY).set(this);
+    addHandlers(backendChannel, protocol.handlerProviders());
+    logger.atInfo().log("Pooled relay channel created: %s %s", protocol.name(), backendChannel);
+    // The backend may close an idle connection at any time, in which case the pool will simply
+    // discard it upon the next acquisition. But if a request was in flight, its response is lost
+    // and the frontend channel cannot recover from that, so we close it as well.
+    ChannelFuture unusedFuture =
+        backendChannel
+            .closeFuture()
+            .addListener(
+                future -> {
+                  Channel frontendChannel = backendChannel.attr(RELAY_CHANNEL_KEY).getAndSet(null);
+                  if (frontendChannel != null) {
+                    logger.atWarning().log(
+                        "Relay interrupted: %s <-> %s\nFRONTEND: %s\nBACKEND: %s",
+                        frontendChannel.attr(PROTOCOL_KEY).get().name(),
+                        protocol.name(),
+                        frontendChannel,
+                        backendChannel);
+                    releaseChannel(backendChannel);
+                    ChannelFuture unusedFuture2 = frontendChannel.close();
+                  }
+                });
+  }
+
+  @Override
+  public void channelAcquired(Channel backendChannel) {}
+
+  @Override
+  public void channelReleased(Channel backendChannel) {}
+
+  private static void addHandlers(
+      Channel channel, ImmutableList<Provider<? extends ChannelHandler>> handlerProviders) {
+    for (Provider<? extends ChannelHandler> handlerProvider : handlerProviders) {
+      channel.pipeline().addLast(handlerProvider.get());
+    }
+  }
+}
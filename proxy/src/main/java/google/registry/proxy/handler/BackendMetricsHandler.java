@@ -52,12 +52,9 @@ public class BackendMetricsHandler extends ChannelDuplexHandler {
   private final Clock clock;
   private final BackendMetrics metrics;
 
-  private String relayedProtocolName;
-  private String clientCertHash;
-  private Channel relayedChannel;
-
   /**
-   * A queue that saves the time at which a request is sent to the GAE app.
+   * A queue that saves the time at which a request is sent to the GAE app, along with the metric
+   * labels of the frontend channel that the request is relayed from.
    *
    * <p>This queue is used to calculate HTTP request-response latency. HTTP 1.1 specification allows
    * for pipelining, in which a client can sent multiple requests without waiting for each
@@ -65,13 +62,17 @@ public class BackendMetricsHandler extends ChannelDuplexHandler {
    * yet received a response.
    *
    * <p>A server must send its response in the same order it receives requests. This invariance
-   * guarantees that the request time at the head of the queue always corresponds to the response
+   * guarantees that the request at the head of the queue always corresponds to the response
    * received in {@link #channelRead}.
    *
    * @see <a href="https://www.w3.org/Protocols/rfc2616/rfc2616-sec8.html">RFC 2616 8.1.2.2
    *     Pipelining</a>
    */
-  private final Queue<DateTime> requestSentTimeQueue = new ArrayDeque<>();
+  private final Queue<SentRequest> sentRequestQueue = new ArrayDeque<>();
+
+  /** The time at which a request is sent, and the labels of the frontend channel it came from. */
+  private record SentRequest(
+      DateTime sentTime, String relayedProtocolName, String clientCertHash) {}
 
   @Inject
   BackendMetricsHandler(Clock clock, BackendMetrics metrics) {
@@ -79,40 +80,33 @@ public class BackendMetricsHandler extends ChannelDuplexHandler {
     this.metrics = metrics;
   }
 
-  @Override
-  public void channelRegistered(ChannelHandlerContext ctx) throws Exception {
-    // Backend channel is always established after a frontend channel is connected, so this call
-    // should always return a non-null relay channel.
-    relayedChannel = ctx.channel().attr(RELAY_CHANNEL_KEY).get();
-    checkNotNull(relayedChannel, "No frontend channel found.");
-    relayedProtocolName = relayedChannel.attr(PROTOCOL_KEY).get().name();
-    super.channelRegistered(ctx);
-  }
-
   @Override
   public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
     checkArgument(msg instanceof FullHttpResponse, "Incoming response must be FullHttpResponse.");
-    checkState(!requestSentTimeQueue.isEmpty(), "Response received before request is sent.");
+    checkState(!sentRequestQueue.isEmpty(), "Response received before request is sent.");
+    SentRequest sentRequest = sentRequestQueue.remove();
     metrics.responseReceived(
-        relayedProtocolName,
-        clientCertHash,
+        sentRequest.relayedProtocolName(),
+        sentRequest.clientCertHash(),
         (FullHttpResponse) msg,
-        new Duration(requestSentTimeQueue.remove().getMillis(), clock.nowUtc().getMillis()));
+        new Duration(sentRequest.sentTime().getMillis(), clock.nowUtc().getMillis()));
     super.channelRead(ctx, msg);
   }
 
   @Override
   public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
     checkArgument(msg instanceof FullHttpRequest, "Outgoing request must be FullHttpRequest.");
+    // The frontend channel is looked up for every request, because a pooled backend channel
+    // relays requests from different frontend channels over its lifetime.
+    Channel relayedChannel = ctx.channel().attr(RELAY_CHANNEL_KEY).get();
+    checkNotNull(relayedChannel, "No frontend channel found.");
+    String relayedProtocolName = relayedChannel.attr(PROTOCOL_KEY).get().name();
     // For WHOIS, client certificate hash is always set to "none".
     // For EPP, the client hash attribute is set upon handshake completion, before the first HELLO
-    // is sent to the server. Therefore the first call to write() with HELLO payload has access to
-    // the hash in its channel attribute.
-    if (clientCertHash == null) {
-      clientCertHash =
-          Optional.ofNullable(relayedChannel.attr(CLIENT_CERTIFICATE_HASH_KEY).get())
-              .orElse("none");
-    }
+    // is sent to the server. Therefore every call to write() has access to the hash in its channel
+    // attribute.
+    String clientCertHash =
+        Optional.ofNullable(relayedChannel.attr(CLIENT_CERTIFICATE_HASH_KEY).get()).orElse("none");
     FullHttpRequest request = (FullHttpRequest) msg;
 
     // Record request size now because the content would have read by the time the listener is
@@ -126,7 +120,8 @@ public class BackendMetricsHandler extends ChannelDuplexHandler {
                   if (future.isSuccess()) {
                     // Only instrument request metrics when the request is actually sent to GAE.
                     metrics.requestSent(relayedProtocolName, clientCertHash, bytes);
-                    requestSentTimeQueue.add(clock.nowUtc());
+                    sentRequestQueue.add(
+                        new SentRequest(clock.nowUtc(), relayedProtocolName, clientCertHash));
                   }
                 });
   }
@@ -20,11 +20,15 @@ import static google.registry.networking.handler.SslServerInitializer.CLIENT_CER
 import static google.registry.proxy.handler.ProxyProtocolHandler.REMOTE_ADDRESS_KEY;
 import static google.registry.util.X509Utils.getCertificateHash;
 import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MINUTES;
 
 import com.google.common.base.Strings;
 import com.google.common.flogger.FluentLogger;
 import com.google.common.io.BaseEncoding;
 import google.registry.proxy.metric.FrontendMetrics;
+import google.registry.proxy.quota.EppCommandRateLimiter;
+import google.registry.proxy.quota.EppCommandRateLimiter.Permit;
 import google.registry.util.ProxyHttpHeaders;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -39,7 +43,11 @@ import io.netty.handler.ssl.SslHandshakeCompletionEvent;
 import io.netty.util.AttributeKey;
 import io.netty.util.concurrent.Promise;
 import java.security.cert.X509Certificate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -59,22 +67,60 @@ public class EppServiceHandler extends HttpsRelayServiceHandler {
 
   public static final String EPP_CONTENT_TYPE = "application/epp+xml";
 
+  /** The 2502 response to a rate limited command, formatted with the transaction IDs. */
+  private static final String RATE_LIMITED_RESPONSE_FORMAT =
+      """
+      <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+      <epp xmlns="urn:ietf:params:xml:ns:epp-1.0">
+        <response>
+          <result code="2502">
+            <msg>Rate limit exceeded for %s commands; try again later</msg>
+          </result>
+          <trID>
+            %s<svTRID>%s</svTRID>
+          </trID>
+        </response>
+      </epp>
+      """;
+
+  private static final Pattern CLIENT_TRANSACTION_ID_PATTERN =
+      Pattern.compile("<(?:[\\w.-]+:)?clTRID>([^<]*)</");
+
   private final byte[] helloBytes;
+  private final EppCommandRateLimiter rateLimiter;
 
   private String sslClientCertificateHash;
   private String clientAddress;
 
   private Optional<String> maybeRegistrarId = Optional.empty();
 
+  /**
+   * The commands of this session that have not been answered yet, in the order they were received.
+   *
+   * <p>EPP requires responses to be sent in the same order as the commands (RFC 5734 section 3),
+   * so a rate limited command is only answered once all the commands before it have been answered.
+   */
+  private final Deque<PendingCommand> pendingCommands = new ArrayDeque<>();
+
+  /**
+   * A command awaiting its response.
+   *
+   * <p>A relayed command holds the rate limiter permit it was granted, if any. A rate limited
+   * command holds its 2502 response instead.
+   */
+  private record PendingCommand(@Nullable Permit permit, @Nullable String rejection) {}
+
   public EppServiceHandler(
       String relayHost,
       String relayPath,
       boolean canary,
       Supplier<String> idTokenSupplier,
       byte[] helloBytes,
+      EppCommandRateLimiter rateLimiter,
       FrontendMetrics metrics) {
     super(relayHost, relayPath, canary, idTokenSupplier, metrics);
     this.helloBytes = helloBytes.clone();
+    this.rateLimiter = rateLimiter;
   }
 
   /**
@@ -125,6 +171,66 @@ public class EppServiceHandler extends HttpsRelayServiceHandler {
     super.channelActive(ctx);
   }
 
+  /**
+   * Relays the EPP command to the backend, unless the registrar exceeded its rate for the command.
+   *
+   * <p>A rate limited command is answered by the proxy with a 2502 result, once the responses to
+   * all earlier commands of the session have been written. Unlike a quota rejection in {@link
+   * QuotaHandler}, this does not terminate the connection, so the registrar can retry the command
+   * within the same session.
+   */
+  @Override
+  protected void decode(ChannelHandlerContext ctx, ByteBuf byteBuf, List<Object> out) {
+    String commandClass = rateLimiter.getLimitedCommandClass(byteBuf);
+    Permit permit = null;
+    if (commandClass != null) {
+      permit =
+          rateLimiter.tryAcquire(maybeRegistrarId.orElse(sslClientCertificateHash), commandClass);
+      if (permit == null) {
+        rejectRateLimitedCommand(ctx, byteBuf, commandClass);
+        return;
+      }
+    }
+    super.decode(ctx, byteBuf, out);
+    pendingCommands.add(new PendingCommand(permit, null));
+  }
+
+  private void rejectRateLimitedCommand(
+      ChannelHandlerContext ctx, ByteBuf byteBuf, String commandClass) {
+    metrics.registerCommandRateLimited("epp", sslClientCertificateHash, commandClass);
+    logger.atInfo().atMostEvery(1, MINUTES).log(
+        "Rate limited %s command from client %s", commandClass, sslClientCertificateHash);
+    Matcher matcher = CLIENT_TRANSACTION_ID_PATTERN.matcher(byteBuf.toString(UTF_8));
+    // Consume the command, otherwise the decoder would hand it to us again.
+    byteBuf.skipBytes(byteBuf.readableBytes());
+    String clientTransactionId =
+        matcher.find() ? String.format("<clTRID>%s</clTRID>", matcher.group(1)) : "";
+    String response =
+        String.format(
+            RATE_LIMITED_RESPONSE_FORMAT,
+            commandClass,
+            clientTransactionId,
+            "proxy-" + UUID.randomUUID());
+    if (pendingCommands.isEmpty()) {
+      writeRejection(ctx, response);
+    } else {
+      pendingCommands.add(new PendingCommand(null, response));
+    }
+  }
+
+  /** Writes the 2502 responses queued behind the command that was just answered. */
+  private void writeQueuedRejections(ChannelHandlerContext ctx) {
+    while (!pendingCommands.isEmpty() && pendingCommands.peek().rejection() != null) {
+      writeRejection(ctx, pendingCommands.poll().rejection());
+    }
+  }
+
+  private static void writeRejection(ChannelHandlerContext ctx, String response) {
+    @SuppressWarnings("unused")
+    ChannelFuture unusedFuture =
+        ctx.writeAndFlush(Unpooled.wrappedBuffer(response.getBytes(UTF_8)));
+  }
+
   @Override
   protected FullHttpRequest decodeFullHttpRequest(ByteBuf byteBuf) {
     checkNotNull(clientAddress, "Cannot obtain client address.");
@@ -148,11 +254,16 @@ public class EppServiceHandler extends HttpsRelayServiceHandler {
       throws Exception {
     checkArgument(msg instanceof HttpResponse);
     HttpResponse response = (HttpResponse) msg;
+    PendingCommand command = pendingCommands.poll();
+    if (command != null && command.permit() != null) {
+      rateLimiter.release(command.permit());
+    }
     String sessionAliveValue = response.headers().get(ProxyHttpHeaders.EPP_SESSION);
     if ("close".equals(sessionAliveValue)) {
       promise.addListener(ChannelFutureListener.CLOSE);
     }
     super.write(ctx, msg, promise);
+    writeQueuedRejections(ctx);
   }
 
   /**
@@ -57,7 +57,10 @@ import javax.net.ssl.SSLHandshakeException;
  * to the remote peer of this channel.
  *
  * <p>This handler is session-aware and will store all the session cookies that are contained in the
- * HTTP response headers, which are added back to headers of subsequent HTTP requests.
+ * HTTP response headers, which are added back to headers of subsequent HTTP requests. Because the
+ * session state is carried in the requests rather than tied to the relay channel, the requests can
+ * be relayed over any backend connection, including one shared through a {@link
+ * BackendConnectionPool}.
  */
 public abstract class HttpsRelayServiceHandler extends ByteToMessageCodec<FullHttpResponse> {
 
@@ -15,6 +15,7 @@
 package google.registry.proxy.handler;
 
 import static google.registry.proxy.Protocol.PROTOCOL_KEY;
+import static google.registry.proxy.handler.BackendConnectionPool.CONNECTION_POOL_KEY;
 
 import com.google.common.flogger.FluentLogger;
 import google.registry.proxy.handler.QuotaHandler.OverQuotaException;
@@ -60,10 +61,20 @@ public class RelayHandler<I> extends SimpleChannelInboundHandler<I> {
     super(clazz, false);
   }
 
-  /** Read message of type {@code I}, write it as-is into the relay channel. */
+  /**
+   * Read message of type {@code I}, write it as-is into the relay channel.
+   *
+   * <p>If the channel relays over a {@link BackendConnectionPool}, the pool picks the relay channel
+   * instead.
+   */
   @Override
   protected void channelRead0(ChannelHandlerContext ctx, I msg) {
     Channel channel = ctx.channel();
+    BackendConnectionPool connectionPool = channel.attr(CONNECTION_POOL_KEY).get();
+    if (connectionPool != null) {
+      connectionPool.relay(channel, msg);
+      return;
+    }
     Channel relayChannel = channel.attr(RELAY_CHANNEL_KEY).get();
     if (relayChannel == null) {
       logger.atSevere().log("Relay channel not specified for channel: %s", channel);
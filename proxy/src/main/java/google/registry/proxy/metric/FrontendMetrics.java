@@ -16,8 +16,10 @@ package google.registry.proxy.metric;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.monitoring.metrics.EventMetric;
 import com.google.monitoring.metrics.IncrementableMetric;
+import com.google.monitoring.metrics.LabelDescriptor;
 import com.google.monitoring.metrics.Metric;
 import com.google.monitoring.metrics.MetricRegistryImpl;
 import google.registry.util.NonFinalForTesting;
@@ -38,6 +40,12 @@ import org.joda.time.Duration;
 @Singleton
 public class FrontendMetrics extends BaseMetrics {
 
+  private static final ImmutableSet<LabelDescriptor> COMMAND_LABELS =
+      new ImmutableSet.Builder<LabelDescriptor>()
+          .addAll(LABELS)
+          .add(LabelDescriptor.create("command", "Class of the EPP command, e.g. domain:check."))
+          .build();
+
   private static final ConcurrentMap<ImmutableList<String>, ChannelGroup> activeConnections =
       new ConcurrentHashMap<>();
 
@@ -71,6 +79,14 @@ public class FrontendMetrics extends BaseMetrics {
               "Quota Rejections",
               LABELS);
 
+  static final IncrementableMetric commandRateLimitedCounter =
+      MetricRegistryImpl.getDefault()
+          .newIncrementableMetric(
+              "/proxy/frontend/command_rate_limited",
+              "Total number of commands rejected by the proxy for exceeding the command rate.",
+              "Rate Limited Commands",
+              COMMAND_LABELS);
+
   static final EventMetric latencyMs =
       MetricRegistryImpl.getDefault()
           .newEventMetric(
@@ -93,6 +109,7 @@ public class FrontendMetrics extends BaseMetrics {
   void resetMetrics() {
     totalConnectionsCounter.reset();
     activeConnections.clear();
+    commandRateLimitedCounter.reset();
     latencyMs.reset();
   }
 
@@ -115,6 +132,11 @@ public class FrontendMetrics extends BaseMetrics {
     quotaRejectionsCounter.increment(protocol, certHash);
   }
 
+  @NonFinalForTesting
+  public void registerCommandRateLimited(String protocol, String certHash, String commandClass) {
+    commandRateLimitedCounter.increment(protocol, certHash, commandClass);
+  }
+
   @NonFinalForTesting
   public void responseSent(String protocol, String certHash, Duration latency) {
     // Short-circuit metrics recording randomly according to the configured ratio.
@@ -0,0 +1,306 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.proxy.quota;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.lang.StrictMath.max;
+import static java.lang.StrictMath.min;
+import static org.joda.time.DateTimeZone.UTC;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.flogger.FluentLogger;
+import google.registry.util.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import javax.annotation.concurrent.ThreadSafe;
+import org.joda.time.DateTime;
+
+/**
+ * A {@link TokenStore} that updates each user's tokens with a single compare-and-set.
+ *
+ * <p>The available tokens and the last refill time of a user are packed into one {@code long}
+ * (the refill time in epoch milliseconds in the high bits, the token count in the low {@value
+ * #TOKEN_BITS} bits), so that {@link #take} and {@link #put} never lock and do not allocate once
+ * the user has an entry in the store.
+ *
+ * <p>Instead of scanning the whole store, {@link #refresh} advances a timer wheel on which each
+ * entry is scheduled to expire one refresh period after its last refill. An entry that was refilled
+ * since it was scheduled is simply rescheduled, so each refresh only visits the entries that are
+ * due around that time.
+ */
+@ThreadSafe
+public class AtomicTokenStore implements TokenStore {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  /** Number of low bits of an entry state that hold the available token count. */
+  private static final int TOKEN_BITS = 22;
+
+  private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+
+  /** The largest token amount that can be allotted to a user. */
+  @VisibleForTesting static final int MAX_TOKEN_AMOUNT = (int) TOKEN_MASK;
+
+  /** The state of an entry that has been purged from the store and must no longer be updated. */
+  private static final long EVICTED = -1L;
+
+  /** Number of timer wheel ticks per refresh period. */
+  private static final long TICKS_PER_REFRESH_PERIOD = 64;
+
+  private static final long MIN_TICK_MILLIS = 1000;
+
+  /** The tokens of a single user. */
+  private static final class Bucket {
+    final String userId;
+    final AtomicLong state;
+
+    Bucket(String userId, long state) {
+      this.userId = userId;
+      this.state = new AtomicLong(state);
+    }
+  }
+
+  private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+  private final QuotaConfig config;
+  private final ScheduledExecutorService refreshExecutor;
+  private final Clock clock;
+
+  private final long refreshMillis;
+  private final long tickMillis;
+
+  /** The slots of the timer wheel, empty if refresh is disabled. */
+  private final ImmutableList<ConcurrentLinkedQueue<Bucket>> wheel;
+
+  /** The last tick processed by {@link #refresh}, which is the only writer. */
+  private volatile long lastProcessedTick;
+
+  public AtomicTokenStore(
+      QuotaConfig config, ScheduledExecutorService refreshExecutor, Clock clock) {
+    this.config = config;
+    this.refreshExecutor = refreshExecutor;
+    this.clock = clock;
+    refreshMillis = config.getRefreshPeriod().getMillis();
+    tickMillis = max(refreshMillis / TICKS_PER_REFRESH_PERIOD, MIN_TICK_MILLIS);
+    // One extra slot so that an entry due a full refresh period from now never lands in the slot
+    // that is currently being processed.
+    int slots = refreshMillis == 0 ? 0 : (int) ((refreshMillis + tickMillis - 1) / tickMillis) + 1;
+    wheel =
+        IntStream.range(0, slots)
+            .mapToObj(i -> new ConcurrentLinkedQueue<Bucket>())
+            .collect(ImmutableList.toImmutableList());
+    lastProcessedTick = clock.nowUtc().getMillis() / tickMillis;
+  }
+
+  @Override
+  public TimestampedInteger take(String userId) {
+    DateTime now = clock.nowUtc();
+    if (config.hasUnlimitedTokens(userId)) {
+      return TimestampedInteger.create(1, now);
+    }
+    long nowMillis = now.getMillis();
+    int tokenAmount = config.getTokenAmount(userId);
+    long refillPeriodMillis = config.getRefillPeriod(userId).getMillis();
+    Bucket bucket = getOrCreateBucket(userId, tokenAmount, nowMillis);
+    while (true) {
+      long state = bucket.state.get();
+      if (state == EVICTED) {
+        // Lost the race against refresh, start over with a new entry.
+        buckets.remove(userId, bucket);
+        bucket = getOrCreateBucket(userId, tokenAmount, nowMillis);
+        continue;
+      }
+      long refillTime = refillTime(state);
+      int tokens = tokens(state);
+      if (needsRefill(refillTime, nowMillis, refillPeriodMillis)) {
+        refillTime = nowMillis;
+        tokens = tokenAmount;
+      }
+      int granted = tokens > 0 ? 1 : 0;
+      long newState = pack(refillTime, tokens - granted);
+      if (newState == state || bucket.state.compareAndSet(state, newState)) {
+        return TimestampedInteger.create(granted, new DateTime(refillTime, UTC));
+      }
+    }
+  }
+
+  @Override
+  public void put(String userId, DateTime returnedTokenRefillTime) {
+    Bucket bucket = buckets.get(userId);
+    if (bucket == null || config.hasUnlimitedTokens(userId)) {
+      return;
+    }
+    long nowMillis = clock.nowUtc().getMillis();
+    int tokenAmount = config.getTokenAmount(userId);
+    long refillPeriodMillis = config.getRefillPeriod(userId).getMillis();
+    while (true) {
+      long state = bucket.state.get();
+      if (state == EVICTED) {
+        return;
+      }
+      long refillTime = refillTime(state);
+      int tokens = tokens(state);
+      if (needsRefill(refillTime, nowMillis, refillPeriodMillis)) {
+        refillTime = nowMillis;
+        tokens = tokenAmount;
+      }
+      // If the returned token comes from the current pool, add it back, otherwise discard it.
+      if (returnedTokenRefillTime.getMillis() == refillTime) {
+        tokens = min(tokens + 1, tokenAmount);
+      }
+      long newState = pack(refillTime, tokens);
+      if (newState == state || bucket.state.compareAndSet(state, newState)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Advances the timer wheel and deletes any entry that has not been refilled for longer than the
+   * refresh period.
+   *
+   * <p>Entries are only purged at the granularity of a wheel tick, i. e. up to 1/{@value
+   * #TICKS_PER_REFRESH_PERIOD} of the refresh period (and at least {@value #MIN_TICK_MILLIS}ms)
+   * after they expire. Does nothing if refresh is disabled.
+   */
+  @Override
+  public synchronized void refresh() {
+    if (wheel.isEmpty()) {
+      return;
+    }
+    long nowMillis = clock.nowUtc().getMillis();
+    long currentTick = nowMillis / tickMillis;
+    List<Bucket> dueBuckets = new ArrayList<>();
+    // If we fell behind by more than a full rotation, one rotation still visits every slot.
+    for (long tick = max(lastProcessedTick + 1, currentTick - wheel.size() + 1);
+        tick <= currentTick;
+        tick++) {
+      ConcurrentLinkedQueue<Bucket> slot = wheel.get((int) (tick % wheel.size()));
+      for (Bucket bucket = slot.poll(); bucket != null; bucket = slot.poll()) {
+        dueBuckets.add(bucket);
+      }
+      for (Bucket bucket : dueBuckets) {
+        expireOrReschedule(bucket, nowMillis, tick);
+      }
+      dueBuckets.clear();
+      lastProcessedTick = tick;
+    }
+  }
+
+  @Override
+  public void scheduleRefresh() {
+    // Only schedule refresh if the refresh period is not zero.
+    if (!wheel.isEmpty()) {
+      Future<?> unusedFuture =
+          refreshExecutor.scheduleWithFixedDelay(
+              () -> {
+                refresh();
+                logger.atFine().log("Refreshing quota for protocol %s", config.getProtocolName());
+              },
+              tickMillis,
+              tickMillis,
+              TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void expireOrReschedule(Bucket bucket, long nowMillis, long tick) {
+    while (true) {
+      long state = bucket.state.get();
+      if (state == EVICTED) {
+        return;
+      }
+      long dueTime = refillTime(state) + refreshMillis;
+      if (dueTime > nowMillis) {
+        schedule(bucket, dueTime, tick + 1);
+        return;
+      }
+      if (bucket.state.compareAndSet(state, EVICTED)) {
+        buckets.remove(bucket.userId, bucket);
+        return;
+      }
+    }
+  }
+
+  private Bucket getOrCreateBucket(String userId, int tokenAmount, long nowMillis) {
+    Bucket bucket = buckets.get(userId);
+    if (bucket != null) {
+      return bucket;
+    }
+    checkState(
+        tokenAmount <= MAX_TOKEN_AMOUNT,
+        "Token amount %s for user ID %s exceeds the maximum of %s",
+        tokenAmount,
+        userId,
+        MAX_TOKEN_AMOUNT);
+    Bucket newBucket = new Bucket(userId, pack(nowMillis, tokenAmount));
+    bucket = buckets.putIfAbsent(userId, newBucket);
+    if (bucket != null) {
+      return bucket;
+    }
+    if (!wheel.isEmpty()) {
+      schedule(newBucket, nowMillis + refreshMillis, lastProcessedTick + 1);
+    }
+    return newBucket;
+  }
+
+  /**
+   * Puts the bucket in the wheel slot of the tick at which it is due, but no earlier than {@code
+   * minTick}, as slots before it have already been processed.
+   */
+  private void schedule(Bucket bucket, long dueTime, long minTick) {
+    long tick = max(dueTime / tickMillis, minTick);
+    wheel.get((int) (tick % wheel.size())).add(bucket);
+  }
+
+  private static boolean needsRefill(long refillTime, long nowMillis, long refillPeriodMillis) {
+    return refillPeriodMillis != 0 && nowMillis - refillTime >= refillPeriodMillis;
+  }
+
+  private static long pack(long refillTime, int tokens) {
+    return (refillTime << TOKEN_BITS) | tokens;
+  }
+
+  private static long refillTime(long state) {
+    return state >>> TOKEN_BITS;
+  }
+
+  private static int tokens(long state) {
+    return (int) (state & TOKEN_MASK);
+  }
+
+  /**
+   * Helper method to retrieve the timestamped token value for a {@code userId} for testing.
+   *
+   * <p>This non-mutating method is exposed solely for testing, so that the {@link #buckets} can
+   * stay private and not be altered unintentionally.
+   */
+  @VisibleForTesting
+  TimestampedInteger getTokenForTests(String userId) {
+    Bucket bucket = buckets.get(userId);
+    long state = bucket == null ? EVICTED : bucket.state.get();
+    if (state == EVICTED) {
+      return null;
+    }
+    return TimestampedInteger.create(tokens(state), new DateTime(refillTime(state), UTC));
+  }
+}
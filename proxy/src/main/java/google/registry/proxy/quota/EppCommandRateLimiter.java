@@ -0,0 +1,200 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.proxy.quota;
+
+import static java.lang.StrictMath.max;
+import static java.lang.StrictMath.min;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import google.registry.proxy.ProxyConfig.CommandRateLimit;
+import google.registry.proxy.ProxyConfig.CommandRateLimit.CommandLimit;
+import google.registry.util.Clock;
+import io.netty.buffer.ByteBuf;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A thread-safe rate limiter for EPP commands, with one token bucket per registrar and command
+ * class.
+ *
+ * <p>The command class of an EPP message is its command name, qualified by the object it acts on
+ * if any, e.g. {@code domain:check} or {@code login}. Only the command classes that are configured
+ * in {@link CommandRateLimit} are limited.
+ *
+ * <p>When adaptive limiting is enabled, the rate of each command class is scaled down while the
+ * backend latency observed for that class, through {@link #release}, is above the target latency.
+ * This sheds load from the registrars that cause it (e.g. during drop-catch events) before the
+ * backend is saturated, while the configured burst still allows short spikes.
+ *
+ * <p>There should be one rate limiter per proxy.
+ */
+@ThreadSafe
+public class EppCommandRateLimiter {
+
+  /** Only this many leading bytes of a message are searched for its command. */
+  private static final int MAX_COMMAND_SEARCH_BYTES = 4096;
+
+  /** Weight of a new latency sample in the moving average. */
+  private static final double LATENCY_SMOOTHING_FACTOR = 0.2;
+
+  private static final Pattern COMMAND_PATTERN =
+      Pattern.compile("<(?:[\\w.-]+:)?command\\b[^>]*>\\s*<(?:[\\w.-]+:)?(\\w+)");
+
+  private static final Pattern OBJECT_PATTERN =
+      Pattern.compile("urn:ietf:params:xml:ns:(domain|host|contact)-1\\.0");
+
+  /** A granted token, to be released when the backend responds to the command. */
+  public record Permit(String commandClass, long startMillis) {}
+
+  private record BucketKey(String registrarId, String commandClass) {}
+
+  /** A token bucket that refills continuously. */
+  private static final class Bucket {
+
+    @GuardedBy("this")
+    private double tokens;
+
+    @GuardedBy("this")
+    private long lastRefillMillis;
+
+    Bucket(int burstTokens, long nowMillis) {
+      tokens = burstTokens;
+      lastRefillMillis = nowMillis;
+    }
+
+    synchronized boolean tryTake(double tokensPerSecond, int burstTokens, long nowMillis) {
+      tokens =
+          min(burstTokens, tokens + max(0, nowMillis - lastRefillMillis) * tokensPerSecond / 1000);
+      lastRefillMillis = nowMillis;
+      if (tokens < 1) {
+        return false;
+      }
+      tokens -= 1;
+      return true;
+    }
+  }
+
+  /** Exponentially weighted moving average of the backend latency of a command class. */
+  private static final class LatencyAverage {
+
+    @GuardedBy("this")
+    private double averageMillis = -1;
+
+    synchronized void record(long latencyMillis) {
+      averageMillis =
+          averageMillis < 0
+              ? latencyMillis
+              : averageMillis + LATENCY_SMOOTHING_FACTOR * (latencyMillis - averageMillis);
+    }
+
+    synchronized double get() {
+      return averageMillis;
+    }
+  }
+
+  private final ImmutableMap<String, CommandLimit> limits;
+  private final ImmutableMap<String, LatencyAverage> latencies;
+  private final boolean adaptive;
+  private final long targetLatencyMillis;
+  private final double minRateFraction;
+  private final Clock clock;
+
+  private final ConcurrentHashMap<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+
+  public EppCommandRateLimiter(CommandRateLimit config, Clock clock) {
+    ImmutableMap.Builder<String, CommandLimit> limitsBuilder = new ImmutableMap.Builder<>();
+    config.limits.forEach(
+        limit -> limit.commands.forEach(command -> limitsBuilder.put(command, limit)));
+    limits = limitsBuilder.build();
+    latencies = ImmutableMap.copyOf(Maps.asMap(limits.keySet(), unused -> new LatencyAverage()));
+    adaptive = config.adaptive;
+    targetLatencyMillis = config.targetLatencyMillis;
+    minRateFraction = config.minRateFraction;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the command class of the EPP message if it is rate limited, or {@code null} otherwise.
+   *
+   * <p>This method does not change the reader index of the message.
+   */
+  @Nullable
+  public String getLimitedCommandClass(ByteBuf message) {
+    if (limits.isEmpty()) {
+      return null;
+    }
+    String head =
+        message.toString(
+            message.readerIndex(), min(message.readableBytes(), MAX_COMMAND_SEARCH_BYTES), UTF_8);
+    Matcher commandMatcher = COMMAND_PATTERN.matcher(head);
+    if (!commandMatcher.find()) {
+      return null;
+    }
+    String commandClass = commandMatcher.group(1);
+    Matcher objectMatcher = OBJECT_PATTERN.matcher(head);
+    if (objectMatcher.find(commandMatcher.end())) {
+      commandClass = objectMatcher.group(1) + ":" + commandClass;
+    }
+    return limits.containsKey(commandClass) ? commandClass : null;
+  }
+
+  /**
+   * Attempts to take a token for the command class from the registrar's bucket.
+   *
+   * @return a {@link Permit} to {@link #release} once the backend has responded, or {@code null} if
+   *     the registrar has exceeded its rate for the command class.
+   */
+  @Nullable
+  public Permit tryAcquire(String registrarId, String commandClass) {
+    CommandLimit limit = limits.get(commandClass);
+    long nowMillis = clock.nowUtc().getMillis();
+    Bucket bucket =
+        buckets.computeIfAbsent(
+            new BucketKey(registrarId, commandClass),
+            unused -> new Bucket(limit.burstTokens, nowMillis));
+    if (!bucket.tryTake(getTokensPerSecond(commandClass), limit.burstTokens, nowMillis)) {
+      return null;
+    }
+    return new Permit(commandClass, nowMillis);
+  }
+
+  /** Records the backend latency of the command for which the permit was granted. */
+  public void release(Permit permit) {
+    latencies
+        .get(permit.commandClass())
+        .record(max(0, clock.nowUtc().getMillis() - permit.startMillis()));
+  }
+
+  /** Returns the current token refill rate of the command class. */
+  @VisibleForTesting
+  double getTokensPerSecond(String commandClass) {
+    double tokensPerSecond = limits.get(commandClass).tokensPerSecond;
+    if (!adaptive) {
+      return tokensPerSecond;
+    }
+    double averageLatencyMillis = latencies.get(commandClass).get();
+    if (averageLatencyMillis <= targetLatencyMillis) {
+      return tokensPerSecond;
+    }
+    return tokensPerSecond * max(minRateFraction, targetLatencyMillis / averageLatencyMillis);
+  }
+}
@@ -17,6 +17,7 @@ package google.registry.proxy.quota;
 import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ascii;
 import com.google.common.collect.ImmutableMap;
 import google.registry.proxy.ProxyConfig.Quota;
 import google.registry.proxy.ProxyConfig.Quota.QuotaGroup;
@@ -30,6 +31,7 @@ public class QuotaConfig {
 
   private final String protocolName;
   private final int refreshSeconds;
+  private final TokenStore.Type tokenStoreType;
   private final QuotaGroup defaultQuota;
   private final ImmutableMap<String, QuotaGroup> customQuotaMap;
 
@@ -42,6 +44,10 @@ public class QuotaConfig {
   public QuotaConfig(Quota quota, String protocolName) {
     this.protocolName = protocolName;
     refreshSeconds = quota.refreshSeconds;
+    tokenStoreType =
+        quota.tokenStore == null
+            ? TokenStore.Type.LOCKING
+            : TokenStore.Type.valueOf(Ascii.toUpperCase(quota.tokenStore));
     defaultQuota = quota.defaultQuota;
     ImmutableMap.Builder<String, QuotaGroup> mapBuilder = new ImmutableMap.Builder<>();
     quota.customQuota.forEach(
@@ -80,6 +86,11 @@ public class QuotaConfig {
     return Duration.standardSeconds(refreshSeconds);
   }
 
+  /** Returns the {@link TokenStore} implementation to use for this quota config. */
+  TokenStore.Type getTokenStoreType() {
+    return tokenStoreType;
+  }
+
   /** Returns the name of the protocol for which this quota config is made. */
   String getProtocolName() {
     return protocolName;
@@ -0,0 +1,47 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.proxy;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.netty.channel.epoll.Epoll;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link NettyTransport}. */
+class NettyTransportTest {
+
+  @Test
+  void testSelect_nio() {
+    assertThat(NettyTransport.select("nio")).isEqualTo(NettyTransport.NIO);
+  }
+
+  @Test
+  void testSelect_epoll_fallsBackToNioIfUnavailable() {
+    assertThat(NettyTransport.select("EPOLL"))
+        .isEqualTo(Epoll.isAvailable() ? NettyTransport.EPOLL : NettyTransport.NIO);
+  }
+
+  @Test
+  void testSelect_unknownTransport() {
+    assertThrows(IllegalArgumentException.class, () -> NettyTransport.select("io_uring"));
+  }
+
+  @Test
+  void testReusePort_onlySupportedByEpoll() {
+    assertThat(NettyTransport.EPOLL.supportsReusePort()).isTrue();
+    assertThat(NettyTransport.NIO.supportsReusePort()).isFalse();
+  }
+}
@@ -0,0 +1,259 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.proxy.handler;
+
+import static com.google.common.truth.Truth.assertThat;
+import static google.registry.proxy.Protocol.PROTOCOL_KEY;
+import static google.registry.proxy.TestUtils.makeHttpPostRequest;
+import static google.registry.proxy.TestUtils.makeHttpResponse;
+import static google.registry.proxy.handler.BackendConnectionPool.CONNECTION_POOL_KEY;
+import static google.registry.proxy.handler.RelayHandler.RELAY_BUFFER_KEY;
+import static google.registry.proxy.handler.RelayHandler.RELAY_CHANNEL_KEY;
+
+import com.google.common.collect.ImmutableList;
+import google.registry.proxy.Protocol;
+import google.registry.proxy.Protocol.BackendProtocol;
+import google.registry.proxy.Protocol.FrontendProtocol;
+import google.registry.proxy.handler.RelayHandler.FullHttpRequestRelayHandler;
+import google.registry.proxy.handler.RelayHandler.FullHttpResponseRelayHandler;
+import io.netty.channel.Channel;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import io.netty.util.concurrent.Promise;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link BackendConnectionPool}. */
+class BackendConnectionPoolTest {
+
+  private static final String HOST = "host.tld";
+
+  private final BackendProtocol backendProtocol =
+      Protocol.backendBuilder()
+          .name("BACKEND")
+          .host(HOST)
+          .port(1)
+          .handlerProviders(ImmutableList.of(FullHttpResponseRelayHandler::new))
+          .build();
+
+  private final FrontendProtocol frontendProtocol =
+      Protocol.frontendBuilder()
+          .name("FRONTEND")
+          .port(2)
+          .relayProtocol(backendProtocol)
+          .handlerProviders(ImmutableList.of())
+          .build();
+
+  private final FakeChannelPool channelPool = new FakeChannelPool();
+  private final BackendConnectionPool connectionPool =
+      new BackendConnectionPool(backendProtocol, (eventLoop, handler) -> channelPool);
+
+  /** A {@link ChannelPool} that hands out a fixed set of backend channels. */
+  private static class FakeChannelPool implements ChannelPool {
+
+    private final Deque<Channel> idleChannels = new ArrayDeque<>();
+    private final List<Channel> releasedChannels = new ArrayList<>();
+
+    @Override
+    public Future<Channel> acquire() {
+      return acquire(ImmediateEventExecutor.INSTANCE.newPromise());
+    }
+
+    @Override
+    public Future<Channel> acquire(Promise<Channel> promise) {
+      Channel channel = idleChannels.poll();
+      return channel == null
+          ? promise.setFailure(new IllegalStateException("No backend channel available."))
+          : promise.setSuccess(channel);
+    }
+
+    @Override
+    public Future<Void> release(Channel channel) {
+      return release(channel, ImmediateEventExecutor.INSTANCE.newPromise());
+    }
+
+    @Override
+    public Future<Void> release(Channel channel, Promise<Void> promise) {
+      releasedChannels.add(channel);
+      if (channel.isActive()) {
+        idleChannels.add(channel);
+      }
+      return promise.setSuccess(null);
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  private EmbeddedChannel createBackendChannel() {
+    EmbeddedChannel backendChannel = new EmbeddedChannel();
+    connectionPool.channelCreated(backendChannel);
+    channelPool.idleChannels.add(backendChannel);
+    return backendChannel;
+  }
+
+  private EmbeddedChannel createFrontendChannel() {
+    EmbeddedChannel frontendChannel = new EmbeddedChannel(new FullHttpRequestRelayHandler());
+    frontendChannel.attr(PROTOCOL_KEY).set(frontendProtocol);
+    frontendChannel.attr(RELAY_BUFFER_KEY).set(new ArrayDeque<>());
+    frontendChannel.attr(CONNECTION_POOL_KEY).set(connectionPool);
+    return frontendChannel;
+  }
+
+  private static FullHttpRequest makeRequest(String content) {
+    return makeHttpPostRequest(content, HOST, "/");
+  }
+
+  private static FullHttpResponse makeResponse(String content) {
+    return makeHttpResponse(content, HttpResponseStatus.OK);
+  }
+
+  @Test
+  void testSuccess_relayRequestAndResponse() {
+    EmbeddedChannel backendChannel = createBackendChannel();
+    EmbeddedChannel frontendChannel = createFrontendChannel();
+    FullHttpRequest request = makeRequest("request");
+    FullHttpResponse response = makeResponse("response");
+
+    assertThat(frontendChannel.writeInbound(request)).isFalse();
+    assertThat((Object) backendChannel.readOutbound()).isSameInstanceAs(request);
+    assertThat(backendChannel.attr(RELAY_CHANNEL_KEY).get()).isSameInstanceAs(frontendChannel);
+    assertThat(channelPool.idleChannels).isEmpty();
+
+    assertThat(backendChannel.writeInbound(response)).isFalse();
+    assertThat((Object) frontendChannel.readOutbound()).isSameInstanceAs(response);
+    // The backend channel is returned to the pool and no longer relays to the frontend channel.
+    assertThat(backendChannel.attr(RELAY_CHANNEL_KEY).get()).isNull();
+    assertThat(channelPool.idleChannels).containsExactly(backendChannel);
+    assertThat(frontendChannel.attr(RELAY_CHANNEL_KEY).get()).isNull();
+    assertThat(frontendChannel.isActive()).isTrue();
+  }
+
+  @Test
+  void testSuccess_frontendChannelsShareBackendChannel() {
+    EmbeddedChannel backendChannel = createBackendChannel();
+    EmbeddedChannel frontendChannel1 = createFrontendChannel();
+    EmbeddedChannel frontendChannel2 = createFrontendChannel();
+    FullHttpRequest request1 = makeRequest("request 1");
+    FullHttpResponse response1 = makeResponse("response 1");
+    FullHttpRequest request2 = makeRequest("request 2");
+    FullHttpResponse response2 = makeResponse("response 2");
+
+    frontendChannel1.writeInbound(request1);
+    assertThat((Object) backendChannel.readOutbound()).isSameInstanceAs(request1);
+    backendChannel.writeInbound(response1);
+    assertThat((Object) frontendChannel1.readOutbound()).isSameInstanceAs(response1);
+
+    frontendChannel2.writeInbound(request2);
+    assertThat((Object) backendChannel.readOutbound()).isSameInstanceAs(request2);
+    backendChannel.writeInbound(response2);
+    assertThat((Object) frontendChannel2.readOutbound()).isSameInstanceAs(response2);
+    assertThat((Object) frontendChannel1.readOutbound()).isNull();
+  }
+
+  @Test
+  void testSuccess_requestQueuedWhileAnotherInFlight() {
+    EmbeddedChannel backendChannel1 = createBackendChannel();
+    EmbeddedChannel backendChannel2 = createBackendChannel();
+    EmbeddedChannel frontendChannel = createFrontendChannel();
+    FullHttpRequest request1 = makeRequest("request 1");
+    FullHttpResponse response1 = makeResponse("response 1");
+    FullHttpRequest request2 = makeRequest("request 2");
+
+    frontendChannel.writeInbound(request1);
+    frontendChannel.writeInbound(request2);
+    // Only the first request is sent, even though another backend channel is available.
+    assertThat((Object) backendChannel1.readOutbound()).isSameInstanceAs(request1);
+    assertThat((Object) backendChannel2.readOutbound()).isNull();
+    assertThat(frontendChannel.attr(RELAY_BUFFER_KEY).get()).containsExactly(request2);
+
+    backendChannel1.writeInbound(response1);
+    assertThat((Object) frontendChannel.readOutbound()).isSameInstanceAs(response1);
+    // The second request is sent after the first response is relayed back.
+    assertThat((Object) backendChannel2.readOutbound()).isSameInstanceAs(request2);
+    assertThat(frontendChannel.attr(RELAY_BUFFER_KEY).get()).isEmpty();
+  }
+
+  @Test
+  void testSuccess_connectionCloseResponse_backendChannelNotReused() {
+    EmbeddedChannel backendChannel = createBackendChannel();
+    EmbeddedChannel frontendChannel = createFrontendChannel();
+    FullHttpResponse response = makeResponse("response");
+    response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+
+    frontendChannel.writeInbound(makeRequest("request"));
+    backendChannel.writeInbound(response);
+    assertThat((Object) frontendChannel.readOutbound()).isSameInstanceAs(response);
+    assertThat(backendChannel.isActive()).isFalse();
+    assertThat(channelPool.releasedChannels).containsExactly(backendChannel);
+    assertThat(channelPool.idleChannels).isEmpty();
+    assertThat(frontendChannel.isActive()).isTrue();
+  }
+
+  @Test
+  void testSuccess_writeFailed_retriedOnAnotherBackendChannel() {
+    EmbeddedChannel deadBackendChannel = createBackendChannel();
+    EmbeddedChannel backendChannel = createBackendChannel();
+    EmbeddedChannel frontendChannel = createFrontendChannel();
+    FullHttpRequest request = makeRequest("request");
+    deadBackendChannel.close();
+
+    frontendChannel.writeInbound(request);
+    assertThat((Object) backendChannel.readOutbound()).isSameInstanceAs(request);
+    assertThat(channelPool.releasedChannels).containsExactly(deadBackendChannel);
+    assertThat(frontendChannel.isActive()).isTrue();
+  }
+
+  @Test
+  void testFailure_noBackendChannel_frontendChannelClosed() {
+    EmbeddedChannel frontendChannel = createFrontendChannel();
+
+    frontendChannel.writeInbound(makeRequest("request"));
+    assertThat(frontendChannel.isActive()).isFalse();
+  }
+
+  @Test
+  void testFailure_backendChannelClosedWhileInFlight_frontendChannelClosed() {
+    EmbeddedChannel backendChannel = createBackendChannel();
+    EmbeddedChannel frontendChannel = createFrontendChannel();
+
+    frontendChannel.writeInbound(makeRequest("request"));
+    backendChannel.close();
+    assertThat(channelPool.releasedChannels).containsExactly(backendChannel);
+    assertThat(channelPool.idleChannels).isEmpty();
+    assertThat(frontendChannel.isActive()).isFalse();
+  }
+
+  @Test
+  void testSuccess_idleBackendChannelClosed_frontendChannelUnaffected() {
+    EmbeddedChannel backendChannel = createBackendChannel();
+    EmbeddedChannel frontendChannel = createFrontendChannel();
+
+    frontendChannel.writeInbound(makeRequest("request"));
+    backendChannel.writeInbound(makeResponse("response"));
+    backendChannel.close();
+    assertThat(frontendChannel.isActive()).isTrue();
+  }
+}
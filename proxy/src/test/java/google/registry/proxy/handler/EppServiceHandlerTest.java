@@ -23,15 +23,25 @@ import static google.registry.util.X509Utils.getCertificateHash;
 import static java.nio.charset.StandardCharsets.US_ASCII;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.io.BaseEncoding;
+import google.registry.proxy.ProxyConfig.CommandRateLimit;
+import google.registry.proxy.ProxyConfig.CommandRateLimit.CommandLimit;
 import google.registry.proxy.TestUtils;
 import google.registry.proxy.handler.HttpsRelayServiceHandler.NonOkHttpResponseException;
 import google.registry.proxy.metric.FrontendMetrics;
+import google.registry.proxy.quota.EppCommandRateLimiter;
+import google.registry.proxy.quota.EppCommandRateLimiter.Permit;
+import google.registry.testing.FakeClock;
 import google.registry.util.ProxyHttpHeaders;
 import google.registry.util.SelfSignedCaCertificate;
 import io.netty.buffer.ByteBuf;
@@ -48,6 +58,7 @@ import io.netty.handler.codec.http.cookie.DefaultCookie;
 import io.netty.util.concurrent.Promise;
 import java.io.IOException;
 import java.security.cert.X509Certificate;
+import org.joda.time.Duration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -72,12 +83,52 @@ class EppServiceHandlerTest {
 
   private final FrontendMetrics metrics = mock(FrontendMetrics.class);
 
+  private final FakeClock clock = new FakeClock();
+
+  private final EppCommandRateLimiter rateLimiter =
+      new EppCommandRateLimiter(makeCommandRateLimit(), clock);
+
   private final EppServiceHandler eppServiceHandler =
       new EppServiceHandler(
-          RELAY_HOST, RELAY_PATH, false, () -> ID_TOKEN, HELLO.getBytes(UTF_8), metrics);
+          RELAY_HOST,
+          RELAY_PATH,
+          false,
+          () -> ID_TOKEN,
+          HELLO.getBytes(UTF_8),
+          rateLimiter,
+          metrics);
 
   private EmbeddedChannel channel;
 
+  /** Allows one domain:check per second, with no burst. */
+  private static CommandRateLimit makeCommandRateLimit() {
+    CommandLimit limit = new CommandLimit();
+    limit.commands = ImmutableList.of("domain:check");
+    limit.tokensPerSecond = 1;
+    limit.burstTokens = 1;
+    CommandRateLimit commandRateLimit = new CommandRateLimit();
+    commandRateLimit.limits = ImmutableList.of(limit);
+    return commandRateLimit;
+  }
+
+  private static String makeDomainCommand(String command, String clientTransactionId) {
+    return String.format(
+        """
+        <?xml version="1.0" encoding="UTF-8" standalone="no"?>
+        <epp xmlns="urn:ietf:params:xml:ns:epp-1.0">
+          <command>
+            <%1$s>
+              <domain:%1$s xmlns:domain="urn:ietf:params:xml:ns:domain-1.0">
+                <domain:name>example.tld</domain:name>
+              </domain:%1$s>
+            </%1$s>
+            <clTRID>%2$s</clTRID>
+          </command>
+        </epp>
+        """,
+        command, clientTransactionId);
+  }
+
   private static void setHandshakeSuccess(EmbeddedChannel channel, X509Certificate certificate) {
     @SuppressWarnings("unused")
     Promise<X509Certificate> unusedPromise =
@@ -149,7 +200,13 @@ class EppServiceHandlerTest {
     // Set up the second channel.
     EppServiceHandler eppServiceHandler2 =
         new EppServiceHandler(
-            RELAY_HOST, RELAY_PATH, false, () -> ID_TOKEN, HELLO.getBytes(UTF_8), metrics);
+            RELAY_HOST,
+            RELAY_PATH,
+            false,
+            () -> ID_TOKEN,
+            HELLO.getBytes(UTF_8),
+            rateLimiter,
+            metrics);
     EmbeddedChannel channel2 = setUpNewChannel(eppServiceHandler2);
     setHandshakeSuccess(channel2, clientCertificate);
 
@@ -169,7 +226,13 @@ class EppServiceHandlerTest {
     // Set up the second channel.
     EppServiceHandler eppServiceHandler2 =
         new EppServiceHandler(
-            RELAY_HOST, RELAY_PATH, false, () -> ID_TOKEN, HELLO.getBytes(UTF_8), metrics);
+            RELAY_HOST,
+            RELAY_PATH,
+            false,
+            () -> ID_TOKEN,
+            HELLO.getBytes(UTF_8),
+            rateLimiter,
+            metrics);
     EmbeddedChannel channel2 = setUpNewChannel(eppServiceHandler2);
     X509Certificate clientCertificate2 = SelfSignedCaCertificate.create().cert();
     setHandshakeSuccess(channel2, clientCertificate2);
@@ -217,11 +280,126 @@ class EppServiceHandlerTest {
     assertThat(channel.isActive()).isTrue();
   }
 
+  /** Writes the backend response to the oldest pending command and returns what the client got. */
+  private String respond(String content) {
+    channel.writeOutbound(makeEppHttpResponse(content, HttpResponseStatus.OK));
+    return ((ByteBuf) channel.readOutbound()).toString(UTF_8);
+  }
+
+  @Test
+  void testSuccess_rateLimitedCommand_answeredWith2502() throws Exception {
+    setHandshakeSuccess();
+    // First inbound message is hello.
+    channel.readInbound();
+    respond("<epp>greeting</epp>");
+    String check = makeDomainCommand("check", "ABC-123");
+    channel.writeInbound(Unpooled.wrappedBuffer(check.getBytes(UTF_8)));
+    assertThat((FullHttpRequest) channel.readInbound()).isEqualTo(makeEppHttpRequest(check));
+    respond("<epp>check</epp>");
+
+    // The second check within the same second is not relayed.
+    channel.writeInbound(Unpooled.wrappedBuffer(check.getBytes(UTF_8)));
+    assertThat((Object) channel.readInbound()).isNull();
+    ByteBuf response = channel.readOutbound();
+    String responseContent = response.toString(UTF_8);
+    assertThat(responseContent).contains("<result code=\"2502\">");
+    assertThat(responseContent).contains("<clTRID>ABC-123</clTRID>");
+    assertThat(responseContent).contains("<svTRID>proxy-");
+    String certHash = getCertificateHash(clientCertificate);
+    verify(metrics).registerCommandRateLimited(PROTOCOL, certHash, "domain:check");
+    // The session stays open.
+    assertThat(channel.isActive()).isTrue();
+
+    // Other commands are not limited.
+    String info = makeDomainCommand("info", "ABC-124");
+    channel.writeInbound(Unpooled.wrappedBuffer(info.getBytes(UTF_8)));
+    assertThat((FullHttpRequest) channel.readInbound()).isEqualTo(makeEppHttpRequest(info));
+
+    // The bucket is refilled after a second.
+    clock.advanceBy(Duration.standardSeconds(1));
+    channel.writeInbound(Unpooled.wrappedBuffer(check.getBytes(UTF_8)));
+    assertThat((FullHttpRequest) channel.readInbound()).isEqualTo(makeEppHttpRequest(check));
+  }
+
+  @Test
+  void testSuccess_rateLimitedCommand_answeredAfterEarlierCommands() throws Exception {
+    setHandshakeSuccess();
+    // First inbound message is hello.
+    channel.readInbound();
+    respond("<epp>greeting</epp>");
+    String info = makeDomainCommand("info", "ABC-122");
+    String check = makeDomainCommand("check", "ABC-123");
+    String limitedCheck = makeDomainCommand("check", "ABC-124");
+    String secondInfo = makeDomainCommand("info", "ABC-125");
+    // The client pipelines four commands, the third of which is rate limited.
+    channel.writeInbound(Unpooled.wrappedBuffer(info.getBytes(UTF_8)));
+    channel.writeInbound(Unpooled.wrappedBuffer(check.getBytes(UTF_8)));
+    channel.writeInbound(Unpooled.wrappedBuffer(limitedCheck.getBytes(UTF_8)));
+    channel.writeInbound(Unpooled.wrappedBuffer(secondInfo.getBytes(UTF_8)));
+    assertThat((FullHttpRequest) channel.readInbound()).isEqualTo(makeEppHttpRequest(info));
+    assertThat((FullHttpRequest) channel.readInbound()).isEqualTo(makeEppHttpRequest(check));
+    assertThat((FullHttpRequest) channel.readInbound()).isEqualTo(makeEppHttpRequest(secondInfo));
+    assertThat((Object) channel.readInbound()).isNull();
+    // The 2502 response waits for the responses to the commands sent before it.
+    assertThat((Object) channel.readOutbound()).isNull();
+
+    assertThat(respond("<epp>info</epp>")).isEqualTo("<epp>info</epp>");
+    assertThat((Object) channel.readOutbound()).isNull();
+    assertThat(respond("<epp>check</epp>")).isEqualTo("<epp>check</epp>");
+    String rejection = ((ByteBuf) channel.readOutbound()).toString(UTF_8);
+    assertThat(rejection).contains("<result code=\"2502\">");
+    assertThat(rejection).contains("<clTRID>ABC-124</clTRID>");
+    assertThat((Object) channel.readOutbound()).isNull();
+    assertThat(respond("<epp>second info</epp>")).isEqualTo("<epp>second info</epp>");
+    assertThat((Object) channel.readOutbound()).isNull();
+    assertThat(channel.isActive()).isTrue();
+  }
+
+  @Test
+  void testSuccess_pipelinedCommands_eachPermitReleased() throws Exception {
+    EppCommandRateLimiter mockRateLimiter = mock(EppCommandRateLimiter.class);
+    Permit firstPermit = new Permit("domain:check", 0);
+    Permit secondPermit = new Permit("domain:check", 1);
+    // The hello is not rate limited, the checks after it are.
+    when(mockRateLimiter.getLimitedCommandClass(any())).thenReturn(null, "domain:check");
+    when(mockRateLimiter.tryAcquire(any(), eq("domain:check")))
+        .thenReturn(firstPermit, secondPermit);
+    channel =
+        setUpNewChannel(
+            new EppServiceHandler(
+                RELAY_HOST,
+                RELAY_PATH,
+                false,
+                () -> ID_TOKEN,
+                HELLO.getBytes(UTF_8),
+                mockRateLimiter,
+                metrics));
+    setHandshakeSuccess();
+    // First inbound message is hello.
+    channel.readInbound();
+    String check = makeDomainCommand("check", "ABC-123");
+    channel.writeInbound(Unpooled.wrappedBuffer(check.getBytes(UTF_8)));
+    channel.writeInbound(Unpooled.wrappedBuffer(check.getBytes(UTF_8)));
+
+    respond("<epp>greeting</epp>");
+    respond("<epp>first check</epp>");
+    verify(mockRateLimiter).release(firstPermit);
+    verify(mockRateLimiter, never()).release(secondPermit);
+    respond("<epp>second check</epp>");
+    verify(mockRateLimiter).release(secondPermit);
+  }
+
   @Test
   void testSuccess_sendRequestToNextHandler_canary() throws Exception {
     EppServiceHandler eppServiceHandler2 =
         new EppServiceHandler(
-            RELAY_HOST, RELAY_PATH, true, () -> ID_TOKEN, HELLO.getBytes(UTF_8), metrics);
+            RELAY_HOST,
+            RELAY_PATH,
+            true,
+            () -> ID_TOKEN,
+            HELLO.getBytes(UTF_8),
+            rateLimiter,
+            metrics);
     channel = setUpNewChannel(eppServiceHandler2);
     setHandshakeSuccess();
     // First inbound message is hello.
@@ -223,4 +223,17 @@ class FrontendMetricsTest {
         .and()
         .hasNoOtherValues();
   }
+
+  @Test
+  void testSuccess_registerCommandRateLimited() {
+    metrics.registerCommandRateLimited(PROTOCOL, CERT_HASH, "domain:check");
+    metrics.registerCommandRateLimited(PROTOCOL, CERT_HASH, "domain:check");
+    metrics.registerCommandRateLimited(PROTOCOL, CERT_HASH, "domain:create");
+    assertThat(FrontendMetrics.commandRateLimitedCounter)
+        .hasValueForLabels(2, PROTOCOL, CERT_HASH, "domain:check")
+        .and()
+        .hasValueForLabels(1, PROTOCOL, CERT_HASH, "domain:create")
+        .and()
+        .hasNoOtherValues();
+  }
 }
@@ -0,0 +1,152 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.proxy.quota;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import google.registry.proxy.quota.TokenStore.TimestampedInteger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/** Unit tests for {@link AtomicTokenStore}. */
+class AtomicTokenStoreTest extends TokenStoreTest<AtomicTokenStore> {
+
+  @Override
+  AtomicTokenStore createTokenStore() {
+    return new AtomicTokenStore(quotaConfig, refreshExecutor, clock);
+  }
+
+  @Override
+  TimestampedInteger getTokenForTests(String userId) {
+    return tokenStore.getTokenForTests(userId);
+  }
+
+  @Test
+  void testSuccess_refresh_refilledEntryRescheduled() {
+    assertTake(1, 2, clock.nowUtc());
+
+    // The entry is refilled 10s after it was created, so it only expires 70s in.
+    clock.advanceBy(Duration.standardSeconds(10));
+    DateTime refillTime = clock.nowUtc();
+    assertTake(1, 2, refillTime);
+    clock.advanceBy(Duration.standardSeconds(50));
+    tokenStore.refresh();
+    assertThat(getTokenForTests(user))
+        .isEqualTo(TimestampedInteger.create(2, refillTime));
+
+    clock.advanceBy(Duration.standardSeconds(10));
+    tokenStore.refresh();
+    assertThat(getTokenForTests(user)).isNull();
+
+    // A new entry is created after the old one is purged.
+    assertTake(1, 2, clock.nowUtc());
+  }
+
+  @Test
+  void testSuccess_refresh_afterLongPause() {
+    assertTake(1, 2, clock.nowUtc());
+    clock.advanceBy(Duration.standardDays(1));
+    tokenStore.refresh();
+    assertThat(getTokenForTests(user)).isNull();
+  }
+
+  @Test
+  void testSuccess_unlimitedQuota() {
+    when(quotaConfig.hasUnlimitedTokens(user)).thenReturn(true);
+    for (int i = 0; i < 10000; ++i) {
+      assertThat(tokenStore.take(user)).isEqualTo(TimestampedInteger.create(1, clock.nowUtc()));
+    }
+    for (int i = 0; i < 10000; ++i) {
+      tokenStore.put(user, clock.nowUtc());
+    }
+    // Users with unlimited tokens are not tracked.
+    assertThat(getTokenForTests(user)).isNull();
+  }
+
+  @Test
+  void testSuccess_noRefresh_refreshAndScheduleRefreshDoNothing() {
+    when(quotaConfig.getRefreshPeriod()).thenReturn(Duration.ZERO);
+    tokenStore = createTokenStore();
+    DateTime refillTime = clock.nowUtc();
+    assertTake(1, 2, refillTime);
+    clock.advanceBy(Duration.standardDays(365));
+    tokenStore.refresh();
+    assertThat(getTokenForTests(user)).isEqualTo(TimestampedInteger.create(2, refillTime));
+    tokenStore.scheduleRefresh();
+    verifyNoInteractions(refreshExecutor);
+  }
+
+  @Test
+  void testFailure_tokenAmountTooLarge() {
+    when(quotaConfig.getTokenAmount(user)).thenReturn(AtomicTokenStore.MAX_TOKEN_AMOUNT + 1);
+    IllegalStateException e =
+        assertThrows(IllegalStateException.class, () -> tokenStore.take(user));
+    assertThat(e).hasMessageThat().contains("exceeds the maximum");
+  }
+
+  @Test
+  void testSuccess_concurrency_contendedUser() {
+    when(quotaConfig.getRefillPeriod(user)).thenReturn(Duration.ZERO);
+    when(quotaConfig.getTokenAmount(user)).thenReturn(5000);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    AtomicInteger granted = new AtomicInteger();
+    Runnable task =
+        () -> {
+          for (int i = 0; i < 1000; i++) {
+            granted.addAndGet(tokenStore.take(user).value());
+          }
+        };
+    submitAndWaitForTasks(executor, task, task, task, task, task, task, task, task);
+    assertThat(granted.get()).isEqualTo(5000);
+    assertThat(getTokenForTests(user))
+        .isEqualTo(TimestampedInteger.create(0, clock.nowUtc()));
+
+    DateTime refillTime = clock.nowUtc();
+    submitAndWaitForTasks(
+        executor,
+        () -> tokenStore.put(user, refillTime),
+        () -> tokenStore.put(user, refillTime),
+        () -> tokenStore.put(user, refillTime));
+    assertThat(getTokenForTests(user))
+        .isEqualTo(TimestampedInteger.create(3, refillTime));
+    executor.shutdown();
+  }
+
+  @Test
+  void testSuccess_scheduleRefresh() {
+    tokenStore.scheduleRefresh();
+
+    // Verify that a task is scheduled once per wheel tick.
+    ArgumentCaptor<Runnable> argument = ArgumentCaptor.forClass(Runnable.class);
+    verify(refreshExecutor)
+        .scheduleWithFixedDelay(
+            argument.capture(), eq(1000L), eq(1000L), eq(TimeUnit.MILLISECONDS));
+
+    // Verify that the scheduled task calls TokenStore.refresh().
+    argument.getValue().run();
+    verify(tokenStore).refresh();
+  }
+}
@@ -0,0 +1,180 @@
+// Copyright 2026 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.proxy.quota;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import google.registry.proxy.ProxyConfig.CommandRateLimit;
+import google.registry.proxy.ProxyConfig.CommandRateLimit.CommandLimit;
+import google.registry.proxy.quota.EppCommandRateLimiter.Permit;
+import google.registry.testing.FakeClock;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.joda.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link EppCommandRateLimiter}. */
+class EppCommandRateLimiterTest {
+
+  private static final String CHECK =
+      """
+      <epp xmlns="urn:ietf:params:xml:ns:epp-1.0">
+        <command>
+          <check>
+            <domain:check xmlns:domain="urn:ietf:params:xml:ns:domain-1.0">
+              <domain:name>example.tld</domain:name>
+            </domain:check>
+          </check>
+          <clTRID>ABC-123</clTRID>
+        </command>
+      </epp>
+      """;
+
+  private final FakeClock clock = new FakeClock();
+  private final CommandRateLimit config = new CommandRateLimit();
+
+  private EppCommandRateLimiter rateLimiter;
+
+  private static CommandLimit makeLimit(
+      double tokensPerSecond, int burstTokens, String... commands) {
+    CommandLimit limit = new CommandLimit();
+    limit.commands = ImmutableList.copyOf(commands);
+    limit.tokensPerSecond = tokensPerSecond;
+    limit.burstTokens = burstTokens;
+    return limit;
+  }
+
+  private static ByteBuf toByteBuf(String message) {
+    return Unpooled.wrappedBuffer(message.getBytes(UTF_8));
+  }
+
+  @BeforeEach
+  void beforeEach() {
+    config.adaptive = true;
+    config.targetLatencyMillis = 1000;
+    config.minRateFraction = 0.1;
+    config.limits =
+        ImmutableList.of(
+            makeLimit(10, 2, "domain:check", "domain:create"), makeLimit(1, 1, "login"));
+    rateLimiter = new EppCommandRateLimiter(config, clock);
+  }
+
+  @Test
+  void testSuccess_getLimitedCommandClass() {
+    assertThat(rateLimiter.getLimitedCommandClass(toByteBuf(CHECK))).isEqualTo("domain:check");
+    assertThat(
+            rateLimiter.getLimitedCommandClass(
+                toByteBuf(CHECK.replace("check", "create").replace("domain:", "d:"))))
+        .isEqualTo("domain:create");
+    assertThat(
+            rateLimiter.getLimitedCommandClass(
+                toByteBuf(CHECK.replace("<command>", "<epp:command>"))))
+        .isEqualTo("domain:check");
+    assertThat(rateLimiter.getLimitedCommandClass(toByteBuf("<epp><command><login><clID>")))
+        .isEqualTo("login");
+  }
+
+  @Test
+  void testSuccess_getLimitedCommandClass_notLimited() {
+    assertThat(rateLimiter.getLimitedCommandClass(toByteBuf(CHECK.replace("check", "info"))))
+        .isNull();
+    assertThat(rateLimiter.getLimitedCommandClass(toByteBuf(CHECK.replace("domain-", "host-"))))
+        .isNull();
+    assertThat(rateLimiter.getLimitedCommandClass(toByteBuf("<epp><hello/></epp>"))).isNull();
+  }
+
+  @Test
+  void testSuccess_getLimitedCommandClass_doesNotConsumeMessage() {
+    ByteBuf message = toByteBuf(CHECK);
+    rateLimiter.getLimitedCommandClass(message);
+    assertThat(message.readerIndex()).isEqualTo(0);
+  }
+
+  @Test
+  void testSuccess_getLimitedCommandClass_disabled() {
+    config.limits = ImmutableList.of();
+    rateLimiter = new EppCommandRateLimiter(config, clock);
+    assertThat(rateLimiter.getLimitedCommandClass(toByteBuf(CHECK))).isNull();
+  }
+
+  @Test
+  void testSuccess_tryAcquire_burstThenRefill() {
+    assertThat(rateLimiter.tryAcquire("registrar", "domain:check")).isNotNull();
+    assertThat(rateLimiter.tryAcquire("registrar", "domain:check")).isNotNull();
+    assertThat(rateLimiter.tryAcquire("registrar", "domain:check")).isNull();
+
+    // 10 tokens per second, so one token is added every 100 ms.
+    clock.advanceBy(Duration.millis(50));
+    assertThat(rateLimiter.tryAcquire("registrar", "domain:check")).isNull();
+    clock.advanceBy(Duration.millis(50));
+    assertThat(rateLimiter.tryAcquire("registrar", "domain:check")).isNotNull();
+
+    // The bucket never holds more than the burst.
+    clock.advanceBy(Duration.standardHours(1));
+    assertThat(rateLimiter.tryAcquire("registrar", "domain:check")).isNotNull();
+    assertThat(rateLimiter.tryAcquire("registrar", "domain:check")).isNotNull();
+    assertThat(rateLimiter.tryAcquire("registrar", "domain:check")).isNull();
+  }
+
+  @Test
+  void testSuccess_tryAcquire_separateBuckets() {
+    assertThat(rateLimiter.tryAcquire("registrar", "login")).isNotNull();
+    assertThat(rateLimiter.tryAcquire("registrar", "login")).isNull();
+    // Other registrars and other command classes are not affected.
+    assertThat(rateLimiter.tryAcquire("otherRegistrar", "login")).isNotNull();
+    assertThat(rateLimiter.tryAcquire("registrar", "domain:check")).isNotNull();
+  }
+
+  @Test
+  void testSuccess_adaptiveRate() {
+    assertThat(rateLimiter.getTokensPerSecond("domain:check")).isEqualTo(10.0);
+
+    // Fast responses do not change the rate.
+    Permit permit = rateLimiter.tryAcquire("registrar", "domain:check");
+    clock.advanceBy(Duration.millis(500));
+    rateLimiter.release(permit);
+    assertThat(rateLimiter.getTokensPerSecond("domain:check")).isEqualTo(10.0);
+
+    // The average latency moves 20% of the way towards each new sample: 500 + 0.2 * 4500 = 1400.
+    permit = rateLimiter.tryAcquire("registrar", "domain:check");
+    clock.advanceBy(Duration.millis(5000));
+    rateLimiter.release(permit);
+    assertThat(rateLimiter.getTokensPerSecond("domain:check")).isWithin(1e-9).of(10000.0 / 1400);
+
+    // Other command classes keep their rate.
+    assertThat(rateLimiter.getTokensPerSecond("domain:create")).isEqualTo(10.0);
+  }
+
+  @Test
+  void testSuccess_adaptiveRate_floor() {
+    Permit permit = rateLimiter.tryAcquire("registrar", "domain:check");
+    clock.advanceBy(Duration.standardMinutes(10));
+    rateLimiter.release(permit);
+    assertThat(rateLimiter.getTokensPerSecond("domain:check")).isWithin(1e-9).of(1);
+  }
+
+  @Test
+  void testSuccess_notAdaptive() {
+    config.adaptive = false;
+    rateLimiter = new EppCommandRateLimiter(config, clock);
+    Permit permit = rateLimiter.tryAcquire("registrar", "domain:check");
+    clock.advanceBy(Duration.standardMinutes(10));
+    rateLimiter.release(permit);
+    assertThat(rateLimiter.getTokensPerSecond("domain:check")).isEqualTo(10.0);
+  }
+}
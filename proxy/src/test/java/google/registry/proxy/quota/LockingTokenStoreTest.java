@@ -0,0 +1,68 @@
+// Copyright 2017 The Nomulus Authors. All Rights Reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package google.registry.proxy.quota;
+
+import static google.registry.proxy.quota.QuotaConfig.SENTINEL_UNLIMITED_TOKENS;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import google.registry.proxy.quota.TokenStore.TimestampedInteger;
+import java.util.concurrent.TimeUnit;
+import org.joda.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/** Unit tests for {@link LockingTokenStore}. */
+class LockingTokenStoreTest extends TokenStoreTest<LockingTokenStore> {
+
+  @Override
+  LockingTokenStore createTokenStore() {
+    return new LockingTokenStore(quotaConfig, refreshExecutor, clock);
+  }
+
+  @Override
+  TimestampedInteger getTokenForTests(String userId) {
+    return tokenStore.getTokenForTests(userId);
+  }
+
+  @Test
+  void testSuccess_unlimitedQuota() {
+    when(quotaConfig.hasUnlimitedTokens(user)).thenReturn(true);
+    for (int i = 0; i < 10000; ++i) {
+      assertTake(1, SENTINEL_UNLIMITED_TOKENS, clock.nowUtc());
+    }
+    for (int i = 0; i < 10000; ++i) {
+      assertPut(clock.nowUtc(), SENTINEL_UNLIMITED_TOKENS, clock.nowUtc());
+    }
+  }
+
+  @Test
+  void testSuccess_scheduleRefresh() throws Exception {
+    when(quotaConfig.getRefreshPeriod()).thenReturn(Duration.standardSeconds(5));
+
+    tokenStore.scheduleRefresh();
+
+    // Verify that a task is scheduled.
+    ArgumentCaptor<Runnable> argument = ArgumentCaptor.forClass(Runnable.class);
+    verify(refreshExecutor)
+        .scheduleWithFixedDelay(
+            argument.capture(), eq((long) 5), eq((long) 5), eq(TimeUnit.SECONDS));
+
+    // Verify that the scheduled task calls TokenStore.refresh().
+    argument.getValue().run();
+    verify(tokenStore).refresh();
+  }
+}
@@ -47,6 +47,7 @@ class QuotaConfigTest {
   void testSuccess_regularConfig() {
     quotaConfig = loadQuotaConfig("quota_config_regular.yaml");
     assertThat(quotaConfig.getRefreshPeriod()).isEqualTo(Duration.standardHours(1));
+    assertThat(quotaConfig.getTokenStoreType()).isEqualTo(TokenStore.Type.ATOMIC);
     validateQuota("abc", 10, 60);
     validateQuota("987lol", 500, 10);
     validateQuota("no_match", 100, 60);
@@ -56,6 +57,7 @@ class QuotaConfigTest {
   void testSuccess_onlyDefault() {
     quotaConfig = loadQuotaConfig("quota_config_default.yaml");
     assertThat(quotaConfig.getRefreshPeriod()).isEqualTo(Duration.standardHours(1));
+    assertThat(quotaConfig.getTokenStoreType()).isEqualTo(TokenStore.Type.LOCKING);
     validateQuota("abc", 100, 60);
     validateQuota("987lol", 100, 60);
     validateQuota("no_match", 100, 60);
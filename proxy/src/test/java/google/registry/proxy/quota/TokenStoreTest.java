@@ -15,11 +15,8 @@
 package google.registry.proxy.quota;
 
 import static com.google.common.truth.Truth.assertThat;
-import static google.registry.proxy.quota.QuotaConfig.SENTINEL_UNLIMITED_TOKENS;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
-import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import google.registry.proxy.quota.TokenStore.TimestampedInteger;
@@ -30,48 +27,56 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import org.joda.time.DateTime;
 import org.joda.time.Duration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
 
-/** Unit tests for {@link TokenStore}. */
-class TokenStoreTest {
+/**
+ * Base class for unit tests of a {@link TokenStore} implementation.
+ *
+ * <p>The tests here cover the behavior that all token stores share. Subclasses provide the store
+ * to test, and add the tests that are specific to how it keeps and purges its entries.
+ */
+abstract class TokenStoreTest<T extends TokenStore> {
 
-  private final QuotaConfig quotaConfig = mock(QuotaConfig.class);
-  private final FakeClock clock = new FakeClock();
-  private final ScheduledExecutorService refreshExecutor = mock(ScheduledExecutorService.class);
-  private final TokenStore tokenStore = spy(new TokenStore(quotaConfig, refreshExecutor, clock));
-  private final String user = "theUser";
-  private final String otherUser = "theOtherUser";
+  final QuotaConfig quotaConfig = mock(QuotaConfig.class);
+  final FakeClock clock = new FakeClock();
+  final ScheduledExecutorService refreshExecutor = mock(ScheduledExecutorService.class);
+  final String user = "theUser";
+  final String otherUser = "theOtherUser";
 
-  private DateTime assertTake(int grantAmount, int amountLeft, DateTime timestamp) {
+  T tokenStore;
+
+  /** Creates the token store to test, from {@link #quotaConfig} as currently stubbed. */
+  abstract T createTokenStore();
+
+  /** Returns the tokens that {@link #tokenStore} holds for the user, if any. */
+  abstract TimestampedInteger getTokenForTests(String userId);
+
+  DateTime assertTake(int grantAmount, int amountLeft, DateTime timestamp) {
     return assertTake(user, grantAmount, amountLeft, timestamp);
   }
 
-  private DateTime assertTake(String user, int grantAmount, int amountLeft, DateTime timestamp) {
+  DateTime assertTake(String user, int grantAmount, int amountLeft, DateTime timestamp) {
     TimestampedInteger grantedToken = tokenStore.take(user);
     assertThat(grantedToken).isEqualTo(TimestampedInteger.create(grantAmount, timestamp));
-    assertThat(tokenStore.getTokenForTests(user))
-        .isEqualTo(TimestampedInteger.create(amountLeft, timestamp));
+    assertThat(getTokenForTests(user)).isEqualTo(TimestampedInteger.create(amountLeft, timestamp));
     return grantedToken.timestamp();
   }
 
-  private void assertPut(
-      DateTime returnedTokenRefillTime, int amountAfterReturn, DateTime refillTime) {
+  void assertPut(DateTime returnedTokenRefillTime, int amountAfterReturn, DateTime refillTime) {
     assertPut(user, returnedTokenRefillTime, amountAfterReturn, refillTime);
   }
 
-  private void assertPut(
+  void assertPut(
       String user, DateTime returnedTokenRefillTime, int amountAfterReturn, DateTime refillTime) {
     tokenStore.put(user, returnedTokenRefillTime);
-    assertThat(tokenStore.getTokenForTests(user))
+    assertThat(getTokenForTests(user))
         .isEqualTo(TimestampedInteger.create(amountAfterReturn, refillTime));
   }
 
-  private void submitAndWaitForTasks(ExecutorService executor, Runnable... tasks) {
+  static void submitAndWaitForTasks(ExecutorService executor, Runnable... tasks) {
     List<Future<?>> futures = new ArrayList<>();
     for (Runnable task : tasks) {
       futures.add(executor.submit(task));
@@ -93,6 +98,7 @@ class TokenStoreTest {
     when(quotaConfig.getTokenAmount(user)).thenReturn(3);
     when(quotaConfig.getRefillPeriod(otherUser)).thenReturn(Duration.standardSeconds(15));
     when(quotaConfig.getTokenAmount(otherUser)).thenReturn(5);
+    tokenStore = spy(createTokenStore());
   }
 
   @Test
@@ -117,7 +123,7 @@ class TokenStoreTest {
   @Test
   void testSuccess_put_entryDoesNotExist() {
     tokenStore.put(user, clock.nowUtc());
-    assertThat(tokenStore.getTokenForTests(user)).isNull();
+    assertThat(getTokenForTests(user)).isNull();
   }
 
   @Test
@@ -205,20 +211,13 @@ class TokenStoreTest {
 
     // Entry for user is 60s old, entry for otherUser is 55s old.
     tokenStore.refresh();
-    assertThat(tokenStore.getTokenForTests(user)).isNull();
-    assertThat(tokenStore.getTokenForTests(otherUser))
+    assertThat(getTokenForTests(user)).isNull();
+    assertThat(getTokenForTests(otherUser))
         .isEqualTo(TimestampedInteger.create(4, refillTime2));
-  }
-
-  @Test
-  void testSuccess_unlimitedQuota() {
-    when(quotaConfig.hasUnlimitedTokens(user)).thenReturn(true);
-    for (int i = 0; i < 10000; ++i) {
-      assertTake(1, SENTINEL_UNLIMITED_TOKENS, clock.nowUtc());
-    }
-    for (int i = 0; i < 10000; ++i) {
-      assertPut(clock.nowUtc(), SENTINEL_UNLIMITED_TOKENS, clock.nowUtc());
-    }
+  
+    clock.advanceBy(Duration.standardSeconds(5));
+    tokenStore.refresh();
+    assertThat(getTokenForTests(otherUser)).isNull();
   }
 
   @Test
@@ -235,11 +234,11 @@ class TokenStoreTest {
   @Test
   void testSuccess_noRefresh() {
     when(quotaConfig.getRefreshPeriod()).thenReturn(Duration.ZERO);
+    tokenStore = createTokenStore();
     DateTime refillTime = clock.nowUtc();
     assertTake(1, 2, refillTime);
     clock.advanceBy(Duration.standardDays(365));
-    assertThat(tokenStore.getTokenForTests(user))
-        .isEqualTo(TimestampedInteger.create(2, refillTime));
+    assertThat(getTokenForTests(user)).isEqualTo(TimestampedInteger.create(2, refillTime));
   }
 
   @Test
@@ -252,16 +251,16 @@ class TokenStoreTest {
         () -> tokenStore.take(otherUser),
         () -> tokenStore.take(user),
         () -> tokenStore.take(otherUser));
-    assertThat(tokenStore.getTokenForTests(user)).isEqualTo(TimestampedInteger.create(1, time1));
-    assertThat(tokenStore.getTokenForTests(otherUser))
+    assertThat(getTokenForTests(user)).isEqualTo(TimestampedInteger.create(1, time1));
+    assertThat(getTokenForTests(otherUser))
         .isEqualTo(TimestampedInteger.create(3, time1));
 
     // No refill.
     clock.advanceBy(Duration.standardSeconds(5));
     submitAndWaitForTasks(
         executor, () -> tokenStore.take(user), () -> tokenStore.put(otherUser, time1));
-    assertThat(tokenStore.getTokenForTests(user)).isEqualTo(TimestampedInteger.create(0, time1));
-    assertThat(tokenStore.getTokenForTests(otherUser))
+    assertThat(getTokenForTests(user)).isEqualTo(TimestampedInteger.create(0, time1));
+    assertThat(getTokenForTests(otherUser))
         .isEqualTo(TimestampedInteger.create(4, time1));
 
     // First user refill.
@@ -274,8 +273,8 @@ class TokenStoreTest {
           tokenStore.take(user);
         },
         () -> tokenStore.take(otherUser));
-    assertThat(tokenStore.getTokenForTests(user)).isEqualTo(TimestampedInteger.create(2, time2));
-    assertThat(tokenStore.getTokenForTests(otherUser))
+    assertThat(getTokenForTests(user)).isEqualTo(TimestampedInteger.create(2, time2));
+    assertThat(getTokenForTests(otherUser))
         .isEqualTo(TimestampedInteger.create(3, time1));
 
     // Second user refill.
@@ -288,25 +287,8 @@ class TokenStoreTest {
           tokenStore.put(otherUser, time1);
           tokenStore.take(otherUser);
         });
-    assertThat(tokenStore.getTokenForTests(user)).isEqualTo(TimestampedInteger.create(1, time2));
-    assertThat(tokenStore.getTokenForTests(otherUser))
+    assertThat(getTokenForTests(user)).isEqualTo(TimestampedInteger.create(1, time2));
+    assertThat(getTokenForTests(otherUser))
         .isEqualTo(TimestampedInteger.create(4, time3));
   }
-
-  @Test
-  void testSuccess_scheduleRefresh() throws Exception {
-    when(quotaConfig.getRefreshPeriod()).thenReturn(Duration.standardSeconds(5));
-
-    tokenStore.scheduleRefresh();
-
-    // Verify that a task is scheduled.
-    ArgumentCaptor<Runnable> argument = ArgumentCaptor.forClass(Runnable.class);
-    verify(refreshExecutor)
-        .scheduleWithFixedDelay(
-            argument.capture(), eq((long) 5), eq((long) 5), eq(TimeUnit.SECONDS));
-
-    // Verify that the scheduled task calls TokenStore.refresh().
-    argument.getValue().run();
-    verify(tokenStore).refresh();
-  }
 }